@@ -25,6 +25,7 @@ import com.amazonaws.services.ec2.AmazonEC2Client;
 import com.amazonaws.services.ec2.model.*;
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import com.netflix.raigad.configuration.IConfiguration;
 import com.netflix.raigad.identity.IMembership;
 import org.apache.commons.collections.CollectionUtils;
@@ -38,16 +39,26 @@ import java.util.*;
  * Class to query amazon ASG for its members to provide - Number of valid nodes
  * in the ASG - Number of zones - Methods for adding ACLs for the nodes
  */
+@Singleton
 public class AWSMembership implements IMembership {
     private static final Logger logger = LoggerFactory.getLogger(AWSMembership.class);
 
     private final IConfiguration config;
     private final ICredential provider;
+    private final AutoScalingGroupCache autoScalingGroupCache;
+    private volatile AmazonEC2 ec2Client;
+    private volatile AmazonAutoScaling autoScalingClient;
 
     @Inject
     public AWSMembership(IConfiguration config, ICredential provider) {
         this.config = config;
         this.provider = provider;
+        this.autoScalingGroupCache = new AutoScalingGroupCache(config, new AutoScalingGroupCache.Source() {
+            @Override
+            public List<AutoScalingGroup> describe(Collection<String> autoScalingGroupNames) {
+                return describeAutoScalingGroups(autoScalingGroupNames);
+            }
+        });
     }
 
     @Override
@@ -56,36 +67,23 @@ public class AWSMembership implements IMembership {
             return Collections.emptyMap();
         }
 
-        AmazonAutoScaling client = null;
-
-        try {
-            client = getAutoScalingClient();
-            DescribeAutoScalingGroupsRequest describeAutoScalingGroupsRequest =
-                    new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(autoScalingGroupNames);
-            DescribeAutoScalingGroupsResult describeAutoScalingGroupsResult = client.describeAutoScalingGroups(describeAutoScalingGroupsRequest);
-
-            Map<String, List<String>> asgs = new HashMap<>();
-            for (AutoScalingGroup autoScalingGroup : describeAutoScalingGroupsResult.getAutoScalingGroups()) {
-                List<String> asgInstanceIds = Lists.newArrayList();
-                for (Instance asgInstance : autoScalingGroup.getInstances()) {
-                    if (!(asgInstance.getLifecycleState().equalsIgnoreCase("terminating") ||
-                            asgInstance.getLifecycleState().equalsIgnoreCase("shutting-down") ||
-                            asgInstance.getLifecycleState().equalsIgnoreCase("terminated"))) {
-                        asgInstanceIds.add(asgInstance.getInstanceId());
-                    }
+        Map<String, List<String>> asgs = new HashMap<>();
+        for (AutoScalingGroup autoScalingGroup : autoScalingGroupCache.get(autoScalingGroupNames).values()) {
+            List<String> asgInstanceIds = Lists.newArrayList();
+            for (Instance asgInstance : autoScalingGroup.getInstances()) {
+                if (!(asgInstance.getLifecycleState().equalsIgnoreCase("terminating") ||
+                        asgInstance.getLifecycleState().equalsIgnoreCase("shutting-down") ||
+                        asgInstance.getLifecycleState().equalsIgnoreCase("terminated"))) {
+                    asgInstanceIds.add(asgInstance.getInstanceId());
                 }
-                asgs.put(autoScalingGroup.getAutoScalingGroupName(), asgInstanceIds);
-                logger.info("AWS returned the following instance ID's for {} ASG: {}",
-                        autoScalingGroup.getAutoScalingGroupName(),
-                        StringUtils.join(asgInstanceIds, ","));
-            }
-
-            return asgs;
-        } finally {
-            if (client != null) {
-                client.shutdown();
             }
+            asgs.put(autoScalingGroup.getAutoScalingGroupName(), asgInstanceIds);
+            logger.info("AWS returned the following instance ID's for {} ASG: {}",
+                    autoScalingGroup.getAutoScalingGroupName(),
+                    StringUtils.join(asgInstanceIds, ","));
         }
+
+        return asgs;
     }
 
     /**
@@ -93,26 +91,14 @@ public class AWSMembership implements IMembership {
      */
     @Override
     public int getRacMembershipSize() {
-        AmazonAutoScaling client = null;
-
-        try {
-            client = getAutoScalingClient();
-            DescribeAutoScalingGroupsRequest asgReq = new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(config.getASGName());
-            DescribeAutoScalingGroupsResult res = client.describeAutoScalingGroups(asgReq);
-
-            int size = 0;
-            for (AutoScalingGroup asg : res.getAutoScalingGroups()) {
-                size += asg.getMaxSize();
-            }
+        int size = 0;
+        for (AutoScalingGroup asg : autoScalingGroupCache.get(Collections.singletonList(config.getASGName())).values()) {
+            size += asg.getMaxSize();
+        }
 
-            logger.info(String.format("Query on ASG returning %d instances", size));
+        logger.info(String.format("Query on ASG returning %d instances", size));
 
-            return size;
-        } finally {
-            if (client != null) {
-                client.shutdown();
-            }
-        }
+        return size;
     }
 
     @Override
@@ -121,68 +107,50 @@ public class AWSMembership implements IMembership {
     }
 
     /**
-     * Adds a list of IP's to the SG
+     * Adds a list of IP's to the SG, in batches of at most getACLMaxRangesPerRequest() ranges
      */
     public void addACL(Collection<String> listIPs, int from, int to) {
-        AmazonEC2 client = null;
+        AmazonEC2 client = getSharedEc2Client();
 
-        try {
-            client = getEc2Client();
+        for (List<String> batch : Lists.partition(new ArrayList<String>(listIPs), Math.max(1, config.getACLMaxRangesPerRequest()))) {
             List<IpPermission> ipPermissions = new ArrayList<IpPermission>();
-            ipPermissions.add(new IpPermission().withFromPort(from).withIpProtocol("tcp").withIpRanges(listIPs).withToPort(to));
+            ipPermissions.add(new IpPermission().withFromPort(from).withIpProtocol("tcp").withIpRanges(batch).withToPort(to));
 
             if (config.isDeployedInVPC()) {
-                if (config.getACLGroupIdForVPC().isEmpty()) {
-                    throw new RuntimeException("ACLGroupIdForVPC cannot be empty, check if SetVPCSecurityGroupID had any errors");
-                }
-
                 client.authorizeSecurityGroupIngress(
                         new AuthorizeSecurityGroupIngressRequest()
-                                .withGroupId(config.getACLGroupIdForVPC())
+                                .withGroupId(getACLGroupIdForVPC())
                                 .withIpPermissions(ipPermissions));
             } else {
                 client.authorizeSecurityGroupIngress(
                         new AuthorizeSecurityGroupIngressRequest(config.getACLGroupName(), ipPermissions));
             }
 
-            logger.info("Added " + StringUtils.join(listIPs, ",") + " to ACL");
-        } finally {
-            if (client != null) {
-                client.shutdown();
-            }
+            logger.info("Added " + StringUtils.join(batch, ",") + " to ACL");
         }
     }
 
     /**
-     * Removes a list of IP's from the SG
+     * Removes a list of IP's from the SG, in batches of at most getACLMaxRangesPerRequest() ranges
      */
     public void removeACL(Collection<String> listIPs, int from, int to) {
-        AmazonEC2 client = null;
+        AmazonEC2 client = getSharedEc2Client();
 
-        try {
-            client = getEc2Client();
+        for (List<String> batch : Lists.partition(new ArrayList<String>(listIPs), Math.max(1, config.getACLMaxRangesPerRequest()))) {
             List<IpPermission> ipPermissions = new ArrayList<IpPermission>();
-            ipPermissions.add(new IpPermission().withFromPort(from).withIpProtocol("tcp").withIpRanges(listIPs).withToPort(to));
+            ipPermissions.add(new IpPermission().withFromPort(from).withIpProtocol("tcp").withIpRanges(batch).withToPort(to));
 
             if (config.isDeployedInVPC()) {
-                if (config.getACLGroupIdForVPC().isEmpty()) {
-                    throw new RuntimeException("ACLGroupIdForVPC cannot be empty, check if SetVPCSecurityGroupID had any errors");
-                }
-
                 client.revokeSecurityGroupIngress(
                         new RevokeSecurityGroupIngressRequest()
-                                .withGroupId(config.getACLGroupIdForVPC())
+                                .withGroupId(getACLGroupIdForVPC())
                                 .withIpPermissions(ipPermissions));
             } else {
                 client.revokeSecurityGroupIngress(
                         new RevokeSecurityGroupIngressRequest(config.getACLGroupName(), ipPermissions));
             }
 
-            logger.info("Removed " + StringUtils.join(listIPs, ",") + " from ACL");
-        } finally {
-            if (client != null) {
-                client.shutdown();
-            }
+            logger.info("Removed " + StringUtils.join(batch, ",") + " from ACL");
         }
     }
 
@@ -190,106 +158,96 @@ public class AWSMembership implements IMembership {
      * List SG ACL's
      */
     public List<String> listACL(int from, int to) {
-        AmazonEC2 client = null;
+        List<String> ipPermissions = new ArrayList<String>();
 
-        try {
-            client = getEc2Client();
-            List<String> ipPermissions = new ArrayList<String>();
-            DescribeSecurityGroupsResult result;
-
-            if (config.isDeployedInVPC()) {
-                if (config.getACLGroupIdForVPC().isEmpty()) {
-                    throw new RuntimeException("ACLGroupIdForVPC cannot be empty, check if SetVPCSecurityGroupID had any errors");
-                }
-                DescribeSecurityGroupsRequest describeSecurityGroupsRequest =
-                        new DescribeSecurityGroupsRequest().withGroupIds(config.getACLGroupIdForVPC());
-                result = client.describeSecurityGroups(describeSecurityGroupsRequest);
-            } else {
-                DescribeSecurityGroupsRequest describeSecurityGroupsRequest =
-                        new DescribeSecurityGroupsRequest().withGroupNames(Arrays.asList(config.getACLGroupName()));
-                result = client.describeSecurityGroups(describeSecurityGroupsRequest);
-            }
-
-            for (SecurityGroup group : result.getSecurityGroups()) {
-                for (IpPermission perm : group.getIpPermissions()) {
-                    if (perm.getFromPort() == from && perm.getToPort() == to) {
-                        ipPermissions.addAll(perm.getIpRanges());
-                    }
+        for (SecurityGroup group : describeACLGroup().getSecurityGroups()) {
+            for (IpPermission perm : group.getIpPermissions()) {
+                if (perm.getFromPort() == from && perm.getToPort() == to) {
+                    ipPermissions.addAll(perm.getIpRanges());
                 }
             }
-
-            return ipPermissions;
-        } finally {
-            if (client != null) {
-                client.shutdown();
-            }
         }
+
+        return ipPermissions;
     }
 
     public Map<String, List<Integer>> getACLPortMap(String acl) {
-        AmazonEC2 client = null;
         Map<String, List<Integer>> aclPortMap = new HashMap<String, List<Integer>>();
 
-        try {
-            client = getEc2Client();
-            DescribeSecurityGroupsResult result;
-
-            if (config.isDeployedInVPC()) {
-                if (config.getACLGroupIdForVPC().isEmpty()) {
-                    throw new RuntimeException("ACLGroupIdForVPC cannot be empty, check if SetVPCSecurityGroupID had any errors");
-                }
-                DescribeSecurityGroupsRequest describeSecurityGroupsRequest =
-                        new DescribeSecurityGroupsRequest().withGroupIds(config.getACLGroupIdForVPC());
-                result = client.describeSecurityGroups(describeSecurityGroupsRequest);
-            } else {
-                DescribeSecurityGroupsRequest describeSecurityGroupsRequest =
-                        new DescribeSecurityGroupsRequest().withGroupNames(Arrays.asList(config.getACLGroupName()));
-                result = client.describeSecurityGroups(describeSecurityGroupsRequest);
-            }
-
-            for (SecurityGroup group : result.getSecurityGroups()) {
-                for (IpPermission perm : group.getIpPermissions()) {
-                    for (String ipRange : perm.getIpRanges()) {
-                        // If given ACL matches from the list of IP ranges then look for "from" and "to" ports
-                        if (acl.equalsIgnoreCase(ipRange)) {
-                            List<Integer> fromToList = new ArrayList<Integer>();
-                            fromToList.add(perm.getFromPort());
-                            fromToList.add(perm.getToPort());
-                            logger.info("ACL: {}, from: {}, to: {}", acl, perm.getFromPort(), perm.getToPort());
-                            aclPortMap.put(acl, fromToList);
-                        }
+        for (SecurityGroup group : describeACLGroup().getSecurityGroups()) {
+            for (IpPermission perm : group.getIpPermissions()) {
+                for (String ipRange : perm.getIpRanges()) {
+                    // If given ACL matches from the list of IP ranges then look for "from" and "to" ports
+                    if (acl.equalsIgnoreCase(ipRange)) {
+                        List<Integer> fromToList = new ArrayList<Integer>();
+                        fromToList.add(perm.getFromPort());
+                        fromToList.add(perm.getToPort());
+                        logger.info("ACL: {}, from: {}, to: {}", acl, perm.getFromPort(), perm.getToPort());
+                        aclPortMap.put(acl, fromToList);
                     }
                 }
             }
+        }
 
-            return aclPortMap;
-        } finally {
-            if (client != null) {
-                client.shutdown();
-            }
+        return aclPortMap;
+    }
+
+    private DescribeSecurityGroupsResult describeACLGroup() {
+        AmazonEC2 client = getSharedEc2Client();
+
+        if (config.isDeployedInVPC()) {
+            DescribeSecurityGroupsRequest describeSecurityGroupsRequest =
+                    new DescribeSecurityGroupsRequest().withGroupIds(getACLGroupIdForVPC());
+            return client.describeSecurityGroups(describeSecurityGroupsRequest);
         }
+
+        DescribeSecurityGroupsRequest describeSecurityGroupsRequest =
+                new DescribeSecurityGroupsRequest().withGroupNames(Arrays.asList(config.getACLGroupName()));
+        return client.describeSecurityGroups(describeSecurityGroupsRequest);
+    }
+
+    private String getACLGroupIdForVPC() {
+        if (config.getACLGroupIdForVPC().isEmpty()) {
+            throw new RuntimeException("ACLGroupIdForVPC cannot be empty, check if SetVPCSecurityGroupID had any errors");
+        }
+        return config.getACLGroupIdForVPC();
     }
 
     @Override
     public void expandRacMembership(int count) {
-        AmazonAutoScaling client = null;
+        // Sizes are read right before being updated, never from cache
+        autoScalingGroupCache.invalidate(config.getASGName());
 
         try {
-            client = getAutoScalingClient();
-            DescribeAutoScalingGroupsRequest asgReq = new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(config.getASGName());
-            DescribeAutoScalingGroupsResult res = client.describeAutoScalingGroups(asgReq);
-            AutoScalingGroup asg = res.getAutoScalingGroups().get(0);
+            AutoScalingGroup asg = autoScalingGroupCache.get(Collections.singletonList(config.getASGName())).get(config.getASGName());
             UpdateAutoScalingGroupRequest ureq = new UpdateAutoScalingGroupRequest();
             ureq.setAutoScalingGroupName(asg.getAutoScalingGroupName());
             ureq.setMinSize(asg.getMinSize() + 1);
             ureq.setMaxSize(asg.getMinSize() + 1);
             ureq.setDesiredCapacity(asg.getMinSize() + 1);
-            client.updateAutoScalingGroup(ureq);
+            getSharedAutoScalingClient().updateAutoScalingGroup(ureq);
         } finally {
-            if (client != null) {
-                client.shutdown();
+            autoScalingGroupCache.invalidate(config.getASGName());
+        }
+    }
+
+    private List<AutoScalingGroup> describeAutoScalingGroups(Collection<String> autoScalingGroupNames) {
+        DescribeAutoScalingGroupsRequest describeAutoScalingGroupsRequest =
+                new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(autoScalingGroupNames);
+        return getSharedAutoScalingClient().describeAutoScalingGroups(describeAutoScalingGroupsRequest).getAutoScalingGroups();
+    }
+
+    private AmazonAutoScaling getSharedAutoScalingClient() {
+        AmazonAutoScaling client = autoScalingClient;
+        if (client == null) {
+            synchronized (this) {
+                if (autoScalingClient == null) {
+                    autoScalingClient = getAutoScalingClient();
+                }
+                client = autoScalingClient;
             }
         }
+        return client;
     }
 
     protected AmazonAutoScaling getAutoScalingClient() {
@@ -298,6 +256,22 @@ public class AWSMembership implements IMembership {
         return client;
     }
 
+    /**
+     * AWS clients are thread safe and hold a connection pool, so calls share a single instance per service
+     */
+    private AmazonEC2 getSharedEc2Client() {
+        AmazonEC2 client = ec2Client;
+        if (client == null) {
+            synchronized (this) {
+                if (ec2Client == null) {
+                    ec2Client = getEc2Client();
+                }
+                client = ec2Client;
+            }
+        }
+        return client;
+    }
+
     protected AmazonEC2 getEc2Client() {
         AmazonEC2 client = new AmazonEC2Client(provider.getAwsCredentialProvider());
         client.setEndpoint("ec2." + config.getDC() + ".amazonaws.com");
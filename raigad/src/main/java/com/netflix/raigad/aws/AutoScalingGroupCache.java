@@ -0,0 +1,172 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.aws;
+
+import com.amazonaws.services.autoscaling.model.AutoScalingGroup;
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.IConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches auto scaling group descriptions for a short time and coalesces concurrent lookups.
+ * <p>
+ * A group that is not cached and not being described yet is described by the calling thread; callers
+ * asking for a group that is already being described wait for that call instead of issuing their own.
+ * Failed descriptions are not cached.
+ */
+public class AutoScalingGroupCache {
+    /**
+     * Backend describing auto scaling groups (the AWS autoscaling API, or a fake in tests)
+     */
+    public interface Source {
+        List<AutoScalingGroup> describe(Collection<String> autoScalingGroupNames);
+    }
+
+    private final IConfiguration config;
+    private final Source source;
+    private final Ticker ticker;
+    private final Map<String, CachedGroup> cache = new HashMap<>();
+    private final Map<String, Future<Map<String, AutoScalingGroup>>> inFlight = new HashMap<>();
+
+    public AutoScalingGroupCache(IConfiguration config, Source source) {
+        this(config, source, Ticker.systemTicker());
+    }
+
+    AutoScalingGroupCache(IConfiguration config, Source source, Ticker ticker) {
+        this.config = config;
+        this.source = source;
+        this.ticker = ticker;
+    }
+
+    /**
+     * @return groups by name; groups that do not exist are left out
+     */
+    public Map<String, AutoScalingGroup> get(Collection<String> autoScalingGroupNames) {
+        Map<String, AutoScalingGroup> groups = new LinkedHashMap<>();
+        Map<String, Future<Map<String, AutoScalingGroup>>> pending = new LinkedHashMap<>();
+        FutureTask<Map<String, AutoScalingGroup>> describeTask = null;
+
+        synchronized (this) {
+            long now = ticker.read();
+            final List<String> toDescribe = new ArrayList<>();
+
+            for (String name : new LinkedHashSet<>(autoScalingGroupNames)) {
+                CachedGroup cachedGroup = cache.get(name);
+                if (cachedGroup != null && now - cachedGroup.loadedAtNanos <= TimeUnit.SECONDS.toNanos(config.getAutoScalingGroupCacheTtlInSeconds())) {
+                    if (cachedGroup.group != null) {
+                        groups.put(name, cachedGroup.group);
+                    }
+                } else if (inFlight.containsKey(name)) {
+                    pending.put(name, inFlight.get(name));
+                } else {
+                    toDescribe.add(name);
+                }
+            }
+
+            if (!toDescribe.isEmpty()) {
+                describeTask = new FutureTask<>(new Callable<Map<String, AutoScalingGroup>>() {
+                    @Override
+                    public Map<String, AutoScalingGroup> call() throws Exception {
+                        return describe(toDescribe);
+                    }
+                });
+
+                for (String name : toDescribe) {
+                    inFlight.put(name, describeTask);
+                    pending.put(name, describeTask);
+                }
+            }
+        }
+
+        if (describeTask != null) {
+            describeTask.run();
+        }
+
+        for (Map.Entry<String, Future<Map<String, AutoScalingGroup>>> entry : pending.entrySet()) {
+            AutoScalingGroup group = await(entry.getValue()).get(entry.getKey());
+            if (group != null) {
+                groups.put(entry.getKey(), group);
+            }
+        }
+
+        return groups;
+    }
+
+    public synchronized void invalidate(String autoScalingGroupName) {
+        cache.remove(autoScalingGroupName);
+    }
+
+    private Map<String, AutoScalingGroup> describe(List<String> names) {
+        Map<String, AutoScalingGroup> described = new HashMap<>();
+        try {
+            for (AutoScalingGroup group : source.describe(names)) {
+                described.put(group.getAutoScalingGroupName(), group);
+            }
+
+            synchronized (this) {
+                long now = ticker.read();
+                for (String name : names) {
+                    // Missing groups are cached too, so lookups of a deleted group do not hit the API every time
+                    cache.put(name, new CachedGroup(described.get(name), now));
+                }
+            }
+
+            return described;
+        } finally {
+            synchronized (this) {
+                for (String name : names) {
+                    inFlight.remove(name);
+                }
+            }
+        }
+    }
+
+    private static Map<String, AutoScalingGroup> await(Future<Map<String, AutoScalingGroup>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for auto scaling groups", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static class CachedGroup {
+        private final AutoScalingGroup group;
+        private final long loadedAtNanos;
+
+        private CachedGroup(AutoScalingGroup group, long loadedAtNanos) {
+            this.group = group;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.aws;
+
+import com.amazonaws.AmazonServiceException;
+import com.google.common.base.Ticker;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.identity.IMembership;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciles the IP ranges authorized on a security group port with the desired set of ranges.
+ * <p>
+ * The ranges authorized per port are cached between runs (for a configurable TTL) and kept up to date
+ * with the changes made here, so a steady-state run does not describe the security group at all.
+ * Any failure drops the cached state, so the next run starts from what AWS reports. If AWS rejects a change
+ * because a range is already authorized or already gone (the cache was out of date, e.g. another node changed
+ * the group), the ranges are listed again and only the remaining difference is applied, once.
+ */
+@Singleton
+public class SecurityGroupAclReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(SecurityGroupAclReconciler.class);
+
+    static final String DUPLICATE_PERMISSION = "InvalidPermission.Duplicate";
+    static final String PERMISSION_NOT_FOUND = "InvalidPermission.NotFound";
+
+    private final IConfiguration config;
+    private final IMembership membership;
+    private final Ticker ticker;
+    private final Map<Integer, CachedAcl> cachedAcls = new HashMap<>();
+
+    @Inject
+    public SecurityGroupAclReconciler(IConfiguration config, IMembership membership) {
+        this(config, membership, Ticker.systemTicker());
+    }
+
+    SecurityGroupAclReconciler(IConfiguration config, IMembership membership, Ticker ticker) {
+        this.config = config;
+        this.membership = membership;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Authorizes every range of {@code authorize} that is missing on the port and revokes every
+     * authorized range that is not in {@code keep}
+     *
+     * @param keep ranges allowed to stay authorized, null to skip revoking (e.g. membership is incomplete)
+     * @return what was changed, the difference found after listing again if the cached ranges were out of date
+     */
+    public synchronized AclDiff reconcile(int port, Collection<String> authorize, Collection<String> keep) {
+        AclDiff diff = diff(getAcls(port), authorize, keep);
+
+        try {
+            apply(port, diff);
+        } catch (AmazonServiceException e) {
+            cachedAcls.remove(port);
+            if (!isOutOfDate(e)) {
+                throw e;
+            }
+
+            logger.info("ACL entries cached for port {} are out of date ({}), listing them again", port, e.getErrorCode());
+            diff = diff(getAcls(port), authorize, keep);
+            apply(port, diff);
+        }
+
+        return diff;
+    }
+
+    private void apply(int port, AclDiff diff) {
+        Set<String> current = getAcls(port);
+
+        try {
+            if (!diff.getToAdd().isEmpty()) {
+                membership.addACL(diff.getToAdd(), port, port);
+                current.addAll(diff.getToAdd());
+            }
+
+            if (!diff.getToRemove().isEmpty()) {
+                membership.removeACL(diff.getToRemove(), port, port);
+                current.removeAll(diff.getToRemove());
+            }
+        } catch (RuntimeException e) {
+            cachedAcls.remove(port);
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if AWS rejected the change because a range was already authorized or already revoked
+     */
+    static boolean isOutOfDate(AmazonServiceException e) {
+        return DUPLICATE_PERMISSION.equals(e.getErrorCode()) || PERMISSION_NOT_FOUND.equals(e.getErrorCode());
+    }
+
+    static AclDiff diff(Set<String> current, Collection<String> authorize, Collection<String> keep) {
+        Set<String> toAdd = new HashSet<>(authorize);
+        toAdd.removeAll(current);
+
+        Set<String> toRemove = new HashSet<>();
+        if (keep != null) {
+            Set<String> keepSet = new HashSet<>(keep);
+            for (String acl : current) {
+                if (!keepSet.contains(acl)) {
+                    toRemove.add(acl);
+                }
+            }
+        }
+
+        return new AclDiff(toAdd, toRemove);
+    }
+
+    /**
+     * @return ranges authorized on the port, served from cache while it is fresh
+     */
+    private Set<String> getAcls(int port) {
+        CachedAcl cachedAcl = cachedAcls.get(port);
+        long now = ticker.read();
+
+        if (cachedAcl == null || now - cachedAcl.loadedAtNanos > TimeUnit.SECONDS.toNanos(config.getACLCacheTtlInSeconds())) {
+            cachedAcl = new CachedAcl(new HashSet<>(membership.listACL(port, port)), now);
+            cachedAcls.put(port, cachedAcl);
+            logger.info("Loaded {} ACL entries for port {}", cachedAcl.ranges.size(), port);
+        }
+
+        return cachedAcl.ranges;
+    }
+
+    public synchronized void invalidate() {
+        cachedAcls.clear();
+    }
+
+    public static class AclDiff {
+        private final Set<String> toAdd;
+        private final Set<String> toRemove;
+
+        AclDiff(Set<String> toAdd, Set<String> toRemove) {
+            this.toAdd = Collections.unmodifiableSet(toAdd);
+            this.toRemove = Collections.unmodifiableSet(toRemove);
+        }
+
+        public Set<String> getToAdd() {
+            return toAdd;
+        }
+
+        public Set<String> getToRemove() {
+            return toRemove;
+        }
+
+        public boolean isEmpty() {
+            return toAdd.isEmpty() && toRemove.isEmpty();
+        }
+    }
+
+    private static class CachedAcl {
+        private final Set<String> ranges;
+        private final long loadedAtNanos;
+
+        private CachedAcl(Set<String> ranges, long loadedAtNanos) {
+            this.ranges = ranges;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
@@ -15,12 +15,10 @@
  */
 package com.netflix.raigad.aws;
 
-import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.netflix.raigad.configuration.IConfiguration;
-import com.netflix.raigad.identity.IMembership;
-import com.netflix.raigad.identity.IRaigadInstanceFactory;
+import com.netflix.raigad.identity.ClusterMembershipFetcher;
 import com.netflix.raigad.identity.InstanceManager;
 import com.netflix.raigad.identity.RaigadInstance;
 import com.netflix.raigad.scheduler.SimpleTimer;
@@ -32,8 +30,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * This class will associate public IP's with a new instance so they can talk across the regions.
@@ -56,15 +56,16 @@ public class UpdateSecuritySettings extends Task {
     public static boolean firstTimeUpdated = false;
     private static final Random RANDOM = new Random();
 
-    private final IMembership membership;
-    private final IRaigadInstanceFactory factory;
+    private final SecurityGroupAclReconciler aclReconciler;
+    private final ClusterMembershipFetcher membershipFetcher;
 
 
     @Inject
-    public UpdateSecuritySettings(IConfiguration config, IMembership membership, IRaigadInstanceFactory factory) {
+    public UpdateSecuritySettings(IConfiguration config, SecurityGroupAclReconciler aclReconciler,
+                                  ClusterMembershipFetcher membershipFetcher) {
         super(config);
-        this.membership = membership;
-        this.factory = factory;
+        this.aclReconciler = aclReconciler;
+        this.membershipFetcher = membershipFetcher;
     }
 
     /**
@@ -73,64 +74,51 @@ public class UpdateSecuritySettings extends Task {
     @Override
     public void execute() {
         int port = config.getTransportTcpPort();
-        List<String> acls = membership.listACL(port, port);
 
         // Get instances based on node types (tribe / non-tribe)
-        List<RaigadInstance> instances = getInstanceList();
-
-        // Iterate cluster nodes and build a list of IP's
-        List<String> ipsToAdd = Lists.newArrayList();
-        List<String> currentRanges = Lists.newArrayList();
-        for (RaigadInstance instance : instances) {
-            String range = instance.getHostIP() + "/32";
-            currentRanges.add(range);
-            if (!acls.contains(range)) {
-                ipsToAdd.add(range);
-            }
-        }
+        ClusterMembershipFetcher.MembershipResult membershipResult = getInstanceList();
 
-        if (ipsToAdd.size() > 0) {
-            membership.addACL(ipsToAdd, port, port);
-            firstTimeUpdated = true;
+        // Iterate cluster nodes and build a set of IP's
+        Set<String> currentRanges = new HashSet<String>();
+        for (RaigadInstance instance : membershipResult.getInstances()) {
+            currentRanges.add(instance.getHostIP() + "/32");
         }
 
-        // Create a list of IP's to remove
-        List<String> ipsToRemove = Lists.newArrayList();
-        for (String acl : acls) {
-            // Remove if not found
-            if (!currentRanges.contains(acl)) {
-                ipsToRemove.add(acl);
-            }
+        // Members of clusters that could not be fetched would otherwise lose access
+        if (!membershipResult.isComplete()) {
+            logger.warn("Not removing ACL entries, members of clusters {} are not available",
+                    membershipResult.getMissingClusters());
         }
 
-        if (ipsToRemove.size() > 0) {
-            membership.removeACL(ipsToRemove, port, port);
+        SecurityGroupAclReconciler.AclDiff aclDiff = aclReconciler.reconcile(
+                port, currentRanges, membershipResult.isComplete() ? currentRanges : null);
+
+        if (!aclDiff.isEmpty()) {
             firstTimeUpdated = true;
         }
     }
 
-    private List<RaigadInstance> getInstanceList() {
-        List<RaigadInstance> instances = new ArrayList<RaigadInstance>();
+    private ClusterMembershipFetcher.MembershipResult getInstanceList() {
+        List<String> clusters = new ArrayList<String>();
 
         if (config.amISourceClusterForTribeNode()) {
             List<String> tribeClusters = new ArrayList<String>(Arrays.asList(StringUtils.split(config.getCommaSeparatedTribeClusterNames(), ",")));
             assert (tribeClusters.size() != 0) : "I am a source cluster but I need one or more tribe clusters";
-
-            for (String tribeClusterName : tribeClusters) {
-                instances.addAll(factory.getAllIds(tribeClusterName));
-            }
+            clusters.addAll(tribeClusters);
         }
 
         // Adding the current cluster
-        instances.addAll(factory.getAllIds(config.getAppName()));
+        clusters.add(config.getAppName());
+
+        ClusterMembershipFetcher.MembershipResult membershipResult = membershipFetcher.fetch(clusters);
 
         if (config.isDebugEnabled()) {
-            for (RaigadInstance instance : instances) {
+            for (RaigadInstance instance : membershipResult.getInstances()) {
                 logger.debug(instance.toString());
             }
         }
 
-        return instances;
+        return membershipResult;
     }
 
     public static TaskTimer getTimer(InstanceManager instanceManager) {
@@ -19,8 +19,7 @@ package com.netflix.raigad.aws;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.netflix.raigad.configuration.IConfiguration;
-import com.netflix.raigad.identity.IMembership;
-import com.netflix.raigad.identity.IRaigadInstanceFactory;
+import com.netflix.raigad.identity.ClusterMembershipFetcher;
 import com.netflix.raigad.identity.InstanceManager;
 import com.netflix.raigad.identity.RaigadInstance;
 import com.netflix.raigad.scheduler.SimpleTimer;
@@ -55,8 +54,8 @@ public class UpdateTribeSecuritySettings extends Task {
     private static final String PARAM_SEPARATOR = "=";
 
     private static final Random ran = new Random();
-    private final IMembership membership;
-    private final IRaigadInstanceFactory factory;
+    private final SecurityGroupAclReconciler aclReconciler;
+    private final ClusterMembershipFetcher membershipFetcher;
 
     /**
      * clusterPortMap
@@ -67,10 +66,11 @@ public class UpdateTribeSecuritySettings extends Task {
     private final Map<String, Integer> clusterPortMap = new HashMap<String, Integer>();
 
     @Inject
-    public UpdateTribeSecuritySettings(IConfiguration config, IMembership membership, IRaigadInstanceFactory factory) {
+    public UpdateTribeSecuritySettings(IConfiguration config, SecurityGroupAclReconciler aclReconciler,
+                                       ClusterMembershipFetcher membershipFetcher) {
         super(config);
-        this.membership = membership;
-        this.factory = factory;
+        this.aclReconciler = aclReconciler;
+        this.membershipFetcher = membershipFetcher;
     }
 
     /**
@@ -82,58 +82,41 @@ public class UpdateTribeSecuritySettings extends Task {
         // Initializing cluster-port map from config properties
         initializeClusterPortMap();
 
-        List<String> acls = new ArrayList<>();
-        for (String clusterName : clusterPortMap.keySet()) {
-            List<String> aclList = membership.listACL(clusterPortMap.get(clusterName), clusterPortMap.get(clusterName));
-            acls.addAll(aclList);
-        }
-
-        List<RaigadInstance> instances = getInstanceList();
-        Map<String, String> addAclClusterMap = new HashMap<>();
-        Map<String, String> currentIpClusterMap = new HashMap<>();
+        ClusterMembershipFetcher.MembershipResult membershipResult = membershipFetcher.fetch(clusterPortMap.keySet());
 
-        for (RaigadInstance instance : instances) {
+        /**
+         * clusterRangesMap
+         * es_tribe : 50.60.70.80/32,50.60.70.81/32
+         * es_tribe_source1 : 60.70.80.90/32,60.70.80.91/32
+         */
+        Map<String, Set<String>> clusterRangesMap = new HashMap<>();
+        Set<String> currentRanges = new HashSet<>();
+        for (RaigadInstance instance : membershipResult.getInstances()) {
             String range = instance.getHostIP() + "/32";
-            if (!acls.contains(range)) {
-                addAclClusterMap.put(range, instance.getApp());
+            Set<String> clusterRanges = clusterRangesMap.get(instance.getApp());
+            if (clusterRanges == null) {
+                clusterRangesMap.put(instance.getApp(), clusterRanges = new HashSet<>());
             }
-
-            // Just generating ranges
-            currentIpClusterMap.put(range, instance.getApp());
+            clusterRanges.add(range);
+            currentRanges.add(range);
         }
 
-        if (addAclClusterMap.keySet().size() > 0) {
-            /**
-             * clusterInstancesMap
-             * es_tribe : 50.60.70.80,50.60.70.81
-             * es_tribe_source1 : 60.70.80.90,60.70.80.91
-             * es_tribe_source2 : 70.80.90.00,70.80.90.01
-             */
-            Map<String, List<String>> clusterInstancesMap = generateClusterToAclListMap(addAclClusterMap);
-
-            for (String clusterName : clusterInstancesMap.keySet()) {
-                membership.addACL(clusterInstancesMap.get(clusterName), clusterPortMap.get(clusterName), clusterPortMap.get(clusterName));
-            }
-
-            firstTimeUpdated = true;
+        // Members of clusters that could not be fetched would otherwise lose access
+        if (!membershipResult.isComplete()) {
+            logger.warn("Not removing ACL entries, members of clusters {} are not available",
+                    membershipResult.getMissingClusters());
         }
 
-        // Iterating to remove ACL's
-        List<String> removeAclList = new ArrayList<>();
-        for (String acl : acls) {
-            if (!currentIpClusterMap.containsKey(acl)) {
-                removeAclList.add(acl);
-            }
-        }
+        // Each cluster's nodes are authorized on that cluster's transport port, any known node may stay on any port
+        for (Map.Entry<String, Integer> clusterPort : clusterPortMap.entrySet()) {
+            Set<String> clusterRanges = clusterRangesMap.get(clusterPort.getKey());
+            SecurityGroupAclReconciler.AclDiff aclDiff = aclReconciler.reconcile(clusterPort.getValue(),
+                    clusterRanges == null ? Collections.<String>emptySet() : clusterRanges,
+                    membershipResult.isComplete() ? currentRanges : null);
 
-        if (removeAclList.size() > 0) {
-            for (String acl : removeAclList) {
-                Map<String, List<Integer>> aclPortMap = membership.getACLPortMap(acl);
-                int from = aclPortMap.get(acl).get(0);
-                int to = aclPortMap.get(acl).get(1);
-                membership.removeACL(Collections.singletonList(acl), from, to);
+            if (!aclDiff.isEmpty()) {
+                firstTimeUpdated = true;
             }
-            firstTimeUpdated = true;
         }
     }
 
@@ -162,39 +145,6 @@ public class UpdateTribeSecuritySettings extends Task {
         }
     }
 
-    private Map<String, List<String>> generateClusterToAclListMap(Map<String, String> addAclClusterMap) {
-        Map<String, List<String>> clusterAclsMap = new HashMap<>();
-
-        for (String acl : addAclClusterMap.keySet()) {
-            if (clusterAclsMap.containsKey(addAclClusterMap.get(acl))) {
-                clusterAclsMap.get(addAclClusterMap.get(acl)).add(acl);
-            }
-            else {
-                List<String> aclList = new ArrayList<>();
-                aclList.add(acl);
-                clusterAclsMap.put(addAclClusterMap.get(acl), aclList);
-            }
-        }
-
-        return clusterAclsMap;
-    }
-
-    private List<RaigadInstance> getInstanceList() {
-        List<RaigadInstance> instances = new ArrayList<>();
-
-        for (String clusterName : clusterPortMap.keySet()) {
-            instances.addAll(factory.getAllIds(clusterName));
-        }
-
-        if (config.isDebugEnabled()) {
-            for (RaigadInstance instance : instances) {
-                logger.debug(instance.toString());
-            }
-        }
-
-        return instances;
-    }
-
     public static TaskTimer getTimer(InstanceManager instanceManager) {
         return new SimpleTimer(JOB_NAME, 120 * 1000 + ran.nextInt(120 * 1000));
     }
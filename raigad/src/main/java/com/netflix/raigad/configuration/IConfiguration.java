@@ -334,4 +334,346 @@ public interface IConfiguration {
      * Get the MAC id for an instance
      */
     String getMacIdForInstance();
-}
\ No newline at end of file
+
+    /**
+     * Workload tuning profile (bulk-ingest, search-latency or balanced), blank to keep legacy tuning
+     * @return tuning profile name
+     */
+    String getTuningProfile();
+
+    /**
+     * @return comma separated indices a tuning profile switch is applied to at runtime
+     */
+    String getTuningProfileIndices();
+
+    /**
+     * @return number of replicas used while a bulk load profile is active at runtime
+     */
+    int getTuningBulkLoadReplicas();
+
+    /**
+     * @return true if dynamic settings should be pushed to the live cluster periodically
+     */
+    boolean isSettingsReconcilerEnabled();
+
+    /**
+     * @return true if the settings reconciler should only log the differences it finds
+     */
+    boolean isSettingsReconcilerDryRun();
+
+    int getSettingsReconcilerIntervalInSeconds();
+
+    /**
+     * @return comma separated key=value dynamic cluster settings, e.g. indices.recovery.max_bytes_per_sec=100mb
+     */
+    String getDynamicClusterSettings();
+
+    /**
+     * @return comma separated key=value dynamic index settings, e.g. index.refresh_interval=30s
+     */
+    String getDynamicIndexSettings();
+
+    String getDynamicIndexSettingsIndices();
+
+    /**
+     * @return bulk queue capacity assumed when it can not be read from the node
+     */
+    int getBackpressureBulkQueueCapacity();
+
+    /**
+     * @return number of concurrent merges at which merge backlog is considered saturated
+     */
+    int getBackpressureMergeBacklogThreshold();
+
+    /**
+     * @return heap used percent below which heap does not contribute to backpressure
+     */
+    int getBackpressureHeapPercentLow();
+
+    /**
+     * @return heap used percent at which heap is considered saturated
+     */
+    int getBackpressureHeapPercentHigh();
+
+    /**
+     * @return bulk batch size (documents) suggested to ingest clients when the node is not under pressure
+     */
+    int getBackpressureBaseBatchSize();
+
+    /**
+     * @return true if the elected master should collect per-index hot spot statistics of every node
+     */
+    boolean isIndexHotSpotMonitorEnabled();
+
+    /**
+     * @return seconds between two runs of the hot spot monitor, each loading the shard level statistics of the whole cluster
+     */
+    int getIndexHotSpotMonitorIntervalInSeconds();
+
+    /**
+     * @return number of hottest indices (and shards) exported as metrics, an index counting once per node hosting it
+     */
+    int getIndexHotSpotTopK();
+
+    /**
+     * @return statistic used to rank indices: indexing_rate, search_rate, query_latency, merge_time or store_size
+     */
+    String getIndexHotSpotScore();
+
+    /**
+     * @return true if the hottest shards should be exported in addition to the hottest indices
+     */
+    boolean isIndexHotSpotShardLevelEnabled();
+
+    /**
+     * @return number of threads used to fetch the members of several clusters (tribe setups) concurrently
+     */
+    int getMembershipFetchThreads();
+
+    /**
+     * @return time allowed for fetching the members of each cluster before falling back to the last known members
+     */
+    long getMembershipFetchTimeoutInMillis();
+
+    /**
+     * @return how long the last known security group ACL state is trusted before it is described again
+     */
+    int getACLCacheTtlInSeconds();
+
+    /**
+     * @return maximum number of IP ranges authorized or revoked by a single EC2 call
+     */
+    int getACLMaxRangesPerRequest();
+
+    /**
+     * @return how long auto scaling group descriptions are reused before the autoscaling API is called again
+     */
+    int getAutoScalingGroupCacheTtlInSeconds();
+
+    /**
+     * @return true to push all Servo metrics to a local collector as line protocol over UDP
+     */
+    boolean isMetricsExportEnabled();
+
+    String getMetricsExportHost();
+
+    int getMetricsExportPort();
+
+    int getMetricsExportIntervalInSeconds();
+
+    /**
+     * @return maximum size of an export datagram in bytes, keep it below the path MTU
+     */
+    int getMetricsExportMaxDatagramSize();
+
+    /**
+     * @return true to render all Servo metrics for Prometheus scrapes of /v1/metrics, once per export interval
+     */
+    boolean isMetricsPrometheusEnabled();
+
+    /**
+     * @return deadline of a single call made through the transport client to the local node
+     */
+    long getTransportClientCallTimeoutInMillis();
+
+    /**
+     * @return consecutive connection failures or timeouts after which transport calls fail fast
+     */
+    int getTransportClientFailureThreshold();
+
+    /**
+     * @return how long transport calls fail fast before a trial call is let through
+     */
+    long getTransportClientCircuitOpenInMillis();
+
+    /**
+     * @return true if the elected master should export its pending cluster tasks and cluster state churn
+     */
+    boolean isPendingTasksMonitorEnabled();
+
+    /**
+     * @return number of task sources (busiest first) exported as metrics, and of oldest tasks listed by the REST view
+     */
+    int getPendingTasksTopN();
+
+    /**
+     * @return true if shard recovery and relocation throughput should be monitored
+     */
+    boolean isRecoveryMonitorEnabled();
+
+    /**
+     * @return seconds between two runs of the recovery monitor, which loads every recovery in progress on the elected master
+     */
+    int getRecoveryMonitorIntervalInSeconds();
+
+    /**
+     * @return average search query time (last interval) above which settings controllers cut their settings
+     */
+    double getControllerQueryLatencyHighInMillis();
+
+    /**
+     * @return average search query time (last interval) below which settings controllers may raise their settings
+     */
+    double getControllerQueryLatencyLowInMillis();
+
+    /**
+     * @return disk space used on a data node (in percent) above which settings controllers cut their settings
+     */
+    double getControllerDiskUtilizationHighPercent();
+
+    /**
+     * @return disk space used on every data node (in percent) below which settings controllers may raise their settings
+     */
+    double getControllerDiskUtilizationLowPercent();
+
+    /**
+     * @return factor applied to controlled settings on a raise
+     */
+    double getControllerRaiseFactor();
+
+    /**
+     * @return factor applied to controlled settings on a cut
+     */
+    double getControllerCutFactor();
+
+    /**
+     * @return number of consecutive runs with headroom before settings controllers raise their settings
+     */
+    int getControllerRaiseAfterRuns();
+
+    /**
+     * @return true if recovery bandwidth and concurrency should be adjusted while recoveries run (needs the recovery monitor)
+     */
+    boolean isRecoveryControllerEnabled();
+
+    /**
+     * @return lower bound of indices.recovery.max_bytes_per_sec in megabytes, also used while no recovery runs
+     */
+    int getRecoveryControllerMinBytesPerSecInMb();
+
+    /**
+     * @return upper bound of indices.recovery.max_bytes_per_sec in megabytes
+     */
+    int getRecoveryControllerMaxBytesPerSecInMb();
+
+    /**
+     * @return lower bound of cluster.routing.allocation.node_concurrent_recoveries, also used while no recovery runs
+     */
+    int getRecoveryControllerMinConcurrentRecoveries();
+
+    /**
+     * @return upper bound of cluster.routing.allocation.node_concurrent_recoveries
+     */
+    int getRecoveryControllerMaxConcurrentRecoveries();
+
+    /**
+     * @return true if merge threads (and optionally store throttling) should be adjusted while merges fall behind indexing
+     */
+    boolean isMergeControllerEnabled();
+
+    /**
+     * @return comma separated indices (or patterns) whose merge scheduler is adjusted
+     */
+    String getMergeControllerIndices();
+
+    /**
+     * @return lower bound of index.merge.scheduler.max_thread_count, also used while merges keep up
+     */
+    int getMergeControllerMinThreadCount();
+
+    /**
+     * @return upper bound of index.merge.scheduler.max_thread_count
+     */
+    int getMergeControllerMaxThreadCount();
+
+    /**
+     * @return true if indices.store.throttle.max_bytes_per_sec should be adjusted as well, indices.store.throttle.type is then set to merge
+     */
+    boolean isMergeControllerStoreThrottleEnabled();
+
+    /**
+     * @return lower bound of indices.store.throttle.max_bytes_per_sec in megabytes
+     */
+    int getMergeControllerMinStoreThrottleInMb();
+
+    /**
+     * @return upper bound of indices.store.throttle.max_bytes_per_sec in megabytes
+     */
+    int getMergeControllerMaxStoreThrottleInMb();
+
+    /**
+     * @return fraction of wall time spent in garbage collection (young and old) from which an interval counts as GC pressure
+     */
+    double getGcPressureTimeRatio();
+
+    /**
+     * @return old generation usage in percent from which an interval with old collections counts as GC pressure
+     * (old collections that no longer reclaim space)
+     */
+    int getGcPressureOldUsedPercent();
+
+    /**
+     * @return number of consecutive JVM stats intervals under GC pressure before the pressure counts as sustained
+     */
+    int getGcPressureSustainedIntervals();
+
+    /**
+     * @return true if hot threads should be captured automatically when search latency, heap, CPU or GC pressure spike
+     */
+    boolean isHotThreadsCaptureEnabled();
+
+    /**
+     * @return directory keeping the last hot threads captures
+     */
+    String getHotThreadsCaptureDir();
+
+    /**
+     * @return number of hot threads captures kept on disk, the oldest ones are deleted first
+     */
+    int getHotThreadsMaxCaptures();
+
+    /**
+     * @return minimum time between two automatic hot threads captures
+     */
+    int getHotThreadsMinCaptureIntervalInSeconds();
+
+    /**
+     * @return number of hottest threads included in a capture
+     */
+    int getHotThreadsThreads();
+
+    /**
+     * @return number of stack snapshots taken per hot thread
+     */
+    int getHotThreadsSnapshots();
+
+    /**
+     * @return time over which thread CPU usage is measured for a capture
+     */
+    int getHotThreadsIntervalInMillis();
+
+    /**
+     * @return average search query time over the last interval that triggers a capture, 0 to disable
+     */
+    int getHotThreadsTriggerQueryLatencyInMillis();
+
+    /**
+     * @return heap usage that triggers a capture, 0 to disable
+     */
+    int getHotThreadsTriggerHeapUsedPercent();
+
+    /**
+     * @return Elasticsearch process CPU usage that triggers a capture, 0 to disable
+     */
+    int getHotThreadsTriggerCpuPercent();
+
+    /**
+     * @return how far back circuit breaker samples are used to fit the growth rate of each breaker
+     */
+    int getBreakerTrendHorizonInSeconds();
+
+    /**
+     * @return estimated time to trip below which a circuit breaker trip is forecast
+     */
+    int getBreakerTripWarningInSeconds();
+}
@@ -117,6 +117,77 @@ public class RaigadConfiguration implements IConfiguration {
     private static final String CONFIG_REPORT_METRICS_FROM_MASTER_ONLY = MY_WEBAPP_NAME + ".report.metrics.from.master.only";
     private static final String CONFIG_TRIBE_PREFERRED_CLUSTER_ID_ON_CONFLICT = MY_WEBAPP_NAME + ".tribe.preferred.cluster.id.on.conflict";
     private static final String CONFIG_IS_VPC_MIGRATION_MODE_ENABLED = MY_WEBAPP_NAME + ".vpc.migration.mode.enabled";
+    private static final String CONFIG_TUNING_PROFILE = MY_WEBAPP_NAME + ".es.tuning.profile";
+    private static final String CONFIG_TUNING_PROFILE_INDICES = MY_WEBAPP_NAME + ".es.tuning.profile.indices";
+    private static final String CONFIG_TUNING_BULK_LOAD_REPLICAS = MY_WEBAPP_NAME + ".es.tuning.bulk.load.replicas";
+    private static final String CONFIG_IS_SETTINGS_RECONCILER_ENABLED = MY_WEBAPP_NAME + ".es.settings.reconciler.enabled";
+    private static final String CONFIG_IS_SETTINGS_RECONCILER_DRY_RUN = MY_WEBAPP_NAME + ".es.settings.reconciler.dry.run";
+    private static final String CONFIG_SETTINGS_RECONCILER_INTERVAL_SECONDS = MY_WEBAPP_NAME + ".es.settings.reconciler.interval.seconds";
+    private static final String CONFIG_DYNAMIC_CLUSTER_SETTINGS = MY_WEBAPP_NAME + ".es.dynamic.cluster.settings";
+    private static final String CONFIG_DYNAMIC_INDEX_SETTINGS = MY_WEBAPP_NAME + ".es.dynamic.index.settings";
+    private static final String CONFIG_DYNAMIC_INDEX_SETTINGS_INDICES = MY_WEBAPP_NAME + ".es.dynamic.index.settings.indices";
+    private static final String CONFIG_BACKPRESSURE_BULK_QUEUE_CAPACITY = MY_WEBAPP_NAME + ".es.backpressure.bulk.queue.capacity";
+    private static final String CONFIG_BACKPRESSURE_MERGE_BACKLOG_THRESHOLD = MY_WEBAPP_NAME + ".es.backpressure.merge.backlog.threshold";
+    private static final String CONFIG_BACKPRESSURE_HEAP_PERCENT_LOW = MY_WEBAPP_NAME + ".es.backpressure.heap.percent.low";
+    private static final String CONFIG_BACKPRESSURE_HEAP_PERCENT_HIGH = MY_WEBAPP_NAME + ".es.backpressure.heap.percent.high";
+    private static final String CONFIG_BACKPRESSURE_BASE_BATCH_SIZE = MY_WEBAPP_NAME + ".es.backpressure.base.batch.size";
+    private static final String CONFIG_ES_HOT_SPOT_MONITOR_ENABLED = MY_WEBAPP_NAME + ".hotspot.monitor.enabled";
+    private static final String CONFIG_ES_HOT_SPOT_MONITOR_INTERVAL_SECONDS = MY_WEBAPP_NAME + ".hotspot.monitor.interval.seconds";
+    private static final String CONFIG_ES_HOT_SPOT_TOP_K = MY_WEBAPP_NAME + ".hotspot.top.k";
+    private static final String CONFIG_ES_HOT_SPOT_SCORE = MY_WEBAPP_NAME + ".hotspot.score";
+    private static final String CONFIG_ES_HOT_SPOT_SHARD_LEVEL = MY_WEBAPP_NAME + ".hotspot.shard.level.enabled";
+    private static final String CONFIG_MEMBERSHIP_FETCH_THREADS = MY_WEBAPP_NAME + ".membership.fetch.threads";
+    private static final String CONFIG_MEMBERSHIP_FETCH_TIMEOUT_MS = MY_WEBAPP_NAME + ".membership.fetch.timeout.ms";
+    private static final String CONFIG_ACL_CACHE_TTL_SECS = MY_WEBAPP_NAME + ".acl.cache.ttl.seconds";
+    private static final String CONFIG_ACL_MAX_RANGES_PER_REQUEST = MY_WEBAPP_NAME + ".acl.max.ranges.per.request";
+    private static final String CONFIG_ASG_CACHE_TTL_SECS = MY_WEBAPP_NAME + ".asg.cache.ttl.seconds";
+    private static final String CONFIG_METRICS_EXPORT_ENABLED = MY_WEBAPP_NAME + ".metrics.export.enabled";
+    private static final String CONFIG_METRICS_EXPORT_HOST = MY_WEBAPP_NAME + ".metrics.export.host";
+    private static final String CONFIG_METRICS_EXPORT_PORT = MY_WEBAPP_NAME + ".metrics.export.port";
+    private static final String CONFIG_METRICS_EXPORT_INTERVAL_SECS = MY_WEBAPP_NAME + ".metrics.export.interval.seconds";
+    private static final String CONFIG_METRICS_EXPORT_MAX_DATAGRAM_SIZE = MY_WEBAPP_NAME + ".metrics.export.max.datagram.size";
+    private static final String CONFIG_METRICS_PROMETHEUS_ENABLED = MY_WEBAPP_NAME + ".metrics.prometheus.enabled";
+    private static final String CONFIG_TRANSPORT_CLIENT_CALL_TIMEOUT_MS = MY_WEBAPP_NAME + ".transport.client.call.timeout.ms";
+    private static final String CONFIG_TRANSPORT_CLIENT_FAILURE_THRESHOLD = MY_WEBAPP_NAME + ".transport.client.failure.threshold";
+    private static final String CONFIG_TRANSPORT_CLIENT_CIRCUIT_OPEN_MS = MY_WEBAPP_NAME + ".transport.client.circuit.open.ms";
+    private static final String CONFIG_PENDING_TASKS_MONITOR_ENABLED = MY_WEBAPP_NAME + ".pending_tasks.monitor.enabled";
+    private static final String CONFIG_PENDING_TASKS_TOP_N = MY_WEBAPP_NAME + ".pending_tasks.top_n";
+    private static final String CONFIG_RECOVERY_MONITOR_ENABLED = MY_WEBAPP_NAME + ".recovery.monitor.enabled";
+    private static final String CONFIG_RECOVERY_MONITOR_INTERVAL_SECONDS = MY_WEBAPP_NAME + ".recovery.monitor.interval.seconds";
+    private static final String CONFIG_CONTROLLER_QUERY_LATENCY_HIGH_MILLIS = MY_WEBAPP_NAME + ".controller.query_latency_high_millis";
+    private static final String CONFIG_CONTROLLER_QUERY_LATENCY_LOW_MILLIS = MY_WEBAPP_NAME + ".controller.query_latency_low_millis";
+    private static final String CONFIG_CONTROLLER_DISK_UTILIZATION_HIGH_PERCENT = MY_WEBAPP_NAME + ".controller.disk_utilization_high_percent";
+    private static final String CONFIG_CONTROLLER_DISK_UTILIZATION_LOW_PERCENT = MY_WEBAPP_NAME + ".controller.disk_utilization_low_percent";
+    private static final String CONFIG_CONTROLLER_RAISE_FACTOR = MY_WEBAPP_NAME + ".controller.raise_factor";
+    private static final String CONFIG_CONTROLLER_CUT_FACTOR = MY_WEBAPP_NAME + ".controller.cut_factor";
+    private static final String CONFIG_CONTROLLER_RAISE_AFTER_RUNS = MY_WEBAPP_NAME + ".controller.raise_after_runs";
+    private static final String CONFIG_RECOVERY_CONTROLLER_ENABLED = MY_WEBAPP_NAME + ".recovery.controller.enabled";
+    private static final String CONFIG_RECOVERY_CONTROLLER_MIN_BYTES_PER_SEC_MB = MY_WEBAPP_NAME + ".recovery.controller.min_bytes_per_sec_mb";
+    private static final String CONFIG_RECOVERY_CONTROLLER_MAX_BYTES_PER_SEC_MB = MY_WEBAPP_NAME + ".recovery.controller.max_bytes_per_sec_mb";
+    private static final String CONFIG_RECOVERY_CONTROLLER_MIN_CONCURRENT_RECOVERIES = MY_WEBAPP_NAME + ".recovery.controller.min_concurrent_recoveries";
+    private static final String CONFIG_RECOVERY_CONTROLLER_MAX_CONCURRENT_RECOVERIES = MY_WEBAPP_NAME + ".recovery.controller.max_concurrent_recoveries";
+    private static final String CONFIG_MERGE_CONTROLLER_ENABLED = MY_WEBAPP_NAME + ".merge.controller.enabled";
+    private static final String CONFIG_MERGE_CONTROLLER_INDICES = MY_WEBAPP_NAME + ".merge.controller.indices";
+    private static final String CONFIG_MERGE_CONTROLLER_MIN_THREAD_COUNT = MY_WEBAPP_NAME + ".merge.controller.min_thread_count";
+    private static final String CONFIG_MERGE_CONTROLLER_MAX_THREAD_COUNT = MY_WEBAPP_NAME + ".merge.controller.max_thread_count";
+    private static final String CONFIG_MERGE_CONTROLLER_STORE_THROTTLE_ENABLED = MY_WEBAPP_NAME + ".merge.controller.store_throttle.enabled";
+    private static final String CONFIG_MERGE_CONTROLLER_MIN_STORE_THROTTLE_MB = MY_WEBAPP_NAME + ".merge.controller.store_throttle.min_mb";
+    private static final String CONFIG_MERGE_CONTROLLER_MAX_STORE_THROTTLE_MB = MY_WEBAPP_NAME + ".merge.controller.store_throttle.max_mb";
+    private static final String CONFIG_GC_PRESSURE_TIME_RATIO = MY_WEBAPP_NAME + ".gc.pressure.time_ratio";
+    private static final String CONFIG_GC_PRESSURE_OLD_USED_PERCENT = MY_WEBAPP_NAME + ".gc.pressure.old_used_percent";
+    private static final String CONFIG_GC_PRESSURE_SUSTAINED_INTERVALS = MY_WEBAPP_NAME + ".gc.pressure.sustained_intervals";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_ENABLED = MY_WEBAPP_NAME + ".hot_threads.capture.enabled";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_DIR = MY_WEBAPP_NAME + ".hot_threads.capture.dir";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_MAX_CAPTURES = MY_WEBAPP_NAME + ".hot_threads.capture.max_captures";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_MIN_INTERVAL_SECONDS = MY_WEBAPP_NAME + ".hot_threads.capture.min_interval_seconds";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_THREADS = MY_WEBAPP_NAME + ".hot_threads.capture.threads";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_SNAPSHOTS = MY_WEBAPP_NAME + ".hot_threads.capture.snapshots";
+    private static final String CONFIG_HOT_THREADS_CAPTURE_INTERVAL_MILLIS = MY_WEBAPP_NAME + ".hot_threads.capture.interval_millis";
+    private static final String CONFIG_HOT_THREADS_TRIGGER_QUERY_LATENCY_MILLIS = MY_WEBAPP_NAME + ".hot_threads.trigger.query_latency_millis";
+    private static final String CONFIG_HOT_THREADS_TRIGGER_HEAP_USED_PERCENT = MY_WEBAPP_NAME + ".hot_threads.trigger.heap_used_percent";
+    private static final String CONFIG_HOT_THREADS_TRIGGER_CPU_PERCENT = MY_WEBAPP_NAME + ".hot_threads.trigger.cpu_percent";
+    private static final String CONFIG_BREAKER_TREND_HORIZON_SECONDS = MY_WEBAPP_NAME + ".breaker.trend.horizon_seconds";
+    private static final String CONFIG_BREAKER_TREND_WARNING_SECONDS = MY_WEBAPP_NAME + ".breaker.trend.warning_seconds";
 
     // Amazon specific
     private static final String CONFIG_ASG_NAME = MY_WEBAPP_NAME + ".az.asgname";
@@ -251,6 +322,77 @@ public class RaigadConfiguration implements IConfiguration {
     private static final String DEFAULT_TRIBE_PREFERRED_CLUSTER_ID_ON_CONFLICT = "t0";
     private static final boolean DEFAULT_IS_VPC_MIGRATION_MODE_ENABLED = false;
     private static final String DEFAULT_ACL_GROUP_NAME_FOR_VPC = "es_samplecluster";
+    private static final String DEFAULT_TUNING_PROFILE = "";
+    private static final String DEFAULT_TUNING_PROFILE_INDICES = "_all";
+    private static final int DEFAULT_TUNING_BULK_LOAD_REPLICAS = 0;
+    private static final boolean DEFAULT_IS_SETTINGS_RECONCILER_ENABLED = false;
+    private static final boolean DEFAULT_IS_SETTINGS_RECONCILER_DRY_RUN = false;
+    private static final int DEFAULT_SETTINGS_RECONCILER_INTERVAL_SECONDS = 300;
+    private static final String DEFAULT_DYNAMIC_CLUSTER_SETTINGS = "";
+    private static final String DEFAULT_DYNAMIC_INDEX_SETTINGS = "";
+    private static final String DEFAULT_DYNAMIC_INDEX_SETTINGS_INDICES = "_all";
+    private static final int DEFAULT_BACKPRESSURE_BULK_QUEUE_CAPACITY = 50;
+    private static final int DEFAULT_BACKPRESSURE_MERGE_BACKLOG_THRESHOLD = 10;
+    private static final int DEFAULT_BACKPRESSURE_HEAP_PERCENT_LOW = 75;
+    private static final int DEFAULT_BACKPRESSURE_HEAP_PERCENT_HIGH = 90;
+    private static final int DEFAULT_BACKPRESSURE_BASE_BATCH_SIZE = 1000;
+    private static final boolean DEFAULT_ES_HOT_SPOT_MONITOR_ENABLED = true;
+    private static final int DEFAULT_ES_HOT_SPOT_MONITOR_INTERVAL_SECONDS = 60;
+    private static final int DEFAULT_ES_HOT_SPOT_TOP_K = 10;
+    private static final String DEFAULT_ES_HOT_SPOT_SCORE = "indexing_rate";
+    private static final boolean DEFAULT_ES_HOT_SPOT_SHARD_LEVEL = false;
+    private static final int DEFAULT_MEMBERSHIP_FETCH_THREADS = 8;
+    private static final long DEFAULT_MEMBERSHIP_FETCH_TIMEOUT_MS = 5000L;
+    private static final int DEFAULT_ACL_CACHE_TTL_SECS = 300;
+    private static final int DEFAULT_ACL_MAX_RANGES_PER_REQUEST = 50;
+    private static final int DEFAULT_ASG_CACHE_TTL_SECS = 30;
+    private static final boolean DEFAULT_METRICS_EXPORT_ENABLED = false;
+    private static final String DEFAULT_METRICS_EXPORT_HOST = "localhost";
+    private static final int DEFAULT_METRICS_EXPORT_PORT = 8089;
+    private static final int DEFAULT_METRICS_EXPORT_INTERVAL_SECS = 10;
+    private static final int DEFAULT_METRICS_EXPORT_MAX_DATAGRAM_SIZE = 1400;
+    private static final boolean DEFAULT_METRICS_PROMETHEUS_ENABLED = false;
+    private static final long DEFAULT_TRANSPORT_CLIENT_CALL_TIMEOUT_MS = 10000L;
+    private static final int DEFAULT_TRANSPORT_CLIENT_FAILURE_THRESHOLD = 3;
+    private static final long DEFAULT_TRANSPORT_CLIENT_CIRCUIT_OPEN_MS = 30000L;
+    private static final boolean DEFAULT_PENDING_TASKS_MONITOR_ENABLED = true;
+    private static final int DEFAULT_PENDING_TASKS_TOP_N = 10;
+    private static final boolean DEFAULT_RECOVERY_MONITOR_ENABLED = true;
+    private static final int DEFAULT_RECOVERY_MONITOR_INTERVAL_SECONDS = 10;
+    private static final double DEFAULT_CONTROLLER_QUERY_LATENCY_HIGH_MILLIS = 100.0;
+    private static final double DEFAULT_CONTROLLER_QUERY_LATENCY_LOW_MILLIS = 50.0;
+    private static final double DEFAULT_CONTROLLER_DISK_UTILIZATION_HIGH_PERCENT = 85.0;
+    private static final double DEFAULT_CONTROLLER_DISK_UTILIZATION_LOW_PERCENT = 60.0;
+    private static final double DEFAULT_CONTROLLER_RAISE_FACTOR = 1.5;
+    private static final double DEFAULT_CONTROLLER_CUT_FACTOR = 0.5;
+    private static final int DEFAULT_CONTROLLER_RAISE_AFTER_RUNS = 2;
+    private static final boolean DEFAULT_RECOVERY_CONTROLLER_ENABLED = false;
+    private static final int DEFAULT_RECOVERY_CONTROLLER_MIN_BYTES_PER_SEC_MB = 40;
+    private static final int DEFAULT_RECOVERY_CONTROLLER_MAX_BYTES_PER_SEC_MB = 250;
+    private static final int DEFAULT_RECOVERY_CONTROLLER_MIN_CONCURRENT_RECOVERIES = 2;
+    private static final int DEFAULT_RECOVERY_CONTROLLER_MAX_CONCURRENT_RECOVERIES = 6;
+    private static final boolean DEFAULT_MERGE_CONTROLLER_ENABLED = false;
+    private static final String DEFAULT_MERGE_CONTROLLER_INDICES = "_all";
+    private static final int DEFAULT_MERGE_CONTROLLER_MIN_THREAD_COUNT = 2;
+    private static final int DEFAULT_MERGE_CONTROLLER_MAX_THREAD_COUNT = 4;
+    private static final boolean DEFAULT_MERGE_CONTROLLER_STORE_THROTTLE_ENABLED = false;
+    private static final int DEFAULT_MERGE_CONTROLLER_MIN_STORE_THROTTLE_MB = 20;
+    private static final int DEFAULT_MERGE_CONTROLLER_MAX_STORE_THROTTLE_MB = 200;
+    private static final double DEFAULT_GC_PRESSURE_TIME_RATIO = 0.1;
+    private static final int DEFAULT_GC_PRESSURE_OLD_USED_PERCENT = 75;
+    private static final int DEFAULT_GC_PRESSURE_SUSTAINED_INTERVALS = 3;
+    private static final boolean DEFAULT_HOT_THREADS_CAPTURE_ENABLED = true;
+    private static final String DEFAULT_HOT_THREADS_CAPTURE_DIR = "/logs/raigad/hot_threads";
+    private static final int DEFAULT_HOT_THREADS_CAPTURE_MAX_CAPTURES = 20;
+    private static final int DEFAULT_HOT_THREADS_CAPTURE_MIN_INTERVAL_SECONDS = 600;
+    private static final int DEFAULT_HOT_THREADS_CAPTURE_THREADS = 5;
+    private static final int DEFAULT_HOT_THREADS_CAPTURE_SNAPSHOTS = 10;
+    private static final int DEFAULT_HOT_THREADS_CAPTURE_INTERVAL_MILLIS = 500;
+    private static final int DEFAULT_HOT_THREADS_TRIGGER_QUERY_LATENCY_MILLIS = 500;
+    private static final int DEFAULT_HOT_THREADS_TRIGGER_HEAP_USED_PERCENT = 90;
+    private static final int DEFAULT_HOT_THREADS_TRIGGER_CPU_PERCENT = 90;
+    private static final int DEFAULT_BREAKER_TREND_HORIZON_SECONDS = 120;
+    private static final int DEFAULT_BREAKER_TREND_WARNING_SECONDS = 300;
 
     private final IConfigSource config;
     private final ICredential provider;
@@ -331,6 +473,77 @@ public class RaigadConfiguration implements IConfiguration {
     private final DynamicStringProperty TRIBE_PREFERRED_CLUSTER_ID_ON_CONFLICT = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_TRIBE_PREFERRED_CLUSTER_ID_ON_CONFLICT, DEFAULT_TRIBE_PREFERRED_CLUSTER_ID_ON_CONFLICT);
     private final DynamicBooleanProperty IS_VPC_MIGRATION_MODE_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_IS_VPC_MIGRATION_MODE_ENABLED, DEFAULT_IS_VPC_MIGRATION_MODE_ENABLED);
     private final DynamicStringProperty ACL_GROUP_NAME_FOR_VPC = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_ACL_GROUP_NAME_FOR_VPC, DEFAULT_ACL_GROUP_NAME_FOR_VPC);
+    private final DynamicStringProperty TUNING_PROFILE = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_TUNING_PROFILE, DEFAULT_TUNING_PROFILE);
+    private final DynamicStringProperty TUNING_PROFILE_INDICES = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_TUNING_PROFILE_INDICES, DEFAULT_TUNING_PROFILE_INDICES);
+    private final DynamicIntProperty TUNING_BULK_LOAD_REPLICAS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_TUNING_BULK_LOAD_REPLICAS, DEFAULT_TUNING_BULK_LOAD_REPLICAS);
+    private final DynamicBooleanProperty IS_SETTINGS_RECONCILER_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_IS_SETTINGS_RECONCILER_ENABLED, DEFAULT_IS_SETTINGS_RECONCILER_ENABLED);
+    private final DynamicBooleanProperty IS_SETTINGS_RECONCILER_DRY_RUN = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_IS_SETTINGS_RECONCILER_DRY_RUN, DEFAULT_IS_SETTINGS_RECONCILER_DRY_RUN);
+    private final DynamicIntProperty SETTINGS_RECONCILER_INTERVAL_SECONDS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_SETTINGS_RECONCILER_INTERVAL_SECONDS, DEFAULT_SETTINGS_RECONCILER_INTERVAL_SECONDS);
+    private final DynamicStringProperty DYNAMIC_CLUSTER_SETTINGS = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_DYNAMIC_CLUSTER_SETTINGS, DEFAULT_DYNAMIC_CLUSTER_SETTINGS);
+    private final DynamicStringProperty DYNAMIC_INDEX_SETTINGS = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_DYNAMIC_INDEX_SETTINGS, DEFAULT_DYNAMIC_INDEX_SETTINGS);
+    private final DynamicStringProperty DYNAMIC_INDEX_SETTINGS_INDICES = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_DYNAMIC_INDEX_SETTINGS_INDICES, DEFAULT_DYNAMIC_INDEX_SETTINGS_INDICES);
+    private final DynamicIntProperty BACKPRESSURE_BULK_QUEUE_CAPACITY = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BACKPRESSURE_BULK_QUEUE_CAPACITY, DEFAULT_BACKPRESSURE_BULK_QUEUE_CAPACITY);
+    private final DynamicIntProperty BACKPRESSURE_MERGE_BACKLOG_THRESHOLD = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BACKPRESSURE_MERGE_BACKLOG_THRESHOLD, DEFAULT_BACKPRESSURE_MERGE_BACKLOG_THRESHOLD);
+    private final DynamicIntProperty BACKPRESSURE_HEAP_PERCENT_LOW = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BACKPRESSURE_HEAP_PERCENT_LOW, DEFAULT_BACKPRESSURE_HEAP_PERCENT_LOW);
+    private final DynamicIntProperty BACKPRESSURE_HEAP_PERCENT_HIGH = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BACKPRESSURE_HEAP_PERCENT_HIGH, DEFAULT_BACKPRESSURE_HEAP_PERCENT_HIGH);
+    private final DynamicIntProperty BACKPRESSURE_BASE_BATCH_SIZE = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BACKPRESSURE_BASE_BATCH_SIZE, DEFAULT_BACKPRESSURE_BASE_BATCH_SIZE);
+    private final DynamicBooleanProperty ES_HOT_SPOT_MONITOR_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_ES_HOT_SPOT_MONITOR_ENABLED, DEFAULT_ES_HOT_SPOT_MONITOR_ENABLED);
+    private final DynamicIntProperty ES_HOT_SPOT_MONITOR_INTERVAL_SECONDS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_ES_HOT_SPOT_MONITOR_INTERVAL_SECONDS, DEFAULT_ES_HOT_SPOT_MONITOR_INTERVAL_SECONDS);
+    private final DynamicIntProperty ES_HOT_SPOT_TOP_K = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_ES_HOT_SPOT_TOP_K, DEFAULT_ES_HOT_SPOT_TOP_K);
+    private final DynamicStringProperty ES_HOT_SPOT_SCORE = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_ES_HOT_SPOT_SCORE, DEFAULT_ES_HOT_SPOT_SCORE);
+    private final DynamicBooleanProperty ES_HOT_SPOT_SHARD_LEVEL = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_ES_HOT_SPOT_SHARD_LEVEL, DEFAULT_ES_HOT_SPOT_SHARD_LEVEL);
+    private final DynamicIntProperty MEMBERSHIP_FETCH_THREADS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_MEMBERSHIP_FETCH_THREADS, DEFAULT_MEMBERSHIP_FETCH_THREADS);
+    private final DynamicLongProperty MEMBERSHIP_FETCH_TIMEOUT_MS = DynamicPropertyFactory.getInstance().getLongProperty(CONFIG_MEMBERSHIP_FETCH_TIMEOUT_MS, DEFAULT_MEMBERSHIP_FETCH_TIMEOUT_MS);
+    private final DynamicIntProperty ACL_CACHE_TTL_SECS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_ACL_CACHE_TTL_SECS, DEFAULT_ACL_CACHE_TTL_SECS);
+    private final DynamicIntProperty ACL_MAX_RANGES_PER_REQUEST = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_ACL_MAX_RANGES_PER_REQUEST, DEFAULT_ACL_MAX_RANGES_PER_REQUEST);
+    private final DynamicIntProperty ASG_CACHE_TTL_SECS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_ASG_CACHE_TTL_SECS, DEFAULT_ASG_CACHE_TTL_SECS);
+    private final DynamicBooleanProperty METRICS_EXPORT_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_METRICS_EXPORT_ENABLED, DEFAULT_METRICS_EXPORT_ENABLED);
+    private final DynamicStringProperty METRICS_EXPORT_HOST = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_METRICS_EXPORT_HOST, DEFAULT_METRICS_EXPORT_HOST);
+    private final DynamicIntProperty METRICS_EXPORT_PORT = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_METRICS_EXPORT_PORT, DEFAULT_METRICS_EXPORT_PORT);
+    private final DynamicIntProperty METRICS_EXPORT_INTERVAL_SECS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_METRICS_EXPORT_INTERVAL_SECS, DEFAULT_METRICS_EXPORT_INTERVAL_SECS);
+    private final DynamicIntProperty METRICS_EXPORT_MAX_DATAGRAM_SIZE = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_METRICS_EXPORT_MAX_DATAGRAM_SIZE, DEFAULT_METRICS_EXPORT_MAX_DATAGRAM_SIZE);
+    private final DynamicBooleanProperty METRICS_PROMETHEUS_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_METRICS_PROMETHEUS_ENABLED, DEFAULT_METRICS_PROMETHEUS_ENABLED);
+    private final DynamicLongProperty TRANSPORT_CLIENT_CALL_TIMEOUT_MS = DynamicPropertyFactory.getInstance().getLongProperty(CONFIG_TRANSPORT_CLIENT_CALL_TIMEOUT_MS, DEFAULT_TRANSPORT_CLIENT_CALL_TIMEOUT_MS);
+    private final DynamicIntProperty TRANSPORT_CLIENT_FAILURE_THRESHOLD = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_TRANSPORT_CLIENT_FAILURE_THRESHOLD, DEFAULT_TRANSPORT_CLIENT_FAILURE_THRESHOLD);
+    private final DynamicLongProperty TRANSPORT_CLIENT_CIRCUIT_OPEN_MS = DynamicPropertyFactory.getInstance().getLongProperty(CONFIG_TRANSPORT_CLIENT_CIRCUIT_OPEN_MS, DEFAULT_TRANSPORT_CLIENT_CIRCUIT_OPEN_MS);
+    private final DynamicBooleanProperty PENDING_TASKS_MONITOR_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_PENDING_TASKS_MONITOR_ENABLED, DEFAULT_PENDING_TASKS_MONITOR_ENABLED);
+    private final DynamicIntProperty PENDING_TASKS_TOP_N = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_PENDING_TASKS_TOP_N, DEFAULT_PENDING_TASKS_TOP_N);
+    private final DynamicBooleanProperty RECOVERY_MONITOR_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_RECOVERY_MONITOR_ENABLED, DEFAULT_RECOVERY_MONITOR_ENABLED);
+    private final DynamicIntProperty RECOVERY_MONITOR_INTERVAL_SECONDS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_RECOVERY_MONITOR_INTERVAL_SECONDS, DEFAULT_RECOVERY_MONITOR_INTERVAL_SECONDS);
+    private final DynamicDoubleProperty CONTROLLER_QUERY_LATENCY_HIGH_MILLIS = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_CONTROLLER_QUERY_LATENCY_HIGH_MILLIS, DEFAULT_CONTROLLER_QUERY_LATENCY_HIGH_MILLIS);
+    private final DynamicDoubleProperty CONTROLLER_QUERY_LATENCY_LOW_MILLIS = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_CONTROLLER_QUERY_LATENCY_LOW_MILLIS, DEFAULT_CONTROLLER_QUERY_LATENCY_LOW_MILLIS);
+    private final DynamicDoubleProperty CONTROLLER_DISK_UTILIZATION_HIGH_PERCENT = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_CONTROLLER_DISK_UTILIZATION_HIGH_PERCENT, DEFAULT_CONTROLLER_DISK_UTILIZATION_HIGH_PERCENT);
+    private final DynamicDoubleProperty CONTROLLER_DISK_UTILIZATION_LOW_PERCENT = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_CONTROLLER_DISK_UTILIZATION_LOW_PERCENT, DEFAULT_CONTROLLER_DISK_UTILIZATION_LOW_PERCENT);
+    private final DynamicDoubleProperty CONTROLLER_RAISE_FACTOR = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_CONTROLLER_RAISE_FACTOR, DEFAULT_CONTROLLER_RAISE_FACTOR);
+    private final DynamicDoubleProperty CONTROLLER_CUT_FACTOR = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_CONTROLLER_CUT_FACTOR, DEFAULT_CONTROLLER_CUT_FACTOR);
+    private final DynamicIntProperty CONTROLLER_RAISE_AFTER_RUNS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_CONTROLLER_RAISE_AFTER_RUNS, DEFAULT_CONTROLLER_RAISE_AFTER_RUNS);
+    private final DynamicBooleanProperty RECOVERY_CONTROLLER_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_RECOVERY_CONTROLLER_ENABLED, DEFAULT_RECOVERY_CONTROLLER_ENABLED);
+    private final DynamicIntProperty RECOVERY_CONTROLLER_MIN_BYTES_PER_SEC_MB = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_RECOVERY_CONTROLLER_MIN_BYTES_PER_SEC_MB, DEFAULT_RECOVERY_CONTROLLER_MIN_BYTES_PER_SEC_MB);
+    private final DynamicIntProperty RECOVERY_CONTROLLER_MAX_BYTES_PER_SEC_MB = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_RECOVERY_CONTROLLER_MAX_BYTES_PER_SEC_MB, DEFAULT_RECOVERY_CONTROLLER_MAX_BYTES_PER_SEC_MB);
+    private final DynamicIntProperty RECOVERY_CONTROLLER_MIN_CONCURRENT_RECOVERIES = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_RECOVERY_CONTROLLER_MIN_CONCURRENT_RECOVERIES, DEFAULT_RECOVERY_CONTROLLER_MIN_CONCURRENT_RECOVERIES);
+    private final DynamicIntProperty RECOVERY_CONTROLLER_MAX_CONCURRENT_RECOVERIES = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_RECOVERY_CONTROLLER_MAX_CONCURRENT_RECOVERIES, DEFAULT_RECOVERY_CONTROLLER_MAX_CONCURRENT_RECOVERIES);
+    private final DynamicBooleanProperty MERGE_CONTROLLER_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_MERGE_CONTROLLER_ENABLED, DEFAULT_MERGE_CONTROLLER_ENABLED);
+    private final DynamicStringProperty MERGE_CONTROLLER_INDICES = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_MERGE_CONTROLLER_INDICES, DEFAULT_MERGE_CONTROLLER_INDICES);
+    private final DynamicIntProperty MERGE_CONTROLLER_MIN_THREAD_COUNT = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_MERGE_CONTROLLER_MIN_THREAD_COUNT, DEFAULT_MERGE_CONTROLLER_MIN_THREAD_COUNT);
+    private final DynamicIntProperty MERGE_CONTROLLER_MAX_THREAD_COUNT = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_MERGE_CONTROLLER_MAX_THREAD_COUNT, DEFAULT_MERGE_CONTROLLER_MAX_THREAD_COUNT);
+    private final DynamicBooleanProperty MERGE_CONTROLLER_STORE_THROTTLE_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_MERGE_CONTROLLER_STORE_THROTTLE_ENABLED, DEFAULT_MERGE_CONTROLLER_STORE_THROTTLE_ENABLED);
+    private final DynamicIntProperty MERGE_CONTROLLER_MIN_STORE_THROTTLE_MB = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_MERGE_CONTROLLER_MIN_STORE_THROTTLE_MB, DEFAULT_MERGE_CONTROLLER_MIN_STORE_THROTTLE_MB);
+    private final DynamicIntProperty MERGE_CONTROLLER_MAX_STORE_THROTTLE_MB = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_MERGE_CONTROLLER_MAX_STORE_THROTTLE_MB, DEFAULT_MERGE_CONTROLLER_MAX_STORE_THROTTLE_MB);
+    private final DynamicDoubleProperty GC_PRESSURE_TIME_RATIO = DynamicPropertyFactory.getInstance().getDoubleProperty(CONFIG_GC_PRESSURE_TIME_RATIO, DEFAULT_GC_PRESSURE_TIME_RATIO);
+    private final DynamicIntProperty GC_PRESSURE_OLD_USED_PERCENT = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_GC_PRESSURE_OLD_USED_PERCENT, DEFAULT_GC_PRESSURE_OLD_USED_PERCENT);
+    private final DynamicIntProperty GC_PRESSURE_SUSTAINED_INTERVALS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_GC_PRESSURE_SUSTAINED_INTERVALS, DEFAULT_GC_PRESSURE_SUSTAINED_INTERVALS);
+    private final DynamicBooleanProperty HOT_THREADS_CAPTURE_ENABLED = DynamicPropertyFactory.getInstance().getBooleanProperty(CONFIG_HOT_THREADS_CAPTURE_ENABLED, DEFAULT_HOT_THREADS_CAPTURE_ENABLED);
+    private final DynamicStringProperty HOT_THREADS_CAPTURE_DIR = DynamicPropertyFactory.getInstance().getStringProperty(CONFIG_HOT_THREADS_CAPTURE_DIR, DEFAULT_HOT_THREADS_CAPTURE_DIR);
+    private final DynamicIntProperty HOT_THREADS_CAPTURE_MAX_CAPTURES = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_CAPTURE_MAX_CAPTURES, DEFAULT_HOT_THREADS_CAPTURE_MAX_CAPTURES);
+    private final DynamicIntProperty HOT_THREADS_CAPTURE_MIN_INTERVAL_SECONDS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_CAPTURE_MIN_INTERVAL_SECONDS, DEFAULT_HOT_THREADS_CAPTURE_MIN_INTERVAL_SECONDS);
+    private final DynamicIntProperty HOT_THREADS_CAPTURE_THREADS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_CAPTURE_THREADS, DEFAULT_HOT_THREADS_CAPTURE_THREADS);
+    private final DynamicIntProperty HOT_THREADS_CAPTURE_SNAPSHOTS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_CAPTURE_SNAPSHOTS, DEFAULT_HOT_THREADS_CAPTURE_SNAPSHOTS);
+    private final DynamicIntProperty HOT_THREADS_CAPTURE_INTERVAL_MILLIS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_CAPTURE_INTERVAL_MILLIS, DEFAULT_HOT_THREADS_CAPTURE_INTERVAL_MILLIS);
+    private final DynamicIntProperty HOT_THREADS_TRIGGER_QUERY_LATENCY_MILLIS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_TRIGGER_QUERY_LATENCY_MILLIS, DEFAULT_HOT_THREADS_TRIGGER_QUERY_LATENCY_MILLIS);
+    private final DynamicIntProperty HOT_THREADS_TRIGGER_HEAP_USED_PERCENT = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_TRIGGER_HEAP_USED_PERCENT, DEFAULT_HOT_THREADS_TRIGGER_HEAP_USED_PERCENT);
+    private final DynamicIntProperty HOT_THREADS_TRIGGER_CPU_PERCENT = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_HOT_THREADS_TRIGGER_CPU_PERCENT, DEFAULT_HOT_THREADS_TRIGGER_CPU_PERCENT);
+    private final DynamicIntProperty BREAKER_TREND_HORIZON_SECONDS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BREAKER_TREND_HORIZON_SECONDS, DEFAULT_BREAKER_TREND_HORIZON_SECONDS);
+    private final DynamicIntProperty BREAKER_TREND_WARNING_SECONDS = DynamicPropertyFactory.getInstance().getIntProperty(CONFIG_BREAKER_TREND_WARNING_SECONDS, DEFAULT_BREAKER_TREND_WARNING_SECONDS);
 
     @Inject
     public RaigadConfiguration(ICredential provider, IConfigSource config) {
@@ -914,4 +1127,359 @@ public class RaigadConfiguration implements IConfiguration {
     public String getMacIdForInstance() {
         return MAC_ID;
     }
+
+    @Override
+    public String getTuningProfile() {
+        return TUNING_PROFILE.get();
+    }
+
+    @Override
+    public String getTuningProfileIndices() {
+        return TUNING_PROFILE_INDICES.get();
+    }
+
+    @Override
+    public int getTuningBulkLoadReplicas() {
+        return TUNING_BULK_LOAD_REPLICAS.get();
+    }
+
+    @Override
+    public boolean isSettingsReconcilerEnabled() {
+        return IS_SETTINGS_RECONCILER_ENABLED.get();
+    }
+
+    @Override
+    public boolean isSettingsReconcilerDryRun() {
+        return IS_SETTINGS_RECONCILER_DRY_RUN.get();
+    }
+
+    @Override
+    public int getSettingsReconcilerIntervalInSeconds() {
+        return SETTINGS_RECONCILER_INTERVAL_SECONDS.get();
+    }
+
+    @Override
+    public String getDynamicClusterSettings() {
+        return DYNAMIC_CLUSTER_SETTINGS.get();
+    }
+
+    @Override
+    public String getDynamicIndexSettings() {
+        return DYNAMIC_INDEX_SETTINGS.get();
+    }
+
+    @Override
+    public String getDynamicIndexSettingsIndices() {
+        return DYNAMIC_INDEX_SETTINGS_INDICES.get();
+    }
+
+    @Override
+    public int getBackpressureBulkQueueCapacity() {
+        return BACKPRESSURE_BULK_QUEUE_CAPACITY.get();
+    }
+
+    @Override
+    public int getBackpressureMergeBacklogThreshold() {
+        return BACKPRESSURE_MERGE_BACKLOG_THRESHOLD.get();
+    }
+
+    @Override
+    public int getBackpressureHeapPercentLow() {
+        return BACKPRESSURE_HEAP_PERCENT_LOW.get();
+    }
+
+    @Override
+    public int getBackpressureHeapPercentHigh() {
+        return BACKPRESSURE_HEAP_PERCENT_HIGH.get();
+    }
+
+    @Override
+    public int getBackpressureBaseBatchSize() {
+        return BACKPRESSURE_BASE_BATCH_SIZE.get();
+    }
+
+    @Override
+    public boolean isIndexHotSpotMonitorEnabled() {
+        return ES_HOT_SPOT_MONITOR_ENABLED.get();
+    }
+
+    @Override
+    public int getIndexHotSpotMonitorIntervalInSeconds() {
+        return ES_HOT_SPOT_MONITOR_INTERVAL_SECONDS.get();
+    }
+
+    @Override
+    public int getIndexHotSpotTopK() {
+        return ES_HOT_SPOT_TOP_K.get();
+    }
+
+    @Override
+    public String getIndexHotSpotScore() {
+        return ES_HOT_SPOT_SCORE.get();
+    }
+
+    @Override
+    public boolean isIndexHotSpotShardLevelEnabled() {
+        return ES_HOT_SPOT_SHARD_LEVEL.get();
+    }
+
+    @Override
+    public int getMembershipFetchThreads() {
+        return MEMBERSHIP_FETCH_THREADS.get();
+    }
+
+    @Override
+    public long getMembershipFetchTimeoutInMillis() {
+        return MEMBERSHIP_FETCH_TIMEOUT_MS.get();
+    }
+
+    @Override
+    public int getACLCacheTtlInSeconds() {
+        return ACL_CACHE_TTL_SECS.get();
+    }
+
+    @Override
+    public int getACLMaxRangesPerRequest() {
+        return ACL_MAX_RANGES_PER_REQUEST.get();
+    }
+
+    @Override
+    public int getAutoScalingGroupCacheTtlInSeconds() {
+        return ASG_CACHE_TTL_SECS.get();
+    }
+
+    @Override
+    public boolean isMetricsExportEnabled() {
+        return METRICS_EXPORT_ENABLED.get();
+    }
+
+    @Override
+    public String getMetricsExportHost() {
+        return METRICS_EXPORT_HOST.get();
+    }
+
+    @Override
+    public int getMetricsExportPort() {
+        return METRICS_EXPORT_PORT.get();
+    }
+
+    @Override
+    public int getMetricsExportIntervalInSeconds() {
+        return METRICS_EXPORT_INTERVAL_SECS.get();
+    }
+
+    @Override
+    public int getMetricsExportMaxDatagramSize() {
+        return METRICS_EXPORT_MAX_DATAGRAM_SIZE.get();
+    }
+
+    @Override
+    public boolean isMetricsPrometheusEnabled() {
+        return METRICS_PROMETHEUS_ENABLED.get();
+    }
+
+    @Override
+    public long getTransportClientCallTimeoutInMillis() {
+        return TRANSPORT_CLIENT_CALL_TIMEOUT_MS.get();
+    }
+
+    @Override
+    public int getTransportClientFailureThreshold() {
+        return TRANSPORT_CLIENT_FAILURE_THRESHOLD.get();
+    }
+
+    @Override
+    public long getTransportClientCircuitOpenInMillis() {
+        return TRANSPORT_CLIENT_CIRCUIT_OPEN_MS.get();
+    }
+
+    @Override
+    public boolean isPendingTasksMonitorEnabled() {
+        return PENDING_TASKS_MONITOR_ENABLED.get();
+    }
+
+    @Override
+    public int getPendingTasksTopN() {
+        return PENDING_TASKS_TOP_N.get();
+    }
+
+    @Override
+    public boolean isRecoveryMonitorEnabled() {
+        return RECOVERY_MONITOR_ENABLED.get();
+    }
+
+    @Override
+    public int getRecoveryMonitorIntervalInSeconds() {
+        return RECOVERY_MONITOR_INTERVAL_SECONDS.get();
+    }
+
+    @Override
+    public double getControllerQueryLatencyHighInMillis() {
+        return CONTROLLER_QUERY_LATENCY_HIGH_MILLIS.get();
+    }
+
+    @Override
+    public double getControllerQueryLatencyLowInMillis() {
+        return CONTROLLER_QUERY_LATENCY_LOW_MILLIS.get();
+    }
+
+    @Override
+    public double getControllerDiskUtilizationHighPercent() {
+        return CONTROLLER_DISK_UTILIZATION_HIGH_PERCENT.get();
+    }
+
+    @Override
+    public double getControllerDiskUtilizationLowPercent() {
+        return CONTROLLER_DISK_UTILIZATION_LOW_PERCENT.get();
+    }
+
+    @Override
+    public double getControllerRaiseFactor() {
+        return CONTROLLER_RAISE_FACTOR.get();
+    }
+
+    @Override
+    public double getControllerCutFactor() {
+        return CONTROLLER_CUT_FACTOR.get();
+    }
+
+    @Override
+    public int getControllerRaiseAfterRuns() {
+        return CONTROLLER_RAISE_AFTER_RUNS.get();
+    }
+
+    @Override
+    public boolean isRecoveryControllerEnabled() {
+        return RECOVERY_CONTROLLER_ENABLED.get();
+    }
+
+    @Override
+    public int getRecoveryControllerMinBytesPerSecInMb() {
+        return RECOVERY_CONTROLLER_MIN_BYTES_PER_SEC_MB.get();
+    }
+
+    @Override
+    public int getRecoveryControllerMaxBytesPerSecInMb() {
+        return RECOVERY_CONTROLLER_MAX_BYTES_PER_SEC_MB.get();
+    }
+
+    @Override
+    public int getRecoveryControllerMinConcurrentRecoveries() {
+        return RECOVERY_CONTROLLER_MIN_CONCURRENT_RECOVERIES.get();
+    }
+
+    @Override
+    public int getRecoveryControllerMaxConcurrentRecoveries() {
+        return RECOVERY_CONTROLLER_MAX_CONCURRENT_RECOVERIES.get();
+    }
+
+    @Override
+    public boolean isMergeControllerEnabled() {
+        return MERGE_CONTROLLER_ENABLED.get();
+    }
+
+    @Override
+    public String getMergeControllerIndices() {
+        return MERGE_CONTROLLER_INDICES.get();
+    }
+
+    @Override
+    public int getMergeControllerMinThreadCount() {
+        return MERGE_CONTROLLER_MIN_THREAD_COUNT.get();
+    }
+
+    @Override
+    public int getMergeControllerMaxThreadCount() {
+        return MERGE_CONTROLLER_MAX_THREAD_COUNT.get();
+    }
+
+    @Override
+    public boolean isMergeControllerStoreThrottleEnabled() {
+        return MERGE_CONTROLLER_STORE_THROTTLE_ENABLED.get();
+    }
+
+    @Override
+    public int getMergeControllerMinStoreThrottleInMb() {
+        return MERGE_CONTROLLER_MIN_STORE_THROTTLE_MB.get();
+    }
+
+    @Override
+    public int getMergeControllerMaxStoreThrottleInMb() {
+        return MERGE_CONTROLLER_MAX_STORE_THROTTLE_MB.get();
+    }
+
+    @Override
+    public double getGcPressureTimeRatio() {
+        return GC_PRESSURE_TIME_RATIO.get();
+    }
+
+    @Override
+    public int getGcPressureOldUsedPercent() {
+        return GC_PRESSURE_OLD_USED_PERCENT.get();
+    }
+
+    @Override
+    public int getGcPressureSustainedIntervals() {
+        return GC_PRESSURE_SUSTAINED_INTERVALS.get();
+    }
+
+    @Override
+    public boolean isHotThreadsCaptureEnabled() {
+        return HOT_THREADS_CAPTURE_ENABLED.get();
+    }
+
+    @Override
+    public String getHotThreadsCaptureDir() {
+        return HOT_THREADS_CAPTURE_DIR.get();
+    }
+
+    @Override
+    public int getHotThreadsMaxCaptures() {
+        return HOT_THREADS_CAPTURE_MAX_CAPTURES.get();
+    }
+
+    @Override
+    public int getHotThreadsMinCaptureIntervalInSeconds() {
+        return HOT_THREADS_CAPTURE_MIN_INTERVAL_SECONDS.get();
+    }
+
+    @Override
+    public int getHotThreadsThreads() {
+        return HOT_THREADS_CAPTURE_THREADS.get();
+    }
+
+    @Override
+    public int getHotThreadsSnapshots() {
+        return HOT_THREADS_CAPTURE_SNAPSHOTS.get();
+    }
+
+    @Override
+    public int getHotThreadsIntervalInMillis() {
+        return HOT_THREADS_CAPTURE_INTERVAL_MILLIS.get();
+    }
+
+    @Override
+    public int getHotThreadsTriggerQueryLatencyInMillis() {
+        return HOT_THREADS_TRIGGER_QUERY_LATENCY_MILLIS.get();
+    }
+
+    @Override
+    public int getHotThreadsTriggerHeapUsedPercent() {
+        return HOT_THREADS_TRIGGER_HEAP_USED_PERCENT.get();
+    }
+
+    @Override
+    public int getHotThreadsTriggerCpuPercent() {
+        return HOT_THREADS_TRIGGER_CPU_PERCENT.get();
+    }
+
+    @Override
+    public int getBreakerTrendHorizonInSeconds() {
+        return BREAKER_TREND_HORIZON_SECONDS.get();
+    }
+
+    @Override
+    public int getBreakerTripWarningInSeconds() {
+        return BREAKER_TREND_WARNING_SECONDS.get();
+    }
 }
@@ -18,7 +18,9 @@ package com.netflix.raigad.defaultimpl;
 
 import com.google.inject.Inject;
 import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.tuning.TuningProfile;
 import com.netflix.raigad.utils.IElasticsearchTuner;
+import com.netflix.raigad.utils.TribeUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,10 +40,16 @@ public class StandardTuner implements IElasticsearchTuner {
     private static final String PARAM_SEPARATOR = "=";
 
     protected final IConfiguration config;
+    private final TribeUtils tribeUtils;
 
-    @Inject
     public StandardTuner(IConfiguration config) {
+        this(config, null);
+    }
+
+    @Inject
+    public StandardTuner(IConfiguration config, TribeUtils tribeUtils) {
         this.config = config;
+        this.tribeUtils = tribeUtils;
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -134,6 +142,8 @@ public class StandardTuner implements IElasticsearchTuner {
             map.put("index.number_of_replicas", config.getNumOfReplicas());
             map.put("index.refresh_interval", config.getIndexRefreshInterval());
 
+            applyTuningProfile(map);
+
             /**
             NOTE: When using awareness attributes, shards will not be allocated to nodes that
             do not have values set for those attributes. Important in dedicated master nodes deployment
@@ -172,7 +182,36 @@ public class StandardTuner implements IElasticsearchTuner {
         addExtraEsParams(map);
 
         logger.info(yaml.dump(map));
-        yaml.dump(map, new FileWriter(yamlFile));
+        try (FileWriter writer = new FileWriter(yamlFile)) {
+            yaml.dump(map, writer);
+        }
+
+        if (tribeUtils != null && config.amITribeNode()) {
+            tribeUtils.setTribeSettings(map);
+        }
+    }
+
+    /**
+     * Overlays index and thread pool defaults of the configured workload profile, if any
+     */
+    @SuppressWarnings("unchecked")
+    public void applyTuningProfile(Map map) {
+        TuningProfile profile;
+        try {
+            profile = TuningProfile.fromName(config.getTuningProfile());
+        } catch (IllegalArgumentException e) {
+            logger.error("Ignoring tuning profile: {}", e.getMessage());
+            return;
+        }
+
+        if (profile == null) {
+            logger.info("Updating elasticsearch.yml: no tuning profile");
+            return;
+        }
+
+        logger.info("Updating elasticsearch.yml: applying tuning profile [{}]", profile.getProfileName());
+        map.putAll(profile.getIndexSettings());
+        map.putAll(profile.getThreadPoolSettings());
     }
 
     public void addExtraEsParams(Map map) {
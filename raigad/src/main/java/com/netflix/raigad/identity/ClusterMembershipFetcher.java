@@ -0,0 +1,151 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.identity;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.NamedThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fetches the members of several clusters (e.g. all source clusters of a tribe node) concurrently.
+ * <p>
+ * Every cluster gets the same deadline. Clusters that fail or time out fall back to their last
+ * successfully fetched membership; clusters that never succeeded are left out and reported
+ * as missing, so callers can tell a partial result from a complete one.
+ */
+@Singleton
+public class ClusterMembershipFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembershipFetcher.class);
+
+    private final IRaigadInstanceFactory instanceFactory;
+    private final IConfiguration config;
+    private final ExecutorService executor;
+    private final Map<String, List<RaigadInstance>> cache = new ConcurrentHashMap<>();
+
+    @Inject
+    public ClusterMembershipFetcher(IRaigadInstanceFactory instanceFactory, IConfiguration config) {
+        this.instanceFactory = instanceFactory;
+        this.config = config;
+        this.executor = new NamedThreadPoolExecutor(Math.max(1, config.getMembershipFetchThreads()), "ClusterMembershipFetcher");
+    }
+
+    public MembershipResult fetch(Collection<String> clusterNames) {
+        Map<String, Future<List<RaigadInstance>>> futures = new LinkedHashMap<>();
+        for (final String clusterName : new LinkedHashSet<>(clusterNames)) {
+            futures.put(clusterName, executor.submit(new Callable<List<RaigadInstance>>() {
+                @Override
+                public List<RaigadInstance> call() throws Exception {
+                    return instanceFactory.getAllIds(clusterName);
+                }
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getMembershipFetchTimeoutInMillis());
+        List<RaigadInstance> instances = new ArrayList<>();
+        Set<String> staleClusters = new LinkedHashSet<>();
+        Set<String> missingClusters = new LinkedHashSet<>();
+
+        for (Map.Entry<String, Future<List<RaigadInstance>>> entry : futures.entrySet()) {
+            String clusterName = entry.getKey();
+            try {
+                List<RaigadInstance> clusterInstances = entry.getValue().get(
+                        Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (clusterInstances == null) {
+                    clusterInstances = Collections.emptyList();
+                }
+                cache.put(clusterName, clusterInstances);
+                instances.addAll(clusterInstances);
+                continue;
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                logger.warn("Timed out fetching members of cluster [{}]", clusterName);
+            } catch (ExecutionException e) {
+                logger.warn("Failed to fetch members of cluster [{}]", clusterName, e.getCause());
+            } catch (InterruptedException e) {
+                entry.getValue().cancel(true);
+                Thread.currentThread().interrupt();
+                logger.warn("Interrupted while fetching members of cluster [{}]", clusterName);
+            }
+
+            List<RaigadInstance> cached = cache.get(clusterName);
+            if (cached != null) {
+                logger.info("Using last known members of cluster [{}]", clusterName);
+                staleClusters.add(clusterName);
+                instances.addAll(cached);
+            } else {
+                missingClusters.add(clusterName);
+            }
+        }
+
+        return new MembershipResult(instances, staleClusters, missingClusters);
+    }
+
+    public static class MembershipResult {
+        private final List<RaigadInstance> instances;
+        private final Set<String> staleClusters;
+        private final Set<String> missingClusters;
+
+        MembershipResult(List<RaigadInstance> instances, Set<String> staleClusters, Set<String> missingClusters) {
+            this.instances = instances;
+            this.staleClusters = staleClusters;
+            this.missingClusters = missingClusters;
+        }
+
+        public List<RaigadInstance> getInstances() {
+            return instances;
+        }
+
+        /**
+         * @return clusters that could not be fetched this time and are served from cache
+         */
+        public Set<String> getStaleClusters() {
+            return staleClusters;
+        }
+
+        /**
+         * @return clusters that could not be fetched and have no cached membership either
+         */
+        public Set<String> getMissingClusters() {
+            return missingClusters;
+        }
+
+        /**
+         * @return true if every cluster is represented, possibly by cached membership
+         */
+        public boolean isComplete() {
+            return missingClusters.isEmpty();
+        }
+    }
+}
@@ -42,13 +42,16 @@ public class InstanceManager {
 	private final IRaigadInstanceFactory instanceFactory;
 	private final IMembership membership;
 	private final IConfiguration config;
+	private final ClusterMembershipFetcher membershipFetcher;
 	private RaigadInstance thisInstance;
 
 	@Inject
-	public InstanceManager(IRaigadInstanceFactory instanceFactory, IMembership membership, IConfiguration config) throws Exception {
+	public InstanceManager(IRaigadInstanceFactory instanceFactory, IMembership membership, IConfiguration config,
+						   ClusterMembershipFetcher membershipFetcher) throws Exception {
 		this.instanceFactory = instanceFactory;
 		this.membership = membership;
 		this.config = config;
+		this.membershipFetcher = membershipFetcher;
 		init();
 	}
 
@@ -164,9 +167,11 @@ public class InstanceManager {
 				logger.info("Adding cluster = <{}> ", clusterAndPort[0]);
 			}
 
-			for (String sourceClusterName : sourceClusters) {
-				instances.addAll(instanceFactory.getAllIds(sourceClusterName));
+			ClusterMembershipFetcher.MembershipResult membershipResult = membershipFetcher.fetch(sourceClusters);
+			if (!membershipResult.isComplete()) {
+				logger.warn("Members of source clusters {} are not available", membershipResult.getMissingClusters());
 			}
+			instances.addAll(membershipResult.getInstances());
 
 			logger.info("Printing tribe node related nodes...");
 
@@ -22,12 +22,13 @@ import com.netflix.raigad.configuration.IConfiguration;
 import com.netflix.raigad.scheduler.SimpleTimer;
 import com.netflix.raigad.scheduler.Task;
 import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
 import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
-import com.netflix.raigad.utils.ElasticsearchTransportClient;
 import com.netflix.servo.annotations.DataSourceType;
 import com.netflix.servo.annotations.Monitor;
 import com.netflix.servo.monitor.Monitors;
 import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequestBuilder;
 import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.indices.breaker.AllCircuitBreakerStats;
@@ -35,19 +36,32 @@ import org.elasticsearch.indices.breaker.CircuitBreakerStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
-
+/**
+ * Reports the size, limit and trips of the fielddata, request, parent and in flight requests circuit breakers,
+ * along with their trend: growth rate, time to trip and peak usage (see {@link BreakerTrendTracker}).
+ * <p>
+ * Only breaker statistics are loaded, every 10 seconds, so short spikes show up in the peak ratios.
+ */
 @Singleton
 public class AllCircuitBreakerStatsMonitor extends Task {
     private static final Logger logger = LoggerFactory.getLogger(AllCircuitBreakerStatsMonitor.class);
 
     public static final String METRIC_NAME = "Elasticsearch_AllCircuitBreakerStatsMonitor";
     private final Elasticsearch_AllCircuitBreakerStatsReporter allCircuitBreakerStatsReporter;
+    private final ElasticsearchAsyncAdmin asyncAdmin;
+    private final BreakerTrendTracker breakerTrendTracker;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
 
     @Inject
-    public AllCircuitBreakerStatsMonitor(IConfiguration config) {
+    public AllCircuitBreakerStatsMonitor(IConfiguration config, ElasticsearchAsyncAdmin asyncAdmin) {
         super(config);
+        this.asyncAdmin = asyncAdmin;
+        breakerTrendTracker = new BreakerTrendTracker(config);
         allCircuitBreakerStatsReporter = new Elasticsearch_AllCircuitBreakerStatsReporter();
         Monitors.registerObject(allCircuitBreakerStatsReporter);
     }
@@ -62,9 +76,15 @@ public class AllCircuitBreakerStatsMonitor extends Task {
         }
 
         AllCircuitBreakerStatsBean allCircuitBreakerStatsBean = new AllCircuitBreakerStatsBean();
+        AllCircuitBreakerStatsBean previousBean = allCircuitBreakerStatsReporter.allCircuitBreakerStatsBean.get();
 
         try {
-            NodesStatsResponse nodesStatsResponse = ElasticsearchTransportClient.getNodesStatsResponse(config);
+            NodesStatsResponse nodesStatsResponse = asyncAdmin.nodesStats(new Function<NodesStatsRequestBuilder, NodesStatsRequestBuilder>() {
+                @Override
+                public NodesStatsRequestBuilder apply(NodesStatsRequestBuilder builder) {
+                    return builder.clear().setBreaker(true);
+                }
+            }, config.getEsNodeName()).get();
             NodeStats nodeStats = null;
 
             if (nodesStatsResponse.getNodes().length > 0) {
@@ -88,21 +108,34 @@ public class AllCircuitBreakerStatsMonitor extends Task {
                 return;
             }
 
+            counterRateTracker.setGeneration(nodeStats.getNode().getId());
+            Set<String> breakers = new HashSet<>();
             for (CircuitBreakerStats circuitBreakerStat : circuitBreakerStats) {
-                if (circuitBreakerStat.getName() == CircuitBreaker.FIELDDATA) {
-                    allCircuitBreakerStatsBean.fieldDataEstimatedSizeInBytes = circuitBreakerStat.getEstimated();
-                    allCircuitBreakerStatsBean.fieldDataLimitMaximumSizeInBytes = circuitBreakerStat.getLimit();
-                    allCircuitBreakerStatsBean.fieldDataOverhead = circuitBreakerStat.getOverhead();
-                    allCircuitBreakerStatsBean.fieldDataTrippedCount = circuitBreakerStat.getTrippedCount();
+                // Names are deserialized from the transport layer, they have to be compared by value
+                BreakerBean breakerBean = allCircuitBreakerStatsBean.get(circuitBreakerStat.getName());
+                if (breakerBean == null) {
+                    continue;
                 }
 
-                if (circuitBreakerStat.getName() == CircuitBreaker.REQUEST) {
-                    allCircuitBreakerStatsBean.requestEstimatedSizeInBytes = circuitBreakerStat.getEstimated();
-                    allCircuitBreakerStatsBean.requestLimitMaximumSizeInBytes = circuitBreakerStat.getLimit();
-                    allCircuitBreakerStatsBean.requestOverhead = circuitBreakerStat.getOverhead();
-                    allCircuitBreakerStatsBean.requestTrippedCount = circuitBreakerStat.getTrippedCount();
+                breakerBean.estimatedSizeInBytes = circuitBreakerStat.getEstimated();
+                breakerBean.limitMaximumSizeInBytes = circuitBreakerStat.getLimit();
+                breakerBean.overhead = circuitBreakerStat.getOverhead();
+                breakerBean.trippedCount = circuitBreakerStat.getTrippedCount();
+                breakerBean.trippedDelta = counterRateTracker.update(circuitBreakerStat.getName() + "_tripped",
+                        circuitBreakerStat.getTrippedCount()).getDelta();
+                breakerBean.trend = breakerTrendTracker.update(circuitBreakerStat.getName(), circuitBreakerStat.getEstimated(),
+                        circuitBreakerStat.getLimit(), circuitBreakerStat.getOverhead());
+                breakers.add(circuitBreakerStat.getName());
+
+                BreakerBean previousBreakerBean = previousBean.get(circuitBreakerStat.getName());
+                if (breakerBean.trend.isTripForecast() && !previousBreakerBean.trend.isTripForecast()) {
+                    logger.warn("Circuit breaker [{}] is estimated to trip in {} seconds: {}% of its limit, growing {} bytes/s",
+                            circuitBreakerStat.getName(), Math.round(breakerBean.trend.getTimeToTripInSeconds()),
+                            Math.round(breakerBean.trend.getRatio() * 100), Math.round(breakerBean.trend.getGrowthInBytesPerSec()));
                 }
             }
+
+            breakerTrendTracker.retain(breakers);
         } catch (Exception e) {
             logger.warn("Failed to load circuit breaker stats data", e);
         }
@@ -110,6 +143,20 @@ public class AllCircuitBreakerStatsMonitor extends Task {
         allCircuitBreakerStatsReporter.allCircuitBreakerStatsBean.set(allCircuitBreakerStatsBean);
     }
 
+    /**
+     * @return estimated seconds until the parent breaker trips, -1 if it is not growing
+     */
+    public double getParentTimeToTripInSeconds() {
+        return allCircuitBreakerStatsReporter.allCircuitBreakerStatsBean.get().parent.trend.getTimeToTripInSeconds();
+    }
+
+    /**
+     * @return true if the parent breaker is estimated to trip within the configured warning time
+     */
+    public boolean isParentTripForecast() {
+        return allCircuitBreakerStatsReporter.allCircuitBreakerStatsBean.get().parent.trend.isTripForecast();
+    }
+
     public class Elasticsearch_AllCircuitBreakerStatsReporter {
         private final AtomicReference<AllCircuitBreakerStatsBean> allCircuitBreakerStatsBean;
 
@@ -119,58 +166,236 @@ public class AllCircuitBreakerStatsMonitor extends Task {
 
         @Monitor(name = "field_data_estimated_size_in_bytes", type = DataSourceType.GAUGE)
         public long getFieldDataEstimatedSizeInBytes() {
-            return allCircuitBreakerStatsBean.get().fieldDataEstimatedSizeInBytes;
+            return allCircuitBreakerStatsBean.get().fieldData.estimatedSizeInBytes;
         }
 
         @Monitor(name = "field_data_limit_maximum_size_in_bytes", type = DataSourceType.GAUGE)
         public long getFieldDataLimitMaximumSizeInBytes() {
-            return allCircuitBreakerStatsBean.get().fieldDataLimitMaximumSizeInBytes;
+            return allCircuitBreakerStatsBean.get().fieldData.limitMaximumSizeInBytes;
         }
 
         @Monitor(name = "field_data_tripped_count", type = DataSourceType.GAUGE)
         public double getFieldDataTrippedCount() {
-            return allCircuitBreakerStatsBean.get().fieldDataTrippedCount;
+            return allCircuitBreakerStatsBean.get().fieldData.trippedCount;
+        }
+
+        @Monitor(name = "field_data_tripped_delta", type = DataSourceType.GAUGE)
+        public long getFieldDataTrippedDelta() {
+            return allCircuitBreakerStatsBean.get().fieldData.trippedDelta;
         }
 
         @Monitor(name = "field_data_overhead", type = DataSourceType.GAUGE)
         public double getFieldDataOverhead() {
-            return allCircuitBreakerStatsBean.get().fieldDataOverhead;
+            return allCircuitBreakerStatsBean.get().fieldData.overhead;
+        }
+
+        @Monitor(name = "field_data_ratio", type = DataSourceType.GAUGE)
+        public double getFieldDataRatio() {
+            return allCircuitBreakerStatsBean.get().fieldData.trend.getRatio();
+        }
+
+        @Monitor(name = "field_data_peak_ratio", type = DataSourceType.GAUGE)
+        public double getFieldDataPeakRatio() {
+            return allCircuitBreakerStatsBean.get().fieldData.trend.getPeakRatio();
+        }
+
+        @Monitor(name = "field_data_growth_in_bytes_per_sec", type = DataSourceType.GAUGE)
+        public double getFieldDataGrowthInBytesPerSec() {
+            return allCircuitBreakerStatsBean.get().fieldData.trend.getGrowthInBytesPerSec();
+        }
+
+        @Monitor(name = "field_data_time_to_trip_in_seconds", type = DataSourceType.GAUGE)
+        public double getFieldDataTimeToTripInSeconds() {
+            return allCircuitBreakerStatsBean.get().fieldData.trend.getTimeToTripInSeconds();
+        }
+
+        @Monitor(name = "field_data_trip_forecast", type = DataSourceType.GAUGE)
+        public int getFieldDataTripForecast() {
+            return allCircuitBreakerStatsBean.get().fieldData.trend.isTripForecast() ? 1 : 0;
         }
 
         @Monitor(name = "request_estimated_size_in_bytes", type = DataSourceType.GAUGE)
         public long getRequestEstimatedSizeInBytes() {
-            return allCircuitBreakerStatsBean.get().requestEstimatedSizeInBytes;
+            return allCircuitBreakerStatsBean.get().request.estimatedSizeInBytes;
         }
 
         @Monitor(name = "request_limit_maximum_size_in_bytes", type = DataSourceType.GAUGE)
         public long getRequestLimitMaximumSizeInBytes() {
-            return allCircuitBreakerStatsBean.get().requestLimitMaximumSizeInBytes;
+            return allCircuitBreakerStatsBean.get().request.limitMaximumSizeInBytes;
         }
 
         @Monitor(name = "request_tripped_count", type = DataSourceType.GAUGE)
         public double getRequestTrippedCount() {
-            return allCircuitBreakerStatsBean.get().requestTrippedCount;
+            return allCircuitBreakerStatsBean.get().request.trippedCount;
+        }
+
+        @Monitor(name = "request_tripped_delta", type = DataSourceType.GAUGE)
+        public long getRequestTrippedDelta() {
+            return allCircuitBreakerStatsBean.get().request.trippedDelta;
         }
 
         @Monitor(name = "request_overhead", type = DataSourceType.GAUGE)
         public double getRequestOverhead() {
-            return allCircuitBreakerStatsBean.get().requestOverhead;
+            return allCircuitBreakerStatsBean.get().request.overhead;
+        }
+
+        @Monitor(name = "request_ratio", type = DataSourceType.GAUGE)
+        public double getRequestRatio() {
+            return allCircuitBreakerStatsBean.get().request.trend.getRatio();
+        }
+
+        @Monitor(name = "request_peak_ratio", type = DataSourceType.GAUGE)
+        public double getRequestPeakRatio() {
+            return allCircuitBreakerStatsBean.get().request.trend.getPeakRatio();
+        }
+
+        @Monitor(name = "request_growth_in_bytes_per_sec", type = DataSourceType.GAUGE)
+        public double getRequestGrowthInBytesPerSec() {
+            return allCircuitBreakerStatsBean.get().request.trend.getGrowthInBytesPerSec();
+        }
+
+        @Monitor(name = "request_time_to_trip_in_seconds", type = DataSourceType.GAUGE)
+        public double getRequestTimeToTripInSeconds() {
+            return allCircuitBreakerStatsBean.get().request.trend.getTimeToTripInSeconds();
+        }
+
+        @Monitor(name = "request_trip_forecast", type = DataSourceType.GAUGE)
+        public int getRequestTripForecast() {
+            return allCircuitBreakerStatsBean.get().request.trend.isTripForecast() ? 1 : 0;
+        }
+
+        @Monitor(name = "parent_estimated_size_in_bytes", type = DataSourceType.GAUGE)
+        public long getParentEstimatedSizeInBytes() {
+            return allCircuitBreakerStatsBean.get().parent.estimatedSizeInBytes;
+        }
+
+        @Monitor(name = "parent_limit_maximum_size_in_bytes", type = DataSourceType.GAUGE)
+        public long getParentLimitMaximumSizeInBytes() {
+            return allCircuitBreakerStatsBean.get().parent.limitMaximumSizeInBytes;
+        }
+
+        @Monitor(name = "parent_tripped_count", type = DataSourceType.GAUGE)
+        public double getParentTrippedCount() {
+            return allCircuitBreakerStatsBean.get().parent.trippedCount;
+        }
+
+        @Monitor(name = "parent_tripped_delta", type = DataSourceType.GAUGE)
+        public long getParentTrippedDelta() {
+            return allCircuitBreakerStatsBean.get().parent.trippedDelta;
+        }
+
+        @Monitor(name = "parent_overhead", type = DataSourceType.GAUGE)
+        public double getParentOverhead() {
+            return allCircuitBreakerStatsBean.get().parent.overhead;
+        }
+
+        @Monitor(name = "parent_ratio", type = DataSourceType.GAUGE)
+        public double getParentRatio() {
+            return allCircuitBreakerStatsBean.get().parent.trend.getRatio();
+        }
+
+        @Monitor(name = "parent_peak_ratio", type = DataSourceType.GAUGE)
+        public double getParentPeakRatio() {
+            return allCircuitBreakerStatsBean.get().parent.trend.getPeakRatio();
+        }
+
+        @Monitor(name = "parent_growth_in_bytes_per_sec", type = DataSourceType.GAUGE)
+        public double getParentGrowthInBytesPerSec() {
+            return allCircuitBreakerStatsBean.get().parent.trend.getGrowthInBytesPerSec();
+        }
+
+        @Monitor(name = "parent_time_to_trip_in_seconds", type = DataSourceType.GAUGE)
+        public double getParentTimeToTripInSeconds() {
+            return allCircuitBreakerStatsBean.get().parent.trend.getTimeToTripInSeconds();
+        }
+
+        @Monitor(name = "parent_trip_forecast", type = DataSourceType.GAUGE)
+        public int getParentTripForecast() {
+            return allCircuitBreakerStatsBean.get().parent.trend.isTripForecast() ? 1 : 0;
+        }
+
+        @Monitor(name = "in_flight_requests_estimated_size_in_bytes", type = DataSourceType.GAUGE)
+        public long getInFlightRequestsEstimatedSizeInBytes() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.estimatedSizeInBytes;
+        }
+
+        @Monitor(name = "in_flight_requests_limit_maximum_size_in_bytes", type = DataSourceType.GAUGE)
+        public long getInFlightRequestsLimitMaximumSizeInBytes() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.limitMaximumSizeInBytes;
+        }
+
+        @Monitor(name = "in_flight_requests_tripped_count", type = DataSourceType.GAUGE)
+        public double getInFlightRequestsTrippedCount() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trippedCount;
+        }
+
+        @Monitor(name = "in_flight_requests_tripped_delta", type = DataSourceType.GAUGE)
+        public long getInFlightRequestsTrippedDelta() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trippedDelta;
+        }
+
+        @Monitor(name = "in_flight_requests_overhead", type = DataSourceType.GAUGE)
+        public double getInFlightRequestsOverhead() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.overhead;
+        }
+
+        @Monitor(name = "in_flight_requests_ratio", type = DataSourceType.GAUGE)
+        public double getInFlightRequestsRatio() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trend.getRatio();
+        }
+
+        @Monitor(name = "in_flight_requests_peak_ratio", type = DataSourceType.GAUGE)
+        public double getInFlightRequestsPeakRatio() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trend.getPeakRatio();
+        }
+
+        @Monitor(name = "in_flight_requests_growth_in_bytes_per_sec", type = DataSourceType.GAUGE)
+        public double getInFlightRequestsGrowthInBytesPerSec() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trend.getGrowthInBytesPerSec();
+        }
+
+        @Monitor(name = "in_flight_requests_time_to_trip_in_seconds", type = DataSourceType.GAUGE)
+        public double getInFlightRequestsTimeToTripInSeconds() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trend.getTimeToTripInSeconds();
+        }
+
+        @Monitor(name = "in_flight_requests_trip_forecast", type = DataSourceType.GAUGE)
+        public int getInFlightRequestsTripForecast() {
+            return allCircuitBreakerStatsBean.get().inFlightRequests.trend.isTripForecast() ? 1 : 0;
         }
     }
 
     private static class AllCircuitBreakerStatsBean {
-        private long fieldDataEstimatedSizeInBytes;
-        private long fieldDataLimitMaximumSizeInBytes;
-        private long fieldDataTrippedCount;
-        private double fieldDataOverhead;
-        private long requestEstimatedSizeInBytes;
-        private long requestLimitMaximumSizeInBytes;
-        private long requestTrippedCount;
-        private double requestOverhead;
+        private final BreakerBean fieldData = new BreakerBean();
+        private final BreakerBean request = new BreakerBean();
+        private final BreakerBean parent = new BreakerBean();
+        private final BreakerBean inFlightRequests = new BreakerBean();
+
+        private BreakerBean get(String name) {
+            if (CircuitBreaker.FIELDDATA.equals(name)) {
+                return fieldData;
+            } else if (CircuitBreaker.REQUEST.equals(name)) {
+                return request;
+            } else if (CircuitBreaker.PARENT.equals(name)) {
+                return parent;
+            } else if (CircuitBreaker.IN_FLIGHT_REQUESTS.equals(name)) {
+                return inFlightRequests;
+            }
+            return null;
+        }
+    }
+
+    private static class BreakerBean {
+        private long estimatedSizeInBytes;
+        private long limitMaximumSizeInBytes;
+        private long trippedCount;
+        private long trippedDelta;
+        private double overhead;
+        private BreakerTrendTracker.BreakerTrend trend = new BreakerTrendTracker.BreakerTrend();
     }
 
     public static TaskTimer getTimer(String name) {
-        return new SimpleTimer(name, 60 * 1000);
+        return new SimpleTimer(name, 10 * 1000);
     }
 
     @Override
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.IConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forecasts circuit breaker trips from the recent estimated sizes of each breaker.
+ * <p>
+ * The growth rate is a least squares fit of the estimated size over the configured horizon, and the time to trip
+ * is how long that growth takes to reach the limit. Elasticsearch trips a breaker once the estimated size times
+ * the breaker's overhead exceeds its limit, so the overhead is applied to both.
+ * <p>
+ * The peak ratio of estimated size (with overhead) to limit is taken over the last {@value #PEAK_WINDOW_SECONDS}
+ * seconds, matching the interval gauges are published at.
+ */
+public class BreakerTrendTracker {
+    static final int PEAK_WINDOW_SECONDS = 60;
+
+    private final IConfiguration config;
+    private final Ticker ticker;
+    private final Map<String, Deque<Sample>> samples = new HashMap<>();
+
+    public BreakerTrendTracker(IConfiguration config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    public BreakerTrendTracker(IConfiguration config, Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Records the current size of a breaker
+     */
+    public synchronized BreakerTrend update(String breaker, long estimatedInBytes, long limitInBytes, double overhead) {
+        long now = ticker.read();
+        double ratio = limitInBytes > 0 ? estimatedInBytes * effectiveOverhead(overhead) / limitInBytes : 0;
+
+        Deque<Sample> breakerSamples = samples.get(breaker);
+        if (breakerSamples == null) {
+            breakerSamples = new ArrayDeque<>();
+            samples.put(breaker, breakerSamples);
+        }
+        breakerSamples.addLast(new Sample(now, estimatedInBytes, ratio));
+
+        long horizonNanos = TimeUnit.SECONDS.toNanos(config.getBreakerTrendHorizonInSeconds());
+        long peakWindowNanos = TimeUnit.SECONDS.toNanos(PEAK_WINDOW_SECONDS);
+        while (now - breakerSamples.peekFirst().timestampNanos > Math.max(horizonNanos, peakWindowNanos)) {
+            breakerSamples.removeFirst();
+        }
+
+        BreakerTrend trend = new BreakerTrend();
+        trend.ratio = ratio;
+        trend.peakRatio = ratio;
+
+        // Least squares fit of the size over time, relative to the current sample to keep numbers small
+        int count = 0;
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (Sample sample : breakerSamples) {
+            long ageNanos = now - sample.timestampNanos;
+            if (ageNanos <= peakWindowNanos) {
+                trend.peakRatio = Math.max(trend.peakRatio, sample.ratio);
+            }
+            if (ageNanos <= horizonNanos) {
+                double x = -ageNanos / (double) TimeUnit.SECONDS.toNanos(1);
+                double y = sample.estimatedInBytes - estimatedInBytes;
+                count++;
+                sumX += x;
+                sumY += y;
+                sumXX += x * x;
+                sumXY += x * y;
+            }
+        }
+
+        double denominator = count * sumXX - sumX * sumX;
+        if (count >= 2 && denominator > 0) {
+            trend.growthInBytesPerSec = (count * sumXY - sumX * sumY) / denominator;
+        }
+
+        if (trend.growthInBytesPerSec > 0 && limitInBytes > 0) {
+            double tripSizeInBytes = limitInBytes / effectiveOverhead(overhead);
+            trend.timeToTripInSeconds = Math.max(0, (tripSizeInBytes - estimatedInBytes) / trend.growthInBytesPerSec);
+            trend.tripForecast = trend.timeToTripInSeconds <= config.getBreakerTripWarningInSeconds();
+        }
+
+        return trend;
+    }
+
+    /**
+     * Forgets all breakers not in the given collection
+     */
+    public synchronized void retain(Collection<String> breakers) {
+        samples.keySet().retainAll(breakers);
+    }
+
+    private static double effectiveOverhead(double overhead) {
+        return overhead > 0 ? overhead : 1;
+    }
+
+    public static class BreakerTrend {
+        private double ratio;
+        private double peakRatio;
+        private double growthInBytesPerSec;
+        private double timeToTripInSeconds = -1;
+        private boolean tripForecast;
+
+        /**
+         * @return estimated size (with overhead) over limit, 1 or more trips the breaker
+         */
+        public double getRatio() {
+            return ratio;
+        }
+
+        public double getPeakRatio() {
+            return peakRatio;
+        }
+
+        public double getGrowthInBytesPerSec() {
+            return growthInBytesPerSec;
+        }
+
+        /**
+         * @return estimated seconds until the breaker trips at the current growth rate, -1 if it is not growing
+         */
+        public double getTimeToTripInSeconds() {
+            return timeToTripInSeconds;
+        }
+
+        /**
+         * @return true if the breaker is estimated to trip within the configured warning time
+         */
+        public boolean isTripForecast() {
+            return tripForecast;
+        }
+    }
+
+    private static class Sample {
+        private final long timestampNanos;
+        private final long estimatedInBytes;
+        private final double ratio;
+
+        private Sample(long timestampNanos, long estimatedInBytes, double ratio) {
+            this.timestampNanos = timestampNanos;
+            this.estimatedInBytes = estimatedInBytes;
+            this.ratio = ratio;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.raigad.utils.ElasticsearchTransportClient;
+import com.netflix.servo.annotations.DataSourceType;
+import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.Monitors;
+import org.elasticsearch.action.admin.cluster.node.info.NodeInfo;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoRequestBuilder;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoResponse;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.ThreadPoolStats;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Combines bulk queue fill, bulk rejections, indexing throttling, merge backlog and heap usage
+ * of the local node into a single backpressure signal for ingest clients.
+ * <p>
+ * Each input is normalized to a 0..1 pressure and the highest one wins, since a node is only as fast
+ * as its most saturated resource. The resulting score drives the advice level as well as the
+ * suggested bulk batch size and concurrency.
+ * <p>
+ * When the signal can not be computed (stats call failed, timed out or the circuit is open) the advice is
+ * UNKNOWN with the smallest batch size and a concurrency of 1, and the signal is flagged stale along with the age
+ * of the last computed one: a node too busy to answer is no reason for clients to speed up.
+ */
+@Singleton
+public class BulkBackpressureMonitor extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(BulkBackpressureMonitor.class);
+    public static final String METRIC_NAME = "Elasticsearch_BulkBackpressureMonitor";
+
+    private static final String BULK_THREAD_POOL = "bulk";
+    private static final double SLOW_DOWN_SCORE = 0.5;
+    private static final double BACK_OFF_SCORE = 0.8;
+    private static final double MIN_BATCH_SIZE_FRACTION = 0.1;
+    private static final long BULK_QUEUE_CAPACITY_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    public enum Advice {
+        OK, SLOW_DOWN, BACK_OFF, UNKNOWN
+    }
+
+    private final ElasticsearchAsyncAdmin asyncAdmin;
+    private final Elasticsearch_BulkBackpressureReporter bulkBackpressureReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
+    private volatile long lastSampleMillis;
+
+    // Bulk queue capacity as last loaded, with the id of the node it was loaded from
+    private String bulkQueueCapacityNodeId;
+    private long bulkQueueCapacity;
+    private long bulkQueueCapacityLoadedMillis;
+
+    @Inject
+    public BulkBackpressureMonitor(IConfiguration config, ElasticsearchAsyncAdmin asyncAdmin) {
+        super(config);
+        this.asyncAdmin = asyncAdmin;
+        bulkBackpressureReporter = new Elasticsearch_BulkBackpressureReporter(unknownBean(config, -1));
+        Monitors.registerObject(bulkBackpressureReporter);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        // If Elasticsearch is started then only start the monitoring
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            String exceptionMsg = "Elasticsearch is not yet started, check back again later";
+            logger.info(exceptionMsg);
+            return;
+        }
+
+        BulkBackpressureBean bulkBackpressureBean = new BulkBackpressureBean();
+        try {
+            NodesStatsResponse nodesStatsResponse = ElasticsearchTransportClient.getNodesStatsResponse(config);
+            NodeStats nodeStats = null;
+            if (nodesStatsResponse.getNodes().length > 0) {
+                nodeStats = nodesStatsResponse.getAt(0);
+            }
+            if (nodeStats == null) {
+                logger.info("NodeStats is null, backpressure signal is unknown");
+                publishUnknown();
+                return;
+            }
+
+            int bulkThreads = 0;
+            long bulkQueue = 0;
+            long bulkRejected = 0;
+            for (ThreadPoolStats.Stats stats : nodeStats.getThreadPool()) {
+                if (BULK_THREAD_POOL.equals(stats.getName())) {
+                    bulkThreads = stats.getThreads();
+                    bulkQueue = stats.getQueue();
+                    bulkRejected = stats.getRejected();
+                }
+            }
+
+            counterRateTracker.setGeneration(nodeStats.getNode().getId());
+
+            bulkBackpressureBean.bulkQueueCapacity = getBulkQueueCapacity(nodeStats.getNode().getId());
+            bulkBackpressureBean.bulkQueueFillRatio = bulkBackpressureBean.bulkQueueCapacity > 0 ?
+                    Math.min(1.0, (double) bulkQueue / bulkBackpressureBean.bulkQueueCapacity) : 0;
+            bulkBackpressureBean.bulkRejectedDelta = counterRateTracker.update("bulk_rejected", bulkRejected).getDelta();
+            bulkBackpressureBean.indexingThrottleRatio = Math.min(1.0, counterRateTracker.update("indexing_throttle_time",
+                    nodeStats.getIndices().getIndexing().getTotal().getThrottleTimeInMillis()).getTimeRatio());
+            bulkBackpressureBean.mergesCurrent = nodeStats.getIndices().getMerge().getCurrent();
+            bulkBackpressureBean.heapUsedPercent = nodeStats.getJvm().getMem().getHeapUsedPercent();
+
+            double score = score(config, bulkBackpressureBean.bulkQueueFillRatio, bulkBackpressureBean.bulkRejectedDelta,
+                    bulkBackpressureBean.indexingThrottleRatio, bulkBackpressureBean.mergesCurrent, bulkBackpressureBean.heapUsedPercent);
+
+            bulkBackpressureBean.score = score;
+            bulkBackpressureBean.advice = advice(score);
+            bulkBackpressureBean.suggestedBatchSize = suggestedBatchSize(config, score);
+            bulkBackpressureBean.suggestedConcurrency = suggestedConcurrency(bulkBackpressureBean.advice, score, bulkThreads);
+        } catch (Exception e) {
+            logger.warn("Failed to compute bulk backpressure signal, backpressure signal is unknown", e);
+            publishUnknown();
+            return;
+        }
+
+        lastSampleMillis = System.currentTimeMillis();
+        bulkBackpressureReporter.bulkBackpressureBean.set(bulkBackpressureBean);
+    }
+
+    /**
+     * Replaces the signal with an UNKNOWN one, carrying the age of the last computed signal
+     */
+    void publishUnknown() {
+        long sampleAgeMillis = lastSampleMillis > 0 ? System.currentTimeMillis() - lastSampleMillis : -1;
+        bulkBackpressureReporter.bulkBackpressureBean.set(unknownBean(config, sampleAgeMillis));
+    }
+
+    private static BulkBackpressureBean unknownBean(IConfiguration config, long sampleAgeMillis) {
+        BulkBackpressureBean bean = new BulkBackpressureBean();
+        bean.advice = Advice.UNKNOWN;
+        bean.stale = true;
+        bean.sampleAgeMillis = sampleAgeMillis;
+        bean.suggestedBatchSize = suggestedBatchSize(config, 1.0);
+        bean.suggestedConcurrency = 1;
+        return bean;
+    }
+
+    /**
+     * @return highest of the normalized pressures, 0 (idle) to 1 (saturated)
+     */
+    static double score(IConfiguration config, double bulkQueueFillRatio, long bulkRejectedDelta, double indexingThrottleRatio,
+                        long mergesCurrent, long heapUsedPercent) {
+        double mergePressure = config.getBackpressureMergeBacklogThreshold() > 0 ?
+                Math.min(1.0, (double) mergesCurrent / config.getBackpressureMergeBacklogThreshold()) : 0;
+        double heapPressure = pressure(heapUsedPercent, config.getBackpressureHeapPercentLow(), config.getBackpressureHeapPercentHigh());
+        double rejectionPressure = bulkRejectedDelta > 0 ? 1.0 : 0;
+
+        return Math.max(bulkQueueFillRatio, Math.max(indexingThrottleRatio, Math.max(mergePressure, Math.max(heapPressure, rejectionPressure))));
+    }
+
+    static Advice advice(double score) {
+        return score >= BACK_OFF_SCORE ? Advice.BACK_OFF : score >= SLOW_DOWN_SCORE ? Advice.SLOW_DOWN : Advice.OK;
+    }
+
+    static long suggestedBatchSize(IConfiguration config, double score) {
+        return Math.max(1, Math.round(config.getBackpressureBaseBatchSize() * Math.max(MIN_BATCH_SIZE_FRACTION, 1.0 - score)));
+    }
+
+    static int suggestedConcurrency(Advice advice, double score, int bulkThreads) {
+        return advice == Advice.BACK_OFF || advice == Advice.UNKNOWN ? 1 :
+                Math.max(1, (int) Math.round(Math.max(1, bulkThreads) * (1.0 - score)));
+    }
+
+    /**
+     * Queue capacity is taken from the live thread pool configuration, falling back to the configured capacity when
+     * it can not be determined. It is loaded again when the node restarted, after a failure to load it, and every
+     * ten minutes, since tuning profiles can change it at runtime.
+     */
+    private synchronized long getBulkQueueCapacity(String nodeId) {
+        if (nodeId.equals(bulkQueueCapacityNodeId)
+                && System.currentTimeMillis() - bulkQueueCapacityLoadedMillis < BULK_QUEUE_CAPACITY_MAX_AGE_MILLIS) {
+            return bulkQueueCapacity;
+        }
+
+        try {
+            NodesInfoResponse nodesInfoResponse = asyncAdmin.nodesInfo(new Function<NodesInfoRequestBuilder, NodesInfoRequestBuilder>() {
+                @Override
+                public NodesInfoRequestBuilder apply(NodesInfoRequestBuilder builder) {
+                    return builder.setThreadPool(true);
+                }
+            }, nodeId).get();
+
+            long capacity = bulkQueueCapacity(nodesInfoResponse);
+            if (capacity > 0) {
+                bulkQueueCapacity = capacity;
+                bulkQueueCapacityNodeId = nodeId;
+                bulkQueueCapacityLoadedMillis = System.currentTimeMillis();
+                return capacity;
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to load bulk thread pool info, using configured capacity", e);
+        }
+
+        bulkQueueCapacityNodeId = null;
+        return config.getBackpressureBulkQueueCapacity();
+    }
+
+    /**
+     * @return bulk queue size of the first node in the response, 0 if it is unbounded or unknown
+     */
+    static long bulkQueueCapacity(NodesInfoResponse nodesInfoResponse) {
+        for (NodeInfo nodeInfo : nodesInfoResponse.getNodes()) {
+            if (nodeInfo.getThreadPool() == null) {
+                continue;
+            }
+            for (ThreadPool.Info info : nodeInfo.getThreadPool()) {
+                if (BULK_THREAD_POOL.equals(info.getName()) && info.getQueueSize() != null && info.getQueueSize().singles() > 0) {
+                    return info.getQueueSize().singles();
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static double pressure(double value, double low, double high) {
+        if (value <= low) {
+            return 0;
+        }
+        if (value >= high || high <= low) {
+            return 1.0;
+        }
+        return (value - low) / (high - low);
+    }
+
+    /**
+     * @return latest backpressure signal as JSON
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject getBackpressureJson() {
+        BulkBackpressureBean bean = bulkBackpressureReporter.bulkBackpressureBean.get();
+        JSONObject object = new JSONObject();
+        object.put("advice", bean.advice.name());
+        object.put("stale", bean.stale);
+        object.put("sample_age_millis", bean.sampleAgeMillis);
+        object.put("score", bean.score);
+        object.put("suggested_batch_size", bean.suggestedBatchSize);
+        object.put("suggested_concurrency", bean.suggestedConcurrency);
+        object.put("bulk_queue_capacity", bean.bulkQueueCapacity);
+        object.put("bulk_queue_fill_ratio", bean.bulkQueueFillRatio);
+        object.put("bulk_rejected_delta", bean.bulkRejectedDelta);
+        object.put("indexing_throttle_ratio", bean.indexingThrottleRatio);
+        object.put("merges_current", bean.mergesCurrent);
+        object.put("heap_used_percent", bean.heapUsedPercent);
+        return object;
+    }
+
+    public class Elasticsearch_BulkBackpressureReporter {
+        private final AtomicReference<BulkBackpressureBean> bulkBackpressureBean;
+
+        public Elasticsearch_BulkBackpressureReporter(BulkBackpressureBean initialBean) {
+            bulkBackpressureBean = new AtomicReference<BulkBackpressureBean>(initialBean);
+        }
+
+        @Monitor(name = "backpressure_score", type = DataSourceType.GAUGE)
+        public double getScore() {
+            return bulkBackpressureBean.get().score;
+        }
+
+        @Monitor(name = "backpressure_advice", type = DataSourceType.GAUGE)
+        public int getAdvice() {
+            return bulkBackpressureBean.get().advice.ordinal();
+        }
+
+        @Monitor(name = "backpressure_stale", type = DataSourceType.GAUGE)
+        public int getStale() {
+            return bulkBackpressureBean.get().stale ? 1 : 0;
+        }
+
+        @Monitor(name = "backpressure_suggested_batch_size", type = DataSourceType.GAUGE)
+        public long getSuggestedBatchSize() {
+            return bulkBackpressureBean.get().suggestedBatchSize;
+        }
+
+        @Monitor(name = "backpressure_suggested_concurrency", type = DataSourceType.GAUGE)
+        public int getSuggestedConcurrency() {
+            return bulkBackpressureBean.get().suggestedConcurrency;
+        }
+
+        @Monitor(name = "backpressure_bulk_queue_fill_ratio", type = DataSourceType.GAUGE)
+        public double getBulkQueueFillRatio() {
+            return bulkBackpressureBean.get().bulkQueueFillRatio;
+        }
+
+        @Monitor(name = "backpressure_bulk_rejected_delta", type = DataSourceType.GAUGE)
+        public long getBulkRejectedDelta() {
+            return bulkBackpressureBean.get().bulkRejectedDelta;
+        }
+
+        @Monitor(name = "backpressure_indexing_throttle_ratio", type = DataSourceType.GAUGE)
+        public double getIndexingThrottleRatio() {
+            return bulkBackpressureBean.get().indexingThrottleRatio;
+        }
+
+        @Monitor(name = "backpressure_merges_current", type = DataSourceType.GAUGE)
+        public long getMergesCurrent() {
+            return bulkBackpressureBean.get().mergesCurrent;
+        }
+
+        @Monitor(name = "backpressure_heap_used_percent", type = DataSourceType.GAUGE)
+        public long getHeapUsedPercent() {
+            return bulkBackpressureBean.get().heapUsedPercent;
+        }
+    }
+
+    private static class BulkBackpressureBean {
+        private Advice advice = Advice.OK;
+        private boolean stale;
+        private long sampleAgeMillis;
+        private double score;
+        private long suggestedBatchSize;
+        private int suggestedConcurrency;
+        private long bulkQueueCapacity;
+        private double bulkQueueFillRatio;
+        private long bulkRejectedDelta;
+        private double indexingThrottleRatio;
+        private long mergesCurrent;
+        private long heapUsedPercent;
+    }
+
+    public static TaskTimer getTimer(String name) {
+        return new SimpleTimer(name, 10 * 1000);
+    }
+
+    @Override
+    public String getName() {
+        return METRIC_NAME;
+    }
+}
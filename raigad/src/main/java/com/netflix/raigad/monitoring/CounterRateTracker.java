@@ -0,0 +1,150 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns cumulative Elasticsearch counters into per-interval deltas and per-second rates.
+ * <p>
+ * Previous values are tracked per counter name. A counter going backwards means Elasticsearch
+ * has been restarted, in which case the current value is the delta (everything counted since the restart).
+ * Restarts that happen between two samples without the counter going backwards are caught through
+ * {@link #setGeneration(String)}, fed with something that changes on every restart such as the node id.
+ */
+public class CounterRateTracker {
+    private final Ticker ticker;
+    private final Map<String, Sample> samples = new HashMap<>();
+    private String generation;
+
+    public CounterRateTracker() {
+        this(Ticker.systemTicker());
+    }
+
+    public CounterRateTracker(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * Marks all counters as reset if the generation (e.g. Elasticsearch node id) changed since the last call
+     */
+    public synchronized void setGeneration(String generation) {
+        if (this.generation != null && generation != null && !this.generation.equals(generation)) {
+            for (Sample sample : samples.values()) {
+                sample.value = 0;
+            }
+        }
+        this.generation = generation;
+    }
+
+    /**
+     * Records the current value of a cumulative counter
+     *
+     * @return change since the previous value, zero delta and rate for the very first sample
+     */
+    public synchronized CounterDelta update(String counter, long value) {
+        long now = ticker.read();
+        Sample sample = samples.get(counter);
+
+        if (sample == null) {
+            samples.put(counter, new Sample(value, now));
+            return new CounterDelta(0, 0, false);
+        }
+
+        boolean reset = value < sample.value;
+        long delta = reset ? value : value - sample.value;
+        long elapsedNanos = now - sample.timestampNanos;
+
+        sample.value = value;
+        sample.timestampNanos = now;
+
+        return new CounterDelta(delta, elapsedNanos, reset);
+    }
+
+    /**
+     * Forgets all counters not in the given collection, e.g. counters of indices that no longer exist
+     */
+    public synchronized void retain(Collection<String> counters) {
+        samples.keySet().retainAll(counters);
+    }
+
+    public synchronized void clear() {
+        samples.clear();
+        generation = null;
+    }
+
+    /**
+     * @return average amount of the first counter per unit of the second one over the same interval,
+     * e.g. query time per query, or 0 if the second counter did not move
+     */
+    public static double average(CounterDelta total, CounterDelta count) {
+        return count.getDelta() > 0 ? (double) total.getDelta() / count.getDelta() : 0;
+    }
+
+    public static class CounterDelta {
+        private final long delta;
+        private final long elapsedNanos;
+        private final boolean reset;
+
+        CounterDelta(long delta, long elapsedNanos, boolean reset) {
+            this.delta = delta;
+            this.elapsedNanos = elapsedNanos;
+            this.reset = reset;
+        }
+
+        public long getDelta() {
+            return delta;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        /**
+         * @return true if the counter went backwards since the previous sample
+         */
+        public boolean isReset() {
+            return reset;
+        }
+
+        public double getRatePerSecond() {
+            return elapsedNanos > 0 ? delta * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+        }
+
+        /**
+         * @return fraction of the elapsed wall time this counter (expressed in milliseconds) advanced by
+         */
+        public double getTimeRatio() {
+            long elapsedMillis = getElapsedMillis();
+            return elapsedMillis > 0 ? (double) delta / elapsedMillis : 0;
+        }
+    }
+
+    private static class Sample {
+        private long value;
+        private long timestampNanos;
+
+        private Sample(long value, long timestampNanos) {
+            this.value = value;
+            this.timestampNanos = timestampNanos;
+        }
+    }
+}
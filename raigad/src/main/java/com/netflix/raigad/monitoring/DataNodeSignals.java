@@ -0,0 +1,251 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequestBuilder;
+import org.elasticsearch.action.admin.indices.stats.CommonStatsFlags;
+import org.elasticsearch.indices.NodeIndicesStats;
+import org.elasticsearch.monitor.fs.FsInfo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns the cumulative counters of every data node, as returned by one nodes stats call, into per-interval signals:
+ * search query latency (and the 99th percentile of the node's recent history), the fraction of time indexing was
+ * throttled, the number of running merges and the disk space used on the data paths.
+ * <p>
+ * The latency history of a node holds the interval averages of its last {@value #QUERY_LATENCY_WINDOW} intervals
+ * with queries; its percentile is taken before the current interval is added, so the current interval is compared
+ * with the past only, and is not reported before {@value #MIN_QUERY_LATENCY_SAMPLES} intervals were seen.
+ * <p>
+ * Counters are tracked per node id, which changes when a node restarts, so a node that just joined counts as
+ * idle for its first interval. Nodes that left are forgotten on the next update.
+ */
+public class DataNodeSignals {
+    /**
+     * Node filter matching every data node
+     */
+    public static final String DATA_NODES = "data:true";
+
+    static final int QUERY_LATENCY_WINDOW = 120;
+    static final int MIN_QUERY_LATENCY_SAMPLES = 30;
+    private static final double PERCENTILE_99 = 0.99;
+
+    private final CounterRateTracker counterRateTracker;
+    private final Map<String, Deque<Double>> queryLatencyHistory = new HashMap<>();
+
+    public DataNodeSignals() {
+        this(Ticker.systemTicker());
+    }
+
+    public DataNodeSignals(Ticker ticker) {
+        this.counterRateTracker = new CounterRateTracker(ticker);
+    }
+
+    /**
+     * Limits the request to the statistics the signals are computed from
+     */
+    public static NodesStatsRequestBuilder prepare(NodesStatsRequestBuilder builder) {
+        return builder.clear()
+                .setIndices(new CommonStatsFlags(CommonStatsFlags.Flag.Search, CommonStatsFlags.Flag.Indexing, CommonStatsFlags.Flag.Merge))
+                .setFs(true);
+    }
+
+    /**
+     * @return counters of the node, null if the node did not return indices statistics
+     */
+    public static NodeCounters counters(NodeStats nodeStats) {
+        NodeIndicesStats indices = nodeStats.getIndices();
+        if (indices == null || nodeStats.getNode() == null) {
+            return null;
+        }
+
+        NodeCounters counters = new NodeCounters(nodeStats.getNode().getId());
+        if (indices.getSearch() != null) {
+            counters.queryTotal = indices.getSearch().getTotal().getQueryCount();
+            counters.queryTimeInMillis = indices.getSearch().getTotal().getQueryTimeInMillis();
+        }
+        if (indices.getIndexing() != null) {
+            counters.indexingThrottleTimeInMillis = indices.getIndexing().getTotal().getThrottleTimeInMillis();
+        }
+        if (indices.getMerge() != null) {
+            counters.mergesCurrent = indices.getMerge().getCurrent();
+        }
+
+        FsInfo fs = nodeStats.getFs();
+        if (fs != null && fs.getTotal() != null && fs.getTotal().getTotal() != null && fs.getTotal().getAvailable() != null) {
+            counters.diskTotalInBytes = fs.getTotal().getTotal().bytes();
+            counters.diskAvailableInBytes = fs.getTotal().getAvailable().bytes();
+        }
+        return counters;
+    }
+
+    /**
+     * Records the current counters of the nodes
+     *
+     * @return signals over the last interval, by node id
+     */
+    public synchronized Map<String, NodeSignals> update(Collection<NodeCounters> nodes) {
+        Map<String, NodeSignals> signals = new LinkedHashMap<>();
+        Set<String> counters = new HashSet<>();
+
+        for (NodeCounters node : nodes) {
+            if (node == null) {
+                continue;
+            }
+
+            CounterRateTracker.CounterDelta queryTotal = update(node.nodeId, "query_total", node.queryTotal, counters);
+            CounterRateTracker.CounterDelta queryTime = update(node.nodeId, "query_time", node.queryTimeInMillis, counters);
+            CounterRateTracker.CounterDelta throttleTime = update(node.nodeId, "indexing_throttle_time",
+                    node.indexingThrottleTimeInMillis, counters);
+
+            double queryLatencyInMillis = CounterRateTracker.average(queryTime, queryTotal);
+            double queryLatency99InMillis = 0;
+
+            // Percentiles over interval averages, 0 if there was no query
+            if (queryTotal.getDelta() > 0) {
+                Deque<Double> history = queryLatencyHistory.get(node.nodeId);
+                if (history == null) {
+                    history = new ArrayDeque<>();
+                    queryLatencyHistory.put(node.nodeId, history);
+                }
+                if (history.size() >= MIN_QUERY_LATENCY_SAMPLES) {
+                    queryLatency99InMillis = percentile(history, PERCENTILE_99);
+                }
+                history.addLast(queryLatencyInMillis);
+                if (history.size() > QUERY_LATENCY_WINDOW) {
+                    history.removeFirst();
+                }
+            }
+
+            double diskUsedPercent = node.diskTotalInBytes > 0 ?
+                    100.0 * (node.diskTotalInBytes - node.diskAvailableInBytes) / node.diskTotalInBytes : 0;
+
+            signals.put(node.nodeId, new NodeSignals(node.nodeId, queryLatencyInMillis, queryLatency99InMillis,
+                    throttleTime.getTimeRatio(), node.mergesCurrent, diskUsedPercent));
+        }
+
+        counterRateTracker.retain(counters);
+        queryLatencyHistory.keySet().retainAll(signals.keySet());
+        return signals;
+    }
+
+    static double percentile(Collection<Double> values, double percentile) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+
+    /**
+     * Forgets every node, e.g. when the signals are not collected for a while
+     */
+    public synchronized void clear() {
+        counterRateTracker.clear();
+        queryLatencyHistory.clear();
+    }
+
+    private CounterRateTracker.CounterDelta update(String nodeId, String counter, long value, Set<String> counters) {
+        String name = nodeId + "." + counter;
+        counters.add(name);
+        return counterRateTracker.update(name, value);
+    }
+
+    /**
+     * Cumulative counters of one node
+     */
+    public static class NodeCounters {
+        private final String nodeId;
+        long queryTotal;
+        long queryTimeInMillis;
+        long indexingThrottleTimeInMillis;
+        long mergesCurrent;
+        long diskTotalInBytes;
+        long diskAvailableInBytes;
+
+        NodeCounters(String nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
+
+    public static class NodeSignals {
+        private final String nodeId;
+        private final double queryLatencyInMillis;
+        private final double queryLatency99InMillis;
+        private final double indexingThrottleRatio;
+        private final long mergesCurrent;
+        private final double diskUsedPercent;
+
+        public NodeSignals(String nodeId, double queryLatencyInMillis, double queryLatency99InMillis, double indexingThrottleRatio,
+                           long mergesCurrent, double diskUsedPercent) {
+            this.nodeId = nodeId;
+            this.queryLatencyInMillis = queryLatencyInMillis;
+            this.queryLatency99InMillis = queryLatency99InMillis;
+            this.indexingThrottleRatio = indexingThrottleRatio;
+            this.mergesCurrent = mergesCurrent;
+            this.diskUsedPercent = diskUsedPercent;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        /**
+         * @return average search query time over the last interval
+         */
+        public double getQueryLatencyInMillis() {
+            return queryLatencyInMillis;
+        }
+
+        /**
+         * @return 99th percentile of the node's recent interval averages, not including the last interval; 0 if there was
+         * no query in the last interval or the history is still too short
+         */
+        public double getQueryLatency99InMillis() {
+            return queryLatency99InMillis;
+        }
+
+        /**
+         * @return fraction of the last interval indexing was throttled because merges fell behind
+         */
+        public double getIndexingThrottleRatio() {
+            return indexingThrottleRatio;
+        }
+
+        public long getMergesCurrent() {
+            return mergesCurrent;
+        }
+
+        /**
+         * @return disk space used on the node's data paths, 0 if unknown
+         */
+        public double getDiskUsedPercent() {
+            return diskUsedPercent;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples I/O counters of the block device backing the Elasticsearch data directory from /proc/diskstats.
+ * <p>
+ * The device is resolved once through /proc/self/mountinfo (longest mount point containing the data path,
+ * matched to /proc/diskstats by major:minor, so LVM and partitions resolve to the right entry).
+ * Each sample re-reads /proc/diskstats into a reused buffer and parses the counters in place,
+ * without creating strings or splitting lines.
+ * <p>
+ * Counters are only available on Linux; on other platforms, or for devices not listed in /proc/diskstats
+ * (e.g. network or overlay file systems), {@link #sample()} returns null.
+ */
+public class DiskStatsSampler {
+    private static final Logger logger = LoggerFactory.getLogger(DiskStatsSampler.class);
+
+    private static final String PROC_MOUNT_INFO = "/proc/self/mountinfo";
+    private static final String PROC_DISK_STATS = "/proc/diskstats";
+    private static final long SECTOR_SIZE_IN_BYTES = 512;
+
+    // Counter positions in /proc/diskstats after major, minor and device name
+    static final int READS_COMPLETED = 0;
+    static final int SECTORS_READ = 2;
+    static final int MILLIS_READING = 3;
+    static final int WRITES_COMPLETED = 4;
+    static final int SECTORS_WRITTEN = 6;
+    static final int MILLIS_WRITING = 7;
+    static final int IOS_IN_PROGRESS = 8;
+    static final int MILLIS_DOING_IO = 9;
+    static final int WEIGHTED_MILLIS_DOING_IO = 10;
+    private static final int COUNTERS = 11;
+
+    private final String dataPath;
+    private final String mountInfoPath;
+    private final String diskStatsPath;
+    private final Ticker ticker;
+
+    private byte[] buffer = new byte[8192];
+    private int length;
+    private int position;
+
+    private int major = -1;
+    private int minor = -1;
+    private String device;
+    private boolean resolved;
+
+    private final long[] current = new long[COUNTERS];
+    private final long[] previous = new long[COUNTERS];
+    private long previousNanos;
+    private boolean hasPrevious;
+
+    public DiskStatsSampler(String dataPath) {
+        this(dataPath, PROC_MOUNT_INFO, PROC_DISK_STATS, Ticker.systemTicker());
+    }
+
+    DiskStatsSampler(String dataPath, String mountInfoPath, String diskStatsPath, Ticker ticker) {
+        this.dataPath = dataPath;
+        this.mountInfoPath = mountInfoPath;
+        this.diskStatsPath = diskStatsPath;
+        this.ticker = ticker;
+    }
+
+    /**
+     * @return statistics of the data device since the previous call, null if they are not available;
+     * interval based values are zero on the first call
+     */
+    public synchronized DiskStats sample() {
+        if (!resolved) {
+            resolved = true;
+            try {
+                resolveDevice();
+            } catch (Exception e) {
+                logger.warn("Failed to resolve the block device of [{}], disk I/O statistics are not available", dataPath, e);
+            }
+        }
+
+        if (major < 0) {
+            return null;
+        }
+
+        try {
+            if (!readCounters()) {
+                logger.info("Device {}:{} is not listed in {}", major, minor, diskStatsPath);
+                return null;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read {}", diskStatsPath, e);
+            return null;
+        }
+
+        long now = ticker.read();
+        DiskStats diskStats = new DiskStats(device, current);
+        if (hasPrevious) {
+            diskStats.computeInterval(previous, current, TimeUnit.NANOSECONDS.toMillis(now - previousNanos));
+        }
+
+        System.arraycopy(current, 0, previous, 0, COUNTERS);
+        previousNanos = now;
+        hasPrevious = true;
+        return diskStats;
+    }
+
+    /**
+     * Finds major:minor of the file system holding the data path (longest matching mount point)
+     */
+    private void resolveDevice() throws IOException {
+        File mountInfo = new File(mountInfoPath);
+        if (!mountInfo.exists() || StringUtils.isBlank(dataPath)) {
+            return;
+        }
+
+        String path = new File(dataPath).getCanonicalPath();
+        String bestMountPoint = null;
+        String bestDevice = null;
+
+        for (String line : FileUtils.readLines(mountInfo, "UTF-8")) {
+            // 36 35 98:0 /mnt1 /mnt2 rw,noatime master:1 - ext3 /dev/root rw,errors=continue
+            String[] fields = StringUtils.split(line, ' ');
+            if (fields.length < 5) {
+                continue;
+            }
+
+            String mountPoint = fields[4].replace("\\040", " ");
+            if (!isUnder(path, mountPoint)) {
+                continue;
+            }
+
+            if (bestMountPoint == null || mountPoint.length() >= bestMountPoint.length()) {
+                bestMountPoint = mountPoint;
+                bestDevice = fields[2];
+            }
+        }
+
+        if (bestDevice == null) {
+            return;
+        }
+
+        String[] majorMinor = StringUtils.split(bestDevice, ':');
+        major = Integer.parseInt(majorMinor[0]);
+        minor = Integer.parseInt(majorMinor[1]);
+        device = bestDevice;
+        logger.info("Sampling disk I/O statistics of device {} mounted on {} for [{}]", bestDevice, bestMountPoint, path);
+    }
+
+    static boolean isUnder(String path, String mountPoint) {
+        return "/".equals(mountPoint) || path.equals(mountPoint) || path.startsWith(mountPoint + "/");
+    }
+
+    /**
+     * Reads /proc/diskstats and copies the counters of the data device into {@link #current}
+     *
+     * @return false if the device is not listed
+     */
+    private boolean readCounters() throws IOException {
+        readFile(diskStatsPath);
+        position = 0;
+
+        while (position < length) {
+            long lineMajor = nextLong();
+            long lineMinor = nextLong();
+
+            if (lineMajor == major && lineMinor == minor) {
+                skipToken();
+                for (int i = 0; i < COUNTERS; i++) {
+                    current[i] = nextLong();
+                }
+                return true;
+            }
+
+            skipLine();
+        }
+
+        return false;
+    }
+
+    private void readFile(String path) throws IOException {
+        length = 0;
+        try (InputStream in = new FileInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length == buffer.length) {
+                    byte[] larger = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    buffer = larger;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the next number on the current line, 0 if the line has no more numbers
+     */
+    private long nextLong() {
+        while (position < length && buffer[position] == ' ') {
+            position++;
+        }
+
+        long value = 0;
+        while (position < length && buffer[position] >= '0' && buffer[position] <= '9') {
+            value = value * 10 + (buffer[position] - '0');
+            position++;
+        }
+
+        return value;
+    }
+
+    private void skipToken() {
+        while (position < length && buffer[position] == ' ') {
+            position++;
+        }
+        while (position < length && buffer[position] != ' ' && buffer[position] != '\n') {
+            position++;
+        }
+    }
+
+    private void skipLine() {
+        while (position < length && buffer[position] != '\n') {
+            position++;
+        }
+        position++;
+    }
+
+    public static class DiskStats {
+        private final String device;
+        private final long reads;
+        private final long writes;
+        private final long readBytes;
+        private final long writeBytes;
+        private final long iosInProgress;
+
+        private double readIops;
+        private double writeIops;
+        private double readBytesPerSecond;
+        private double writeBytesPerSecond;
+        private double averageQueueDepth;
+        private double awaitInMillis;
+        private double serviceTimeInMillis;
+        private double utilizationPercent;
+
+        DiskStats(String device, long[] counters) {
+            this.device = device;
+            this.reads = counters[READS_COMPLETED];
+            this.writes = counters[WRITES_COMPLETED];
+            this.readBytes = counters[SECTORS_READ] * SECTOR_SIZE_IN_BYTES;
+            this.writeBytes = counters[SECTORS_WRITTEN] * SECTOR_SIZE_IN_BYTES;
+            this.iosInProgress = counters[IOS_IN_PROGRESS];
+        }
+
+        /**
+         * Same formulas as iostat -x: await and service time are per completed I/O,
+         * queue depth and utilization are relative to the wall time of the interval
+         */
+        void computeInterval(long[] previous, long[] current, long elapsedMillis) {
+            if (elapsedMillis <= 0) {
+                return;
+            }
+
+            long reads = delta(previous, current, READS_COMPLETED);
+            long writes = delta(previous, current, WRITES_COMPLETED);
+            long ios = reads + writes;
+            double seconds = elapsedMillis / 1000.0;
+
+            readIops = reads / seconds;
+            writeIops = writes / seconds;
+            readBytesPerSecond = delta(previous, current, SECTORS_READ) * SECTOR_SIZE_IN_BYTES / seconds;
+            writeBytesPerSecond = delta(previous, current, SECTORS_WRITTEN) * SECTOR_SIZE_IN_BYTES / seconds;
+            averageQueueDepth = (double) delta(previous, current, WEIGHTED_MILLIS_DOING_IO) / elapsedMillis;
+            utilizationPercent = Math.min(100.0, delta(previous, current, MILLIS_DOING_IO) * 100.0 / elapsedMillis);
+
+            if (ios > 0) {
+                awaitInMillis = (double) (delta(previous, current, MILLIS_READING) + delta(previous, current, MILLIS_WRITING)) / ios;
+                serviceTimeInMillis = (double) delta(previous, current, MILLIS_DOING_IO) / ios;
+            }
+        }
+
+        private static long delta(long[] previous, long[] current, int counter) {
+            // Counters are 32 bit on some kernels and wrap around, count such an interval as idle
+            return Math.max(0, current[counter] - previous[counter]);
+        }
+
+        public String getDevice() {
+            return device;
+        }
+
+        public long getReads() {
+            return reads;
+        }
+
+        public long getWrites() {
+            return writes;
+        }
+
+        public long getReadBytes() {
+            return readBytes;
+        }
+
+        public long getWriteBytes() {
+            return writeBytes;
+        }
+
+        public long getIosInProgress() {
+            return iosInProgress;
+        }
+
+        public double getReadIops() {
+            return readIops;
+        }
+
+        public double getWriteIops() {
+            return writeIops;
+        }
+
+        public double getReadBytesPerSecond() {
+            return readBytesPerSecond;
+        }
+
+        public double getWriteBytesPerSecond() {
+            return writeBytesPerSecond;
+        }
+
+        public double getAverageQueueDepth() {
+            return averageQueueDepth;
+        }
+
+        public double getAwaitInMillis() {
+            return awaitInMillis;
+        }
+
+        public double getServiceTimeInMillis() {
+            return serviceTimeInMillis;
+        }
+
+        public double getUtilizationPercent() {
+            return utilizationPercent;
+        }
+    }
+}
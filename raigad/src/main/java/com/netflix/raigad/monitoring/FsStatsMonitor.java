@@ -41,10 +41,12 @@ public class FsStatsMonitor extends Task {
 
     public static final String METRIC_NAME = "Elasticsearch_FsStatsMonitor";
     private final Elasticsearch_FsStatsReporter fsStatsReporter;
+    private final DiskStatsSampler diskStatsSampler;
 
     @Inject
     public FsStatsMonitor(IConfiguration config) {
         super(config);
+        diskStatsSampler = new DiskStatsSampler(config.getDataFileLocation());
         fsStatsReporter = new Elasticsearch_FsStatsReporter();
         Monitors.registerObject(fsStatsReporter);
     }
@@ -84,13 +86,23 @@ public class FsStatsMonitor extends Task {
             fsStatsBean.free = fsInfo.getTotal().getFree().getBytes();
             fsStatsBean.available = fsInfo.getTotal().getAvailable().getBytes();
 
-            // TODO: 2X: Determine if this is necessary and if yes find an alternative
-            //fsStatsBean.diskReads = fsInfo.getTotal().getDiskReads();
-            //fsStatsBean.diskWrites = fsInfo.getTotal().getDiskWrites();
-            //fsStatsBean.diskReadBytes = fsInfo.getTotal().getDiskReadSizeInBytes();
-            //fsStatsBean.diskWriteBytes = fsInfo.getTotal().getDiskWriteSizeInBytes();
-            //fsStatsBean.diskQueue = fsInfo.getTotal().getDiskQueue();
-            //fsStatsBean.diskServiceTime = fsInfo.getTotal().getDiskServiceTime();
+            // Elasticsearch 2.x no longer reports disk I/O, sample the data device directly
+            DiskStatsSampler.DiskStats diskStats = diskStatsSampler.sample();
+            if (diskStats != null) {
+                fsStatsBean.diskReads = diskStats.getReads();
+                fsStatsBean.diskWrites = diskStats.getWrites();
+                fsStatsBean.diskReadBytes = diskStats.getReadBytes();
+                fsStatsBean.diskWriteBytes = diskStats.getWriteBytes();
+                fsStatsBean.diskQueue = diskStats.getAverageQueueDepth();
+                fsStatsBean.diskServiceTime = diskStats.getServiceTimeInMillis();
+                fsStatsBean.diskReadIops = diskStats.getReadIops();
+                fsStatsBean.diskWriteIops = diskStats.getWriteIops();
+                fsStatsBean.diskReadBytesPerSecond = diskStats.getReadBytesPerSecond();
+                fsStatsBean.diskWriteBytesPerSecond = diskStats.getWriteBytesPerSecond();
+                fsStatsBean.diskAwait = diskStats.getAwaitInMillis();
+                fsStatsBean.diskUtilizationPercent = diskStats.getUtilizationPercent();
+                fsStatsBean.diskIosInProgress = diskStats.getIosInProgress();
+            }
 
             fsStatsBean.availableDiskPercent = (fsStatsBean.available * 100) / fsStatsBean.total;
         } catch (Exception e) {
@@ -157,6 +169,40 @@ public class FsStatsMonitor extends Task {
             return fsStatsBean.get().availableDiskPercent;
         }
 
+        @Monitor(name = "disk_read_iops", type = DataSourceType.GAUGE)
+        public double getDiskReadIops() {
+            return fsStatsBean.get().diskReadIops;
+        }
+
+        @Monitor(name = "disk_write_iops", type = DataSourceType.GAUGE)
+        public double getDiskWriteIops() {
+            return fsStatsBean.get().diskWriteIops;
+        }
+
+        @Monitor(name = "disk_read_bytes_per_second", type = DataSourceType.GAUGE)
+        public double getDiskReadBytesPerSecond() {
+            return fsStatsBean.get().diskReadBytesPerSecond;
+        }
+
+        @Monitor(name = "disk_write_bytes_per_second", type = DataSourceType.GAUGE)
+        public double getDiskWriteBytesPerSecond() {
+            return fsStatsBean.get().diskWriteBytesPerSecond;
+        }
+
+        @Monitor(name = "disk_await", type = DataSourceType.GAUGE)
+        public double getDiskAwait() {
+            return fsStatsBean.get().diskAwait;
+        }
+
+        @Monitor(name = "disk_utilization_percent", type = DataSourceType.GAUGE)
+        public double getDiskUtilizationPercent() {
+            return fsStatsBean.get().diskUtilizationPercent;
+        }
+
+        @Monitor(name = "disk_ios_in_progress", type = DataSourceType.GAUGE)
+        public long getDiskIosInProgress() {
+            return fsStatsBean.get().diskIosInProgress;
+        }
     }
 
     private static class FsStatsBean {
@@ -170,6 +216,20 @@ public class FsStatsMonitor extends Task {
         private double diskQueue;
         private double diskServiceTime;
         private long availableDiskPercent;
+        private double diskReadIops;
+        private double diskWriteIops;
+        private double diskReadBytesPerSecond;
+        private double diskWriteBytesPerSecond;
+        private double diskAwait;
+        private double diskUtilizationPercent;
+        private long diskIosInProgress;
+    }
+
+    /**
+     * @return utilization of the data device over the last interval, 0 where device counters are not available
+     */
+    public double getDiskUtilizationPercent() {
+        return fsStatsReporter.fsStatsBean.get().diskUtilizationPercent;
     }
 
     public static TaskTimer getTimer(String name) {
@@ -0,0 +1,261 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.IConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns cumulative young and old collector counters and memory pool usage into per-interval GC analytics.
+ * <p>
+ * Node stats only expose cumulative collection counts and times, so pauses are known per interval on average only.
+ * The max pause reported is the worst average pause over the last {@value #PAUSE_WINDOW_INTERVALS} intervals.
+ * <p>
+ * Allocation rate is estimated from young generation usage: every young collection is assumed to empty the young
+ * generation after it filled up to its capacity. Promotion rate is the growth of old generation usage, which is
+ * a lower bound in intervals with old collections.
+ * <p>
+ * An interval is under GC pressure when the fraction of wall time spent in GC reaches the configured ratio, or when
+ * old collections ran and the old generation is still above the configured usage (old generation creep).
+ * The pressure is sustained after the configured number of consecutive intervals under pressure.
+ */
+public class GcIntervalAnalyzer {
+    static final int PAUSE_WINDOW_INTERVALS = 10;
+
+    private final IConfiguration config;
+    private final Ticker ticker;
+    private final Deque<GcInterval> window = new ArrayDeque<>();
+
+    private GcSample previous;
+    private long previousNanos;
+    private String generation;
+    private int pressureIntervals;
+
+    public GcIntervalAnalyzer(IConfiguration config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    public GcIntervalAnalyzer(IConfiguration config, Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Records the current counters and usage
+     *
+     * @param generation something that changes on every Elasticsearch restart, e.g. the node id
+     * @return analytics for the interval since the previous sample, empty for the first sample after a restart
+     */
+    public synchronized GcInterval update(String generation, GcSample sample) {
+        long now = ticker.read();
+
+        boolean restarted = previous == null
+                || (this.generation != null && !this.generation.equals(generation))
+                || sample.youngCount < previous.youngCount
+                || sample.oldCount < previous.oldCount;
+
+        if (restarted) {
+            window.clear();
+            pressureIntervals = 0;
+            remember(generation, sample, now);
+            return new GcInterval();
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - previousNanos);
+        if (elapsedMillis <= 0) {
+            return new GcInterval();
+        }
+
+        GcInterval interval = new GcInterval();
+        interval.elapsedMillis = elapsedMillis;
+        interval.youngCollections = sample.youngCount - previous.youngCount;
+        interval.oldCollections = sample.oldCount - previous.oldCount;
+        long youngTimeMillis = Math.max(0, sample.youngTimeMillis - previous.youngTimeMillis);
+        long oldTimeMillis = Math.max(0, sample.oldTimeMillis - previous.oldTimeMillis);
+
+        interval.youngCollectionRate = perSecond(interval.youngCollections, elapsedMillis);
+        interval.oldCollectionRate = perSecond(interval.oldCollections, elapsedMillis);
+        interval.youngAvgPauseInMillis = interval.youngCollections > 0 ? (double) youngTimeMillis / interval.youngCollections : 0;
+        interval.oldAvgPauseInMillis = interval.oldCollections > 0 ? (double) oldTimeMillis / interval.oldCollections : 0;
+        interval.gcTimeRatio = (double) (youngTimeMillis + oldTimeMillis) / elapsedMillis;
+
+        interval.allocationRateInBytesPerSec = perSecond(estimateAllocatedBytes(previous, sample, interval.youngCollections), elapsedMillis);
+        interval.promotionRateInBytesPerSec = perSecond(Math.max(0, sample.oldUsedInBytes - previous.oldUsedInBytes), elapsedMillis);
+        interval.oldUsedPercent = sample.oldMaxInBytes > 0 ? 100.0 * sample.oldUsedInBytes / sample.oldMaxInBytes : 0;
+
+        window.addLast(interval);
+        while (window.size() > PAUSE_WINDOW_INTERVALS) {
+            window.removeFirst();
+        }
+        for (GcInterval windowInterval : window) {
+            interval.youngMaxPauseInMillis = Math.max(interval.youngMaxPauseInMillis, windowInterval.youngAvgPauseInMillis);
+            interval.oldMaxPauseInMillis = Math.max(interval.oldMaxPauseInMillis, windowInterval.oldAvgPauseInMillis);
+        }
+
+        interval.pressure = interval.gcTimeRatio >= config.getGcPressureTimeRatio()
+                || (interval.oldCollections > 0 && interval.oldUsedPercent >= config.getGcPressureOldUsedPercent());
+        pressureIntervals = interval.pressure ? pressureIntervals + 1 : 0;
+        interval.pressureIntervals = pressureIntervals;
+        interval.sustainedPressure = pressureIntervals >= Math.max(1, config.getGcPressureSustainedIntervals());
+
+        remember(generation, sample, now);
+        return interval;
+    }
+
+    private void remember(String generation, GcSample sample, long now) {
+        this.generation = generation;
+        this.previous = sample;
+        this.previousNanos = now;
+    }
+
+    static long estimateAllocatedBytes(GcSample previous, GcSample current, long youngCollections) {
+        if (youngCollections <= 0) {
+            return Math.max(0, current.youngUsedInBytes - previous.youngUsedInBytes);
+        }
+
+        long capacity = Math.max(current.youngCapacityInBytes, Math.max(previous.youngUsedInBytes, current.youngUsedInBytes));
+
+        // Filled up before the first collection, filled completely between the following ones, then refilled since the last one
+        return (capacity - previous.youngUsedInBytes) + (youngCollections - 1) * capacity + current.youngUsedInBytes;
+    }
+
+    private static double perSecond(long delta, long elapsedMillis) {
+        return delta * 1000.0 / elapsedMillis;
+    }
+
+    public static class GcSample {
+        private long youngCount;
+        private long youngTimeMillis;
+        private long youngUsedInBytes;
+        private long youngCapacityInBytes;
+        private long oldCount;
+        private long oldTimeMillis;
+        private long oldUsedInBytes;
+        private long oldMaxInBytes;
+
+        /**
+         * @param capacityInBytes size the young generation fills up to before a collection, e.g. its max or peak usage
+         */
+        public GcSample young(long count, long timeMillis, long usedInBytes, long capacityInBytes) {
+            this.youngCount = count;
+            this.youngTimeMillis = timeMillis;
+            this.youngUsedInBytes = usedInBytes;
+            this.youngCapacityInBytes = capacityInBytes;
+            return this;
+        }
+
+        public GcSample old(long count, long timeMillis, long usedInBytes, long maxInBytes) {
+            this.oldCount = count;
+            this.oldTimeMillis = timeMillis;
+            this.oldUsedInBytes = usedInBytes;
+            this.oldMaxInBytes = maxInBytes;
+            return this;
+        }
+    }
+
+    public static class GcInterval {
+        private long elapsedMillis;
+        private long youngCollections;
+        private long oldCollections;
+        private double youngCollectionRate;
+        private double oldCollectionRate;
+        private double youngAvgPauseInMillis;
+        private double oldAvgPauseInMillis;
+        private double youngMaxPauseInMillis;
+        private double oldMaxPauseInMillis;
+        private double gcTimeRatio;
+        private double allocationRateInBytesPerSec;
+        private double promotionRateInBytesPerSec;
+        private double oldUsedPercent;
+        private boolean pressure;
+        private boolean sustainedPressure;
+        private int pressureIntervals;
+
+        /**
+         * @return length of the interval, 0 if there was no previous sample to compare with
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public long getYoungCollections() {
+            return youngCollections;
+        }
+
+        public long getOldCollections() {
+            return oldCollections;
+        }
+
+        public double getYoungCollectionRate() {
+            return youngCollectionRate;
+        }
+
+        public double getOldCollectionRate() {
+            return oldCollectionRate;
+        }
+
+        public double getYoungAvgPauseInMillis() {
+            return youngAvgPauseInMillis;
+        }
+
+        public double getOldAvgPauseInMillis() {
+            return oldAvgPauseInMillis;
+        }
+
+        public double getYoungMaxPauseInMillis() {
+            return youngMaxPauseInMillis;
+        }
+
+        public double getOldMaxPauseInMillis() {
+            return oldMaxPauseInMillis;
+        }
+
+        /**
+         * @return fraction of the interval spent in young and old collections
+         */
+        public double getGcTimeRatio() {
+            return gcTimeRatio;
+        }
+
+        public double getAllocationRateInBytesPerSec() {
+            return allocationRateInBytesPerSec;
+        }
+
+        public double getPromotionRateInBytesPerSec() {
+            return promotionRateInBytesPerSec;
+        }
+
+        public double getOldUsedPercent() {
+            return oldUsedPercent;
+        }
+
+        public boolean isPressure() {
+            return pressure;
+        }
+
+        public boolean isSustainedPressure() {
+            return sustainedPressure;
+        }
+
+        public int getPressureIntervals() {
+            return pressureIntervals;
+        }
+    }
+}
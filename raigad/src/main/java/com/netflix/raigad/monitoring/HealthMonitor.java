@@ -29,16 +29,27 @@ import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
 import com.netflix.raigad.utils.ElasticsearchTransportClient;
 import com.netflix.raigad.utils.ElasticsearchUtils;
 import com.netflix.raigad.utils.HttpModule;
+import com.netflix.servo.DefaultMonitorRegistry;
 import com.netflix.servo.annotations.DataSourceType;
 import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.BasicGauge;
+import com.netflix.servo.monitor.Gauge;
+import com.netflix.servo.monitor.MonitorConfig;
 import com.netflix.servo.monitor.Monitors;
 import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.health.ClusterHealthStatus;
+import org.elasticsearch.cluster.health.ClusterIndexHealth;
 import org.elasticsearch.common.unit.TimeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Singleton
@@ -51,6 +62,8 @@ public class HealthMonitor extends Task {
     private static TimeValue MASTER_NODE_TIMEOUT = TimeValue.timeValueSeconds(60);
     private final DiscoveryClient discoveryClient;
     private final HttpModule httpModule;
+    private final AtomicReference<Map<String, IndexHealth>> indexHealth = new AtomicReference<Map<String, IndexHealth>>(Collections.<String, IndexHealth>emptyMap());
+    private final Map<String, List<Gauge<Integer>>> indexGauges = new HashMap<>();
 
     @Inject
     public HealthMonitor(IConfiguration config, InstanceManager instanceManager, HttpModule httpModule) {
@@ -77,10 +90,13 @@ public class HealthMonitor extends Task {
         }
 
         HealthBean healthBean = new HealthBean();
+        Map<String, IndexHealth> unhealthyIndices = Collections.emptyMap();
         try {
             Client esTransportClient = ElasticsearchTransportClient.instance(config).getTransportClient();
-            ClusterHealthStatus clusterHealthStatus = esTransportClient.admin().cluster().prepareHealth().setTimeout(MASTER_NODE_TIMEOUT).execute().get().getStatus();
-            ClusterHealthResponse clusterHealthResponse = esTransportClient.admin().cluster().prepareHealth().execute().actionGet(MASTER_NODE_TIMEOUT);
+            // One request for everything below, the response carries shard counts per index as well
+            ClusterHealthResponse clusterHealthResponse = esTransportClient.admin().cluster().prepareHealth()
+                    .setTimeout(MASTER_NODE_TIMEOUT).execute().actionGet(MASTER_NODE_TIMEOUT);
+            ClusterHealthStatus clusterHealthStatus = clusterHealthResponse.getStatus();
 
             if (clusterHealthStatus == null) {
                 logger.info("ClusterHealthStatus is null, hence returning (no health).");
@@ -88,16 +104,19 @@ public class HealthMonitor extends Task {
                 return;
             }
 
-            //Check if status = GREEN, YELLOW or RED
-            if (clusterHealthStatus.name().equalsIgnoreCase("GREEN")) {
-                healthBean.greenorredstatus = 0;
-                healthBean.greenoryellowstatus = 0;
-            } else if (clusterHealthStatus.name().equalsIgnoreCase("YELLOW")) {
-                healthBean.greenoryellowstatus = 1;
-                healthBean.greenorredstatus = 0;
-            } else if (clusterHealthStatus.name().equalsIgnoreCase("RED")) {
-                healthBean.greenorredstatus = 1;
-                healthBean.greenoryellowstatus = 0;
+            switch (clusterHealthStatus) {
+                case GREEN:
+                    healthBean.greenorredstatus = 0;
+                    healthBean.greenoryellowstatus = 0;
+                    break;
+                case YELLOW:
+                    healthBean.greenoryellowstatus = 1;
+                    healthBean.greenorredstatus = 0;
+                    break;
+                case RED:
+                    healthBean.greenorredstatus = 1;
+                    healthBean.greenoryellowstatus = 0;
+                    break;
             }
 
             if (config.isNodeMismatchWithDiscoveryEnabled()) {
@@ -110,11 +129,41 @@ public class HealthMonitor extends Task {
             if (config.isEurekaHealthCheckEnabled()) {
                 healthBean.eurekanodematch = (clusterHealthResponse.getNumberOfNodes() == discoveryClient.getApplication(config.getAppName()).getInstances().size()) ? 0 : 1;
             }
+
+            healthBean.numberofnodes = clusterHealthResponse.getNumberOfNodes();
+            healthBean.activeshards = clusterHealthResponse.getActiveShards();
+            healthBean.unassignedshards = clusterHealthResponse.getUnassignedShards();
+            healthBean.delayedunassignedshards = clusterHealthResponse.getDelayedUnassignedShards();
+            healthBean.initializingshards = clusterHealthResponse.getInitializingShards();
+            healthBean.relocatingshards = clusterHealthResponse.getRelocatingShards();
+            healthBean.pendingtasks = clusterHealthResponse.getNumberOfPendingTasks();
+            healthBean.inflightfetches = clusterHealthResponse.getNumberOfInFlightFetch();
+
+            unhealthyIndices = new HashMap<>();
+            for (ClusterIndexHealth indexHealth : clusterHealthResponse.getIndices().values()) {
+                switch (indexHealth.getStatus()) {
+                    case RED:
+                        healthBean.redindices++;
+                        break;
+                    case YELLOW:
+                        healthBean.yellowindices++;
+                        break;
+                    default:
+                        continue;
+                }
+                unhealthyIndices.put(indexHealth.getIndex(), new IndexHealth(indexHealth));
+            }
+
+            if (healthBean.redindices > 0) {
+                logger.warn("Cluster health is {}, red indices: {}", clusterHealthStatus, redIndices(unhealthyIndices));
+            }
         } catch (Exception e) {
             resetHealthStats(healthBean);
             logger.warn("Failed to load cluster health status", e);
         }
 
+        indexHealth.set(unhealthyIndices);
+        updateIndexGauges(unhealthyIndices);
         healthReporter.healthBean.set(healthBean);
     }
 
@@ -144,6 +193,56 @@ public class HealthMonitor extends Task {
         public int getEsEurekanodematchstatus() {
             return healthBean.get().eurekanodematch;
         }
+
+        @Monitor(name = "es_healthstatus_redindices", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusRedindices() {
+            return healthBean.get().redindices;
+        }
+
+        @Monitor(name = "es_healthstatus_yellowindices", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusYellowindices() {
+            return healthBean.get().yellowindices;
+        }
+
+        @Monitor(name = "es_healthstatus_numberofnodes", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusNumberofnodes() {
+            return healthBean.get().numberofnodes;
+        }
+
+        @Monitor(name = "es_healthstatus_activeshards", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusActiveshards() {
+            return healthBean.get().activeshards;
+        }
+
+        @Monitor(name = "es_healthstatus_unassignedshards", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusUnassignedshards() {
+            return healthBean.get().unassignedshards;
+        }
+
+        @Monitor(name = "es_healthstatus_delayedunassignedshards", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusDelayedunassignedshards() {
+            return healthBean.get().delayedunassignedshards;
+        }
+
+        @Monitor(name = "es_healthstatus_initializingshards", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusInitializingshards() {
+            return healthBean.get().initializingshards;
+        }
+
+        @Monitor(name = "es_healthstatus_relocatingshards", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusRelocatingshards() {
+            return healthBean.get().relocatingshards;
+        }
+
+        @Monitor(name = "es_healthstatus_pendingtasks", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusPendingtasks() {
+            return healthBean.get().pendingtasks;
+        }
+
+        @Monitor(name = "es_healthstatus_inflightfetches", type = DataSourceType.GAUGE)
+        public int getEsHealthstatusInflightfetches() {
+            return healthBean.get().inflightfetches;
+        }
     }
 
     private static class HealthBean {
@@ -151,6 +250,143 @@ public class HealthMonitor extends Task {
         private int greenoryellowstatus = -1;
         private int nodematch = -1;
         private int eurekanodematch = -1;
+        private int redindices = -1;
+        private int yellowindices = -1;
+        private int numberofnodes = -1;
+        private int activeshards = -1;
+        private int unassignedshards = -1;
+        private int delayedunassignedshards = -1;
+        private int initializingshards = -1;
+        private int relocatingshards = -1;
+        private int pendingtasks = -1;
+        private int inflightfetches = -1;
+    }
+
+    /**
+     * Health of a single index that is not green
+     */
+    public static class IndexHealth {
+        private final String index;
+        private final ClusterHealthStatus status;
+        private final int unassignedShards;
+        private final int initializingShards;
+        private final int relocatingShards;
+
+        private IndexHealth(ClusterIndexHealth indexHealth) {
+            this.index = indexHealth.getIndex();
+            this.status = indexHealth.getStatus();
+            this.unassignedShards = indexHealth.getUnassignedShards();
+            this.initializingShards = indexHealth.getInitializingShards();
+            this.relocatingShards = indexHealth.getRelocatingShards();
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public ClusterHealthStatus getStatus() {
+            return status;
+        }
+
+        public int getUnassignedShards() {
+            return unassignedShards;
+        }
+
+        public int getInitializingShards() {
+            return initializingShards;
+        }
+
+        public int getRelocatingShards() {
+            return relocatingShards;
+        }
+    }
+
+    /**
+     * @return red and yellow indices found by the last run, keyed by index name
+     */
+    public Map<String, IndexHealth> getUnhealthyIndices() {
+        return indexHealth.get();
+    }
+
+    private static List<String> redIndices(Map<String, IndexHealth> unhealthyIndices) {
+        List<String> red = new ArrayList<>();
+        for (IndexHealth health : unhealthyIndices.values()) {
+            if (health.status == ClusterHealthStatus.RED) {
+                red.add(health.index);
+            }
+        }
+        Collections.sort(red);
+        return red;
+    }
+
+    /**
+     * Per-index gauges only exist while the index is red or yellow, so a cluster with many indices
+     * does not publish thousands of series that are zero most of the time
+     */
+    private synchronized void updateIndexGauges(Map<String, IndexHealth> unhealthyIndices) {
+        for (String index : new ArrayList<>(indexGauges.keySet())) {
+            if (!unhealthyIndices.containsKey(index)) {
+                for (Gauge<Integer> gauge : indexGauges.remove(index)) {
+                    DefaultMonitorRegistry.getInstance().unregister(gauge);
+                }
+            }
+        }
+
+        for (String index : unhealthyIndices.keySet()) {
+            if (indexGauges.containsKey(index)) {
+                continue;
+            }
+
+            List<Gauge<Integer>> gauges = new ArrayList<>();
+            for (IndexStat stat : IndexStat.values()) {
+                Gauge<Integer> gauge = newIndexGauge(index, stat);
+                DefaultMonitorRegistry.getInstance().register(gauge);
+                gauges.add(gauge);
+            }
+            indexGauges.put(index, gauges);
+        }
+    }
+
+    private Gauge<Integer> newIndexGauge(final String index, final IndexStat stat) {
+        MonitorConfig monitorConfig = MonitorConfig.builder(stat.metricName)
+                .withTag("class", METRIC_NAME)
+                .withTag("index", index)
+                .build();
+
+        return new BasicGauge<>(monitorConfig, new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                IndexHealth current = indexHealth.get().get(index);
+                return current == null ? 0 : stat.of(current);
+            }
+        });
+    }
+
+    private enum IndexStat {
+        STATUS("es_index_healthstatus"),
+        UNASSIGNED_SHARDS("es_index_unassignedshards"),
+        INITIALIZING_SHARDS("es_index_initializingshards"),
+        RELOCATING_SHARDS("es_index_relocatingshards");
+
+        private final String metricName;
+
+        IndexStat(String metricName) {
+            this.metricName = metricName;
+        }
+
+        private int of(IndexHealth health) {
+            switch (this) {
+                case STATUS:
+                    // 1 for yellow, 2 for red
+                    return health.status == ClusterHealthStatus.RED ? 2 : 1;
+                case UNASSIGNED_SHARDS:
+                    return health.unassignedShards;
+                case INITIALIZING_SHARDS:
+                    return health.initializingShards;
+                default:
+                    return health.relocatingShards;
+            }
+        }
     }
 
     public static TaskTimer getTimer(String name) {
@@ -167,5 +403,15 @@ public class HealthMonitor extends Task {
         healthBean.greenoryellowstatus = -1;
         healthBean.nodematch = -1;
         healthBean.eurekanodematch = -1;
+        healthBean.redindices = -1;
+        healthBean.yellowindices = -1;
+        healthBean.numberofnodes = -1;
+        healthBean.activeshards = -1;
+        healthBean.unassignedshards = -1;
+        healthBean.delayedunassignedshards = -1;
+        healthBean.initializingshards = -1;
+        healthBean.relocatingshards = -1;
+        healthBean.pendingtasks = -1;
+        healthBean.inflightfetches = -1;
     }
 }
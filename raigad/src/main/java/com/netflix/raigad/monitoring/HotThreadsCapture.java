@@ -0,0 +1,225 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.servo.annotations.DataSourceType;
+import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.Monitors;
+import org.apache.commons.lang.StringUtils;
+import org.elasticsearch.action.admin.cluster.node.hotthreads.NodeHotThreads;
+import org.elasticsearch.action.admin.cluster.node.hotthreads.NodesHotThreadsResponse;
+import org.elasticsearch.common.unit.TimeValue;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captures the local node's hot threads while search latency, heap usage, CPU usage or GC pressure are above
+ * their thresholds, as seen by the other monitors on their last run, so the capture shows what the node was doing
+ * during the spike rather than after it.
+ * <p>
+ * Captures are at least the configured minimum interval apart, failed ones included, and only the last ones
+ * are kept on disk (see {@link HotThreadsRing}).
+ */
+@Singleton
+public class HotThreadsCapture extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(HotThreadsCapture.class);
+    public static final String METRIC_NAME = "Elasticsearch_HotThreadsCapture";
+
+    private final ElasticsearchAsyncAdmin asyncAdmin;
+    private final NodeIndicesStatsMonitor nodeIndicesStatsMonitor;
+    private final JvmStatsMonitor jvmStatsMonitor;
+    private final ProcessStatsMonitor processStatsMonitor;
+    private final HotThreadsRing ring;
+    private final Ticker ticker;
+    private final Elasticsearch_HotThreadsCaptureReporter hotThreadsCaptureReporter;
+
+    private boolean captured;
+    private long lastCaptureNanos;
+
+    @Inject
+    public HotThreadsCapture(IConfiguration config, ElasticsearchAsyncAdmin asyncAdmin, NodeIndicesStatsMonitor nodeIndicesStatsMonitor,
+                             JvmStatsMonitor jvmStatsMonitor, ProcessStatsMonitor processStatsMonitor) {
+        this(config, asyncAdmin, nodeIndicesStatsMonitor, jvmStatsMonitor, processStatsMonitor, Ticker.systemTicker());
+    }
+
+    HotThreadsCapture(IConfiguration config, ElasticsearchAsyncAdmin asyncAdmin, NodeIndicesStatsMonitor nodeIndicesStatsMonitor,
+                      JvmStatsMonitor jvmStatsMonitor, ProcessStatsMonitor processStatsMonitor, Ticker ticker) {
+        super(config);
+        this.asyncAdmin = asyncAdmin;
+        this.nodeIndicesStatsMonitor = nodeIndicesStatsMonitor;
+        this.jvmStatsMonitor = jvmStatsMonitor;
+        this.processStatsMonitor = processStatsMonitor;
+        this.ticker = ticker;
+        this.ring = new HotThreadsRing(new File(config.getHotThreadsCaptureDir()));
+        hotThreadsCaptureReporter = new Elasticsearch_HotThreadsCaptureReporter();
+        Monitors.registerObject(hotThreadsCaptureReporter);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        // Only start monitoring if Elasticsearch is started
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            String exceptionMsg = "Elasticsearch is not yet started, check back again later";
+            logger.info(exceptionMsg);
+            return;
+        }
+
+        if (!config.isHotThreadsCaptureEnabled()) {
+            return;
+        }
+
+        List<String> triggers = anomalies(config, nodeIndicesStatsMonitor.getSearchQueryIntervalAvgTimeInMillis(),
+                jvmStatsMonitor.getHeapUsedPercent(), processStatsMonitor.getCpuPercent(), jvmStatsMonitor.isGcPressureSustained());
+        if (triggers.isEmpty()) {
+            return;
+        }
+
+        if (!tryAcquire()) {
+            logger.debug("Hot threads capture skipped, last capture is too recent: {}", triggers);
+            hotThreadsCaptureReporter.rateLimited.incrementAndGet();
+            return;
+        }
+
+        try {
+            NodesHotThreadsResponse response = asyncAdmin.hotThreads(config.getHotThreadsThreads(), config.getHotThreadsSnapshots(),
+                    TimeValue.timeValueMillis(config.getHotThreadsIntervalInMillis()), config.getEsNodeName()).get();
+
+            StringBuilder hotThreads = new StringBuilder();
+            for (NodeHotThreads nodeHotThreads : response.getNodes()) {
+                hotThreads.append(nodeHotThreads.getHotThreads());
+            }
+
+            HotThreadsRing.Capture capture = ring.add(System.currentTimeMillis(), StringUtils.join(triggers, ", "),
+                    hotThreads.toString(), config.getHotThreadsMaxCaptures());
+            hotThreadsCaptureReporter.captures.incrementAndGet();
+            logger.info("Captured hot threads {} because of {}", capture.getId(), triggers);
+        } catch (Exception e) {
+            hotThreadsCaptureReporter.failures.incrementAndGet();
+            logger.warn("Failed to capture hot threads", e);
+        }
+    }
+
+    /**
+     * @return descriptions of the thresholds crossed, empty if none
+     */
+    static List<String> anomalies(IConfiguration config, double searchQueryAvgTimeInMillis, short heapUsedPercent, short cpuPercent,
+                                  boolean gcPressureSustained) {
+        List<String> anomalies = new ArrayList<>();
+
+        if (config.getHotThreadsTriggerQueryLatencyInMillis() > 0 && searchQueryAvgTimeInMillis >= config.getHotThreadsTriggerQueryLatencyInMillis()) {
+            anomalies.add("search query time " + Math.round(searchQueryAvgTimeInMillis) + "ms");
+        }
+        if (config.getHotThreadsTriggerHeapUsedPercent() > 0 && heapUsedPercent >= config.getHotThreadsTriggerHeapUsedPercent()) {
+            anomalies.add("heap used " + heapUsedPercent + "%");
+        }
+        if (config.getHotThreadsTriggerCpuPercent() > 0 && cpuPercent >= config.getHotThreadsTriggerCpuPercent()) {
+            anomalies.add("cpu " + cpuPercent + "%");
+        }
+        if (gcPressureSustained) {
+            anomalies.add("sustained gc pressure");
+        }
+
+        return anomalies;
+    }
+
+    /**
+     * @return true (and starts a new interval) if the last capture is at least the minimum capture interval ago
+     */
+    synchronized boolean tryAcquire() {
+        long now = ticker.read();
+        if (captured && now - lastCaptureNanos < TimeUnit.SECONDS.toNanos(config.getHotThreadsMinCaptureIntervalInSeconds())) {
+            return false;
+        }
+
+        captured = true;
+        lastCaptureNanos = now;
+        return true;
+    }
+
+    /**
+     * @return stored captures, newest first
+     */
+    public JSONObject getCapturesJson() throws IOException {
+        JSONArray captures = new JSONArray();
+        for (HotThreadsRing.Capture capture : ring.list()) {
+            JSONObject captureObject = new JSONObject();
+            captureObject.put("id", capture.getId());
+            captureObject.put("timestamp", capture.getTimestampMillis());
+            captureObject.put("triggers", capture.getTriggers());
+            captureObject.put("size_in_bytes", capture.getSizeInBytes());
+            captures.add(captureObject);
+        }
+
+        JSONObject object = new JSONObject();
+        object.put("captures", captures);
+        return object;
+    }
+
+    /**
+     * @return the capture content, null if there is no capture with that id
+     */
+    public String getCapture(String id) throws IOException {
+        return ring.read(id);
+    }
+
+    public class Elasticsearch_HotThreadsCaptureReporter {
+        private final AtomicLong captures = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong rateLimited = new AtomicLong();
+
+        @Monitor(name = "captures", type = DataSourceType.COUNTER)
+        public long getCaptures() {
+            return captures.get();
+        }
+
+        @Monitor(name = "failures", type = DataSourceType.COUNTER)
+        public long getFailures() {
+            return failures.get();
+        }
+
+        @Monitor(name = "rate_limited", type = DataSourceType.COUNTER)
+        public long getRateLimited() {
+            return rateLimited.get();
+        }
+    }
+
+    public static TaskTimer getTimer(String name) {
+        return new SimpleTimer(name, 30 * 1000);
+    }
+
+    @Override
+    public String getName() {
+        return METRIC_NAME;
+    }
+}
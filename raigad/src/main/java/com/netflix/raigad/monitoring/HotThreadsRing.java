@@ -0,0 +1,170 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.LineIterator;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the last hot threads captures as one file per capture, named after the capture time.
+ * <p>
+ * A capture file starts with a header line listing what triggered it, followed by the hot threads output.
+ * Files are written to a temporary name and renamed, so readers never see a partial capture.
+ */
+public class HotThreadsRing {
+    private static final String PREFIX = "hot_threads-";
+    private static final String SUFFIX = ".txt";
+    private static final String TRIGGERS_HEADER = "triggers: ";
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d{13}");
+
+    private static final FilenameFilter CAPTURE_FILES = new FilenameFilter() {
+        @Override
+        public boolean accept(File dir, String name) {
+            return name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+                    && ID_PATTERN.matcher(name.substring(PREFIX.length(), name.length() - SUFFIX.length())).matches();
+        }
+    };
+
+    private final File directory;
+
+    public HotThreadsRing(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Stores a capture and deletes the oldest ones beyond maxCaptures
+     */
+    public synchronized Capture add(long timestampMillis, String triggers, String hotThreads, int maxCaptures) throws IOException {
+        FileUtils.forceMkdir(directory);
+
+        String id = String.format("%013d", timestampMillis);
+        String content = TRIGGERS_HEADER + triggers.replace('\n', ' ') + "\n\n" + hotThreads;
+
+        File tmpFile = new File(directory, "." + PREFIX + id + SUFFIX);
+        FileUtils.writeStringToFile(tmpFile, content, "UTF-8");
+        File file = file(id);
+        if (!tmpFile.renameTo(file)) {
+            FileUtils.deleteQuietly(tmpFile);
+            throw new IOException("Unable to rename " + tmpFile + " to " + file);
+        }
+
+        List<File> files = captureFiles();
+        for (int i = 0; i < files.size() - Math.max(1, maxCaptures); i++) {
+            FileUtils.deleteQuietly(files.get(i));
+        }
+
+        return new Capture(id, timestampMillis, triggers, file.length());
+    }
+
+    /**
+     * @return stored captures, newest first
+     */
+    public synchronized List<Capture> list() throws IOException {
+        List<Capture> captures = new ArrayList<>();
+
+        for (File file : captureFiles()) {
+            String id = idOf(file);
+            String triggers = "";
+            LineIterator lines = FileUtils.lineIterator(file, "UTF-8");
+            try {
+                if (lines.hasNext()) {
+                    String header = lines.nextLine();
+                    triggers = header.startsWith(TRIGGERS_HEADER) ? header.substring(TRIGGERS_HEADER.length()) : "";
+                }
+            } finally {
+                LineIterator.closeQuietly(lines);
+            }
+            captures.add(new Capture(id, Long.parseLong(id), triggers, file.length()));
+        }
+
+        Collections.reverse(captures);
+        return captures;
+    }
+
+    /**
+     * @return the capture content, null if there is no capture with that id
+     */
+    public synchronized String read(String id) throws IOException {
+        if (id == null || !ID_PATTERN.matcher(id).matches()) {
+            return null;
+        }
+
+        File file = file(id);
+        return file.isFile() ? FileUtils.readFileToString(file, "UTF-8") : null;
+    }
+
+    private File file(String id) {
+        return new File(directory, PREFIX + id + SUFFIX);
+    }
+
+    private static String idOf(File file) {
+        String name = file.getName();
+        return name.substring(PREFIX.length(), name.length() - SUFFIX.length());
+    }
+
+    /**
+     * @return capture files, oldest first
+     */
+    private List<File> captureFiles() {
+        File[] files = directory.listFiles(CAPTURE_FILES);
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        // Ids are zero padded timestamps, so names sort by capture time
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    public static class Capture {
+        private final String id;
+        private final long timestampMillis;
+        private final String triggers;
+        private final long sizeInBytes;
+
+        Capture(String id, long timestampMillis, String triggers, long sizeInBytes) {
+            this.id = id;
+            this.timestampMillis = timestampMillis;
+            this.triggers = triggers;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public String getTriggers() {
+            return triggers;
+        }
+
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+    }
+}
@@ -39,6 +39,7 @@ public class HttpStatsMonitor extends Task {
     private static final Logger logger = LoggerFactory.getLogger(HttpStatsMonitor.class);
     public static final String METRIC_NAME = "Elasticsearch_HttpStatsMonitor";
     private final Elasticsearch_HttpStatsReporter httpStatsReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
 
     @Inject
     public HttpStatsMonitor(IConfiguration config) {
@@ -77,6 +78,9 @@ public class HttpStatsMonitor extends Task {
 
             httpStatsBean.serverOpen = httpStats.getServerOpen();
             httpStatsBean.totalOpen = httpStats.getTotalOpen();
+
+            counterRateTracker.setGeneration(ndStat.getNode().getId());
+            httpStatsBean.totalOpenRate = counterRateTracker.update("total_open", httpStatsBean.totalOpen).getRatePerSecond();
         } catch (Exception e) {
             logger.warn("failed to load Http stats data", e);
         }
@@ -100,11 +104,17 @@ public class HttpStatsMonitor extends Task {
         public long getTotalOpen() {
             return httpStatsBean.get().totalOpen;
         }
+
+        @Monitor(name = "total_open_rate", type = DataSourceType.GAUGE)
+        public double getTotalOpenRate() {
+            return httpStatsBean.get().totalOpenRate;
+        }
     }
 
     private static class HttpStatsBean {
         private long serverOpen;
         private long totalOpen;
+        private double totalOpenRate;
     }
 
     public static TaskTimer getTimer(String name) {
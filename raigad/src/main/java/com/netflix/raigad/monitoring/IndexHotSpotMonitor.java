@@ -0,0 +1,504 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.raigad.utils.ElasticsearchUtils;
+import com.netflix.raigad.utils.HttpModule;
+import com.netflix.servo.DefaultMonitorRegistry;
+import com.netflix.servo.monitor.BasicGauge;
+import com.netflix.servo.monitor.Gauge;
+import com.netflix.servo.monitor.MonitorConfig;
+import org.elasticsearch.action.admin.indices.stats.CommonStats;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequestBuilder;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
+import org.elasticsearch.action.admin.indices.stats.ShardStats;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Collects per-index (and optionally per-shard) statistics for the shards hosted by each node and exports the top-K
+ * hottest ones as metrics tagged with the node, index (and shard) name.
+ * <p>
+ * Counters are tracked per shard copy (index, shard and allocation id) and only the deltas are summed up per index
+ * and node, so shards relocating to or away from a node do not show up as spikes or resets of the index totals.
+ * A copy that has just been allocated to a node counts as zero for its first interval.
+ * <p>
+ * The Java API of this Elasticsearch version does not expose the shard level node stats, so the shard statistics come
+ * from an indices stats call which fans out to every node holding a shard and returns all of them. Only the elected
+ * master makes that call and computes the hot spots of every node, the other nodes export nothing.
+ * <p>
+ * Only K entries are kept per level, selected with a bounded min-heap, so the number of exported
+ * metrics does not grow with the number of indices. Gauges of entries that drop out of the top-K
+ * are unregistered.
+ */
+@Singleton
+public class IndexHotSpotMonitor extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(IndexHotSpotMonitor.class);
+    public static final String METRIC_NAME = "Elasticsearch_IndexHotSpotMonitor";
+
+    static final String ALL_SHARDS = "all";
+
+    public enum HotSpotScore {
+        INDEXING_RATE, SEARCH_RATE, QUERY_LATENCY, MERGE_TIME, STORE_SIZE;
+
+        /**
+         * @return score matching the given name (e.g. "search_rate"), INDEXING_RATE if it does not match any
+         */
+        public static HotSpotScore fromName(String name) {
+            for (HotSpotScore score : values()) {
+                if (score.name().equalsIgnoreCase(name == null ? "" : name.trim())) {
+                    return score;
+                }
+            }
+
+            logger.warn("Unknown hot spot score [{}], falling back to {}", name, INDEXING_RATE);
+            return INDEXING_RATE;
+        }
+
+        double of(HotSpot hotSpot) {
+            switch (this) {
+                case SEARCH_RATE:
+                    return hotSpot.searchRate;
+                case QUERY_LATENCY:
+                    return hotSpot.queryLatencyInMillis;
+                case MERGE_TIME:
+                    return hotSpot.mergeTimeRatio;
+                case STORE_SIZE:
+                    return hotSpot.storeSizeInBytes;
+                default:
+                    return hotSpot.indexingRate;
+            }
+        }
+    }
+
+    private final HttpModule httpModule;
+    private final ElasticsearchAsyncAdmin asyncAdmin;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
+    private final AtomicReference<Map<String, HotSpot>> hotSpots = new AtomicReference<Map<String, HotSpot>>(new HashMap<String, HotSpot>());
+    private final Map<String, List<Gauge<Double>>> gauges = new HashMap<>();
+
+    @Inject
+    public IndexHotSpotMonitor(IConfiguration config, HttpModule httpModule, ElasticsearchAsyncAdmin asyncAdmin) {
+        super(config);
+        this.httpModule = httpModule;
+        this.asyncAdmin = asyncAdmin;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        // If Elasticsearch is started then only start the monitoring
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            String exceptionMsg = "Elasticsearch is not yet started, check back again later";
+            logger.info(exceptionMsg);
+            return;
+        }
+
+        if (!config.isIndexHotSpotMonitorEnabled()) {
+            return;
+        }
+
+        try {
+            if (!ElasticsearchUtils.amIMasterNode(config, httpModule)) {
+                // The new master reports the hot spots from now on
+                counterRateTracker.clear();
+                hotSpots.set(new HashMap<String, HotSpot>());
+                updateGauges(hotSpots.get());
+                return;
+            }
+
+            IndicesStatsResponse indicesStatsResponse = asyncAdmin.indicesStats(
+                    new Function<IndicesStatsRequestBuilder, IndicesStatsRequestBuilder>() {
+                        @Override
+                        public IndicesStatsRequestBuilder apply(IndicesStatsRequestBuilder builder) {
+                            return builder.clear().setIndexing(true).setSearch(true).setMerge(true).setStore(true);
+                        }
+                    }).get();
+
+            Set<String> counters = new HashSet<>();
+            Collection<HotSpot> candidates = toHotSpots(counterRateTracker, shardCopies(indicesStatsResponse.getShards()),
+                    config.isIndexHotSpotShardLevelEnabled(), counters);
+
+            HotSpotScore score = HotSpotScore.fromName(config.getIndexHotSpotScore());
+            List<HotSpot> indexHotSpots = new ArrayList<>();
+            List<HotSpot> shardHotSpots = new ArrayList<>();
+            for (HotSpot hotSpot : candidates) {
+                hotSpot.score = score.of(hotSpot);
+                if (ALL_SHARDS.equals(hotSpot.shard)) {
+                    indexHotSpots.add(hotSpot);
+                } else {
+                    shardHotSpots.add(hotSpot);
+                }
+            }
+
+            // Forget counters of shard copies that moved away or indices that were deleted
+            counterRateTracker.retain(counters);
+
+            Map<String, HotSpot> top = new HashMap<>();
+            for (HotSpot hotSpot : topK(indexHotSpots, config.getIndexHotSpotTopK())) {
+                top.put(hotSpot.getKey(), hotSpot);
+            }
+            for (HotSpot hotSpot : topK(shardHotSpots, config.getIndexHotSpotTopK())) {
+                top.put(hotSpot.getKey(), hotSpot);
+            }
+
+            hotSpots.set(top);
+            updateGauges(top);
+        } catch (Exception e) {
+            logger.warn("Failed to load index hot spot statistics", e);
+        }
+    }
+
+    /**
+     * @return statistics of every shard copy assigned to a node
+     */
+    static List<ShardCopy> shardCopies(ShardStats[] shardStats) {
+        List<ShardCopy> copies = new ArrayList<>();
+        if (shardStats == null) {
+            return copies;
+        }
+
+        for (ShardStats shardStat : shardStats) {
+            ShardRouting shardRouting = shardStat.getShardRouting();
+            if (shardRouting == null || shardRouting.currentNodeId() == null || shardStat.getStats() == null) {
+                continue;
+            }
+
+            String allocationId = shardRouting.allocationId() == null ? "" : shardRouting.allocationId().getId();
+            ShardCopy copy = new ShardCopy(shardRouting.currentNodeId(), shardRouting.getIndex(), shardRouting.id(), allocationId);
+            copy.add(shardStat.getStats());
+            copies.add(copy);
+        }
+
+        return copies;
+    }
+
+    /**
+     * Turns the counters of each shard copy into deltas and sums them up per node and index, and optionally per shard too
+     *
+     * @param counters collects the names of the counters updated, to be retained by the tracker
+     */
+    static Collection<HotSpot> toHotSpots(CounterRateTracker counterRateTracker, Collection<ShardCopy> copies, boolean shardLevel,
+                                          Set<String> counters) {
+        Map<String, HotSpotSample> samples = new HashMap<>();
+
+        for (ShardCopy copy : copies) {
+            String key = copy.getKey();
+            CounterRateTracker.CounterDelta indexTotal = update(counterRateTracker, key, "index_total", copy.indexTotal, counters);
+            CounterRateTracker.CounterDelta queryTotal = update(counterRateTracker, key, "query_total", copy.queryTotal, counters);
+            CounterRateTracker.CounterDelta queryTime = update(counterRateTracker, key, "query_time", copy.queryTimeInMillis, counters);
+            CounterRateTracker.CounterDelta mergeTime = update(counterRateTracker, key, "merge_time", copy.mergeTimeInMillis, counters);
+
+            sample(samples, copy.nodeId, copy.index, ALL_SHARDS).add(copy, indexTotal, queryTotal, queryTime, mergeTime);
+            if (shardLevel) {
+                sample(samples, copy.nodeId, copy.index, String.valueOf(copy.shard)).add(copy, indexTotal, queryTotal, queryTime, mergeTime);
+            }
+        }
+
+        List<HotSpot> hotSpots = new ArrayList<>();
+        for (HotSpotSample sample : samples.values()) {
+            hotSpots.add(sample.toHotSpot());
+        }
+        return hotSpots;
+    }
+
+    private static HotSpotSample sample(Map<String, HotSpotSample> samples, String nodeId, String index, String shard) {
+        String key = HotSpot.key(nodeId, index, shard);
+        HotSpotSample sample = samples.get(key);
+        if (sample == null) {
+            sample = new HotSpotSample(nodeId, index, shard);
+            samples.put(key, sample);
+        }
+        return sample;
+    }
+
+    private static CounterRateTracker.CounterDelta update(CounterRateTracker counterRateTracker, String key, String counter, long value,
+                                                          Set<String> counters) {
+        String name = key + "." + counter;
+        counters.add(name);
+        return counterRateTracker.update(name, value);
+    }
+
+    /**
+     * @return the k entries with the highest score, highest first; memory is bounded by k regardless of the input size
+     */
+    static List<HotSpot> topK(Collection<HotSpot> candidates, int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+
+        PriorityQueue<HotSpot> heap = new PriorityQueue<>(k, SCORE_ORDER);
+        for (HotSpot candidate : candidates) {
+            if (heap.size() < k) {
+                heap.offer(candidate);
+            } else if (SCORE_ORDER.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(candidate);
+            }
+        }
+
+        List<HotSpot> top = new ArrayList<>(heap);
+        Collections.sort(top, Collections.reverseOrder(SCORE_ORDER));
+        return top;
+    }
+
+    private static final Comparator<HotSpot> SCORE_ORDER = new Comparator<HotSpot>() {
+        @Override
+        public int compare(HotSpot first, HotSpot second) {
+            int result = Double.compare(first.score, second.score);
+            // Stable ordering between equally hot entries keeps the exported set from flapping
+            return result != 0 ? result : second.getKey().compareTo(first.getKey());
+        }
+    };
+
+    private synchronized void updateGauges(Map<String, HotSpot> top) {
+        for (String key : new ArrayList<>(gauges.keySet())) {
+            if (!top.containsKey(key)) {
+                for (Gauge<Double> gauge : gauges.remove(key)) {
+                    DefaultMonitorRegistry.getInstance().unregister(gauge);
+                }
+            }
+        }
+
+        for (HotSpot hotSpot : top.values()) {
+            if (gauges.containsKey(hotSpot.getKey())) {
+                continue;
+            }
+
+            List<Gauge<Double>> hotSpotGauges = new ArrayList<>();
+            for (HotSpotStat stat : HotSpotStat.values()) {
+                Gauge<Double> gauge = newGauge(hotSpot, stat);
+                DefaultMonitorRegistry.getInstance().register(gauge);
+                hotSpotGauges.add(gauge);
+            }
+            gauges.put(hotSpot.getKey(), hotSpotGauges);
+        }
+    }
+
+    private Gauge<Double> newGauge(final HotSpot hotSpot, final HotSpotStat stat) {
+        MonitorConfig monitorConfig = MonitorConfig.builder(stat.metricName)
+                .withTag("class", METRIC_NAME)
+                .withTag("node", hotSpot.nodeId)
+                .withTag("index", hotSpot.index)
+                .withTag("shard", hotSpot.shard)
+                .build();
+
+        return new BasicGauge<>(monitorConfig, new Callable<Double>() {
+            @Override
+            public Double call() throws Exception {
+                HotSpot current = hotSpots.get().get(hotSpot.getKey());
+                return current == null ? 0 : stat.of(current);
+            }
+        });
+    }
+
+    /**
+     * @return hottest indices (and shards) found by the last run, highest score first; empty unless this node is the master
+     */
+    public List<HotSpot> getHotSpots() {
+        List<HotSpot> top = new ArrayList<>(hotSpots.get().values());
+        Collections.sort(top, Collections.reverseOrder(SCORE_ORDER));
+        return top;
+    }
+
+    private enum HotSpotStat {
+        SCORE("hotspot_score"),
+        INDEXING_RATE("hotspot_indexing_rate"),
+        SEARCH_RATE("hotspot_search_rate"),
+        QUERY_LATENCY("hotspot_query_latency_in_millis"),
+        MERGE_TIME("hotspot_merge_time_ratio"),
+        STORE_SIZE("hotspot_store_size_in_bytes");
+
+        private final String metricName;
+
+        HotSpotStat(String metricName) {
+            this.metricName = metricName;
+        }
+
+        double of(HotSpot hotSpot) {
+            return this == SCORE ? hotSpot.score : HotSpotScore.valueOf(name()).of(hotSpot);
+        }
+    }
+
+    public static class HotSpot {
+        private final String nodeId;
+        private final String index;
+        private final String shard;
+        double score;
+        double indexingRate;
+        double searchRate;
+        double queryLatencyInMillis;
+        double mergeTimeRatio;
+        long storeSizeInBytes;
+
+        HotSpot(String nodeId, String index, String shard) {
+            this.nodeId = nodeId;
+            this.index = index;
+            this.shard = shard;
+        }
+
+        static String key(String nodeId, String index, String shard) {
+            return nodeId + "/" + index + "/" + shard;
+        }
+
+        public String getKey() {
+            return key(nodeId, index, shard);
+        }
+
+        /**
+         * @return id of the node hosting the index (or shard)
+         */
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        /**
+         * @return shard number, or "all" for the index as a whole
+         */
+        public String getShard() {
+            return shard;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getIndexingRate() {
+            return indexingRate;
+        }
+
+        public double getSearchRate() {
+            return searchRate;
+        }
+
+        public double getQueryLatencyInMillis() {
+            return queryLatencyInMillis;
+        }
+
+        public double getMergeTimeRatio() {
+            return mergeTimeRatio;
+        }
+
+        public long getStoreSizeInBytes() {
+            return storeSizeInBytes;
+        }
+    }
+
+    /**
+     * Cumulative counters of one shard copy, as reported by the node hosting it
+     */
+    static class ShardCopy {
+        private final String nodeId;
+        private final String index;
+        private final int shard;
+        private final String allocationId;
+        long indexTotal;
+        long queryTotal;
+        long queryTimeInMillis;
+        long mergeTimeInMillis;
+        long storeSizeInBytes;
+
+        ShardCopy(String nodeId, String index, int shard, String allocationId) {
+            this.nodeId = nodeId;
+            this.index = index;
+            this.shard = shard;
+            this.allocationId = allocationId;
+        }
+
+        String getKey() {
+            return index + "/" + shard + "/" + allocationId;
+        }
+
+        void add(CommonStats stats) {
+            if (stats.getIndexing() != null) {
+                indexTotal += stats.getIndexing().getTotal().getIndexCount();
+            }
+            if (stats.getSearch() != null) {
+                queryTotal += stats.getSearch().getTotal().getQueryCount();
+                queryTimeInMillis += stats.getSearch().getTotal().getQueryTimeInMillis();
+            }
+            if (stats.getMerge() != null) {
+                mergeTimeInMillis += stats.getMerge().getTotalTimeInMillis();
+            }
+            if (stats.getStore() != null) {
+                storeSizeInBytes += stats.getStore().getSizeInBytes();
+            }
+        }
+    }
+
+    /**
+     * Per-interval changes of the shard copies of an index (or shard), summed up
+     */
+    private static class HotSpotSample {
+        private final HotSpot hotSpot;
+        private long queryCount;
+        private long queryTimeInMillis;
+
+        private HotSpotSample(String nodeId, String index, String shard) {
+            this.hotSpot = new HotSpot(nodeId, index, shard);
+        }
+
+        private void add(ShardCopy copy, CounterRateTracker.CounterDelta indexTotal, CounterRateTracker.CounterDelta queryTotal,
+                         CounterRateTracker.CounterDelta queryTime, CounterRateTracker.CounterDelta mergeTime) {
+            hotSpot.indexingRate += indexTotal.getRatePerSecond();
+            hotSpot.searchRate += queryTotal.getRatePerSecond();
+            hotSpot.mergeTimeRatio += mergeTime.getTimeRatio();
+            hotSpot.storeSizeInBytes += copy.storeSizeInBytes;
+            queryCount += queryTotal.getDelta();
+            queryTimeInMillis += queryTime.getDelta();
+        }
+
+        private HotSpot toHotSpot() {
+            hotSpot.queryLatencyInMillis = queryCount > 0 ? (double) queryTimeInMillis / queryCount : 0;
+            return hotSpot;
+        }
+    }
+
+    public static TaskTimer getTimer(IConfiguration config) {
+        return new SimpleTimer(METRIC_NAME, config.getIndexHotSpotMonitorIntervalInSeconds() * 1000L);
+    }
+
+    @Override
+    public String getName() {
+        return METRIC_NAME;
+    }
+}
@@ -46,10 +46,13 @@ public class JvmStatsMonitor extends Task {
     public static final String GC_SURVIVOR_TAG = "survivor";
 
     private final Elasticsearch_JvmStatsReporter jvmStatsReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
+    private final GcIntervalAnalyzer gcIntervalAnalyzer;
 
     @Inject
     public JvmStatsMonitor(IConfiguration config) {
         super(config);
+        gcIntervalAnalyzer = new GcIntervalAnalyzer(config);
         jvmStatsReporter = new Elasticsearch_JvmStatsReporter();
         Monitors.registerObject(jvmStatsReporter);
     }
@@ -121,10 +124,13 @@ public class JvmStatsMonitor extends Task {
             jvmStatsBean.uptimeHours = jvmStats.getUptime().getHours();
 
             //GC
+            counterRateTracker.setGeneration(nodeStats.getNode().getId());
             for (JvmStats.GarbageCollector garbageCollector : jvmStats.getGc().getCollectors()) {
                 if (garbageCollector.getName().equalsIgnoreCase(GC_YOUNG_TAG)) {
                     jvmStatsBean.youngCollectionCount = garbageCollector.getCollectionCount();
                     jvmStatsBean.youngCollectionTimeInMillis = garbageCollector.getCollectionTime().getMillis();
+                    jvmStatsBean.youngCollectionRate = counterRateTracker.update("young_collection_count", jvmStatsBean.youngCollectionCount).getRatePerSecond();
+                    jvmStatsBean.youngCollectionTimeRatio = counterRateTracker.update("young_collection_time", jvmStatsBean.youngCollectionTimeInMillis).getTimeRatio();
 
                     /* TODO: 2X: Determine if last GC is necessary and if yes find an alternative
                     if (garbageCollector.getLastGc() != null) {
@@ -139,6 +145,8 @@ public class JvmStatsMonitor extends Task {
                 } else if (garbageCollector.getName().equalsIgnoreCase(GC_OLD_TAG)) {
                     jvmStatsBean.oldCollectionCount = garbageCollector.getCollectionCount();
                     jvmStatsBean.oldCollectionTimeInMillis = garbageCollector.getCollectionTime().getMillis();
+                    jvmStatsBean.oldCollectionRate = counterRateTracker.update("old_collection_count", jvmStatsBean.oldCollectionCount).getRatePerSecond();
+                    jvmStatsBean.oldCollectionTimeRatio = counterRateTracker.update("old_collection_time", jvmStatsBean.oldCollectionTimeInMillis).getTimeRatio();
 
                     /* TODO: 2X: Determine if last GC is necessary and if yes find an alternative
                     if (garbageCollector.getLastGc() != null) {
@@ -152,6 +160,30 @@ public class JvmStatsMonitor extends Task {
                     */
                 }
             }
+
+            GcIntervalAnalyzer.GcSample gcSample = new GcIntervalAnalyzer.GcSample()
+                    .young(jvmStatsBean.youngCollectionCount, jvmStatsBean.youngCollectionTimeInMillis, jvmStatsBean.youngUsedInBytes,
+                            jvmStatsBean.youngMaxInBytes > 0 ? jvmStatsBean.youngMaxInBytes : jvmStatsBean.youngPeakUsedInBytes)
+                    .old(jvmStatsBean.oldCollectionCount, jvmStatsBean.oldCollectionTimeInMillis, jvmStatsBean.oldUsedInBytes,
+                            jvmStatsBean.oldMaxInBytes);
+            GcIntervalAnalyzer.GcInterval gcInterval = gcIntervalAnalyzer.update(nodeStats.getNode().getId(), gcSample);
+
+            jvmStatsBean.youngAvgPauseInMillis = gcInterval.getYoungAvgPauseInMillis();
+            jvmStatsBean.youngMaxPauseInMillis = gcInterval.getYoungMaxPauseInMillis();
+            jvmStatsBean.oldAvgPauseInMillis = gcInterval.getOldAvgPauseInMillis();
+            jvmStatsBean.oldMaxPauseInMillis = gcInterval.getOldMaxPauseInMillis();
+            jvmStatsBean.gcTimeRatio = gcInterval.getGcTimeRatio();
+            jvmStatsBean.allocationRateInBytesPerSec = gcInterval.getAllocationRateInBytesPerSec();
+            jvmStatsBean.promotionRateInBytesPerSec = gcInterval.getPromotionRateInBytesPerSec();
+            jvmStatsBean.oldUsedPercent = gcInterval.getOldUsedPercent();
+            jvmStatsBean.gcPressureIntervals = gcInterval.getPressureIntervals();
+            jvmStatsBean.gcPressureSustained = gcInterval.isSustainedPressure();
+
+            if (gcInterval.isSustainedPressure() && !jvmStatsReporter.jvmStatsBean.get().gcPressureSustained) {
+                logger.warn("Sustained GC pressure for {} intervals: {}% of time in GC, old generation {}% used, promoting {} bytes/s",
+                        gcInterval.getPressureIntervals(), Math.round(gcInterval.getGcTimeRatio() * 100),
+                        Math.round(gcInterval.getOldUsedPercent()), Math.round(gcInterval.getPromotionRateInBytesPerSec()));
+            }
         } catch (Exception e) {
             logger.warn("Failed to load JVM stats data", e);
         }
@@ -159,6 +191,17 @@ public class JvmStatsMonitor extends Task {
         jvmStatsReporter.jvmStatsBean.set(jvmStatsBean);
     }
 
+    /**
+     * @return true if the last intervals spent too much time in GC or old collections no longer reclaimed enough space
+     */
+    public boolean isGcPressureSustained() {
+        return jvmStatsReporter.jvmStatsBean.get().gcPressureSustained;
+    }
+
+    public short getHeapUsedPercent() {
+        return jvmStatsReporter.jvmStatsBean.get().heapUsedPercent;
+    }
+
     public class Elasticsearch_JvmStatsReporter {
         private final AtomicReference<JvmStatsBean> jvmStatsBean;
 
@@ -231,6 +274,76 @@ public class JvmStatsMonitor extends Task {
             return jvmStatsBean.get().oldCollectionTimeInMillis;
         }
 
+        @Monitor(name = "young_collection_rate", type = DataSourceType.GAUGE)
+        public double getYoungCollectionRate() {
+            return jvmStatsBean.get().youngCollectionRate;
+        }
+
+        @Monitor(name = "young_collection_time_ratio", type = DataSourceType.GAUGE)
+        public double getYoungCollectionTimeRatio() {
+            return jvmStatsBean.get().youngCollectionTimeRatio;
+        }
+
+        @Monitor(name = "old_collection_rate", type = DataSourceType.GAUGE)
+        public double getOldCollectionRate() {
+            return jvmStatsBean.get().oldCollectionRate;
+        }
+
+        @Monitor(name = "old_collection_time_ratio", type = DataSourceType.GAUGE)
+        public double getOldCollectionTimeRatio() {
+            return jvmStatsBean.get().oldCollectionTimeRatio;
+        }
+
+        @Monitor(name = "young_avg_pause_in_millis", type = DataSourceType.GAUGE)
+        public double getYoungAvgPauseInMillis() {
+            return jvmStatsBean.get().youngAvgPauseInMillis;
+        }
+
+        @Monitor(name = "young_max_pause_in_millis", type = DataSourceType.GAUGE)
+        public double getYoungMaxPauseInMillis() {
+            return jvmStatsBean.get().youngMaxPauseInMillis;
+        }
+
+        @Monitor(name = "old_avg_pause_in_millis", type = DataSourceType.GAUGE)
+        public double getOldAvgPauseInMillis() {
+            return jvmStatsBean.get().oldAvgPauseInMillis;
+        }
+
+        @Monitor(name = "old_max_pause_in_millis", type = DataSourceType.GAUGE)
+        public double getOldMaxPauseInMillis() {
+            return jvmStatsBean.get().oldMaxPauseInMillis;
+        }
+
+        @Monitor(name = "gc_time_ratio", type = DataSourceType.GAUGE)
+        public double getGcTimeRatio() {
+            return jvmStatsBean.get().gcTimeRatio;
+        }
+
+        @Monitor(name = "allocation_rate_in_bytes_per_sec", type = DataSourceType.GAUGE)
+        public double getAllocationRateInBytesPerSec() {
+            return jvmStatsBean.get().allocationRateInBytesPerSec;
+        }
+
+        @Monitor(name = "promotion_rate_in_bytes_per_sec", type = DataSourceType.GAUGE)
+        public double getPromotionRateInBytesPerSec() {
+            return jvmStatsBean.get().promotionRateInBytesPerSec;
+        }
+
+        @Monitor(name = "old_used_percent", type = DataSourceType.GAUGE)
+        public double getOldUsedPercent() {
+            return jvmStatsBean.get().oldUsedPercent;
+        }
+
+        @Monitor(name = "gc_pressure_intervals", type = DataSourceType.GAUGE)
+        public int getGcPressureIntervals() {
+            return jvmStatsBean.get().gcPressureIntervals;
+        }
+
+        @Monitor(name = "gc_pressure_sustained", type = DataSourceType.GAUGE)
+        public int getGcPressureSustained() {
+            return jvmStatsBean.get().gcPressureSustained ? 1 : 0;
+        }
+
         @Monitor(name = "young_used_in_bytes", type = DataSourceType.GAUGE)
         public long getYoungUsedInBytes() {
             return jvmStatsBean.get().youngUsedInBytes;
@@ -366,6 +479,20 @@ public class JvmStatsMonitor extends Task {
         private long youngCollectionTimeInMillis;
         private long oldCollectionCount;
         private long oldCollectionTimeInMillis;
+        private double youngCollectionRate;
+        private double youngCollectionTimeRatio;
+        private double oldCollectionRate;
+        private double oldCollectionTimeRatio;
+        private double youngAvgPauseInMillis;
+        private double youngMaxPauseInMillis;
+        private double oldAvgPauseInMillis;
+        private double oldMaxPauseInMillis;
+        private double gcTimeRatio;
+        private double allocationRateInBytesPerSec;
+        private double promotionRateInBytesPerSec;
+        private double oldUsedPercent;
+        private int gcPressureIntervals;
+        private boolean gcPressureSustained;
         private long youngUsedInBytes;
         private long youngMaxInBytes;
         private long youngPeakUsedInBytes;
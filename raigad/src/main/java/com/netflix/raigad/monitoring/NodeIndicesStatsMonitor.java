@@ -69,20 +69,7 @@ public class NodeIndicesStatsMonitor extends Task {
     private final double PERCENTILE_95 = 0.95;
     private final double PERCENTILE_99 = 0.99;
 
-    private long cachedQueryCount;
-    private long cachedFetchCount;
-    private long cachedGetCount;
-    private long cachedGetExistsCount;
-    private long cachedGetMissingCount;
-    private long cachedIndexingIndexTotal;
-    private long cachedIndexingDeleteTotal;
-    private long cachedSearchQueryTime;
-    private long cachedSearchFetchTime;
-    private long cachedGetTime;
-    private long cachedGetExistsTime;
-    private long cachedGetMissingTime;
-    private long cachedIndexingTime;
-    private long cachedIndexDeleteTime;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
 
     @Inject
     public NodeIndicesStatsMonitor(IConfiguration config) {
@@ -127,6 +114,8 @@ public class NodeIndicesStatsMonitor extends Task {
                 return;
             }
 
+            counterRateTracker.setGeneration(nodeStats.getNode().getId());
+
             updateStoreDocs(nodeIndicesStatsBean, nodeIndicesStats);
             updateRefreshFlush(nodeIndicesStatsBean, nodeIndicesStats);
             updateMerge(nodeIndicesStatsBean, nodeIndicesStats);
@@ -154,12 +143,14 @@ public class NodeIndicesStatsMonitor extends Task {
         if (nodeIndicesStatsBean.refreshTotal != 0) {
             nodeIndicesStatsBean.refreshAvgTimeInMillisPerRequest = nodeIndicesStatsBean.refreshTotalTime / nodeIndicesStatsBean.refreshTotal;
         }
+        nodeIndicesStatsBean.refreshRate = counterRateTracker.update("refresh_total", nodeIndicesStatsBean.refreshTotal).getRatePerSecond();
 
         nodeIndicesStatsBean.flushTotal = nodeIndicesStats.getFlush().getTotal();
         nodeIndicesStatsBean.flushTotalTime = nodeIndicesStats.getFlush().getTotalTimeInMillis();
         if (nodeIndicesStatsBean.flushTotal != 0) {
             nodeIndicesStatsBean.flushAvgTimeInMillisPerRequest = nodeIndicesStatsBean.flushTotalTime / nodeIndicesStatsBean.flushTotal;
         }
+        nodeIndicesStatsBean.flushRate = counterRateTracker.update("flush_total", nodeIndicesStatsBean.flushTotal).getRatePerSecond();
     }
 
     private void updateMerge(NodeIndicesStatsBean nodeIndicesStatsBean, NodeIndicesStats nodeIndicesStats) {
@@ -169,6 +160,8 @@ public class NodeIndicesStatsMonitor extends Task {
         nodeIndicesStatsBean.mergesTotal = nodeIndicesStats.getMerge().getTotal();
         nodeIndicesStatsBean.mergesTotalTime = nodeIndicesStats.getMerge().getTotalTimeInMillis();
         nodeIndicesStatsBean.mergesTotalSize = nodeIndicesStats.getMerge().getTotalSizeInBytes();
+        nodeIndicesStatsBean.mergesRate = counterRateTracker.update("merges_total", nodeIndicesStatsBean.mergesTotal).getRatePerSecond();
+        nodeIndicesStatsBean.mergesSizeRate = counterRateTracker.update("merges_total_size", nodeIndicesStatsBean.mergesTotalSize).getRatePerSecond();
     }
 
     private void updateCache(NodeIndicesStatsBean nodeIndicesStatsBean, NodeIndicesStats nodeIndicesStats) {
@@ -183,18 +176,23 @@ public class NodeIndicesStatsMonitor extends Task {
         nodeIndicesStatsBean.searchQueryTotal = nodeIndicesStats.getSearch().getTotal().getQueryCount();
         nodeIndicesStatsBean.searchFetchTotal = nodeIndicesStats.getSearch().getTotal().getFetchCount();
         nodeIndicesStatsBean.searchQueryCurrent = nodeIndicesStats.getSearch().getTotal().getQueryCurrent();
-
-        long tmpSearchQueryDelta = nodeIndicesStatsBean.searchQueryTotal - cachedQueryCount;
-        nodeIndicesStatsBean.searchQueryDelta = tmpSearchQueryDelta < 0 ? 0 : tmpSearchQueryDelta;
-        long tmpSearchFetchDelta = nodeIndicesStatsBean.searchFetchTotal - cachedFetchCount;
-        nodeIndicesStatsBean.searchFetchDelta = tmpSearchFetchDelta < 0 ? 0 : tmpSearchFetchDelta;
-
         nodeIndicesStatsBean.searchQueryTime = nodeIndicesStats.getSearch().getTotal().getQueryTimeInMillis();
         nodeIndicesStatsBean.searchFetchTime = nodeIndicesStats.getSearch().getTotal().getFetchTimeInMillis();
 
-        long searchQueryDeltaTimeInMillis = (nodeIndicesStatsBean.searchQueryTime - cachedSearchQueryTime);
+        CounterRateTracker.CounterDelta searchQuery = counterRateTracker.update("search_query_total", nodeIndicesStatsBean.searchQueryTotal);
+        CounterRateTracker.CounterDelta searchQueryTime = counterRateTracker.update("search_query_time", nodeIndicesStatsBean.searchQueryTime);
+        nodeIndicesStatsBean.searchQueryDelta = searchQuery.getDelta();
+        nodeIndicesStatsBean.searchQueryRate = searchQuery.getRatePerSecond();
+        nodeIndicesStatsBean.searchQueryIntervalAvgTimeInMillis = CounterRateTracker.average(searchQueryTime, searchQuery);
+
+        CounterRateTracker.CounterDelta searchFetch = counterRateTracker.update("search_fetch_total", nodeIndicesStatsBean.searchFetchTotal);
+        CounterRateTracker.CounterDelta searchFetchTime = counterRateTracker.update("search_fetch_time", nodeIndicesStatsBean.searchFetchTime);
+        nodeIndicesStatsBean.searchFetchDelta = searchFetch.getDelta();
+        nodeIndicesStatsBean.searchFetchRate = searchFetch.getRatePerSecond();
+        nodeIndicesStatsBean.searchFetchIntervalAvgTimeInMillis = CounterRateTracker.average(searchFetchTime, searchFetch);
+
         if (nodeIndicesStatsBean.searchQueryDelta != 0) {
-            recordSearchQueryLatencies(searchQueryDeltaTimeInMillis / nodeIndicesStatsBean.searchQueryDelta, TimeUnit.MILLISECONDS);
+            recordSearchQueryLatencies(searchQueryTime.getDelta() / nodeIndicesStatsBean.searchQueryDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencySearchQuery95 = latencySearchQuery95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencySearchQuery99 = latencySearchQuery99Histo.percentile(PERCENTILE_99);
         } else {
@@ -206,9 +204,8 @@ public class NodeIndicesStatsMonitor extends Task {
             nodeIndicesStatsBean.searchQueryAvgTimeInMillisPerRequest = nodeIndicesStatsBean.searchQueryTime / nodeIndicesStatsBean.searchQueryTotal;
         }
 
-        long searchFetchDeltaTimeInMillis = (nodeIndicesStatsBean.searchFetchTime - cachedSearchFetchTime);
         if (nodeIndicesStatsBean.searchFetchDelta != 0) {
-            recordSearchFetchLatencies(searchFetchDeltaTimeInMillis / nodeIndicesStatsBean.searchFetchDelta, TimeUnit.MILLISECONDS);
+            recordSearchFetchLatencies(searchFetchTime.getDelta() / nodeIndicesStatsBean.searchFetchDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencySearchFetch95 = latencySearchFetch95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencySearchFetch99 = latencySearchFetch99Histo.percentile(PERCENTILE_99);
         } else {
@@ -221,11 +218,6 @@ public class NodeIndicesStatsMonitor extends Task {
         }
 
         nodeIndicesStatsBean.searchFetchCurrent = nodeIndicesStats.getSearch().getTotal().getFetchCurrent();
-
-        cachedQueryCount += nodeIndicesStatsBean.searchQueryDelta;
-        cachedFetchCount += nodeIndicesStatsBean.searchFetchDelta;
-        cachedSearchQueryTime += searchQueryDeltaTimeInMillis;
-        cachedSearchFetchTime += searchFetchDeltaTimeInMillis;
     }
 
     private void updateGet(NodeIndicesStatsBean nodeIndicesStatsBean, NodeIndicesStats nodeIndicesStats) {
@@ -236,16 +228,21 @@ public class NodeIndicesStatsMonitor extends Task {
         nodeIndicesStatsBean.getExistsTime = nodeIndicesStats.getGet().getExistsTimeInMillis();
         nodeIndicesStatsBean.getMissingTime = nodeIndicesStats.getGet().getMissingTimeInMillis();
 
-        long tmpGetTotalDelta = nodeIndicesStatsBean.getTotal - cachedGetCount;
-        nodeIndicesStatsBean.getTotalDelta = tmpGetTotalDelta < 0 ? 0 : tmpGetTotalDelta;
-        long tmpGetExistsDelta = nodeIndicesStatsBean.getExistsTotal - cachedGetExistsCount;
-        nodeIndicesStatsBean.getExistsDelta = tmpGetExistsDelta < 0 ? 0 : tmpGetExistsDelta;
-        long tmpGetMissingDelta = nodeIndicesStatsBean.getMissingTotal - cachedGetMissingCount;
-        nodeIndicesStatsBean.getMissingDelta = tmpGetMissingDelta < 0 ? 0 : tmpGetMissingDelta;
+        CounterRateTracker.CounterDelta get = counterRateTracker.update("get_total", nodeIndicesStatsBean.getTotal);
+        CounterRateTracker.CounterDelta getTime = counterRateTracker.update("get_time", nodeIndicesStatsBean.getTime);
+        CounterRateTracker.CounterDelta getExists = counterRateTracker.update("get_exists_total", nodeIndicesStatsBean.getExistsTotal);
+        CounterRateTracker.CounterDelta getExistsTime = counterRateTracker.update("get_exists_time", nodeIndicesStatsBean.getExistsTime);
+        CounterRateTracker.CounterDelta getMissing = counterRateTracker.update("get_missing_total", nodeIndicesStatsBean.getMissingTotal);
+        CounterRateTracker.CounterDelta getMissingTime = counterRateTracker.update("get_missing_time", nodeIndicesStatsBean.getMissingTime);
+
+        nodeIndicesStatsBean.getTotalDelta = get.getDelta();
+        nodeIndicesStatsBean.getExistsDelta = getExists.getDelta();
+        nodeIndicesStatsBean.getMissingDelta = getMissing.getDelta();
+        nodeIndicesStatsBean.getRate = get.getRatePerSecond();
+        nodeIndicesStatsBean.getIntervalAvgTimeInMillis = CounterRateTracker.average(getTime, get);
 
-        long getDeltaTimeInMillis = (nodeIndicesStatsBean.getTime - cachedGetTime);
         if (nodeIndicesStatsBean.getTotalDelta != 0) {
-            recordGetLatencies(getDeltaTimeInMillis / nodeIndicesStatsBean.getTotalDelta, TimeUnit.MILLISECONDS);
+            recordGetLatencies(getTime.getDelta() / nodeIndicesStatsBean.getTotalDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencyGet95 = latencyGet95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencyGet99 = latencyGet99Histo.percentile(PERCENTILE_99);
         } else {
@@ -257,9 +254,8 @@ public class NodeIndicesStatsMonitor extends Task {
             nodeIndicesStatsBean.getTotalAvgTimeInMillisPerRequest = nodeIndicesStatsBean.getTime / nodeIndicesStatsBean.getTotal;
         nodeIndicesStatsBean.getCurrent = nodeIndicesStats.getGet().current();
 
-        long getExistsDeltaTimeInMillies = (nodeIndicesStatsBean.getExistsTime - cachedGetExistsTime);
         if (nodeIndicesStatsBean.getExistsDelta != 0) {
-            recordGetExistsLatencies(getExistsDeltaTimeInMillies / nodeIndicesStatsBean.getExistsDelta, TimeUnit.MILLISECONDS);
+            recordGetExistsLatencies(getExistsTime.getDelta() / nodeIndicesStatsBean.getExistsDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencyGetExists95 = latencyGetExists95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencyGetExists99 = latencyGetExists99Histo.percentile(PERCENTILE_99);
         } else {
@@ -270,9 +266,8 @@ public class NodeIndicesStatsMonitor extends Task {
         if (nodeIndicesStatsBean.getExistsTotal != 0)
             nodeIndicesStatsBean.getExistsAvgTimeInMillisPerRequest = nodeIndicesStatsBean.getExistsTime / nodeIndicesStatsBean.getExistsTotal;
 
-        long getMissingDeltaTimeInMillies = (nodeIndicesStatsBean.getMissingTime - cachedGetMissingTime);
         if (nodeIndicesStatsBean.getMissingDelta != 0) {
-            recordGetMissingLatencies(getMissingDeltaTimeInMillies / nodeIndicesStatsBean.getMissingDelta, TimeUnit.MILLISECONDS);
+            recordGetMissingLatencies(getMissingTime.getDelta() / nodeIndicesStatsBean.getMissingDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencyGetMissing95 = latencyGetMissing95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencyGetMissing99 = latencyGetMissing99Histo.percentile(PERCENTILE_99);
         } else {
@@ -283,31 +278,28 @@ public class NodeIndicesStatsMonitor extends Task {
         if (nodeIndicesStatsBean.getMissingTotal != 0) {
             nodeIndicesStatsBean.getMissingAvgTimeInMillisPerRequest = nodeIndicesStatsBean.getMissingTime / nodeIndicesStatsBean.getMissingTotal;
         }
-
-        cachedGetCount += nodeIndicesStatsBean.getTotalDelta;
-        cachedGetExistsCount += nodeIndicesStatsBean.getExistsDelta;
-        cachedGetMissingCount += nodeIndicesStatsBean.getMissingDelta;
-        cachedGetTime += getDeltaTimeInMillis;
-        cachedGetExistsTime += getExistsDeltaTimeInMillies;
-        cachedGetMissingTime += getMissingDeltaTimeInMillies;
     }
 
     private void updateIndexing(NodeIndicesStatsBean nodeIndicesStatsBean, NodeIndicesStats nodeIndicesStats) {
         nodeIndicesStatsBean.indexingIndexTotal = nodeIndicesStats.getIndexing().getTotal().getIndexCount();
         nodeIndicesStatsBean.indexingDeleteTotal = nodeIndicesStats.getIndexing().getTotal().getDeleteCount();
         nodeIndicesStatsBean.indexingIndexCurrent = nodeIndicesStats.getIndexing().getTotal().getIndexCurrent();
-
-        long tmpIndexingIndexDelta = (nodeIndicesStatsBean.indexingIndexTotal - cachedIndexingIndexTotal);
-        nodeIndicesStatsBean.indexingIndexDelta = tmpIndexingIndexDelta < 0 ? 0 : tmpIndexingIndexDelta;
-        long tmpIndexingDeleteDelta = (nodeIndicesStatsBean.indexingDeleteTotal - cachedIndexingDeleteTotal);
-        nodeIndicesStatsBean.indexingDeleteDelta = tmpIndexingDeleteDelta < 0 ? 0 : tmpIndexingDeleteDelta;
-
         nodeIndicesStatsBean.indexingIndexTimeInMillis = nodeIndicesStats.getIndexing().getTotal().getIndexTimeInMillis();
         nodeIndicesStatsBean.indexingDeleteTime = nodeIndicesStats.getIndexing().getTotal().getDeleteTimeInMillis();
 
-        long indexingTimeInMillis = (nodeIndicesStatsBean.indexingIndexTimeInMillis - cachedIndexingTime);
+        CounterRateTracker.CounterDelta indexing = counterRateTracker.update("indexing_index_total", nodeIndicesStatsBean.indexingIndexTotal);
+        CounterRateTracker.CounterDelta indexingTime = counterRateTracker.update("indexing_index_time", nodeIndicesStatsBean.indexingIndexTimeInMillis);
+        CounterRateTracker.CounterDelta indexDelete = counterRateTracker.update("indexing_delete_total", nodeIndicesStatsBean.indexingDeleteTotal);
+        CounterRateTracker.CounterDelta indexDeleteTime = counterRateTracker.update("indexing_delete_time", nodeIndicesStatsBean.indexingDeleteTime);
+
+        nodeIndicesStatsBean.indexingIndexDelta = indexing.getDelta();
+        nodeIndicesStatsBean.indexingDeleteDelta = indexDelete.getDelta();
+        nodeIndicesStatsBean.indexingIndexRate = indexing.getRatePerSecond();
+        nodeIndicesStatsBean.indexingDeleteRate = indexDelete.getRatePerSecond();
+        nodeIndicesStatsBean.indexingIntervalAvgTimeInMillis = CounterRateTracker.average(indexingTime, indexing);
+
         if (nodeIndicesStatsBean.indexingIndexDelta != 0) {
-            recordIndexingLatencies(indexingTimeInMillis / nodeIndicesStatsBean.indexingIndexDelta, TimeUnit.MILLISECONDS);
+            recordIndexingLatencies(indexingTime.getDelta() / nodeIndicesStatsBean.indexingIndexDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencyIndexing95 = latencyIndexing95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencyIndexing99 = latencyIndexing99Histo.percentile(PERCENTILE_99);
         } else {
@@ -319,9 +311,8 @@ public class NodeIndicesStatsMonitor extends Task {
             nodeIndicesStatsBean.indexingAvgTimeInMillisPerRequest = nodeIndicesStatsBean.indexingIndexTimeInMillis / nodeIndicesStatsBean.indexingIndexTotal;
         }
 
-        long indexDeleteTimeInMillis = (nodeIndicesStatsBean.indexingDeleteTime - cachedIndexDeleteTime);
         if (nodeIndicesStatsBean.indexingDeleteDelta != 0) {
-            recordIndexDeleteLatencies(indexDeleteTimeInMillis / nodeIndicesStatsBean.indexingDeleteDelta, TimeUnit.MILLISECONDS);
+            recordIndexDeleteLatencies(indexDeleteTime.getDelta() / nodeIndicesStatsBean.indexingDeleteDelta, TimeUnit.MILLISECONDS);
             nodeIndicesStatsBean.latencyIndexDelete95 = latencyIndexDelete95Histo.percentile(PERCENTILE_95);
             nodeIndicesStatsBean.latencyIndexDelete99 = latencyIndexDelete99Histo.percentile(PERCENTILE_99);
         } else {
@@ -334,11 +325,8 @@ public class NodeIndicesStatsMonitor extends Task {
         }
 
         nodeIndicesStatsBean.indexingDeleteCurrent = nodeIndicesStats.getIndexing().getTotal().getDeleteCurrent();
-
-        cachedIndexingIndexTotal += nodeIndicesStatsBean.indexingIndexDelta;
-        cachedIndexingDeleteTotal += nodeIndicesStatsBean.indexingDeleteDelta;
-        cachedIndexingTime += indexingTimeInMillis;
-        cachedIndexDeleteTime += indexDeleteTimeInMillis;
+        nodeIndicesStatsBean.indexingThrottleRatio = counterRateTracker.update("indexing_throttle_time",
+                nodeIndicesStats.getIndexing().getTotal().getThrottleTimeInMillis()).getTimeRatio();
     }
 
     private void recordSearchQueryLatencies(long duration, TimeUnit unit) {
@@ -388,6 +376,20 @@ public class NodeIndicesStatsMonitor extends Task {
         return METRIC_NAME;
     }
 
+    /**
+     * @return average search query time over the last interval
+     */
+    public double getSearchQueryIntervalAvgTimeInMillis() {
+        return nodeIndicesStatsReporter.nodeIndicesStatsBean.get().searchQueryIntervalAvgTimeInMillis;
+    }
+
+    /**
+     * @return 99th percentile of the interval averages seen so far, 0 if there was no query in the last interval
+     */
+    public double getSearchQueryLatency99InMillis() {
+        return nodeIndicesStatsReporter.nodeIndicesStatsBean.get().latencySearchQuery99 / 1000.0;
+    }
+
     private static class NodeIndicesStatsBean {
         private long storeSize;
         private long storeThrottleTime;
@@ -456,6 +458,20 @@ public class NodeIndicesStatsMonitor extends Task {
         private double latencyIndexing99;
         private double latencyIndexDelete95;
         private double latencyIndexDelete99;
+        private double searchQueryRate;
+        private double searchQueryIntervalAvgTimeInMillis;
+        private double searchFetchRate;
+        private double searchFetchIntervalAvgTimeInMillis;
+        private double getRate;
+        private double getIntervalAvgTimeInMillis;
+        private double indexingIndexRate;
+        private double indexingDeleteRate;
+        private double indexingIntervalAvgTimeInMillis;
+        private double indexingThrottleRatio;
+        private double mergesRate;
+        private double mergesSizeRate;
+        private double refreshRate;
+        private double flushRate;
     }
 
     public class Elasticsearch_NodeIndicesStatsReporter {
@@ -810,5 +826,75 @@ public class NodeIndicesStatsMonitor extends Task {
         public double getLatencyIndexDelete99() {
             return nodeIndicesStatsBean.get().latencyIndexDelete99;
         }
+
+        @Monitor(name = "search_query_rate", type = DataSourceType.GAUGE)
+        public double getSearchQueryRate() {
+            return nodeIndicesStatsBean.get().searchQueryRate;
+        }
+
+        @Monitor(name = "search_query_interval_avg_time_in_millis", type = DataSourceType.GAUGE)
+        public double getSearchQueryIntervalAvgTimeInMillis() {
+            return nodeIndicesStatsBean.get().searchQueryIntervalAvgTimeInMillis;
+        }
+
+        @Monitor(name = "search_fetch_rate", type = DataSourceType.GAUGE)
+        public double getSearchFetchRate() {
+            return nodeIndicesStatsBean.get().searchFetchRate;
+        }
+
+        @Monitor(name = "search_fetch_interval_avg_time_in_millis", type = DataSourceType.GAUGE)
+        public double getSearchFetchIntervalAvgTimeInMillis() {
+            return nodeIndicesStatsBean.get().searchFetchIntervalAvgTimeInMillis;
+        }
+
+        @Monitor(name = "get_rate", type = DataSourceType.GAUGE)
+        public double getGetRate() {
+            return nodeIndicesStatsBean.get().getRate;
+        }
+
+        @Monitor(name = "get_interval_avg_time_in_millis", type = DataSourceType.GAUGE)
+        public double getGetIntervalAvgTimeInMillis() {
+            return nodeIndicesStatsBean.get().getIntervalAvgTimeInMillis;
+        }
+
+        @Monitor(name = "indexing_index_rate", type = DataSourceType.GAUGE)
+        public double getIndexingIndexRate() {
+            return nodeIndicesStatsBean.get().indexingIndexRate;
+        }
+
+        @Monitor(name = "indexing_delete_rate", type = DataSourceType.GAUGE)
+        public double getIndexingDeleteRate() {
+            return nodeIndicesStatsBean.get().indexingDeleteRate;
+        }
+
+        @Monitor(name = "indexing_interval_avg_time_in_millis", type = DataSourceType.GAUGE)
+        public double getIndexingIntervalAvgTimeInMillis() {
+            return nodeIndicesStatsBean.get().indexingIntervalAvgTimeInMillis;
+        }
+
+        @Monitor(name = "indexing_throttle_ratio", type = DataSourceType.GAUGE)
+        public double getIndexingThrottleRatio() {
+            return nodeIndicesStatsBean.get().indexingThrottleRatio;
+        }
+
+        @Monitor(name = "merges_rate", type = DataSourceType.GAUGE)
+        public double getMergesRate() {
+            return nodeIndicesStatsBean.get().mergesRate;
+        }
+
+        @Monitor(name = "merges_size_rate", type = DataSourceType.GAUGE)
+        public double getMergesSizeRate() {
+            return nodeIndicesStatsBean.get().mergesSizeRate;
+        }
+
+        @Monitor(name = "refresh_rate", type = DataSourceType.GAUGE)
+        public double getRefreshRate() {
+            return nodeIndicesStatsBean.get().refreshRate;
+        }
+
+        @Monitor(name = "flush_rate", type = DataSourceType.GAUGE)
+        public double getFlushRate() {
+            return nodeIndicesStatsBean.get().flushRate;
+        }
     }
 }
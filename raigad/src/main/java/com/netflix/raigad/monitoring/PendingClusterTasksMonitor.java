@@ -0,0 +1,405 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.raigad.utils.ElasticsearchTransportClient;
+import com.netflix.raigad.utils.ElasticsearchUtils;
+import com.netflix.raigad.utils.HttpModule;
+import com.netflix.servo.DefaultMonitorRegistry;
+import com.netflix.servo.annotations.DataSourceType;
+import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.BasicGauge;
+import com.netflix.servo.monitor.Gauge;
+import com.netflix.servo.monitor.MonitorConfig;
+import com.netflix.servo.monitor.Monitors;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateResponse;
+import org.elasticsearch.action.admin.cluster.tasks.PendingClusterTasksResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.service.PendingClusterTask;
+import org.elasticsearch.common.unit.TimeValue;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Samples the pending cluster tasks queue of the elected master and the rate at which the cluster state changes.
+ * <p>
+ * Tasks are grouped by source type (e.g. "put-mapping", "create-index"), which is the source text up to the
+ * first bracket, so that a storm of mapping updates or index creations shows up as one busy source rather than
+ * thousands of distinct ones. The busiest sources are exported as metrics tagged with the source type; the
+ * oldest tasks are kept for the REST view.
+ * <p>
+ * Only the elected master reports, the pending tasks of every other node are always empty.
+ */
+@Singleton
+public class PendingClusterTasksMonitor extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(PendingClusterTasksMonitor.class);
+    public static final String METRIC_NAME = "Elasticsearch_PendingClusterTasksMonitor";
+
+    private static final String CLUSTER_STATE_VERSION = "cluster_state_version";
+
+    private final HttpModule httpModule;
+    private final Elasticsearch_PendingClusterTasksReporter pendingClusterTasksReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
+    private final AtomicReference<PendingTasksSummary> summary = new AtomicReference<>(new PendingTasksSummary());
+    private final Map<String, List<Gauge<Long>>> sourceGauges = new HashMap<>();
+
+    @Inject
+    public PendingClusterTasksMonitor(IConfiguration config, HttpModule httpModule) {
+        super(config);
+        this.httpModule = httpModule;
+        pendingClusterTasksReporter = new Elasticsearch_PendingClusterTasksReporter();
+        Monitors.registerObject(pendingClusterTasksReporter);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        // If Elasticsearch is started then only start the monitoring
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            String exceptionMsg = "Elasticsearch is not yet started, check back again later";
+            logger.info(exceptionMsg);
+            return;
+        }
+
+        if (!config.isPendingTasksMonitorEnabled()) {
+            return;
+        }
+
+        PendingClusterTasksBean pendingClusterTasksBean = new PendingClusterTasksBean();
+        PendingTasksSummary pendingTasksSummary = new PendingTasksSummary();
+        try {
+            if (!ElasticsearchUtils.amIMasterNode(config, httpModule)) {
+                // Another node took over, its own version numbers will be picked up if this one is elected again
+                counterRateTracker.clear();
+                return;
+            }
+
+            Client esTransportClient = ElasticsearchTransportClient.instance(config).getTransportClient();
+            TimeValue callTimeout = ElasticsearchTransportClient.getCallTimeout(config);
+
+            PendingClusterTasksResponse pendingClusterTasksResponse = esTransportClient.admin().cluster()
+                    .preparePendingClusterTasks().execute().actionGet(callTimeout);
+            // This node is the master, its local copy of the cluster state is the current one
+            ClusterStateResponse clusterStateResponse = esTransportClient.admin().cluster()
+                    .prepareState().clear().setLocal(true).execute().actionGet(callTimeout);
+
+            pendingTasksSummary = summarize(pendingClusterTasksResponse.getPendingTasks(), config.getPendingTasksTopN());
+
+            long clusterStateVersion = clusterStateResponse.getState().getVersion();
+            CounterRateTracker.CounterDelta versionDelta = counterRateTracker.update(CLUSTER_STATE_VERSION, clusterStateVersion);
+
+            pendingClusterTasksBean.isMaster = 1;
+            pendingClusterTasksBean.pendingTasks = pendingTasksSummary.pendingTasks;
+            pendingClusterTasksBean.executingTasks = pendingTasksSummary.executingTasks;
+            pendingClusterTasksBean.oldestTimeInQueueInMillis = pendingTasksSummary.oldestTimeInQueueInMillis;
+            pendingClusterTasksBean.pendingSources = pendingTasksSummary.sources.size();
+            pendingClusterTasksBean.clusterStateVersion = clusterStateVersion;
+            pendingClusterTasksBean.clusterStateVersionDelta = versionDelta.getDelta();
+            pendingClusterTasksBean.clusterStateUpdatesPerSecond = versionDelta.getRatePerSecond();
+        } catch (Exception e) {
+            logger.warn("Failed to load pending cluster tasks", e);
+        } finally {
+            pendingClusterTasksReporter.pendingClusterTasksBean.set(pendingClusterTasksBean);
+            summary.set(pendingTasksSummary);
+            updateGauges(pendingTasksSummary.topSources);
+        }
+    }
+
+    /**
+     * @return the source text up to the first bracket, e.g. "put-mapping" for "put-mapping [logs-2017.01.01]"
+     */
+    static String sourceType(String source) {
+        if (source == null) {
+            return "unknown";
+        }
+
+        int end = source.length();
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '[' || c == '(') {
+                end = i;
+                break;
+            }
+        }
+
+        String type = source.substring(0, end).trim();
+        return type.isEmpty() ? source.trim() : type;
+    }
+
+    /**
+     * Groups tasks by source type and keeps the {@code topN} busiest sources and oldest tasks
+     */
+    static PendingTasksSummary summarize(Collection<PendingClusterTask> tasks, int topN) {
+        PendingTasksSummary summary = new PendingTasksSummary();
+        PriorityQueue<PendingClusterTask> oldest = new PriorityQueue<>(Math.max(1, topN), TIME_IN_QUEUE_ORDER);
+
+        for (PendingClusterTask task : tasks) {
+            summary.pendingTasks++;
+            if (task.isExecuting()) {
+                summary.executingTasks++;
+            }
+            summary.oldestTimeInQueueInMillis = Math.max(summary.oldestTimeInQueueInMillis, task.getTimeInQueueInMillis());
+
+            String type = sourceType(task.getSource() == null ? null : task.getSource().string());
+            TaskSource source = summary.sources.get(type);
+            if (source == null) {
+                source = new TaskSource(type);
+                summary.sources.put(type, source);
+            }
+            source.count++;
+            source.oldestTimeInQueueInMillis = Math.max(source.oldestTimeInQueueInMillis, task.getTimeInQueueInMillis());
+
+            if (topN > 0) {
+                if (oldest.size() < topN) {
+                    oldest.offer(task);
+                } else if (TIME_IN_QUEUE_ORDER.compare(task, oldest.peek()) > 0) {
+                    oldest.poll();
+                    oldest.offer(task);
+                }
+            }
+        }
+
+        List<TaskSource> sources = new ArrayList<>(summary.sources.values());
+        Collections.sort(sources, Collections.reverseOrder(COUNT_ORDER));
+        summary.topSources = sources.subList(0, Math.max(0, Math.min(topN, sources.size())));
+
+        summary.oldestTasks = new ArrayList<>(oldest);
+        Collections.sort(summary.oldestTasks, Collections.reverseOrder(TIME_IN_QUEUE_ORDER));
+        return summary;
+    }
+
+    private static final Comparator<TaskSource> COUNT_ORDER = new Comparator<TaskSource>() {
+        @Override
+        public int compare(TaskSource first, TaskSource second) {
+            int result = Long.compare(first.count, second.count);
+            return result != 0 ? result : second.source.compareTo(first.source);
+        }
+    };
+
+    private static final Comparator<PendingClusterTask> TIME_IN_QUEUE_ORDER = new Comparator<PendingClusterTask>() {
+        @Override
+        public int compare(PendingClusterTask first, PendingClusterTask second) {
+            int result = Long.compare(first.getTimeInQueueInMillis(), second.getTimeInQueueInMillis());
+            // Tasks queued earlier have a lower insert order
+            return result != 0 ? result : Long.compare(second.getInsertOrder(), first.getInsertOrder());
+        }
+    };
+
+    private synchronized void updateGauges(List<TaskSource> topSources) {
+        Map<String, TaskSource> top = new HashMap<>();
+        for (TaskSource source : topSources) {
+            top.put(source.source, source);
+        }
+
+        for (String source : new ArrayList<>(sourceGauges.keySet())) {
+            if (!top.containsKey(source)) {
+                for (Gauge<Long> gauge : sourceGauges.remove(source)) {
+                    DefaultMonitorRegistry.getInstance().unregister(gauge);
+                }
+            }
+        }
+
+        for (String source : top.keySet()) {
+            if (sourceGauges.containsKey(source)) {
+                continue;
+            }
+
+            List<Gauge<Long>> gauges = new ArrayList<>();
+            for (SourceStat stat : SourceStat.values()) {
+                Gauge<Long> gauge = newGauge(source, stat);
+                DefaultMonitorRegistry.getInstance().register(gauge);
+                gauges.add(gauge);
+            }
+            sourceGauges.put(source, gauges);
+        }
+    }
+
+    private Gauge<Long> newGauge(final String source, final SourceStat stat) {
+        MonitorConfig monitorConfig = MonitorConfig.builder(stat.metricName)
+                .withTag("class", METRIC_NAME)
+                .withTag("source", source)
+                .build();
+
+        return new BasicGauge<>(monitorConfig, new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                TaskSource current = summary.get().sources.get(source);
+                return current == null ? 0 : stat.of(current);
+            }
+        });
+    }
+
+    /**
+     * @return pending tasks of the last run as JSON: totals, busiest sources and oldest tasks
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject getPendingTasksJson() {
+        PendingClusterTasksBean bean = pendingClusterTasksReporter.pendingClusterTasksBean.get();
+        PendingTasksSummary pendingTasksSummary = summary.get();
+
+        JSONObject object = new JSONObject();
+        object.put("master", bean.isMaster == 1);
+        object.put("pending_tasks", bean.pendingTasks);
+        object.put("executing_tasks", bean.executingTasks);
+        object.put("oldest_time_in_queue_millis", bean.oldestTimeInQueueInMillis);
+        object.put("cluster_state_version", bean.clusterStateVersion);
+        object.put("cluster_state_updates_per_second", bean.clusterStateUpdatesPerSecond);
+
+        JSONArray sources = new JSONArray();
+        for (TaskSource source : pendingTasksSummary.topSources) {
+            JSONObject sourceObject = new JSONObject();
+            sourceObject.put("source", source.source);
+            sourceObject.put("count", source.count);
+            sourceObject.put("oldest_time_in_queue_millis", source.oldestTimeInQueueInMillis);
+            sources.add(sourceObject);
+        }
+        object.put("top_sources", sources);
+
+        JSONArray tasks = new JSONArray();
+        for (PendingClusterTask task : pendingTasksSummary.oldestTasks) {
+            JSONObject taskObject = new JSONObject();
+            taskObject.put("insert_order", task.getInsertOrder());
+            taskObject.put("priority", String.valueOf(task.getPriority()));
+            taskObject.put("source", task.getSource() == null ? null : task.getSource().string());
+            taskObject.put("executing", task.isExecuting());
+            taskObject.put("time_in_queue_millis", task.getTimeInQueueInMillis());
+            tasks.add(taskObject);
+        }
+        object.put("oldest_tasks", tasks);
+        return object;
+    }
+
+    public class Elasticsearch_PendingClusterTasksReporter {
+        private final AtomicReference<PendingClusterTasksBean> pendingClusterTasksBean;
+
+        public Elasticsearch_PendingClusterTasksReporter() {
+            pendingClusterTasksBean = new AtomicReference<PendingClusterTasksBean>(new PendingClusterTasksBean());
+        }
+
+        @Monitor(name = "pending_tasks_is_master", type = DataSourceType.GAUGE)
+        public int getIsMaster() {
+            return pendingClusterTasksBean.get().isMaster;
+        }
+
+        @Monitor(name = "pending_tasks", type = DataSourceType.GAUGE)
+        public long getPendingTasks() {
+            return pendingClusterTasksBean.get().pendingTasks;
+        }
+
+        @Monitor(name = "pending_tasks_executing", type = DataSourceType.GAUGE)
+        public long getExecutingTasks() {
+            return pendingClusterTasksBean.get().executingTasks;
+        }
+
+        @Monitor(name = "pending_tasks_oldest_time_in_queue_millis", type = DataSourceType.GAUGE)
+        public long getOldestTimeInQueueInMillis() {
+            return pendingClusterTasksBean.get().oldestTimeInQueueInMillis;
+        }
+
+        @Monitor(name = "pending_tasks_sources", type = DataSourceType.GAUGE)
+        public long getPendingSources() {
+            return pendingClusterTasksBean.get().pendingSources;
+        }
+
+        @Monitor(name = "cluster_state_version", type = DataSourceType.GAUGE)
+        public long getClusterStateVersion() {
+            return pendingClusterTasksBean.get().clusterStateVersion;
+        }
+
+        @Monitor(name = "cluster_state_version_delta", type = DataSourceType.GAUGE)
+        public long getClusterStateVersionDelta() {
+            return pendingClusterTasksBean.get().clusterStateVersionDelta;
+        }
+
+        @Monitor(name = "cluster_state_updates_per_second", type = DataSourceType.GAUGE)
+        public double getClusterStateUpdatesPerSecond() {
+            return pendingClusterTasksBean.get().clusterStateUpdatesPerSecond;
+        }
+    }
+
+    private static class PendingClusterTasksBean {
+        private int isMaster;
+        private long pendingTasks;
+        private long executingTasks;
+        private long oldestTimeInQueueInMillis;
+        private long pendingSources;
+        private long clusterStateVersion;
+        private long clusterStateVersionDelta;
+        private double clusterStateUpdatesPerSecond;
+    }
+
+    static class PendingTasksSummary {
+        long pendingTasks;
+        long executingTasks;
+        long oldestTimeInQueueInMillis;
+        final Map<String, TaskSource> sources = new HashMap<>();
+        List<TaskSource> topSources = Collections.emptyList();
+        List<PendingClusterTask> oldestTasks = Collections.emptyList();
+    }
+
+    static class TaskSource {
+        final String source;
+        long count;
+        long oldestTimeInQueueInMillis;
+
+        TaskSource(String source) {
+            this.source = source;
+        }
+    }
+
+    private enum SourceStat {
+        COUNT("pending_tasks_by_source"),
+        OLDEST_TIME_IN_QUEUE("pending_tasks_oldest_time_in_queue_millis_by_source");
+
+        private final String metricName;
+
+        SourceStat(String metricName) {
+            this.metricName = metricName;
+        }
+
+        private long of(TaskSource source) {
+            return this == COUNT ? source.count : source.oldestTimeInQueueInMillis;
+        }
+    }
+
+    public static TaskTimer getTimer(String name) {
+        return new SimpleTimer(name, 30 * 1000);
+    }
+
+    @Override
+    public String getName() {
+        return METRIC_NAME;
+    }
+}
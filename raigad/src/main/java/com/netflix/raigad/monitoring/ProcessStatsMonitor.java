@@ -41,6 +41,7 @@ public class ProcessStatsMonitor extends Task {
 
     public static final String METRIC_NAME = "Elasticsearch_ProcessStatsMonitor";
     private final Elasticsearch_ProcessStatsReporter processStatsReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
 
     @Inject
     public ProcessStatsMonitor(IConfiguration config) {
@@ -89,6 +90,10 @@ public class ProcessStatsMonitor extends Task {
             //CPU
             processStatsBean.cpuPercent = processStats.getCpu().getPercent();
             processStatsBean.totalInMillis = processStats.getCpu().getTotal().getMillis();
+            counterRateTracker.setGeneration(nodeStats.getNode().getId());
+            CounterRateTracker.CounterDelta cpuTotal = counterRateTracker.update("cpu_total", processStatsBean.totalInMillis);
+            processStatsBean.totalInMillisDelta = cpuTotal.getDelta();
+            processStatsBean.cpuTimeRatio = cpuTotal.getTimeRatio();
             // TODO: 2X: Determine if this is necessary and if yes find an alternative
             //processStatsBean.sysInMillis = processStats.getCpu().getSys().getMillis();
             //processStatsBean.userInMillis = processStats.getCpu().getUser().getMillis();
@@ -147,6 +152,16 @@ public class ProcessStatsMonitor extends Task {
             return processStatsBean.get().totalInMillis;
         }
 
+        @Monitor(name = "total_in_millis_delta", type = DataSourceType.GAUGE)
+        public long getTotalInMillisDelta() {
+            return processStatsBean.get().totalInMillisDelta;
+        }
+
+        @Monitor(name = "cpu_time_ratio", type = DataSourceType.GAUGE)
+        public double getCpuTimeRatio() {
+            return processStatsBean.get().cpuTimeRatio;
+        }
+
         @Monitor(name = "open_file_descriptors", type = DataSourceType.GAUGE)
         public double getOpenFileDescriptors() {
             return processStatsBean.get().openFileDescriptors;
@@ -158,6 +173,13 @@ public class ProcessStatsMonitor extends Task {
         }
     }
 
+    /**
+     * @return CPU usage of the Elasticsearch process in percent, as of the last run
+     */
+    public short getCpuPercent() {
+        return processStatsReporter.processStatsBean.get().cpuPercent;
+    }
+
     private static class ProcessStatsBean {
         private long residentInBytes;
         private long shareInBytes;
@@ -166,6 +188,8 @@ public class ProcessStatsMonitor extends Task {
         private long sysInMillis;
         private long userInMillis;
         private long totalInMillis;
+        private long totalInMillisDelta;
+        private double cpuTimeRatio;
         private long openFileDescriptors;
         private long cpuTimestamp;
     }
@@ -0,0 +1,414 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.raigad.utils.ElasticsearchUtils;
+import com.netflix.raigad.utils.HttpModule;
+import com.netflix.servo.annotations.DataSourceType;
+import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.Monitors;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoResponse;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequestBuilder;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.action.admin.indices.recovery.RecoveryResponse;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.action.admin.indices.stats.CommonStatsFlags;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.recovery.RecoveryStats;
+import org.elasticsearch.indices.recovery.RecoveryState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Tracks shard recoveries in progress (store, snapshot restore, replica and relocation): how many there are,
+ * how fast bytes and files are copied, how long recoveries are throttled and when the remaining bytes will be done.
+ * <p>
+ * Loading the recoveries in progress fans out to every node holding a shard, so only the elected master does it and
+ * reports everything cluster-wide and for the recoveries targeting itself. Throughput is the sum of the progress of
+ * every recovery since the previous run; bytes copied by a recovery that finished in between are not counted, so
+ * rates are slightly low while many small shards recover.
+ * <p>
+ * Every other node reports its own recoveries only, from the recovery statistics of the local node: the number of
+ * recoveries it is the target and the source of, and how long they were throttled. Cluster-wide gauges, bytes, files
+ * and the estimated time left stay at 0 there.
+ */
+@Singleton
+public class RecoveryMonitor extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(RecoveryMonitor.class);
+    public static final String METRIC_NAME = "Elasticsearch_RecoveryMonitor";
+
+    private static final String LOCAL_THROTTLE = "local.throttle";
+
+    private final HttpModule httpModule;
+    private final ElasticsearchAsyncAdmin asyncAdmin;
+    private final Elasticsearch_RecoveryReporter recoveryReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
+
+    @Inject
+    public RecoveryMonitor(IConfiguration config, HttpModule httpModule, ElasticsearchAsyncAdmin asyncAdmin) {
+        super(config);
+        this.httpModule = httpModule;
+        this.asyncAdmin = asyncAdmin;
+        recoveryReporter = new Elasticsearch_RecoveryReporter();
+        Monitors.registerObject(recoveryReporter);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        // If Elasticsearch is started then only start the monitoring
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            String exceptionMsg = "Elasticsearch is not yet started, check back again later";
+            logger.info(exceptionMsg);
+            return;
+        }
+
+        if (!config.isRecoveryMonitorEnabled()) {
+            return;
+        }
+
+        RecoveryBean recoveryBean = new RecoveryBean();
+        try {
+            if (ElasticsearchUtils.amIMasterNode(config, httpModule)) {
+                loadClusterRecoveries(recoveryBean);
+            } else {
+                loadLocalRecoveries(recoveryBean);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to load shard recovery statistics", e);
+        }
+
+        recoveryReporter.recoveryBean.set(recoveryBean);
+    }
+
+    private void loadClusterRecoveries(RecoveryBean recoveryBean) throws Exception {
+        // Both requests are independent, issue them together and wait for both
+        CompletableFuture<NodesInfoResponse> nodesInfo = asyncAdmin.nodesInfo(config.getEsNodeName());
+        CompletableFuture<RecoveryResponse> recoveries = asyncAdmin.recoveries(true);
+
+        NodesInfoResponse nodesInfoResponse = nodesInfo.get();
+        if (nodesInfoResponse.getNodes().length == 0) {
+            logger.info("Local node info is not available, skipping recovery statistics");
+            return;
+        }
+        String localNodeId = nodesInfoResponse.getAt(0).getNode().getId();
+
+        List<RecoveryState> recoveryStates = new ArrayList<>();
+        for (List<RecoveryState> indexRecoveryStates : recoveries.get().shardRecoveryStates().values()) {
+            recoveryStates.addAll(indexRecoveryStates);
+        }
+
+        Set<String> counters = new HashSet<>();
+        recoveryBean.cluster = aggregate(recoveryStates, null, counterRateTracker, counters);
+        recoveryBean.local = aggregate(recoveryStates, localNodeId, counterRateTracker, counters);
+        recoveryBean.localActiveAsSource = countAsSource(recoveryStates, localNodeId);
+        recoveryBean.activeNodeIds = activeNodeIds(recoveryStates);
+
+        // Forget counters of recoveries that completed, and the local node's counter if this node was not master before
+        counterRateTracker.retain(counters);
+    }
+
+    private void loadLocalRecoveries(RecoveryBean recoveryBean) throws Exception {
+        NodesStatsResponse response = asyncAdmin.nodesStats(new Function<NodesStatsRequestBuilder, NodesStatsRequestBuilder>() {
+            @Override
+            public NodesStatsRequestBuilder apply(NodesStatsRequestBuilder builder) {
+                return builder.clear().setIndices(new CommonStatsFlags(CommonStatsFlags.Flag.Recovery));
+            }
+        }, config.getEsNodeName()).get();
+
+        if (response.getNodes().length == 0) {
+            logger.info("Local node stats are not available, skipping recovery statistics");
+            return;
+        }
+        NodeStats nodeStats = response.getAt(0);
+        if (nodeStats.getIndices() == null || nodeStats.getIndices().getRecoveryStats() == null) {
+            return;
+        }
+        localTotals(nodeStats.getIndices().getRecoveryStats(), counterRateTracker, recoveryBean);
+        // Counters of the recoveries seen while this node was master are of no use anymore
+        counterRateTracker.retain(Collections.singleton(LOCAL_THROTTLE));
+    }
+
+    /**
+     * Fills in the local recoveries from the recovery statistics of the local node
+     */
+    static void localTotals(RecoveryStats recoveryStats, CounterRateTracker counterRateTracker, RecoveryBean recoveryBean) {
+        recoveryBean.local.active = recoveryStats.currentAsTarget();
+        recoveryBean.localActiveAsSource = recoveryStats.currentAsSource();
+        recoveryBean.local.throttleMillisPerSecond = counterRateTracker.update(LOCAL_THROTTLE,
+                millis(recoveryStats.throttleTime())).getRatePerSecond();
+    }
+
+    /**
+     * Sums up the given recoveries, or only the ones targeting {@code targetNodeId} if it is not null
+     *
+     * @param counters collects the names of the counters updated, to forget the others
+     */
+    static RecoveryTotals aggregate(Collection<RecoveryState> recoveryStates, String targetNodeId,
+                                    CounterRateTracker counterRateTracker, Set<String> counters) {
+        RecoveryTotals totals = new RecoveryTotals();
+        String scope = targetNodeId == null ? "cluster" : "local";
+
+        for (RecoveryState recoveryState : recoveryStates) {
+            if (recoveryState.getStage() == RecoveryState.Stage.DONE) {
+                continue;
+            }
+            DiscoveryNode targetNode = recoveryState.getTargetNode();
+            if (targetNodeId != null && (targetNode == null || !targetNodeId.equals(targetNode.getId()))) {
+                continue;
+            }
+
+            totals.active++;
+            Integer active = totals.activeByType.get(recoveryState.getType());
+            totals.activeByType.put(recoveryState.getType(), active == null ? 1 : active + 1);
+
+            RecoveryState.Index index = recoveryState.getIndex();
+            totals.remainingBytes += Math.max(0, index.totalRecoverBytes() - index.recoveredBytes());
+
+            String key = scope + "/" + recoveryState.getShardId() + "/" + recoveryState.getType() +
+                    "/" + (targetNode == null ? "" : targetNode.getId());
+            totals.bytesPerSecond += update(counterRateTracker, key + ".bytes", index.recoveredBytes(), counters).getRatePerSecond();
+            totals.filesPerSecond += update(counterRateTracker, key + ".files", index.recoveredFileCount(), counters).getRatePerSecond();
+            totals.throttleMillisPerSecond += update(counterRateTracker, key + ".throttle",
+                    millis(index.sourceThrottling()) + millis(index.targetThrottling()), counters).getRatePerSecond();
+        }
+
+        totals.etaInSeconds = totals.remainingBytes == 0 ? 0 :
+                totals.bytesPerSecond > 0 ? (long) Math.ceil(totals.remainingBytes / totals.bytesPerSecond) : -1;
+        return totals;
+    }
+
+    static int countAsSource(Collection<RecoveryState> recoveryStates, String sourceNodeId) {
+        int count = 0;
+        for (RecoveryState recoveryState : recoveryStates) {
+            DiscoveryNode sourceNode = recoveryState.getSourceNode();
+            if (recoveryState.getStage() != RecoveryState.Stage.DONE && sourceNode != null && sourceNodeId.equals(sourceNode.getId())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return ids of the source and target nodes of the recoveries in progress
+     */
+    static Set<String> activeNodeIds(Collection<RecoveryState> recoveryStates) {
+        Set<String> nodeIds = new HashSet<>();
+        for (RecoveryState recoveryState : recoveryStates) {
+            if (recoveryState.getStage() == RecoveryState.Stage.DONE) {
+                continue;
+            }
+            if (recoveryState.getSourceNode() != null) {
+                nodeIds.add(recoveryState.getSourceNode().getId());
+            }
+            if (recoveryState.getTargetNode() != null) {
+                nodeIds.add(recoveryState.getTargetNode().getId());
+            }
+        }
+        return nodeIds;
+    }
+
+    private static CounterRateTracker.CounterDelta update(CounterRateTracker counterRateTracker, String name, long value, Set<String> counters) {
+        counters.add(name);
+        return counterRateTracker.update(name, value);
+    }
+
+    private static long millis(TimeValue timeValue) {
+        // Unknown (-1) when the other side did not report it
+        return timeValue == null ? 0 : Math.max(0, timeValue.millis());
+    }
+
+    /**
+     * @return number of recoveries in progress in the whole cluster as of the last run, 0 unless this node is the master
+     */
+    public int getClusterActiveRecoveries() {
+        return recoveryReporter.recoveryBean.get().cluster.active;
+    }
+
+    /**
+     * @return ids of the nodes recovering shards or serving them to a recovery as of the last run
+     */
+    public Set<String> getActiveRecoveryNodeIds() {
+        return Collections.unmodifiableSet(recoveryReporter.recoveryBean.get().activeNodeIds);
+    }
+
+    public class Elasticsearch_RecoveryReporter {
+        private final AtomicReference<RecoveryBean> recoveryBean;
+
+        public Elasticsearch_RecoveryReporter() {
+            recoveryBean = new AtomicReference<RecoveryBean>(new RecoveryBean());
+        }
+
+        @Monitor(name = "recovery_cluster_active", type = DataSourceType.GAUGE)
+        public int getClusterActive() {
+            return recoveryBean.get().cluster.active;
+        }
+
+        @Monitor(name = "recovery_cluster_active_store", type = DataSourceType.GAUGE)
+        public int getClusterActiveStore() {
+            return recoveryBean.get().cluster.getActive(RecoveryState.Type.STORE);
+        }
+
+        @Monitor(name = "recovery_cluster_active_snapshot", type = DataSourceType.GAUGE)
+        public int getClusterActiveSnapshot() {
+            return recoveryBean.get().cluster.getActive(RecoveryState.Type.SNAPSHOT);
+        }
+
+        @Monitor(name = "recovery_cluster_active_replica", type = DataSourceType.GAUGE)
+        public int getClusterActiveReplica() {
+            return recoveryBean.get().cluster.getActive(RecoveryState.Type.REPLICA);
+        }
+
+        @Monitor(name = "recovery_cluster_active_relocation", type = DataSourceType.GAUGE)
+        public int getClusterActiveRelocation() {
+            return recoveryBean.get().cluster.getActive(RecoveryState.Type.RELOCATION);
+        }
+
+        @Monitor(name = "recovery_cluster_bytes_per_second", type = DataSourceType.GAUGE)
+        public double getClusterBytesPerSecond() {
+            return recoveryBean.get().cluster.bytesPerSecond;
+        }
+
+        @Monitor(name = "recovery_cluster_files_per_second", type = DataSourceType.GAUGE)
+        public double getClusterFilesPerSecond() {
+            return recoveryBean.get().cluster.filesPerSecond;
+        }
+
+        @Monitor(name = "recovery_cluster_throttle_millis_per_second", type = DataSourceType.GAUGE)
+        public double getClusterThrottleMillisPerSecond() {
+            return recoveryBean.get().cluster.throttleMillisPerSecond;
+        }
+
+        @Monitor(name = "recovery_cluster_remaining_bytes", type = DataSourceType.GAUGE)
+        public long getClusterRemainingBytes() {
+            return recoveryBean.get().cluster.remainingBytes;
+        }
+
+        @Monitor(name = "recovery_cluster_eta_seconds", type = DataSourceType.GAUGE)
+        public long getClusterEtaInSeconds() {
+            return recoveryBean.get().cluster.etaInSeconds;
+        }
+
+        @Monitor(name = "recovery_local_active", type = DataSourceType.GAUGE)
+        public int getLocalActive() {
+            return recoveryBean.get().local.active;
+        }
+
+        @Monitor(name = "recovery_local_active_as_source", type = DataSourceType.GAUGE)
+        public int getLocalActiveAsSource() {
+            return recoveryBean.get().localActiveAsSource;
+        }
+
+        @Monitor(name = "recovery_local_active_store", type = DataSourceType.GAUGE)
+        public int getLocalActiveStore() {
+            return recoveryBean.get().local.getActive(RecoveryState.Type.STORE);
+        }
+
+        @Monitor(name = "recovery_local_active_snapshot", type = DataSourceType.GAUGE)
+        public int getLocalActiveSnapshot() {
+            return recoveryBean.get().local.getActive(RecoveryState.Type.SNAPSHOT);
+        }
+
+        @Monitor(name = "recovery_local_active_replica", type = DataSourceType.GAUGE)
+        public int getLocalActiveReplica() {
+            return recoveryBean.get().local.getActive(RecoveryState.Type.REPLICA);
+        }
+
+        @Monitor(name = "recovery_local_active_relocation", type = DataSourceType.GAUGE)
+        public int getLocalActiveRelocation() {
+            return recoveryBean.get().local.getActive(RecoveryState.Type.RELOCATION);
+        }
+
+        @Monitor(name = "recovery_local_bytes_per_second", type = DataSourceType.GAUGE)
+        public double getLocalBytesPerSecond() {
+            return recoveryBean.get().local.bytesPerSecond;
+        }
+
+        @Monitor(name = "recovery_local_files_per_second", type = DataSourceType.GAUGE)
+        public double getLocalFilesPerSecond() {
+            return recoveryBean.get().local.filesPerSecond;
+        }
+
+        @Monitor(name = "recovery_local_throttle_millis_per_second", type = DataSourceType.GAUGE)
+        public double getLocalThrottleMillisPerSecond() {
+            return recoveryBean.get().local.throttleMillisPerSecond;
+        }
+
+        @Monitor(name = "recovery_local_remaining_bytes", type = DataSourceType.GAUGE)
+        public long getLocalRemainingBytes() {
+            return recoveryBean.get().local.remainingBytes;
+        }
+
+        @Monitor(name = "recovery_local_eta_seconds", type = DataSourceType.GAUGE)
+        public long getLocalEtaInSeconds() {
+            return recoveryBean.get().local.etaInSeconds;
+        }
+    }
+
+    static class RecoveryBean {
+        RecoveryTotals cluster = new RecoveryTotals();
+        RecoveryTotals local = new RecoveryTotals();
+        int localActiveAsSource;
+        Set<String> activeNodeIds = Collections.emptySet();
+    }
+
+    static class RecoveryTotals {
+        int active;
+        final Map<RecoveryState.Type, Integer> activeByType = new EnumMap<>(RecoveryState.Type.class);
+        double bytesPerSecond;
+        double filesPerSecond;
+        double throttleMillisPerSecond;
+        long remainingBytes;
+        /**
+         * Seconds until the remaining bytes are recovered at the current rate, -1 if nothing moved since the last run
+         */
+        long etaInSeconds;
+
+        int getActive(RecoveryState.Type type) {
+            Integer active = activeByType.get(type);
+            return active == null ? 0 : active;
+        }
+    }
+
+    public static TaskTimer getTimer(IConfiguration config) {
+        return new SimpleTimer(METRIC_NAME, config.getRecoveryMonitorIntervalInSeconds() * 1000L);
+    }
+
+    @Override
+    public String getName() {
+        return METRIC_NAME;
+    }
+}
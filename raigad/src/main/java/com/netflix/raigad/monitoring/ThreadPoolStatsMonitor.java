@@ -40,6 +40,7 @@ public class ThreadPoolStatsMonitor extends Task {
     private static final Logger logger = LoggerFactory.getLogger(ThreadPoolStatsMonitor.class);
     public static final String METRIC_NAME = "Elasticsearch_ThreadPoolMonitor";
     private final Elasticsearch_ThreadPoolStatsReporter tpStatsReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
 
     @Inject
     public ThreadPoolStatsMonitor(IConfiguration config) {
@@ -75,6 +76,7 @@ public class ThreadPoolStatsMonitor extends Task {
                 logger.info("ThreadPoolStats is null,hence returning (No ThreadPoolStats).");
                 return;
             }
+            counterRateTracker.setGeneration(ndStat.getNode().getId());
             Iterator<ThreadPoolStats.Stats> iter = tpstats.iterator();
             while (iter.hasNext()) {
                 ThreadPoolStats.Stats stat = iter.next();
@@ -85,6 +87,8 @@ public class ThreadPoolStatsMonitor extends Task {
                     tpStatsBean.indexRejected = stat.getRejected();
                     tpStatsBean.indexLargest = stat.getLargest();
                     tpStatsBean.indexCompleted = stat.getCompleted();
+                    tpStatsBean.indexRejectedRate = counterRateTracker.update("index_rejected", stat.getRejected()).getRatePerSecond();
+                    tpStatsBean.indexCompletedRate = counterRateTracker.update("index_completed", stat.getCompleted()).getRatePerSecond();
                 } else if (stat.getName().equals("get")) {
                     tpStatsBean.getThreads = stat.getThreads();
                     tpStatsBean.getQueue = stat.getQueue();
@@ -92,6 +96,8 @@ public class ThreadPoolStatsMonitor extends Task {
                     tpStatsBean.getRejected = stat.getRejected();
                     tpStatsBean.getLargest = stat.getLargest();
                     tpStatsBean.getCompleted = stat.getCompleted();
+                    tpStatsBean.getRejectedRate = counterRateTracker.update("get_rejected", stat.getRejected()).getRatePerSecond();
+                    tpStatsBean.getCompletedRate = counterRateTracker.update("get_completed", stat.getCompleted()).getRatePerSecond();
                 } else if (stat.getName().equals("search")) {
                     tpStatsBean.searchThreads = stat.getThreads();
                     tpStatsBean.searchQueue = stat.getQueue();
@@ -99,6 +105,8 @@ public class ThreadPoolStatsMonitor extends Task {
                     tpStatsBean.searchRejected = stat.getRejected();
                     tpStatsBean.searchLargest = stat.getLargest();
                     tpStatsBean.searchCompleted = stat.getCompleted();
+                    tpStatsBean.searchRejectedRate = counterRateTracker.update("search_rejected", stat.getRejected()).getRatePerSecond();
+                    tpStatsBean.searchCompletedRate = counterRateTracker.update("search_completed", stat.getCompleted()).getRatePerSecond();
                 } else if (stat.getName().equals("bulk")) {
                     tpStatsBean.bulkThreads = stat.getThreads();
                     tpStatsBean.bulkQueue = stat.getQueue();
@@ -106,6 +114,8 @@ public class ThreadPoolStatsMonitor extends Task {
                     tpStatsBean.bulkRejected = stat.getRejected();
                     tpStatsBean.bulkLargest = stat.getLargest();
                     tpStatsBean.bulkCompleted = stat.getCompleted();
+                    tpStatsBean.bulkRejectedRate = counterRateTracker.update("bulk_rejected", stat.getRejected()).getRatePerSecond();
+                    tpStatsBean.bulkCompletedRate = counterRateTracker.update("bulk_completed", stat.getCompleted()).getRatePerSecond();
                 }
             }
         } catch (Exception e) {
@@ -151,6 +161,16 @@ public class ThreadPoolStatsMonitor extends Task {
             return threadPoolBean.get().indexCompleted;
         }
 
+        @Monitor(name = "indexRejectedRate", type = DataSourceType.GAUGE)
+        public double getIndexRejectedRate() {
+            return threadPoolBean.get().indexRejectedRate;
+        }
+
+        @Monitor(name = "indexCompletedRate", type = DataSourceType.GAUGE)
+        public double getIndexCompletedRate() {
+            return threadPoolBean.get().indexCompletedRate;
+        }
+
         @Monitor(name = "getThreads", type = DataSourceType.GAUGE)
         public long getGetThreads() {
             return threadPoolBean.get().getThreads;
@@ -181,6 +201,16 @@ public class ThreadPoolStatsMonitor extends Task {
             return threadPoolBean.get().getCompleted;
         }
 
+        @Monitor(name = "getRejectedRate", type = DataSourceType.GAUGE)
+        public double getGetRejectedRate() {
+            return threadPoolBean.get().getRejectedRate;
+        }
+
+        @Monitor(name = "getCompletedRate", type = DataSourceType.GAUGE)
+        public double getGetCompletedRate() {
+            return threadPoolBean.get().getCompletedRate;
+        }
+
         @Monitor(name = "searchThreads", type = DataSourceType.GAUGE)
         public long getSearchThreads() {
             return threadPoolBean.get().searchThreads;
@@ -211,6 +241,16 @@ public class ThreadPoolStatsMonitor extends Task {
             return threadPoolBean.get().searchCompleted;
         }
 
+        @Monitor(name = "searchRejectedRate", type = DataSourceType.GAUGE)
+        public double getSearchRejectedRate() {
+            return threadPoolBean.get().searchRejectedRate;
+        }
+
+        @Monitor(name = "searchCompletedRate", type = DataSourceType.GAUGE)
+        public double getSearchCompletedRate() {
+            return threadPoolBean.get().searchCompletedRate;
+        }
+
         @Monitor(name = "bulkThreads", type = DataSourceType.GAUGE)
         public long getBulkThreads() {
             return threadPoolBean.get().bulkThreads;
@@ -240,6 +280,16 @@ public class ThreadPoolStatsMonitor extends Task {
         public long getBulkCompleted() {
             return threadPoolBean.get().bulkCompleted;
         }
+
+        @Monitor(name = "bulkRejectedRate", type = DataSourceType.GAUGE)
+        public double getBulkRejectedRate() {
+            return threadPoolBean.get().bulkRejectedRate;
+        }
+
+        @Monitor(name = "bulkCompletedRate", type = DataSourceType.GAUGE)
+        public double getBulkCompletedRate() {
+            return threadPoolBean.get().bulkCompletedRate;
+        }
     }
 
     private static class ThreadPoolStatsBean {
@@ -249,6 +299,8 @@ public class ThreadPoolStatsMonitor extends Task {
         private long indexRejected;
         private long indexLargest;
         private long indexCompleted;
+        private double indexRejectedRate;
+        private double indexCompletedRate;
 
         private long getThreads;
         private long getQueue;
@@ -256,6 +308,8 @@ public class ThreadPoolStatsMonitor extends Task {
         private long getRejected;
         private long getLargest;
         private long getCompleted;
+        private double getRejectedRate;
+        private double getCompletedRate;
 
         private long searchThreads;
         private long searchQueue;
@@ -263,6 +317,8 @@ public class ThreadPoolStatsMonitor extends Task {
         private long searchRejected;
         private long searchLargest;
         private long searchCompleted;
+        private double searchRejectedRate;
+        private double searchCompletedRate;
 
         private long bulkThreads;
         private long bulkQueue;
@@ -270,6 +326,8 @@ public class ThreadPoolStatsMonitor extends Task {
         private long bulkRejected;
         private long bulkLargest;
         private long bulkCompleted;
+        private double bulkRejectedRate;
+        private double bulkCompletedRate;
     }
 
     public static TaskTimer getTimer(String name) {
@@ -39,6 +39,7 @@ public class TransportStatsMonitor extends Task {
     private static final Logger logger = LoggerFactory.getLogger(TransportStatsMonitor.class);
     public static final String METRIC_NAME = "Elasticsearch_TransportMonitor";
     private final Elasticsearch_TransportStatsReporter transportStatsReporter;
+    private final CounterRateTracker counterRateTracker = new CounterRateTracker();
 
     @Inject
     public TransportStatsMonitor(IConfiguration config) {
@@ -75,13 +76,22 @@ public class TransportStatsMonitor extends Task {
                 return;
             }
 
+            counterRateTracker.setGeneration(ndStat.getNode().getId());
+
             transportStatsBean.serverOpen = transportStats.getServerOpen();
             transportStatsBean.rxCount = transportStats.getRxCount();
             transportStatsBean.rxSize = transportStats.getRxSize().getBytes();
-            transportStatsBean.rxSizeDelta = transportStats.getRxSize().getBytes() - transportStatsBean.rxSize;
             transportStatsBean.txCount = transportStats.getTxCount();
             transportStatsBean.txSize = transportStats.getTxSize().getBytes();
-            transportStatsBean.txSizeDelta = transportStats.getTxSize().getBytes() - transportStatsBean.txSize;
+
+            CounterRateTracker.CounterDelta rxSize = counterRateTracker.update("rx_size", transportStatsBean.rxSize);
+            CounterRateTracker.CounterDelta txSize = counterRateTracker.update("tx_size", transportStatsBean.txSize);
+            transportStatsBean.rxSizeDelta = rxSize.getDelta();
+            transportStatsBean.txSizeDelta = txSize.getDelta();
+            transportStatsBean.rxSizeRate = rxSize.getRatePerSecond();
+            transportStatsBean.txSizeRate = txSize.getRatePerSecond();
+            transportStatsBean.rxCountRate = counterRateTracker.update("rx_count", transportStatsBean.rxCount).getRatePerSecond();
+            transportStatsBean.txCountRate = counterRateTracker.update("tx_count", transportStatsBean.txCount).getRatePerSecond();
         } catch (Exception e) {
             logger.warn("failed to load Transport stats data", e);
         }
@@ -130,6 +140,26 @@ public class TransportStatsMonitor extends Task {
         public long getTxSizeDelta() {
             return transportStatsBean.get().txSizeDelta;
         }
+
+        @Monitor(name = "rx_count_rate", type = DataSourceType.GAUGE)
+        public double getRxCountRate() {
+            return transportStatsBean.get().rxCountRate;
+        }
+
+        @Monitor(name = "rx_size_rate", type = DataSourceType.GAUGE)
+        public double getRxSizeRate() {
+            return transportStatsBean.get().rxSizeRate;
+        }
+
+        @Monitor(name = "tx_count_rate", type = DataSourceType.GAUGE)
+        public double getTxCountRate() {
+            return transportStatsBean.get().txCountRate;
+        }
+
+        @Monitor(name = "tx_size_rate", type = DataSourceType.GAUGE)
+        public double getTxSizeRate() {
+            return transportStatsBean.get().txSizeRate;
+        }
     }
 
     private static class TransportStatsBean {
@@ -140,6 +170,10 @@ public class TransportStatsMonitor extends Task {
         private long txCount;
         private long txSize;
         private long txSizeDelta;
+        private double rxCountRate;
+        private double rxSizeRate;
+        private double txCountRate;
+        private double txSizeRate;
     }
 
     public static TaskTimer getTimer(String name) {
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring.export;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Name and tags of an exported metric, serialized once when the metric is first seen
+ * and reused for every export afterwards.
+ */
+public class MetricKey {
+    private final String name;
+    private final SortedMap<String, String> tags;
+    private final byte[] lineProtocolKey;
+    private final String prometheusName;
+    private final byte[] prometheusSeries;
+
+    public MetricKey(String name, Map<String, String> tags) {
+        this.name = name;
+        this.tags = Collections.unmodifiableSortedMap(new TreeMap<>(tags));
+        this.lineProtocolKey = toLineProtocol(name, this.tags).getBytes(StandardCharsets.UTF_8);
+        this.prometheusName = toPrometheusName(name);
+        this.prometheusSeries = toPrometheusSeries(prometheusName, this.tags).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SortedMap<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return measurement and tag set in InfluxDB line protocol, e.g. {@code heap_used,cluster=es_test,node=i-1}
+     */
+    public byte[] getLineProtocolKey() {
+        return lineProtocolKey;
+    }
+
+    /**
+     * @return metric name restricted to the characters Prometheus allows
+     */
+    public String getPrometheusName() {
+        return prometheusName;
+    }
+
+    /**
+     * @return metric name and labels in Prometheus exposition format, e.g. {@code heap_used{cluster="es_test",node="i-1"}}
+     */
+    public byte[] getPrometheusSeries() {
+        return prometheusSeries;
+    }
+
+    static String toLineProtocol(String name, SortedMap<String, String> tags) {
+        StringBuilder key = new StringBuilder();
+        escape(key, name, false);
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            key.append(',');
+            escape(key, tag.getKey(), true);
+            key.append('=');
+            escape(key, tag.getValue(), true);
+        }
+        return key.toString();
+    }
+
+    static String toPrometheusName(String name) {
+        StringBuilder sanitized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':' || (i > 0 && c >= '0' && c <= '9');
+            sanitized.append(valid ? c : '_');
+        }
+        return sanitized.toString();
+    }
+
+    static String toPrometheusSeries(String prometheusName, SortedMap<String, String> tags) {
+        StringBuilder series = new StringBuilder(prometheusName);
+        if (!tags.isEmpty()) {
+            series.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                if (!first) {
+                    series.append(',');
+                }
+                first = false;
+                series.append(toPrometheusName(tag.getKey()).replace(':', '_')).append("=\"");
+                String value = tag.getValue();
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == '\\' || c == '"') {
+                        series.append('\\').append(c);
+                    } else if (c == '\n') {
+                        series.append("\\n");
+                    } else {
+                        series.append(c);
+                    }
+                }
+                series.append('"');
+            }
+            series.append('}');
+        }
+        return series.toString();
+    }
+
+    private static void escape(StringBuilder builder, String value, boolean escapeEquals) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == ' ' || (escapeEquals && c == '=')) {
+                builder.append('\\');
+            } else if (c == '\n') {
+                c = ' ';
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(lineProtocolKey, StandardCharsets.UTF_8);
+    }
+}
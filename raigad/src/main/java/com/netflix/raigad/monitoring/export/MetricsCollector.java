@@ -0,0 +1,173 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring.export;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.servo.DefaultMonitorRegistry;
+import com.netflix.servo.MonitorRegistry;
+import com.netflix.servo.monitor.CompositeMonitor;
+import com.netflix.servo.monitor.Monitor;
+import com.netflix.servo.monitor.MonitorConfig;
+import com.netflix.servo.tag.Tag;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the current value of every numeric monitor registered with Servo, composite monitors
+ * (objects registered through Monitors.registerObject) included, into a {@link MetricsSnapshot}.
+ * <p>
+ * Every metric gets the node, cluster, ASG and role of this instance as tags. Keys are built
+ * once per monitor and cached, so a collection only reads values.
+ */
+@Singleton
+public class MetricsCollector {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsCollector.class);
+
+    private final MonitorRegistry registry;
+    private final Map<String, String> commonTags;
+    private final Map<MonitorConfig, MetricKey> keys = new ConcurrentHashMap<>();
+    private volatile int lastSize = 64;
+
+    @Inject
+    public MetricsCollector(IConfiguration config) {
+        this(DefaultMonitorRegistry.getInstance(), commonTags(config));
+    }
+
+    MetricsCollector(MonitorRegistry registry, Map<String, String> commonTags) {
+        this.registry = registry;
+        this.commonTags = commonTags;
+    }
+
+    static Map<String, String> commonTags(IConfiguration config) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        putIfNotBlank(tags, "node", config.getInstanceId());
+        putIfNotBlank(tags, "cluster", config.getAppName());
+        putIfNotBlank(tags, "asg", config.getASGName());
+        putIfNotBlank(tags, "role", nodeRole(config));
+        return tags;
+    }
+
+    /**
+     * Same role resolution as the tuner: tribe nodes, then dedicated master/data/search ASGs, otherwise a node doing everything
+     */
+    static String nodeRole(IConfiguration config) {
+        if (config.amITribeNode()) {
+            return "tribe";
+        }
+
+        if (config.isAsgBasedDedicatedDeployment() && config.getASGName() != null) {
+            String asgName = config.getASGName().toLowerCase();
+            if (asgName.contains("master")) {
+                return "master";
+            } else if (asgName.contains("data")) {
+                return "data";
+            } else if (asgName.contains("search")) {
+                return "search";
+            }
+        }
+
+        return "all";
+    }
+
+    private static void putIfNotBlank(Map<String, String> tags, String key, String value) {
+        if (StringUtils.isNotBlank(value)) {
+            tags.put(key, value);
+        }
+    }
+
+    public MetricsSnapshot collect() {
+        Buffer buffer = new Buffer(lastSize);
+        for (Monitor<?> monitor : registry.getRegisteredMonitors()) {
+            collect(monitor, buffer);
+        }
+
+        lastSize = Math.max(64, buffer.size + buffer.size / 4);
+        if (keys.size() > 2 * lastSize) {
+            // Keys of unregistered monitors (e.g. hot spot gauges that left the top K) pile up otherwise
+            keys.clear();
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), buffer.keys, buffer.values, buffer.size);
+    }
+
+    private void collect(Monitor<?> monitor, Buffer buffer) {
+        if (monitor instanceof CompositeMonitor) {
+            for (Monitor<?> child : ((CompositeMonitor<?>) monitor).getMonitors()) {
+                collect(child, buffer);
+            }
+            return;
+        }
+
+        Object value;
+        try {
+            value = monitor.getValue();
+        } catch (Exception e) {
+            logger.debug("Failed to read monitor {}", monitor.getConfig(), e);
+            return;
+        }
+
+        if (!(value instanceof Number)) {
+            return;
+        }
+
+        double doubleValue = ((Number) value).doubleValue();
+        if (!Double.isNaN(doubleValue) && !Double.isInfinite(doubleValue)) {
+            buffer.add(getKey(monitor.getConfig()), doubleValue);
+        }
+    }
+
+    private MetricKey getKey(MonitorConfig monitorConfig) {
+        MetricKey key = keys.get(monitorConfig);
+        if (key == null) {
+            Map<String, String> tags = new HashMap<>(commonTags);
+            for (Tag tag : monitorConfig.getTags()) {
+                tags.put(tag.getKey(), tag.getValue());
+            }
+            key = new MetricKey(monitorConfig.getName(), tags);
+            keys.put(monitorConfig, key);
+        }
+        return key;
+    }
+
+    private static class Buffer {
+        private MetricKey[] keys;
+        private double[] values;
+        private int size;
+
+        private Buffer(int capacity) {
+            keys = new MetricKey[capacity];
+            values = new double[capacity];
+        }
+
+        private void add(MetricKey key, double value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+        }
+    }
+}
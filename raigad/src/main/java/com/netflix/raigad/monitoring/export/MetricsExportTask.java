@@ -0,0 +1,100 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring.export;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Periodically takes a snapshot of all metrics, pushes it to the configured UDP collector and
+ * renders it for Prometheus scrapes. Runs whether or not Elasticsearch is up, so Raigad's own metrics keep flowing.
+ */
+@Singleton
+public class MetricsExportTask extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsExportTask.class);
+
+    public static final String JOB_NAME = "MetricsExportTask";
+
+    private final MetricsCollector collector;
+    private final PrometheusRenderer prometheusRenderer;
+    private MetricsSink sink;
+
+    @Inject
+    public MetricsExportTask(IConfiguration config, MetricsCollector collector, PrometheusRenderer prometheusRenderer) {
+        super(config);
+        this.collector = collector;
+        this.prometheusRenderer = prometheusRenderer;
+    }
+
+    public static boolean isEnabled(IConfiguration config) {
+        return config.isMetricsExportEnabled() || config.isMetricsPrometheusEnabled();
+    }
+
+    @Override
+    public void execute() throws Exception {
+        if (!isEnabled(config)) {
+            return;
+        }
+
+        MetricsSnapshot snapshot = collector.collect();
+        if (config.isMetricsPrometheusEnabled()) {
+            prometheusRenderer.write(snapshot);
+        }
+
+        if (!config.isMetricsExportEnabled()) {
+            closeSink();
+            return;
+        }
+
+        try {
+            if (sink == null) {
+                sink = new UdpLineProtocolSink(config.getMetricsExportHost(), config.getMetricsExportPort(), config.getMetricsExportMaxDatagramSize());
+            }
+            sink.write(snapshot);
+        } catch (IOException e) {
+            logger.warn("Failed to export {} metrics to {}:{}", snapshot.size(), config.getMetricsExportHost(), config.getMetricsExportPort(), e);
+            closeSink();
+        }
+    }
+
+    private void closeSink() {
+        if (sink != null) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close metrics sink", e);
+            }
+            sink = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    public static TaskTimer getTimer(IConfiguration config) {
+        return new SimpleTimer(JOB_NAME, config.getMetricsExportIntervalInSeconds() * 1000L);
+    }
+}
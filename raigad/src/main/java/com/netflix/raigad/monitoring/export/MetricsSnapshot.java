@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring.export;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Point-in-time values of all exported metrics, stored as parallel arrays of keys and primitive values
+ */
+public class MetricsSnapshot {
+    private final long timestampMillis;
+    private final MetricKey[] keys;
+    private final double[] values;
+    private final int size;
+
+    MetricsSnapshot(long timestampMillis, MetricKey[] keys, double[] values, int size) {
+        this.timestampMillis = timestampMillis;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public MetricKey getKey(int i) {
+        return keys[i];
+    }
+
+    public double getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * @return the value as ASCII, integral values without a fraction
+     */
+    public byte[] getFormattedValue(int i) {
+        double value = values[i];
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value).getBytes(StandardCharsets.US_ASCII);
+        }
+        return Double.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring.export;
+
+import com.google.inject.Singleton;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders metrics snapshots in Prometheus text exposition format (version 0.0.4) and keeps the latest rendering
+ * for scrapes.
+ * <p>
+ * Rendering happens once per collection cycle, into one of two reused buffers; a scrape only copies the bytes
+ * of the latest rendering to the response. A buffer still being written to a slow scraper is not reused,
+ * a fresh one is allocated instead.
+ */
+@Singleton
+public class PrometheusRenderer implements MetricsSink {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final byte[] TYPE_PREFIX = "# TYPE ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TYPE_GAUGE = " gauge\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final Comparator<MetricKey> BY_NAME = new Comparator<MetricKey>() {
+        @Override
+        public int compare(MetricKey first, MetricKey second) {
+            return first.getPrometheusName().compareTo(second.getPrometheusName());
+        }
+    };
+
+    private volatile Rendering latest;
+    private Rendering spare;
+
+    @Override
+    public synchronized void write(MetricsSnapshot snapshot) {
+        Rendering rendering = spare != null && spare.readers.get() == 0 ? spare : new Rendering(latest == null ? 8192 : latest.data.length);
+        rendering.reset();
+
+        // Samples of a metric family have to be contiguous and follow its TYPE line
+        Integer[] order = new Integer[snapshot.size()];
+        final MetricKey[] keys = new MetricKey[snapshot.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            keys[i] = snapshot.getKey(i);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return BY_NAME.compare(keys[first], keys[second]);
+            }
+        });
+
+        String family = null;
+        for (int i : order) {
+            MetricKey key = keys[i];
+            if (!key.getPrometheusName().equals(family)) {
+                family = key.getPrometheusName();
+                rendering.append(TYPE_PREFIX).append(family.getBytes(StandardCharsets.UTF_8)).append(TYPE_GAUGE);
+            }
+            rendering.append(key.getPrometheusSeries()).append((byte) ' ').append(snapshot.getFormattedValue(i)).append((byte) '\n');
+        }
+
+        spare = latest;
+        latest = rendering;
+    }
+
+    /**
+     * @return false if nothing was rendered yet
+     */
+    public boolean writeTo(OutputStream output) throws IOException {
+        Rendering rendering;
+        while (true) {
+            rendering = latest;
+            if (rendering == null) {
+                return false;
+            }
+
+            rendering.readers.incrementAndGet();
+            if (rendering == latest) {
+                // Still the latest one after registering as a reader, so it cannot be picked for reuse until we are done
+                break;
+            }
+            rendering.readers.decrementAndGet();
+        }
+
+        try {
+            output.write(rendering.data, 0, rendering.length);
+            return true;
+        } finally {
+            rendering.readers.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    private static class Rendering {
+        private final AtomicInteger readers = new AtomicInteger();
+        private byte[] data;
+        private int length;
+
+        private Rendering(int capacity) {
+            data = new byte[capacity];
+        }
+
+        private void reset() {
+            length = 0;
+        }
+
+        private Rendering append(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            length += bytes.length;
+            return this;
+        }
+
+        private Rendering append(byte b) {
+            ensureCapacity(1);
+            data[length++] = b;
+            return this;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+            }
+        }
+    }
+}
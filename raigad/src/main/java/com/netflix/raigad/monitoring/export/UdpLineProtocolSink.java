@@ -0,0 +1,86 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.monitoring.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pushes snapshots to a local collector (Telegraf, InfluxDB UDP listener) as InfluxDB line protocol over UDP.
+ * <p>
+ * Lines are packed into datagrams of at most the configured size, so a snapshot of a few hundred metrics
+ * goes out in a handful of packets. Every line is {@code <pre-serialized key> value=<value> <timestamp>}.
+ */
+public class UdpLineProtocolSink implements MetricsSink {
+    private static final Logger logger = LoggerFactory.getLogger(UdpLineProtocolSink.class);
+
+    private static final byte[] VALUE_FIELD = " value=".getBytes(StandardCharsets.UTF_8);
+
+    private final DatagramChannel channel;
+    private final ByteBuffer datagram;
+
+    public UdpLineProtocolSink(String host, int port, int maxDatagramSize) throws IOException {
+        this.channel = DatagramChannel.open();
+        this.channel.connect(new InetSocketAddress(host, port));
+        this.datagram = ByteBuffer.allocate(maxDatagramSize);
+    }
+
+    @Override
+    public synchronized void write(MetricsSnapshot snapshot) throws IOException {
+        // Line protocol timestamps are in nanoseconds by default
+        byte[] suffix = (" " + snapshot.getTimestampMillis() * 1000000L + "\n").getBytes(StandardCharsets.UTF_8);
+        datagram.clear();
+
+        for (int i = 0; i < snapshot.size(); i++) {
+            byte[] key = snapshot.getKey(i).getLineProtocolKey();
+            byte[] value = snapshot.getFormattedValue(i);
+            int length = key.length + VALUE_FIELD.length + value.length + suffix.length;
+
+            if (length > datagram.capacity()) {
+                logger.debug("Dropping metric {}, line does not fit into a datagram", snapshot.getKey(i));
+                continue;
+            }
+
+            if (length > datagram.remaining()) {
+                flush();
+            }
+
+            datagram.put(key).put(VALUE_FIELD).put(value).put(suffix);
+        }
+
+        flush();
+    }
+
+    private void flush() throws IOException {
+        if (datagram.position() == 0) {
+            return;
+        }
+        datagram.flip();
+        channel.write(datagram);
+        datagram.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -19,17 +19,23 @@ import com.google.inject.Inject;
 import com.netflix.raigad.configuration.IConfiguration;
 import com.netflix.raigad.defaultimpl.IElasticsearchProcess;
 import com.netflix.raigad.indexmanagement.ESIndexManager;
+import com.netflix.raigad.tuning.SettingsReconciler;
+import com.netflix.raigad.tuning.TuningProfile;
+import com.netflix.raigad.tuning.TuningProfileManager;
 import com.netflix.raigad.utils.SystemUtils;
 import org.codehaus.jettison.json.JSONException;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
@@ -45,14 +51,19 @@ public class ElasticsearchAdmin
     private final IConfiguration config;
     private final IElasticsearchProcess esProcess;
     private final ESIndexManager esIndexManager;
+    private final TuningProfileManager tuningProfileManager;
+    private final SettingsReconciler settingsReconciler;
     private static final String SHARD_REALLOCATION_PROPERTY = "cluster.routing.allocation.enable";
 
     @Inject
-    public ElasticsearchAdmin(IConfiguration config, IElasticsearchProcess esProcess,ESIndexManager esIndexManager)
+    public ElasticsearchAdmin(IConfiguration config, IElasticsearchProcess esProcess, ESIndexManager esIndexManager,
+                              TuningProfileManager tuningProfileManager, SettingsReconciler settingsReconciler)
     {
         this.config = config;
         this.esProcess = esProcess;
         this.esIndexManager = esIndexManager;
+        this.tuningProfileManager = tuningProfileManager;
+        this.settingsReconciler = settingsReconciler;
     }
 
     @GET
@@ -130,4 +141,47 @@ public class ElasticsearchAdmin
         return Response.ok(REST_SUCCESS, MediaType.APPLICATION_JSON).build();
     }
 
+    @GET
+    @Path("/tuning_profile")
+    public Response esTuningProfile()
+    {
+        TuningProfile activeProfile = tuningProfileManager.getActiveProfile();
+        JSONArray profiles = new JSONArray();
+        for (TuningProfile profile : TuningProfile.values()) {
+            profiles.add(profile.getProfileName());
+        }
+        JSONObject result = new JSONObject();
+        result.put("active", activeProfile == null ? "" : activeProfile.getProfileName());
+        result.put("profiles", profiles);
+        return Response.ok(result.toJSONString(), MediaType.APPLICATION_JSON).build();
+    }
+
+    @GET
+    @Path("/tuning_profile/{profile}")
+    public Response esSwitchTuningProfile(@PathParam("profile") String profileName) throws Exception
+    {
+        logger.info("Switching tuning profile to [{}] through REST call ...", profileName);
+        TuningProfile profile;
+        try {
+            profile = TuningProfile.fromName(profileName);
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        tuningProfileManager.switchProfile(profile);
+        return Response.ok(REST_SUCCESS, MediaType.APPLICATION_JSON).build();
+    }
+
+    @GET
+    @Path("/reconcile_settings")
+    public Response esReconcileSettings(@QueryParam("dryrun") @DefaultValue("true") boolean dryRun) throws Exception
+    {
+        logger.info("Reconciling dynamic settings through REST call (dry-run: {}) ...", dryRun);
+        JSONArray changes = new JSONArray();
+        for (SettingsReconciler.SettingChange change : settingsReconciler.reconcile(dryRun)) {
+            changes.add(change.toJson());
+        }
+        return Response.ok(changes.toJSONString(), MediaType.APPLICATION_JSON).build();
+    }
+
 }
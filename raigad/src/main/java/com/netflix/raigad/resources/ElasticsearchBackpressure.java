@@ -0,0 +1,54 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.resources;
+
+import com.google.inject.Inject;
+import com.netflix.raigad.monitoring.BulkBackpressureMonitor;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Serves the bulk backpressure advice so ingest clients can adapt their bulk rate.
+ */
+@Path("/v1/esbackpressure")
+@Produces(MediaType.APPLICATION_JSON)
+public class ElasticsearchBackpressure {
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchBackpressure.class);
+
+    private final BulkBackpressureMonitor bulkBackpressureMonitor;
+
+    @Inject
+    public ElasticsearchBackpressure(BulkBackpressureMonitor bulkBackpressureMonitor) {
+        this.bulkBackpressureMonitor = bulkBackpressureMonitor;
+    }
+
+    @GET
+    @Path("/bulk")
+    public Response getBulkBackpressure() {
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            logger.info("Elasticsearch is not running, no backpressure advice available");
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+        return Response.ok(bulkBackpressureMonitor.getBackpressureJson().toJSONString(), MediaType.APPLICATION_JSON).build();
+    }
+}
@@ -78,7 +78,7 @@ public class ElasticsearchConfig {
         try {
             logger.info("Getting nodes for the source tribe cluster [{}]", id);
 
-            // Find source cluster name from the tribe ID by reading YAML file
+            // Find source cluster name from the tribe ID (in-memory tribe topology)
             String sourceTribeClusterName = tribeUtils.getTribeClusterNameFromId(id);
 
             if (StringUtils.isEmpty(sourceTribeClusterName)) {
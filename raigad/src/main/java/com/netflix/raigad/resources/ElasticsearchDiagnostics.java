@@ -0,0 +1,72 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.resources;
+
+import com.google.inject.Inject;
+import com.netflix.raigad.monitoring.HotThreadsCapture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Serves the hot threads captured automatically during latency, heap, CPU or GC spikes.
+ * Captures stay readable while Elasticsearch is down.
+ */
+@Path("/v1/esdiagnostics")
+@Produces(MediaType.APPLICATION_JSON)
+public class ElasticsearchDiagnostics {
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchDiagnostics.class);
+
+    private final HotThreadsCapture hotThreadsCapture;
+
+    @Inject
+    public ElasticsearchDiagnostics(HotThreadsCapture hotThreadsCapture) {
+        this.hotThreadsCapture = hotThreadsCapture;
+    }
+
+    @GET
+    @Path("/hot_threads")
+    public Response getHotThreadsCaptures() {
+        try {
+            return Response.ok(hotThreadsCapture.getCapturesJson().toJSONString(), MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            logger.error("Failed to list hot threads captures", e);
+            return Response.serverError().build();
+        }
+    }
+
+    @GET
+    @Path("/hot_threads/{id}")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response getHotThreadsCapture(@PathParam("id") String id) {
+        try {
+            String capture = hotThreadsCapture.getCapture(id);
+            if (capture == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            return Response.ok(capture, MediaType.TEXT_PLAIN).build();
+        } catch (Exception e) {
+            logger.error("Failed to read hot threads capture " + id, e);
+            return Response.serverError().build();
+        }
+    }
+}
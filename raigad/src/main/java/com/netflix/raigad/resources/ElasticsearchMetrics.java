@@ -0,0 +1,59 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.resources;
+
+import com.google.inject.Inject;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.monitoring.export.PrometheusRenderer;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serves the latest metrics rendering in Prometheus text format. Scrapes never call Elasticsearch,
+ * they return what the metrics export task rendered last.
+ */
+@Path("/v1/metrics")
+public class ElasticsearchMetrics {
+    private final IConfiguration config;
+    private final PrometheusRenderer prometheusRenderer;
+
+    @Inject
+    public ElasticsearchMetrics(IConfiguration config, PrometheusRenderer prometheusRenderer) {
+        this.config = config;
+        this.prometheusRenderer = prometheusRenderer;
+    }
+
+    @GET
+    public Response getMetrics() {
+        if (!config.isMetricsPrometheusEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        StreamingOutput output = new StreamingOutput() {
+            @Override
+            public void write(OutputStream outputStream) throws IOException, WebApplicationException {
+                prometheusRenderer.writeTo(outputStream);
+            }
+        };
+        return Response.ok(output, PrometheusRenderer.CONTENT_TYPE).build();
+    }
+}
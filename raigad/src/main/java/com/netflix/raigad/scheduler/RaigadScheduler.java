@@ -17,15 +17,22 @@ package com.netflix.raigad.scheduler;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import com.netflix.raigad.utils.Sleeper;
 import org.quartz.JobDetail;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.SchedulerFactory;
+import org.quartz.Trigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Scheduling class to schedule Raigad tasks. Uses Quartz scheduler
@@ -36,10 +43,11 @@ public class RaigadScheduler
     private static final Logger logger = LoggerFactory.getLogger(RaigadScheduler.class);
     private final Scheduler scheduler;
     private final GuiceJobFactory jobFactory;
-    private final Sleeper sleeper;
+    private final Set<String> firedEvents = new HashSet<String>();
+    private final Map<String, List<Trigger>> waitingTriggers = new HashMap<String, List<Trigger>>();
 
     @Inject
-    public RaigadScheduler(SchedulerFactory factory, GuiceJobFactory jobFactory, Sleeper sleeper)
+    public RaigadScheduler(SchedulerFactory factory, GuiceJobFactory jobFactory)
     {
         try
         {
@@ -51,7 +59,6 @@ public class RaigadScheduler
         {
             throw new RuntimeException(e);
         }
-        this.sleeper = sleeper;
     }
 
     /**
@@ -65,33 +72,81 @@ public class RaigadScheduler
     }
 
     /**
-     * Add a delayed task to the scheduler
+     * Add a delayed task to the scheduler, the delay is carried by the trigger start time
      */
     public void addTaskWithDelay(final String name, Class<? extends Task> taskclass, final TaskTimer timer, final int delayInSeconds) throws SchedulerException, ParseException
     {
         assert timer != null : "Cannot add scheduler task " + name + " as no timer is set";
-        final JobDetail job = new JobDetail(name, Scheduler.DEFAULT_GROUP, taskclass);
-        
-        new Thread(new Runnable(){
-            public void run()
+        JobDetail job = new JobDetail(name, Scheduler.DEFAULT_GROUP, taskclass);
+        Trigger trigger = timer.getTrigger();
+        trigger.setStartTime(new Date(System.currentTimeMillis() + delayInSeconds * 1000L));
+        scheduler.scheduleJob(job, trigger);
+    }
+
+    /**
+     * Add a task that starts as soon as the given event fires (see {@link #fireEvent(String)}),
+     * or after the given delay if the event has not fired by then
+     */
+    public synchronized void addTaskAfterEvent(String event, String name, Class<? extends Task> taskclass, TaskTimer timer, int maxDelayInSeconds) throws SchedulerException, ParseException
+    {
+        if (firedEvents.contains(event))
+        {
+            addTask(name, taskclass, timer);
+            return;
+        }
+
+        JobDetail job = new JobDetail(name, Scheduler.DEFAULT_GROUP, taskclass);
+        Trigger trigger = timer.getTrigger();
+        trigger.setStartTime(new Date(System.currentTimeMillis() + maxDelayInSeconds * 1000L));
+        scheduler.scheduleJob(job, trigger);
+
+        List<Trigger> waiting = waitingTriggers.get(event);
+        if (waiting == null)
+        {
+            waiting = new ArrayList<Trigger>();
+            waitingTriggers.put(event, waiting);
+        }
+        waiting.add(trigger);
+    }
+
+    /**
+     * Marks the event as fired and starts the tasks waiting for it, events fire only once
+     */
+    public synchronized void fireEvent(String event)
+    {
+        if (!firedEvents.add(event))
+        {
+            return;
+        }
+
+        List<Trigger> waiting = waitingTriggers.remove(event);
+        if (waiting == null)
+        {
+            return;
+        }
+
+        for (Trigger trigger : waiting)
+        {
+            try
             {
-                try
+                Trigger scheduled = scheduler.getTrigger(trigger.getName(), trigger.getGroup());
+                if (scheduled == null || !scheduled.getStartTime().after(new Date()))
                 {
-                        sleeper.sleepQuietly(delayInSeconds * 1000L);
-                        scheduler.scheduleJob(job, timer.getTrigger());
-                }
-                catch (SchedulerException e)
-                {
-                    logger.warn("problem occurred while scheduling a job with name " + name, e);
-                }
-                catch (ParseException e)
-                {
-                    logger.warn("problem occurred while parsing a job with name " + name, e);
+                    continue;
                 }
+
+                Trigger rescheduled = (Trigger) scheduled.clone();
+                rescheduled.setStartTime(new Date());
+                scheduler.rescheduleJob(trigger.getName(), trigger.getGroup(), rescheduled);
+                logger.info("Starting task {} on event {}", trigger.getJobName(), event);
             }
-        }).start();
+            catch (SchedulerException e)
+            {
+                logger.warn("problem occurred while starting job " + trigger.getJobName() + " on event " + event, e);
+            }
+        }
     }
-    
+
     public void runTaskNow(Class<? extends Task> taskclass) throws Exception
     {
         jobFactory.guice.getInstance(taskclass).execute(null);
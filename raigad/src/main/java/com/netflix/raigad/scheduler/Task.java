@@ -20,12 +20,17 @@ import com.netflix.raigad.configuration.IConfiguration;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
+import org.quartz.SimpleTrigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -36,17 +41,37 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public abstract class Task implements Job, TaskMBean
 {
-    public STATE status = STATE.DONE;
+    public volatile STATE status = STATE.DONE;
 
     public static enum STATE
     {
         ERROR, RUNNING, DONE
     }
+
+    /**
+     * What to do with an execution that starts later than {@link #getMisfireThresholdInMillis()}
+     * after its scheduled time (e.g. all Quartz threads were busy)
+     */
+    public static enum MisfirePolicy
+    {
+        FIRE_NOW, SKIP
+    }
+
     protected final IConfiguration config;
     
     private static final Logger logger = LoggerFactory.getLogger(Task.class);
     private final AtomicInteger errors = new AtomicInteger();
     private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger misfires = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final TaskDurationHistogram durations = new TaskDurationHistogram();
+    private final TaskDurationHistogram queueWaits = new TaskDurationHistogram();
+    private final Map<Thread, Long> runningSince = new ConcurrentHashMap<Thread, Long>();
+    private final AtomicBoolean metricsRegistered = new AtomicBoolean();
+    private volatile long lastSuccessTimestamp;
+    private volatile double overrunRatio;
 
     protected Task(IConfiguration config)
     {
@@ -79,34 +104,112 @@ public abstract class Task implements Job, TaskMBean
         
     public abstract void execute() throws Exception;
 
+    /**
+     * Number of executions of this task allowed to overlap, further triggers are skipped while that many are running
+     */
+    public int getMaxConcurrentExecutions()
+    {
+        return 1;
+    }
+
+    protected MisfirePolicy getMisfirePolicy()
+    {
+        return MisfirePolicy.FIRE_NOW;
+    }
+
+    protected long getMisfireThresholdInMillis()
+    {
+        return 60000;
+    }
+
     /**
      * Main method to execute a task
      */
     public void execute(JobExecutionContext context) throws JobExecutionException
     {
         executions.incrementAndGet();
+        if (metricsRegistered.compareAndSet(false, true))
+            TaskMetrics.register(this);
+
+        if (isMisfire(context))
+        {
+            misfires.incrementAndGet();
+            skipped.incrementAndGet();
+            logger.info("Skipping misfired execution of {} scheduled at {}", getName(), context.getScheduledFireTime());
+            return;
+        }
+
+        if (!tryAcquire())
+        {
+            skipped.incrementAndGet();
+            logger.info("Skipping execution of {}, {} execution(s) still running", getName(), running.get());
+            return;
+        }
+
+        if (context != null && context.getScheduledFireTime() != null)
+            queueWaits.record(Math.max(0, System.currentTimeMillis() - context.getScheduledFireTime().getTime()));
+
+        long start = System.nanoTime();
+        runningSince.put(Thread.currentThread(), System.currentTimeMillis());
         try
         {
-            if (status == STATE.RUNNING)
-                return;
             status = STATE.RUNNING;
             execute();
-
+            status = STATE.DONE;
+            consecutiveFailures.set(0);
+            lastSuccessTimestamp = System.currentTimeMillis();
         }
-        catch (Exception e)
+        catch (Throwable e)
         {
             status = STATE.ERROR;
             logger.error("Couldnt execute the task because of " + e.getMessage(), e);
             errors.incrementAndGet();
+            consecutiveFailures.incrementAndGet();
         }
-        catch (Throwable e)
+        finally
         {
-            status = STATE.ERROR;
-            logger.error("Couldnt execute the task because of " + e.getMessage(), e);
-            errors.incrementAndGet();
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            durations.record(duration);
+            long interval = intervalInMillis(context);
+            if (interval > 0)
+                overrunRatio = (double) duration / interval;
+            runningSince.remove(Thread.currentThread());
+            running.decrementAndGet();
         }
-        if (status != STATE.ERROR)
-            status = STATE.DONE;
+    }
+
+    /**
+     * Time between two scheduled executions, 0 for one-off triggers
+     */
+    static long intervalInMillis(JobExecutionContext context)
+    {
+        if (context == null)
+            return 0;
+        if (context.getTrigger() instanceof SimpleTrigger && ((SimpleTrigger) context.getTrigger()).getRepeatInterval() > 0)
+            return ((SimpleTrigger) context.getTrigger()).getRepeatInterval();
+        if (context.getNextFireTime() != null && context.getScheduledFireTime() != null)
+            return Math.max(0, context.getNextFireTime().getTime() - context.getScheduledFireTime().getTime());
+        return 0;
+    }
+
+    private boolean tryAcquire()
+    {
+        int max = Math.max(1, getMaxConcurrentExecutions());
+        while (true)
+        {
+            int current = running.get();
+            if (current >= max)
+                return false;
+            if (running.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    private boolean isMisfire(JobExecutionContext context)
+    {
+        if (context == null || context.getScheduledFireTime() == null || getMisfirePolicy() != MisfirePolicy.SKIP)
+            return false;
+        return System.currentTimeMillis() - context.getScheduledFireTime().getTime() > getMisfireThresholdInMillis();
     }
 
     public STATE state()
@@ -124,6 +227,94 @@ public abstract class Task implements Job, TaskMBean
         return executions.get();
     }
 
+    public int getSkippedCount()
+    {
+        return skipped.get();
+    }
+
+    public int getMisfireCount()
+    {
+        return misfires.get();
+    }
+
+    public int getRunningCount()
+    {
+        return running.get();
+    }
+
+    public long getCompletedCount()
+    {
+        return durations.getCount();
+    }
+
+    public long getLastDurationInMillis()
+    {
+        return durations.getLastMillis();
+    }
+
+    public long getMaxDurationInMillis()
+    {
+        return durations.getMaxMillis();
+    }
+
+    public long getDurationP50InMillis()
+    {
+        return durations.percentile(50);
+    }
+
+    public long getDurationP99InMillis()
+    {
+        return durations.percentile(99);
+    }
+
+    public long getMinDurationInMillis()
+    {
+        return durations.getMinMillis();
+    }
+
+    public long getLastQueueWaitInMillis()
+    {
+        return queueWaits.getLastMillis();
+    }
+
+    public long getQueueWaitP99InMillis()
+    {
+        return queueWaits.percentile(99);
+    }
+
+    public int getConsecutiveFailures()
+    {
+        return consecutiveFailures.get();
+    }
+
+    public long getLastSuccessTimestamp()
+    {
+        return lastSuccessTimestamp;
+    }
+
+    public double getOverrunRatio()
+    {
+        return overrunRatio;
+    }
+
+    public long getCurrentRunInMillis()
+    {
+        long oldest = Long.MAX_VALUE;
+        for (Long since : runningSince.values())
+            oldest = Math.min(oldest, since);
+        return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    public long[] getDurationHistogram()
+    {
+        return durations.getCounts();
+    }
+
+    public long[] getDurationHistogramBoundsInMillis()
+    {
+        return durations.getBoundsInMillis();
+    }
+
     public abstract String getName();
 
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket histogram of task execution durations.
+ * <p>
+ * Bucket i counts durations up to {@link #BOUNDS_IN_MILLIS}[i]; the last bucket counts everything longer.
+ * Recording is lock free, so it can be shared by concurrent executions of the same task.
+ */
+public class TaskDurationHistogram {
+    static final long[] BOUNDS_IN_MILLIS = {10, 50, 100, 500, 1000, 5000, 10000, 30000, 60000, 300000, 600000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_IN_MILLIS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong minMillis = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMillis = new AtomicLong();
+    private final AtomicLong lastMillis = new AtomicLong();
+
+    public void record(long millis) {
+        counts.incrementAndGet(bucket(millis));
+        count.incrementAndGet();
+        totalMillis.addAndGet(millis);
+        lastMillis.set(millis);
+
+        long max;
+        while (millis > (max = maxMillis.get()) && !maxMillis.compareAndSet(max, millis)) {
+            // retry
+        }
+
+        long min;
+        while (millis < (min = minMillis.get()) && !minMillis.compareAndSet(min, millis)) {
+            // retry
+        }
+    }
+
+    static int bucket(long millis) {
+        for (int i = 0; i < BOUNDS_IN_MILLIS.length; i++) {
+            if (millis <= BOUNDS_IN_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS_IN_MILLIS.length;
+    }
+
+    /**
+     * @return upper bound of the bucket holding the given percentile (0-100), the maximum for the overflow bucket
+     */
+    public long percentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_IN_MILLIS.length; i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(BOUNDS_IN_MILLIS[i], maxMillis.get());
+            }
+        }
+        return maxMillis.get();
+    }
+
+    public long[] getCounts() {
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    public long[] getBoundsInMillis() {
+        return BOUNDS_IN_MILLIS.clone();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotalMillis() {
+        return totalMillis.get();
+    }
+
+    public long getMinMillis() {
+        return count.get() == 0 ? 0 : minMillis.get();
+    }
+
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    public long getLastMillis() {
+        return lastMillis.get();
+    }
+}
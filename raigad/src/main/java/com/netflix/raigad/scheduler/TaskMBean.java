@@ -18,10 +18,33 @@ package com.netflix.raigad.scheduler;
 /**
  * MBean to monitor Task executions.
  * 
+ * Execution count includes skipped executions (overlapping or misfired), completed count does not.
+ * The duration histogram holds one count per bucket of {@link #getDurationHistogramBoundsInMillis()},
+ * plus a last bucket for longer executions. Queue wait is the delay between the scheduled time and the
+ * actual start, overrun ratio is the last duration relative to the scheduling interval, and current run
+ * is the age of the oldest execution still running (a hung task shows up here before it shows up anywhere else).
  */
 public interface TaskMBean
 {
     public int getErrorCount();
     public int getExecutionCount();
+    public int getSkippedCount();
+    public int getMisfireCount();
+    public int getRunningCount();
+    public int getMaxConcurrentExecutions();
+    public long getCompletedCount();
+    public long getLastDurationInMillis();
+    public long getMaxDurationInMillis();
+    public long getDurationP50InMillis();
+    public long getDurationP99InMillis();
+    public long getMinDurationInMillis();
+    public long getLastQueueWaitInMillis();
+    public long getQueueWaitP99InMillis();
+    public int getConsecutiveFailures();
+    public long getLastSuccessTimestamp();
+    public double getOverrunRatio();
+    public long getCurrentRunInMillis();
+    public long[] getDurationHistogram();
+    public long[] getDurationHistogramBoundsInMillis();
     public String getName();
 }
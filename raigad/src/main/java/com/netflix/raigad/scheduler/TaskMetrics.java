@@ -0,0 +1,136 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.scheduler;
+
+import com.netflix.servo.DefaultMonitorRegistry;
+import com.netflix.servo.monitor.BasicGauge;
+import com.netflix.servo.monitor.MonitorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Publishes the execution statistics of a task through Servo, tagged with the task name,
+ * next to the Elasticsearch metrics published by the monitors
+ */
+public class TaskMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(TaskMetrics.class);
+
+    static final String METRIC_NAME = "Task";
+
+    private TaskMetrics() {
+    }
+
+    static void register(final Task task) {
+        try {
+            register(task, "execution_count", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getExecutionCount();
+                }
+            });
+            register(task, "error_count", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getErrorCount();
+                }
+            });
+            register(task, "skipped_count", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getSkippedCount();
+                }
+            });
+            register(task, "consecutive_failures", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getConsecutiveFailures();
+                }
+            });
+            register(task, "last_success_timestamp", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getLastSuccessTimestamp();
+                }
+            });
+            register(task, "last_duration_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getLastDurationInMillis();
+                }
+            });
+            register(task, "min_duration_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getMinDurationInMillis();
+                }
+            });
+            register(task, "max_duration_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getMaxDurationInMillis();
+                }
+            });
+            register(task, "p50_duration_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getDurationP50InMillis();
+                }
+            });
+            register(task, "p99_duration_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getDurationP99InMillis();
+                }
+            });
+            register(task, "queue_wait_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getLastQueueWaitInMillis();
+                }
+            });
+            register(task, "p99_queue_wait_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getQueueWaitP99InMillis();
+                }
+            });
+            register(task, "overrun_ratio", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getOverrunRatio();
+                }
+            });
+            register(task, "current_run_ms", new Callable<Number>() {
+                @Override
+                public Number call() {
+                    return task.getCurrentRunInMillis();
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Failed to register metrics of task {}", task.getName(), e);
+        }
+    }
+
+    private static void register(Task task, String name, Callable<Number> value) {
+        MonitorConfig monitorConfig = MonitorConfig.builder(name)
+                .withTag("class", METRIC_NAME)
+                .withTag("task", task.getName())
+                .build();
+        DefaultMonitorRegistry.getInstance().register(new BasicGauge<>(monitorConfig, value));
+    }
+}
@@ -28,7 +28,11 @@ import com.netflix.raigad.defaultimpl.IElasticsearchProcess;
 import com.netflix.raigad.identity.InstanceManager;
 import com.netflix.raigad.indexmanagement.ESIndexManager;
 import com.netflix.raigad.monitoring.*;
+import com.netflix.raigad.monitoring.export.MetricsExportTask;
 import com.netflix.raigad.scheduler.RaigadScheduler;
+import com.netflix.raigad.tuning.MergeThrottleController;
+import com.netflix.raigad.tuning.RecoveryThrottleController;
+import com.netflix.raigad.tuning.SettingsReconciler;
 import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
 import com.netflix.raigad.utils.HttpModule;
 import com.netflix.raigad.utils.Sleeper;
@@ -45,8 +49,10 @@ public class RaigadServer {
 
     private static final int ES_MONITORING_INITIAL_DELAY = 10;
     private static final int ES_SNAPSHOT_INITIAL_DELAY = 100;
+    // Upper bounds, these tasks start as soon as Elasticsearch is found running
     private static final int ES_HEALTH_MONITOR_DELAY = 600;
     private static final int ES_NODE_HEALTH_MONITOR_DELAY = 10;
+    private static final int ES_SETTINGS_RECONCILER_DELAY = 120;
 
     private final RaigadScheduler scheduler;
     private final IConfiguration config;
@@ -189,24 +195,35 @@ public class RaigadServer {
                 scheduler.addTaskWithDelay(SnapshotBackupManager.JOBNAME, SnapshotBackupManager.class, SnapshotBackupManager.getTimer(config), ES_SNAPSHOT_INITIAL_DELAY);
                 // Run Index Management task only on Master Nodes
                 scheduler.addTaskWithDelay(ESIndexManager.JOB_NAME, ESIndexManager.class, ESIndexManager.getTimer(config), config.getAutoCreateIndexInitialStartDelaySeconds());
-                scheduler.addTaskWithDelay(HealthMonitor.METRIC_NAME, HealthMonitor.class, HealthMonitor.getTimer("HealthMonitor"),ES_HEALTH_MONITOR_DELAY);
+                scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, HealthMonitor.METRIC_NAME, HealthMonitor.class, HealthMonitor.getTimer("HealthMonitor"), ES_HEALTH_MONITOR_DELAY);
+                // Push dynamic settings only from Master Nodes
+                if (config.isSettingsReconcilerEnabled()) {
+                    scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, SettingsReconciler.JOB_NAME, SettingsReconciler.class, SettingsReconciler.getTimer(config), ES_SETTINGS_RECONCILER_DELAY);
+                }
             }
             else if (!config.reportMetricsFromMasterOnly()) {
-                scheduler.addTaskWithDelay(HealthMonitor.METRIC_NAME, HealthMonitor.class, HealthMonitor.getTimer("HealthMonitor"),ES_HEALTH_MONITOR_DELAY);
+                scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, HealthMonitor.METRIC_NAME, HealthMonitor.class, HealthMonitor.getTimer("HealthMonitor"), ES_HEALTH_MONITOR_DELAY);
             }
         }
         else {
             scheduler.addTaskWithDelay(SnapshotBackupManager.JOBNAME, SnapshotBackupManager.class, SnapshotBackupManager.getTimer(config), ES_SNAPSHOT_INITIAL_DELAY);
             scheduler.addTaskWithDelay(ESIndexManager.JOB_NAME, ESIndexManager.class, ESIndexManager.getTimer(config), config.getAutoCreateIndexInitialStartDelaySeconds());
-            scheduler.addTaskWithDelay(HealthMonitor.METRIC_NAME, HealthMonitor.class, HealthMonitor.getTimer("HealthMonitor"),ES_HEALTH_MONITOR_DELAY);
+            scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, HealthMonitor.METRIC_NAME, HealthMonitor.class, HealthMonitor.getTimer("HealthMonitor"), ES_HEALTH_MONITOR_DELAY);
+            if (config.isSettingsReconcilerEnabled()) {
+                scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, SettingsReconciler.JOB_NAME, SettingsReconciler.class, SettingsReconciler.getTimer(config), ES_SETTINGS_RECONCILER_DELAY);
+            }
         }
 
         /*
         * Starting Monitoring Jobs
         */
         scheduler.addTask(ThreadPoolStatsMonitor.METRIC_NAME, ThreadPoolStatsMonitor.class, ThreadPoolStatsMonitor.getTimer("ThreadPoolStatsMonitor"));
+        scheduler.addTask(BulkBackpressureMonitor.METRIC_NAME, BulkBackpressureMonitor.class, BulkBackpressureMonitor.getTimer("BulkBackpressureMonitor"));
         scheduler.addTask(TransportStatsMonitor.METRIC_NAME, TransportStatsMonitor.class, TransportStatsMonitor.getTimer("TransportStatsMonitor"));
         scheduler.addTask(NodeIndicesStatsMonitor.METRIC_NAME, NodeIndicesStatsMonitor.class, NodeIndicesStatsMonitor.getTimer("NodeIndicesStatsMonitor"));
+        scheduler.addTask(IndexHotSpotMonitor.METRIC_NAME, IndexHotSpotMonitor.class, IndexHotSpotMonitor.getTimer(config));
+        scheduler.addTask(PendingClusterTasksMonitor.METRIC_NAME, PendingClusterTasksMonitor.class, PendingClusterTasksMonitor.getTimer("PendingClusterTasksMonitor"));
+        scheduler.addTask(RecoveryMonitor.METRIC_NAME, RecoveryMonitor.class, RecoveryMonitor.getTimer(config));
         scheduler.addTask(FsStatsMonitor.METRIC_NAME, FsStatsMonitor.class, FsStatsMonitor.getTimer("FsStatsMonitor"));
 
         // TODO: 2X: Determine if this is necessary and if yes find an alternative
@@ -217,8 +234,21 @@ public class RaigadServer {
         scheduler.addTask(ProcessStatsMonitor.METRIC_NAME, ProcessStatsMonitor.class, ProcessStatsMonitor.getTimer("ProcessStatsMonitor"));
         scheduler.addTask(HttpStatsMonitor.METRIC_NAME, HttpStatsMonitor.class, HttpStatsMonitor.getTimer("HttpStatsMonitor"));
         scheduler.addTask(AllCircuitBreakerStatsMonitor.METRIC_NAME, AllCircuitBreakerStatsMonitor.class, AllCircuitBreakerStatsMonitor.getTimer("AllCircuitBreakerStatsMonitor"));
+        scheduler.addTask(HotThreadsCapture.METRIC_NAME, HotThreadsCapture.class, HotThreadsCapture.getTimer("HotThreadsCapture"));
         scheduler.addTask(SnapshotBackupMonitor.METRIC_NAME, SnapshotBackupMonitor.class, SnapshotBackupMonitor.getTimer("SnapshotBackupMonitor"));
-        scheduler.addTaskWithDelay(NodeHealthMonitor.METRIC_NAME, NodeHealthMonitor.class, NodeHealthMonitor.getTimer("NodeHealthMonitor"),ES_NODE_HEALTH_MONITOR_DELAY);
+        scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, NodeHealthMonitor.METRIC_NAME, NodeHealthMonitor.class, NodeHealthMonitor.getTimer("NodeHealthMonitor"), ES_NODE_HEALTH_MONITOR_DELAY);
+
+        if (config.isRecoveryControllerEnabled()) {
+            scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, RecoveryThrottleController.JOB_NAME, RecoveryThrottleController.class, RecoveryThrottleController.getTimer(RecoveryThrottleController.JOB_NAME), ES_SETTINGS_RECONCILER_DELAY);
+        }
+
+        if (config.isMergeControllerEnabled()) {
+            scheduler.addTaskAfterEvent(ElasticsearchProcessMonitor.ELASTICSEARCH_RUNNING_EVENT, MergeThrottleController.JOB_NAME, MergeThrottleController.class, MergeThrottleController.getTimer(MergeThrottleController.JOB_NAME), ES_SETTINGS_RECONCILER_DELAY);
+        }
+
+        if (MetricsExportTask.isEnabled(config)) {
+            scheduler.addTask(MetricsExportTask.JOB_NAME, MetricsExportTask.class, MetricsExportTask.getTimer(config));
+        }
     }
 
     public InstanceManager getInstanceManager() {
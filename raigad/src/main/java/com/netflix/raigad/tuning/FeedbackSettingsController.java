@@ -0,0 +1,441 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.tuning;
+
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.monitoring.DataNodeSignals;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.raigad.utils.ElasticsearchTransportClient;
+import com.netflix.raigad.utils.ElasticsearchUtils;
+import com.netflix.raigad.utils.HttpModule;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import org.apache.commons.lang.StringUtils;
+import org.elasticsearch.action.admin.cluster.node.stats.NodeStats;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequestBuilder;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsResponse;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Base class of tasks adjusting dynamic cluster settings in a closed loop, based on how much headroom
+ * the data nodes have.
+ * <p>
+ * Every run the controller decides whether to raise, hold or cut its settings. A cut happens as soon as a signal
+ * crosses its high threshold; a raise only after {@code controller.raise_after_runs} consecutive runs with every
+ * signal below its low threshold, so a single quiet interval does not undo a cut. Raises are multiplicative and cuts
+ * halve (by default) the value, always within the bounds of each setting. While the controller is not active
+ * (e.g. no recovery in progress) settings go back to their lower bound.
+ * <p>
+ * Runs on the elected master only. Search latency and disk usage are collected from every data node with one nodes
+ * stats call per run and a single degraded node is enough to cut; subclasses may narrow the nodes watched (see
+ * {@link #getWatchedNodes()}). A node's latency has degraded above the fixed high threshold, or once it is above the
+ * low threshold and more than {@value #QUERY_LATENCY_99_MARGIN} times the 99th percentile of the node's recent
+ * history. Nodes stats of this Elasticsearch version carry no disk I/O statistics, so the disk signal is the space
+ * used on the data paths.
+ * <p>
+ * Cluster settings are written as transient settings, which take precedence over persistent ones; index settings
+ * are written to the configured indices.
+ */
+public abstract class FeedbackSettingsController extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackSettingsController.class);
+    private static final Logger auditLogger = LoggerFactory.getLogger(FeedbackSettingsController.class.getName() + ".audit");
+
+    public enum Decision {
+        RAISE, HOLD, CUT
+    }
+
+    static final double QUERY_LATENCY_99_MARGIN = 1.25;
+
+    private final HttpModule httpModule;
+    private final ElasticsearchAsyncAdmin asyncAdmin;
+    private final DataNodeSignals dataNodeSignals = new DataNodeSignals();
+
+    // Values last written (or read when this node became master), by setting key
+    private final Map<String, Double> currentValues = new LinkedHashMap<>();
+    private int headroomRuns;
+    private Decision lastDecision = Decision.HOLD;
+    // Signals of the data nodes as of this run, by node id
+    private Map<String, DataNodeSignals.NodeSignals> nodeSignals = Collections.emptyMap();
+
+    protected FeedbackSettingsController(IConfiguration config, HttpModule httpModule, ElasticsearchAsyncAdmin asyncAdmin) {
+        super(config);
+        this.httpModule = httpModule;
+        this.asyncAdmin = asyncAdmin;
+    }
+
+    FeedbackSettingsController(IConfiguration config, HttpModule httpModule, ElasticsearchAsyncAdmin asyncAdmin,
+                               MBeanServer mBeanServer) {
+        super(config, mBeanServer);
+        this.httpModule = httpModule;
+        this.asyncAdmin = asyncAdmin;
+    }
+
+    protected abstract boolean isEnabled();
+
+    /**
+     * @return false if there is nothing to control right now, settings are brought back to their lower bound
+     */
+    protected abstract boolean isActive();
+
+    /**
+     * @return settings to control with their current bounds, read on every run so bounds can be changed at runtime
+     */
+    protected abstract List<ControlledSetting> getControlledSettings();
+
+    /**
+     * @return cluster settings the controlled settings only take effect with, written along with every cluster
+     * settings update of the controller
+     */
+    protected Map<String, String> getRequiredClusterSettings() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public synchronized void execute() throws Exception {
+        if (!isEnabled()) {
+            currentValues.clear();
+            return;
+        }
+
+        if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+            logger.info("Elasticsearch is not yet started, not controlling {} yet", getName());
+            return;
+        }
+
+        try {
+            if (!ElasticsearchUtils.amIMasterNode(config, httpModule)) {
+                // The next master takes over from the live values
+                currentValues.clear();
+                dataNodeSignals.clear();
+                return;
+            }
+
+            nodeSignals = loadNodeSignals();
+
+            List<ControlledSetting> settings = getControlledSettings();
+            if (currentValues.isEmpty()) {
+                loadLiveValues(settings);
+            }
+
+            boolean active = isActive();
+            Decision decision = active ? decide() : Decision.HOLD;
+            Map<String, String> clusterUpdates = new LinkedHashMap<>();
+            Map<String, Map<String, String>> indexUpdates = new LinkedHashMap<>();
+            for (ControlledSetting setting : settings) {
+                double current = setting.clamp(currentValues.containsKey(setting.getKey()) ?
+                        currentValues.get(setting.getKey()) : setting.getMin());
+                double next = active ? setting.next(current, decision, config.getControllerRaiseFactor(),
+                        config.getControllerCutFactor()) : setting.getMin();
+                if (!currentValues.containsKey(setting.getKey()) || next != currentValues.get(setting.getKey())) {
+                    if (setting.getIndices() == null) {
+                        clusterUpdates.put(setting.getKey(), setting.format(next));
+                    } else {
+                        if (!indexUpdates.containsKey(setting.getIndices())) {
+                            indexUpdates.put(setting.getIndices(), new LinkedHashMap<String, String>());
+                        }
+                        indexUpdates.get(setting.getIndices()).put(setting.getKey(), setting.format(next));
+                    }
+                    auditLogger.info("{}: {} [{}] on [{}] -> [{}]", getName(), active ? decision : "IDLE", setting.getKey(),
+                            setting.getIndices() == null ? "_cluster" : setting.getIndices(), setting.format(next));
+                }
+                currentValues.put(setting.getKey(), next);
+            }
+
+            if (!clusterUpdates.isEmpty()) {
+                for (Map.Entry<String, String> setting : getRequiredClusterSettings().entrySet()) {
+                    if (!setting.getValue().equals(clusterUpdates.put(setting.getKey(), setting.getValue()))) {
+                        auditLogger.info("{}: requires [{}] on [_cluster] -> [{}]", getName(), setting.getKey(), setting.getValue());
+                    }
+                }
+                ClusterUpdateSettingsResponse response = asyncAdmin.updateClusterSettings(
+                        Collections.<String, Object>emptyMap(), clusterUpdates).get();
+                if (!response.isAcknowledged()) {
+                    logger.warn("{} cluster settings update was not acknowledged", getName());
+                }
+            }
+            for (Map.Entry<String, Map<String, String>> entry : indexUpdates.entrySet()) {
+                UpdateSettingsResponse response = asyncAdmin.updateIndexSettings(entry.getValue(),
+                        StringUtils.split(entry.getKey(), ",")).get();
+                if (!response.isAcknowledged()) {
+                    logger.warn("{} settings update of [{}] was not acknowledged", getName(), entry.getKey());
+                }
+            }
+        } catch (Exception e) {
+            // Unknown what made it to the cluster, start over from the live values
+            currentValues.clear();
+            logger.warn("Exception while controlling {}", getName(), e);
+        }
+    }
+
+    private Map<String, DataNodeSignals.NodeSignals> loadNodeSignals() throws Exception {
+        NodesStatsResponse response = asyncAdmin.nodesStats(new Function<NodesStatsRequestBuilder, NodesStatsRequestBuilder>() {
+            @Override
+            public NodesStatsRequestBuilder apply(NodesStatsRequestBuilder builder) {
+                return DataNodeSignals.prepare(builder);
+            }
+        }, DataNodeSignals.DATA_NODES).get();
+
+        List<DataNodeSignals.NodeCounters> counters = new ArrayList<>();
+        for (NodeStats nodeStats : response.getNodes()) {
+            counters.add(DataNodeSignals.counters(nodeStats));
+        }
+        return dataNodeSignals.update(counters);
+    }
+
+    /**
+     * @return signals of every data node as of this run, by node id
+     */
+    protected Map<String, DataNodeSignals.NodeSignals> getNodeSignals() {
+        return nodeSignals;
+    }
+
+    /**
+     * @return data nodes whose search latency drives the decision, all of them by default
+     */
+    protected Collection<DataNodeSignals.NodeSignals> getWatchedNodes() {
+        return getNodeSignals().values();
+    }
+
+    /**
+     * Query latency and disk usage drive the decision; subclasses may add signals of their own
+     */
+    protected Decision decide() {
+        return step(isOverloaded(), hasHeadroom());
+    }
+
+    protected boolean isOverloaded() {
+        return isOverloaded(config, getWatchedNodes());
+    }
+
+    protected boolean hasHeadroom() {
+        return hasHeadroom(config, getWatchedNodes());
+    }
+
+    /**
+     * @return true if search latency of any node degraded, compared to a fixed limit or to the node's own history,
+     * or its disk is nearly full
+     */
+    static boolean isOverloaded(IConfiguration config, Collection<DataNodeSignals.NodeSignals> nodes) {
+        for (DataNodeSignals.NodeSignals node : nodes) {
+            double latency = node.getQueryLatencyInMillis();
+            if (latency > config.getControllerQueryLatencyHighInMillis()
+                    || (latency > config.getControllerQueryLatencyLowInMillis() && node.getQueryLatency99InMillis() > 0
+                    && latency > node.getQueryLatency99InMillis() * QUERY_LATENCY_99_MARGIN)) {
+                logger.debug("Search latency of node {} degraded to {}ms", node.getNodeId(), latency);
+                return true;
+            }
+            if (node.getDiskUsedPercent() > config.getControllerDiskUtilizationHighPercent()) {
+                logger.debug("Disk of node {} is {}% used", node.getNodeId(), node.getDiskUsedPercent());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if search latency and disk usage of every node are below their low thresholds, false without
+     * any node to judge from
+     */
+    static boolean hasHeadroom(IConfiguration config, Collection<DataNodeSignals.NodeSignals> nodes) {
+        if (nodes.isEmpty()) {
+            return false;
+        }
+        for (DataNodeSignals.NodeSignals node : nodes) {
+            if (node.getQueryLatencyInMillis() > config.getControllerQueryLatencyLowInMillis()
+                    || node.getDiskUsedPercent() > config.getControllerDiskUtilizationLowPercent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Turns the state of the signals into a decision, raising only after enough consecutive runs with headroom
+     */
+    protected Decision step(boolean overloaded, boolean headroom) {
+        if (overloaded) {
+            headroomRuns = 0;
+            lastDecision = Decision.CUT;
+        } else if (headroom && ++headroomRuns >= config.getControllerRaiseAfterRuns()) {
+            headroomRuns = 0;
+            lastDecision = Decision.RAISE;
+        } else {
+            if (!headroom) {
+                headroomRuns = 0;
+            }
+            lastDecision = Decision.HOLD;
+        }
+        return lastDecision;
+    }
+
+    public synchronized Decision getLastDecision() {
+        return lastDecision;
+    }
+
+    /**
+     * @return values last set by this controller, empty if it is not in control
+     */
+    public synchronized Map<String, Double> getCurrentValues() {
+        return new LinkedHashMap<>(currentValues);
+    }
+
+    private void loadLiveValues(List<ControlledSetting> settings) throws Exception {
+        Client client = ElasticsearchTransportClient.instance(config).getTransportClient();
+        TimeValue callTimeout = ElasticsearchTransportClient.getCallTimeout(config);
+        MetaData metaData = null;
+
+        for (ControlledSetting setting : settings) {
+            List<String> values = new ArrayList<>();
+            if (setting.getIndices() == null) {
+                if (metaData == null) {
+                    // Only the cluster level settings are needed, the state is read once after becoming master
+                    metaData = client.admin().cluster().prepareState().clear().setMetaData(true).setLocal(true)
+                            .execute().actionGet(callTimeout).getState().metaData();
+                }
+                values.add(liveValue(setting.getKey(), metaData.persistentSettings(), metaData.transientSettings()));
+            } else {
+                GetSettingsResponse response = client.admin().indices()
+                        .prepareGetSettings(StringUtils.split(setting.getIndices(), ",")).setNames(setting.getKey())
+                        .execute().actionGet(callTimeout);
+                for (ObjectCursor<Settings> indexSettings : response.getIndexToSettings().values()) {
+                    values.add(indexSettings.value.get(setting.getKey()));
+                }
+            }
+
+            // Indices may differ, continue from the highest value
+            for (String value : values) {
+                if (value == null) {
+                    continue;
+                }
+                try {
+                    double parsed = setting.parse(value);
+                    if (!currentValues.containsKey(setting.getKey()) || parsed > currentValues.get(setting.getKey())) {
+                        currentValues.put(setting.getKey(), parsed);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Ignoring unparsable value [{}] of [{}]", value, setting.getKey(), e);
+                }
+            }
+        }
+    }
+
+    static String liveValue(String key, Settings persistentSettings, Settings transientSettings) {
+        String transientValue = transientSettings.get(key);
+        return transientValue != null ? transientValue : persistentSettings.get(key);
+    }
+
+    /**
+     * A dynamic cluster (or index) setting moved between operator-set bounds; equal bounds pin the setting
+     */
+    public static class ControlledSetting {
+        public enum Unit {
+            COUNT, MEGABYTES_PER_SEC
+        }
+
+        private final String key;
+        private final String indices;
+        private final Unit unit;
+        private final double min;
+        private final double max;
+
+        public ControlledSetting(String key, Unit unit, double min, double max) {
+            this(key, null, unit, min, max);
+        }
+
+        /**
+         * @param indices comma separated indices (or patterns) the index setting applies to
+         */
+        public ControlledSetting(String key, String indices, Unit unit, double min, double max) {
+            this.key = key;
+            this.indices = indices;
+            this.unit = unit;
+            this.min = Math.min(min, max);
+            this.max = Math.max(min, max);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return indices of an index setting, null for a cluster setting
+         */
+        public String getIndices() {
+            return indices;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        double clamp(double value) {
+            return Math.max(min, Math.min(max, value));
+        }
+
+        /**
+         * Counts move by at least one, so small values are not stuck by rounding
+         */
+        double next(double current, Decision decision, double raiseFactor, double cutFactor) {
+            double next;
+            switch (decision) {
+                case RAISE:
+                    next = Math.max(Math.floor(current * raiseFactor), current + 1);
+                    break;
+                case CUT:
+                    next = Math.min(Math.ceil(current * cutFactor), current - 1);
+                    break;
+                default:
+                    next = current;
+            }
+            return clamp(next);
+        }
+
+        double parse(String value) {
+            if (unit == Unit.MEGABYTES_PER_SEC) {
+                return ByteSizeValue.parseBytesSizeValue(value, key).getMbFrac();
+            }
+            return Double.parseDouble(value.trim());
+        }
+
+        String format(double value) {
+            long rounded = Math.round(value);
+            return unit == Unit.MEGABYTES_PER_SEC ? rounded + "mb" : String.valueOf(rounded);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.tuning;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.monitoring.DataNodeSignals;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.HttpModule;
+import org.elasticsearch.index.shard.MergeSchedulerConfig;
+import org.elasticsearch.indices.store.IndicesStore;
+
+import javax.management.MBeanServer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives merges more threads (and optionally more store throttle bandwidth) while they fall behind indexing,
+ * before Elasticsearch starts throttling indexing to a single thread.
+ * <p>
+ * Merges are falling behind when indexing is being throttled on any data node, or the number of running merges
+ * on any data node reaches the backpressure merge backlog threshold. Settings are raised only while that is the
+ * case and search latency and disk usage leave headroom, cut as soon as they do not, and go back to their
+ * lower bound after {@value #IDLE_RUNS} runs without merge pressure.
+ * <p>
+ * index.merge.scheduler.max_merge_count is pinned to the upper thread bound plus 5 (the Elasticsearch default
+ * distance), since the thread count must never exceed it.
+ * <p>
+ * indices.store.throttle.max_bytes_per_sec has no effect while indices.store.throttle.type is none, the Elasticsearch
+ * default. When the store throttle is controlled, the type is set to merge (transiently, along with every cluster
+ * settings update of this controller), which overrides a type of all set in elasticsearch.yml.
+ */
+@Singleton
+public class MergeThrottleController extends FeedbackSettingsController {
+    public static final String JOB_NAME = "MergeThrottleController";
+
+    public static final String MAX_THREAD_COUNT = MergeSchedulerConfig.MAX_THREAD_COUNT;
+    public static final String MAX_MERGE_COUNT = MergeSchedulerConfig.MAX_MERGE_COUNT;
+    public static final String STORE_THROTTLE_MAX_BYTES_PER_SEC = IndicesStore.INDICES_STORE_THROTTLE_MAX_BYTES_PER_SEC;
+    public static final String STORE_THROTTLE_TYPE = IndicesStore.INDICES_STORE_THROTTLE_TYPE;
+    static final String STORE_THROTTLE_TYPE_MERGE = "merge";
+
+    static final int IDLE_RUNS = 10;
+    private static final int MERGE_COUNT_OVER_THREAD_COUNT = 5;
+
+    private int idleRuns = IDLE_RUNS;
+
+    @Inject
+    public MergeThrottleController(IConfiguration config, HttpModule httpModule, ElasticsearchAsyncAdmin asyncAdmin) {
+        super(config, httpModule, asyncAdmin);
+    }
+
+    MergeThrottleController(IConfiguration config, MBeanServer mBeanServer) {
+        super(config, null, null, mBeanServer);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return config.isMergeControllerEnabled();
+    }
+
+    @Override
+    protected boolean isActive() {
+        idleRuns = isMergePressure() ? 0 : Math.min(IDLE_RUNS, idleRuns + 1);
+        return idleRuns < IDLE_RUNS;
+    }
+
+    @Override
+    protected Decision decide() {
+        return step(isOverloaded(), hasHeadroom() && isMergePressure());
+    }
+
+    private boolean isMergePressure() {
+        return isMergePressure(config, getNodeSignals().values());
+    }
+
+    /**
+     * @return true if indexing was throttled or the merge backlog reached its threshold on the worst of the nodes
+     */
+    static boolean isMergePressure(IConfiguration config, Collection<DataNodeSignals.NodeSignals> nodes) {
+        double maxIndexingThrottleRatio = 0;
+        long maxMergesCurrent = 0;
+        for (DataNodeSignals.NodeSignals node : nodes) {
+            maxIndexingThrottleRatio = Math.max(maxIndexingThrottleRatio, node.getIndexingThrottleRatio());
+            maxMergesCurrent = Math.max(maxMergesCurrent, node.getMergesCurrent());
+        }
+        return maxIndexingThrottleRatio > 0 || maxMergesCurrent >= config.getBackpressureMergeBacklogThreshold();
+    }
+
+    @Override
+    protected List<ControlledSetting> getControlledSettings() {
+        List<ControlledSetting> settings = new ArrayList<>();
+        int maxMergeCount = Math.max(config.getMergeControllerMinThreadCount(), config.getMergeControllerMaxThreadCount())
+                + MERGE_COUNT_OVER_THREAD_COUNT;
+
+        // The merge count goes first, so it is raised before any thread count that would exceed it
+        settings.add(new ControlledSetting(MAX_MERGE_COUNT, config.getMergeControllerIndices(), ControlledSetting.Unit.COUNT,
+                maxMergeCount, maxMergeCount));
+        settings.add(new ControlledSetting(MAX_THREAD_COUNT, config.getMergeControllerIndices(), ControlledSetting.Unit.COUNT,
+                config.getMergeControllerMinThreadCount(), config.getMergeControllerMaxThreadCount()));
+        if (config.isMergeControllerStoreThrottleEnabled()) {
+            settings.add(new ControlledSetting(STORE_THROTTLE_MAX_BYTES_PER_SEC, ControlledSetting.Unit.MEGABYTES_PER_SEC,
+                    config.getMergeControllerMinStoreThrottleInMb(), config.getMergeControllerMaxStoreThrottleInMb()));
+        }
+        return settings;
+    }
+
+    @Override
+    protected Map<String, String> getRequiredClusterSettings() {
+        if (!config.isMergeControllerStoreThrottleEnabled()) {
+            return Collections.emptyMap();
+        }
+        return Collections.singletonMap(STORE_THROTTLE_TYPE, STORE_THROTTLE_TYPE_MERGE);
+    }
+
+    public static TaskTimer getTimer(String name) {
+        return new SimpleTimer(name, 30 * 1000);
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.tuning;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.monitoring.DataNodeSignals;
+import com.netflix.raigad.monitoring.RecoveryMonitor;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchAsyncAdmin;
+import com.netflix.raigad.utils.HttpModule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adjusts recovery bandwidth and the number of concurrent recoveries per node while recoveries run:
+ * faster while search latency and disk usage leave headroom, slower as soon as they degrade.
+ * Search latency and disk usage are watched on the nodes taking part in a recovery, as source or target; the whole cluster if
+ * none of them is known yet. Both settings go back to their lower bound once the recovery monitor sees no
+ * recovery in progress.
+ */
+@Singleton
+public class RecoveryThrottleController extends FeedbackSettingsController {
+    public static final String JOB_NAME = "RecoveryThrottleController";
+
+    public static final String RECOVERY_MAX_BYTES_PER_SEC = "indices.recovery.max_bytes_per_sec";
+    public static final String NODE_CONCURRENT_RECOVERIES = "cluster.routing.allocation.node_concurrent_recoveries";
+
+    private final RecoveryMonitor recoveryMonitor;
+
+    @Inject
+    public RecoveryThrottleController(IConfiguration config, HttpModule httpModule, ElasticsearchAsyncAdmin asyncAdmin,
+                                      RecoveryMonitor recoveryMonitor) {
+        super(config, httpModule, asyncAdmin);
+        this.recoveryMonitor = recoveryMonitor;
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return config.isRecoveryControllerEnabled();
+    }
+
+    @Override
+    protected boolean isActive() {
+        return recoveryMonitor.getClusterActiveRecoveries() > 0;
+    }
+
+    @Override
+    protected Collection<DataNodeSignals.NodeSignals> getWatchedNodes() {
+        return recoveringNodes(getNodeSignals(), recoveryMonitor.getActiveRecoveryNodeIds());
+    }
+
+    /**
+     * @return signals of the recovering nodes, of every node if none of them has signals
+     */
+    static Collection<DataNodeSignals.NodeSignals> recoveringNodes(Map<String, DataNodeSignals.NodeSignals> nodeSignals,
+                                                                   Set<String> recoveringNodeIds) {
+        List<DataNodeSignals.NodeSignals> recoveringNodes = new ArrayList<>();
+        for (String nodeId : recoveringNodeIds) {
+            if (nodeSignals.containsKey(nodeId)) {
+                recoveringNodes.add(nodeSignals.get(nodeId));
+            }
+        }
+        return recoveringNodes.isEmpty() ? nodeSignals.values() : recoveringNodes;
+    }
+
+    @Override
+    protected List<ControlledSetting> getControlledSettings() {
+        return Arrays.asList(
+                new ControlledSetting(RECOVERY_MAX_BYTES_PER_SEC, ControlledSetting.Unit.MEGABYTES_PER_SEC,
+                        config.getRecoveryControllerMinBytesPerSecInMb(), config.getRecoveryControllerMaxBytesPerSecInMb()),
+                new ControlledSetting(NODE_CONCURRENT_RECOVERIES, ControlledSetting.Unit.COUNT,
+                        config.getRecoveryControllerMinConcurrentRecoveries(), config.getRecoveryControllerMaxConcurrentRecoveries()));
+    }
+
+    public static TaskTimer getTimer(String name) {
+        return new SimpleTimer(name, 30 * 1000);
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+}
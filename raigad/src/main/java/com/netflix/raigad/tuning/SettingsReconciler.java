@@ -0,0 +1,439 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.tuning;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.SimpleTimer;
+import com.netflix.raigad.scheduler.Task;
+import com.netflix.raigad.scheduler.TaskTimer;
+import com.netflix.raigad.utils.ElasticsearchProcessMonitor;
+import com.netflix.raigad.utils.ElasticsearchTransportClient;
+import com.netflix.raigad.utils.ElasticsearchUtils;
+import com.netflix.raigad.utils.HttpModule;
+import org.apache.commons.lang.StringUtils;
+import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsRequestBuilder;
+import org.elasticsearch.action.admin.cluster.state.ClusterStateResponse;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.settings.Settings;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes dynamic cluster and index settings to the live cluster without rewriting elasticsearch.yml.
+ * <p>
+ * Desired settings are the active tuning profile overlaid with the settings configured in
+ * Raigad.es.dynamic.cluster.settings and Raigad.es.dynamic.index.settings (comma separated key=value pairs).
+ * Only settings whose live value differs are updated. Every difference is written to the audit log,
+ * in dry-run mode nothing else happens. Runs on the elected master only.
+ * <p>
+ * Static index settings (see {@link TuningProfile#isDynamicIndexSetting(String)}) cannot be changed on open
+ * indices, they are left to the index template and never reported as differences. Cluster settings and every
+ * group of indices are updated with separate requests, a failing request does not stop the others: each
+ * difference tells whether it was applied, so a partial update is visible in the audit log and the REST response.
+ */
+@Singleton
+public class SettingsReconciler extends Task {
+    private static final Logger logger = LoggerFactory.getLogger(SettingsReconciler.class);
+    private static final Logger auditLogger = LoggerFactory.getLogger(SettingsReconciler.class.getName() + ".audit");
+
+    public static final String JOB_NAME = "SettingsReconciler";
+
+    private static final String COMMA_SEPARATOR = ",";
+    private static final String PARAM_SEPARATOR = "=";
+    private static final String INDEX_SETTING_PREFIX = "index.";
+
+    private final HttpModule httpModule;
+    private final TuningProfileManager tuningProfileManager;
+
+    @Inject
+    public SettingsReconciler(IConfiguration config, HttpModule httpModule, TuningProfileManager tuningProfileManager) {
+        this(config, httpModule, tuningProfileManager, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    SettingsReconciler(IConfiguration config, HttpModule httpModule, TuningProfileManager tuningProfileManager,
+                       MBeanServer mBeanServer) {
+        super(config, mBeanServer);
+        this.httpModule = httpModule;
+        this.tuningProfileManager = tuningProfileManager;
+    }
+
+    @Override
+    public void execute() {
+        try {
+            if (!config.isSettingsReconcilerEnabled()) {
+                return;
+            }
+
+            if (!ElasticsearchProcessMonitor.isElasticsearchRunning()) {
+                logger.info("Elasticsearch is not yet started, not reconciling settings yet");
+                return;
+            }
+
+            if (!ElasticsearchUtils.amIMasterNode(config, httpModule)) {
+                return;
+            }
+
+            reconcile(config.isSettingsReconcilerDryRun());
+        } catch (Exception e) {
+            logger.warn("Exception while reconciling dynamic settings", e);
+        }
+    }
+
+    /**
+     * Compares desired and live settings and applies the differences unless dry-run is requested
+     *
+     * @return differences found between desired and live settings
+     */
+    public synchronized List<SettingChange> reconcile(boolean dryRun) throws Exception {
+        Client client = ElasticsearchTransportClient.instance(config).getTransportClient();
+
+        ClusterStateResponse clusterStateResponse = client.admin().cluster().prepareState()
+                .setMetaData(true).setRoutingTable(false).setNodes(false).setBlocks(false)
+                .execute().actionGet(ElasticsearchTransportClient.getCallTimeout(config));
+        MetaData metaData = clusterStateResponse.getState().metaData();
+
+        List<SettingChange> changes = new ArrayList<>();
+        changes.addAll(diffClusterSettings(getDesiredClusterSettings(), metaData.persistentSettings(), metaData.transientSettings()));
+
+        Map<String, String> desiredIndexSettings = getDesiredIndexSettings();
+        if (!desiredIndexSettings.isEmpty()) {
+            String[] indices = StringUtils.split(config.getDynamicIndexSettingsIndices(), COMMA_SEPARATOR);
+            GetSettingsResponse getSettingsResponse = client.admin().indices().prepareGetSettings(indices)
+                    .execute().actionGet(ElasticsearchTransportClient.getCallTimeout(config));
+            changes.addAll(diffIndexSettings(desiredIndexSettings, getSettingsResponse.getIndexToSettings()));
+        }
+
+        for (SettingChange change : changes) {
+            auditLogger.info("{}{}", dryRun ? "[dry-run] " : "", change);
+        }
+
+        if (dryRun || changes.isEmpty()) {
+            logger.info("Settings reconciliation found {} difference(s){}", changes.size(), dryRun ? " (dry-run)" : "");
+            return changes;
+        }
+
+        apply(client, changes);
+
+        int applied = 0;
+        for (SettingChange change : changes) {
+            if (change.isApplied()) {
+                applied++;
+            } else {
+                auditLogger.warn("Not applied: {}", change);
+            }
+        }
+        if (applied < changes.size()) {
+            logger.warn("Settings reconciliation applied {} of {} difference(s)", applied, changes.size());
+        } else {
+            logger.info("Settings reconciliation applied {} difference(s)", applied);
+        }
+        return changes;
+    }
+
+    /**
+     * Marks the changes whose update request was acknowledged as applied
+     */
+    private void apply(Client client, List<SettingChange> changes) {
+        Map<String, String> persistentSettings = new LinkedHashMap<>();
+        Map<String, String> transientSettings = new LinkedHashMap<>();
+        List<SettingChange> clusterChanges = new ArrayList<>();
+        Map<String, Map<String, String>> indexSettings = new LinkedHashMap<>();
+
+        for (SettingChange change : changes) {
+            if (change.getScope() == SettingChange.Scope.PERSISTENT) {
+                persistentSettings.put(change.getKey(), change.getDesiredValue());
+                clusterChanges.add(change);
+            } else if (change.getScope() == SettingChange.Scope.TRANSIENT) {
+                transientSettings.put(change.getKey(), change.getDesiredValue());
+                clusterChanges.add(change);
+            } else {
+                Map<String, String> settings = indexSettings.get(change.getTarget());
+                if (settings == null) {
+                    settings = new LinkedHashMap<>();
+                    indexSettings.put(change.getTarget(), settings);
+                }
+                settings.put(change.getKey(), change.getDesiredValue());
+            }
+        }
+
+        if (!persistentSettings.isEmpty() || !transientSettings.isEmpty()) {
+            ClusterUpdateSettingsRequestBuilder requestBuilder = client.admin().cluster().prepareUpdateSettings();
+            if (!persistentSettings.isEmpty()) {
+                requestBuilder.setPersistentSettings(Settings.settingsBuilder().put(persistentSettings).build());
+            }
+            if (!transientSettings.isEmpty()) {
+                requestBuilder.setTransientSettings(Settings.settingsBuilder().put(transientSettings).build());
+            }
+            try {
+                if (requestBuilder.execute().actionGet(ElasticsearchTransportClient.getCallTimeout(config)).isAcknowledged()) {
+                    markApplied(clusterChanges, SettingChange.CLUSTER_TARGET);
+                } else {
+                    logger.warn("Cluster settings update was not acknowledged");
+                }
+            } catch (Exception e) {
+                logger.warn("Cluster settings update failed", e);
+            }
+        }
+
+        // Indices needing the very same update are updated with a single request
+        Map<Map<String, String>, List<String>> indicesBySettings = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : indexSettings.entrySet()) {
+            List<String> indices = indicesBySettings.get(entry.getValue());
+            if (indices == null) {
+                indices = new ArrayList<>();
+                indicesBySettings.put(entry.getValue(), indices);
+            }
+            indices.add(entry.getKey());
+        }
+
+        for (Map.Entry<Map<String, String>, List<String>> entry : indicesBySettings.entrySet()) {
+            try {
+                boolean acknowledged = client.admin().indices()
+                        .prepareUpdateSettings(entry.getValue().toArray(new String[entry.getValue().size()]))
+                        .setSettings(Settings.settingsBuilder().put(entry.getKey()).build())
+                        .execute().actionGet(ElasticsearchTransportClient.getCallTimeout(config)).isAcknowledged();
+                if (acknowledged) {
+                    for (String index : entry.getValue()) {
+                        markApplied(changes, index);
+                    }
+                } else {
+                    logger.warn("Index settings update for {} was not acknowledged", entry.getValue());
+                }
+            } catch (Exception e) {
+                logger.warn("Index settings update for " + entry.getValue() + " failed", e);
+            }
+        }
+    }
+
+    private static void markApplied(List<SettingChange> changes, String target) {
+        for (SettingChange change : changes) {
+            if (change.getTarget().equals(target)) {
+                change.applied = true;
+            }
+        }
+    }
+
+    public Map<String, String> getDesiredClusterSettings() {
+        Map<String, String> desired = new LinkedHashMap<>();
+        TuningProfile profile = tuningProfileManager.getActiveProfile();
+        if (profile != null) {
+            desired.putAll(profile.getThreadPoolSettings());
+        }
+        desired.putAll(parseSettings(config.getDynamicClusterSettings(), null));
+
+        // Settings owned by a controller would be reverted on every reconciliation
+        if (config.isRecoveryControllerEnabled()) {
+            desired.remove(RecoveryThrottleController.RECOVERY_MAX_BYTES_PER_SEC);
+            desired.remove(RecoveryThrottleController.NODE_CONCURRENT_RECOVERIES);
+        }
+        if (config.isMergeControllerEnabled() && config.isMergeControllerStoreThrottleEnabled()) {
+            desired.remove(MergeThrottleController.STORE_THROTTLE_MAX_BYTES_PER_SEC);
+            desired.remove(MergeThrottleController.STORE_THROTTLE_TYPE);
+        }
+        return desired;
+    }
+
+    public Map<String, String> getDesiredIndexSettings() {
+        Map<String, String> desired = new LinkedHashMap<>();
+        TuningProfile profile = tuningProfileManager.getActiveProfile();
+        if (profile != null) {
+            desired.putAll(profile.getDynamicIndexSettings());
+        }
+        for (Map.Entry<String, String> setting : parseSettings(config.getDynamicIndexSettings(), INDEX_SETTING_PREFIX).entrySet()) {
+            if (TuningProfile.isDynamicIndexSetting(setting.getKey())) {
+                desired.put(setting.getKey(), setting.getValue());
+            } else {
+                logger.error("Skipping static index setting [{}], it cannot be updated on open indices", setting.getKey());
+            }
+        }
+
+        if (config.isMergeControllerEnabled()) {
+            desired.remove(MergeThrottleController.MAX_THREAD_COUNT);
+            desired.remove(MergeThrottleController.MAX_MERGE_COUNT);
+        }
+        return desired;
+    }
+
+    /**
+     * Parses comma separated key=value pairs, prepending the given prefix to keys missing it
+     */
+    static Map<String, String> parseSettings(String commaSeparatedSettings, String keyPrefix) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        if (StringUtils.isBlank(commaSeparatedSettings)) {
+            return settings;
+        }
+
+        for (String pair : StringUtils.split(commaSeparatedSettings, COMMA_SEPARATOR)) {
+            String[] keyValue = pair.split(PARAM_SEPARATOR, 2);
+            if (keyValue.length != 2 || StringUtils.isBlank(keyValue[0]) || StringUtils.isBlank(keyValue[1])) {
+                logger.error("Skipping malformed setting [{}]", pair);
+                continue;
+            }
+
+            String key = keyValue[0].trim();
+            if (keyPrefix != null && !key.startsWith(keyPrefix)) {
+                key = keyPrefix + key;
+            }
+            settings.put(key, keyValue[1].trim());
+        }
+
+        return settings;
+    }
+
+    /**
+     * Transient settings take precedence over persistent ones, so a differing setting that is currently
+     * set transiently has to be updated there as well to take effect.
+     */
+    static List<SettingChange> diffClusterSettings(Map<String, String> desired, Settings persistentSettings, Settings transientSettings) {
+        List<SettingChange> changes = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : desired.entrySet()) {
+            String key = entry.getKey();
+            String transientValue = transientSettings.get(key);
+            String liveValue = transientValue != null ? transientValue : persistentSettings.get(key);
+
+            if (sameValue(liveValue, entry.getValue())) {
+                continue;
+            }
+
+            changes.add(new SettingChange(SettingChange.Scope.PERSISTENT, SettingChange.CLUSTER_TARGET, key,
+                    persistentSettings.get(key), entry.getValue()));
+            if (transientValue != null) {
+                changes.add(new SettingChange(SettingChange.Scope.TRANSIENT, SettingChange.CLUSTER_TARGET, key,
+                        transientValue, entry.getValue()));
+            }
+        }
+
+        return changes;
+    }
+
+    static List<SettingChange> diffIndexSettings(Map<String, String> desired, ImmutableOpenMap<String, Settings> liveIndexSettings) {
+        List<SettingChange> changes = new ArrayList<>();
+
+        Iterator<String> indices = liveIndexSettings.keysIt();
+        while (indices.hasNext()) {
+            String index = indices.next();
+            Settings settings = liveIndexSettings.get(index);
+
+            for (Map.Entry<String, String> entry : desired.entrySet()) {
+                String liveValue = settings.get(entry.getKey());
+                if (!sameValue(liveValue, entry.getValue())) {
+                    changes.add(new SettingChange(SettingChange.Scope.INDEX, index, entry.getKey(), liveValue, entry.getValue()));
+                }
+            }
+        }
+
+        return changes;
+    }
+
+    private static boolean sameValue(String liveValue, String desiredValue) {
+        return liveValue != null && liveValue.trim().equalsIgnoreCase(desiredValue.trim());
+    }
+
+    public static TaskTimer getTimer(IConfiguration config) {
+        return new SimpleTimer(JOB_NAME, config.getSettingsReconcilerIntervalInSeconds() * 1000L);
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * A single difference between a desired and a live setting
+     */
+    public static class SettingChange {
+        public static final String CLUSTER_TARGET = "_cluster";
+
+        public enum Scope {
+            PERSISTENT, TRANSIENT, INDEX
+        }
+
+        private final Scope scope;
+        private final String target;
+        private final String key;
+        private final String liveValue;
+        private final String desiredValue;
+        private volatile boolean applied;
+
+        public SettingChange(Scope scope, String target, String key, String liveValue, String desiredValue) {
+            this.scope = scope;
+            this.target = target;
+            this.key = key;
+            this.liveValue = liveValue;
+            this.desiredValue = desiredValue;
+        }
+
+        public Scope getScope() {
+            return scope;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getLiveValue() {
+            return liveValue;
+        }
+
+        public String getDesiredValue() {
+            return desiredValue;
+        }
+
+        /**
+         * @return true once the live setting has been updated, never in dry-run mode
+         */
+        public boolean isApplied() {
+            return applied;
+        }
+
+        @SuppressWarnings("unchecked")
+        public JSONObject toJson() {
+            JSONObject object = new JSONObject();
+            object.put("scope", scope.name().toLowerCase());
+            object.put("target", target);
+            object.put("key", key);
+            object.put("live", liveValue);
+            object.put("desired", desiredValue);
+            object.put("applied", applied);
+            return object;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s setting [%s] on [%s]: [%s] -> [%s]",
+                    scope.name().toLowerCase(), key, target, liveValue, desiredValue);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.tuning;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Workload-aware tuning profiles.
+ * <p>
+ * Each profile carries index level defaults (refresh, translog, merge policy) and
+ * thread pool queue sizes; the number of threads of each pool is left to Elasticsearch.
+ * Index settings are written to elasticsearch.yml by the tuner and to the index template, so they apply
+ * to indices when they are created. Only the dynamic ones (see {@link #getDynamicIndexSettings()}) can be
+ * pushed to live indices: index.translog.sync_interval is fixed once an index is created.
+ * Thread pool queue sizes are dynamic cluster settings.
+ * <p>
+ * BULK_INGEST trades freshness and durability for indexing throughput (log clusters),
+ * SEARCH_LATENCY keeps searches fresh and segments few (user-facing clusters),
+ * BALANCED sits in between.
+ */
+public enum TuningProfile {
+    BULK_INGEST("bulk-ingest", true) {
+        @Override
+        protected void addIndexSettings(Map<String, String> settings) {
+            settings.put(INDEX_REFRESH_INTERVAL, "30s");
+            settings.put(INDEX_TRANSLOG_DURABILITY, "async");
+            settings.put(INDEX_TRANSLOG_SYNC_INTERVAL, "15s");
+            settings.put(INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE, "1gb");
+            settings.put(INDEX_MERGE_SEGMENTS_PER_TIER, "20");
+            settings.put(INDEX_MERGE_MAX_MERGE_AT_ONCE, "20");
+            settings.put(INDEX_MERGE_MAX_MERGED_SEGMENT, "5gb");
+        }
+
+        @Override
+        protected void addThreadPoolSettings(Map<String, String> settings) {
+            settings.put(THREADPOOL_BULK_QUEUE_SIZE, "500");
+            settings.put(THREADPOOL_INDEX_QUEUE_SIZE, "500");
+            settings.put(THREADPOOL_SEARCH_QUEUE_SIZE, "1000");
+        }
+    },
+
+    SEARCH_LATENCY("search-latency", false) {
+        @Override
+        protected void addIndexSettings(Map<String, String> settings) {
+            settings.put(INDEX_REFRESH_INTERVAL, "1s");
+            settings.put(INDEX_TRANSLOG_DURABILITY, "request");
+            settings.put(INDEX_TRANSLOG_SYNC_INTERVAL, "5s");
+            settings.put(INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE, "512mb");
+            settings.put(INDEX_MERGE_SEGMENTS_PER_TIER, "5");
+            settings.put(INDEX_MERGE_MAX_MERGE_AT_ONCE, "5");
+            settings.put(INDEX_MERGE_MAX_MERGED_SEGMENT, "5gb");
+        }
+
+        @Override
+        protected void addThreadPoolSettings(Map<String, String> settings) {
+            settings.put(THREADPOOL_BULK_QUEUE_SIZE, "50");
+            settings.put(THREADPOOL_INDEX_QUEUE_SIZE, "200");
+            settings.put(THREADPOOL_SEARCH_QUEUE_SIZE, "2000");
+        }
+    },
+
+    BALANCED("balanced", false) {
+        @Override
+        protected void addIndexSettings(Map<String, String> settings) {
+            settings.put(INDEX_REFRESH_INTERVAL, "5s");
+            settings.put(INDEX_TRANSLOG_DURABILITY, "request");
+            settings.put(INDEX_TRANSLOG_SYNC_INTERVAL, "5s");
+            settings.put(INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE, "512mb");
+            settings.put(INDEX_MERGE_SEGMENTS_PER_TIER, "10");
+            settings.put(INDEX_MERGE_MAX_MERGE_AT_ONCE, "10");
+            settings.put(INDEX_MERGE_MAX_MERGED_SEGMENT, "5gb");
+        }
+
+        @Override
+        protected void addThreadPoolSettings(Map<String, String> settings) {
+            settings.put(THREADPOOL_BULK_QUEUE_SIZE, "200");
+            settings.put(THREADPOOL_INDEX_QUEUE_SIZE, "200");
+            settings.put(THREADPOOL_SEARCH_QUEUE_SIZE, "1000");
+        }
+    };
+
+    public static final String INDEX_REFRESH_INTERVAL = "index.refresh_interval";
+    public static final String INDEX_NUMBER_OF_REPLICAS = "index.number_of_replicas";
+    public static final String INDEX_TRANSLOG_DURABILITY = "index.translog.durability";
+    public static final String INDEX_TRANSLOG_SYNC_INTERVAL = "index.translog.sync_interval";
+    public static final String INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE = "index.translog.flush_threshold_size";
+    public static final String INDEX_MERGE_SEGMENTS_PER_TIER = "index.merge.policy.segments_per_tier";
+    public static final String INDEX_MERGE_MAX_MERGE_AT_ONCE = "index.merge.policy.max_merge_at_once";
+    public static final String INDEX_MERGE_MAX_MERGED_SEGMENT = "index.merge.policy.max_merged_segment";
+    public static final String THREADPOOL_BULK_QUEUE_SIZE = "threadpool.bulk.queue_size";
+    public static final String THREADPOOL_INDEX_QUEUE_SIZE = "threadpool.index.queue_size";
+    public static final String THREADPOOL_SEARCH_QUEUE_SIZE = "threadpool.search.queue_size";
+
+    /**
+     * Index settings of the profiles Elasticsearch only reads when an index is created
+     */
+    static final Set<String> STATIC_INDEX_SETTINGS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            INDEX_TRANSLOG_SYNC_INTERVAL)));
+
+    private final String profileName;
+    private final boolean bulkLoad;
+
+    TuningProfile(String profileName, boolean bulkLoad) {
+        this.profileName = profileName;
+        this.bulkLoad = bulkLoad;
+    }
+
+    protected abstract void addIndexSettings(Map<String, String> settings);
+
+    protected abstract void addThreadPoolSettings(Map<String, String> settings);
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * @return true if indices should run with the reduced bulk load replica count while this profile is active
+     */
+    public boolean isBulkLoad() {
+        return bulkLoad;
+    }
+
+    /**
+     * Index level settings of this profile, keyed by their fully qualified (index.*) name
+     */
+    public Map<String, String> getIndexSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        addIndexSettings(settings);
+        return Collections.unmodifiableMap(settings);
+    }
+
+    /**
+     * Index level settings of this profile that can be updated on live indices
+     */
+    public Map<String, String> getDynamicIndexSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (Map.Entry<String, String> setting : getIndexSettings().entrySet()) {
+            if (isDynamicIndexSetting(setting.getKey())) {
+                settings.put(setting.getKey(), setting.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(settings);
+    }
+
+    public static boolean isDynamicIndexSetting(String key) {
+        return !STATIC_INDEX_SETTINGS.contains(key);
+    }
+
+    /**
+     * Thread pool queue sizes of this profile, keyed by their fully qualified (threadpool.*) name
+     */
+    public Map<String, String> getThreadPoolSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        addThreadPoolSettings(settings);
+        return Collections.unmodifiableMap(settings);
+    }
+
+    /**
+     * @return profile matching the given name (e.g. "bulk-ingest"), or null if the name is blank
+     * @throws IllegalArgumentException if the name does not match any profile
+     */
+    public static TuningProfile fromName(String name) {
+        if (StringUtils.isBlank(name)) {
+            return null;
+        }
+
+        for (TuningProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(name.trim()) || profile.name().equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown tuning profile [" + name + "]");
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.tuning;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.utils.ElasticsearchTransportClient;
+import org.apache.commons.lang.StringUtils;
+import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsResponse;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsResponse;
+import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Switches a running cluster between tuning profiles.
+ * <p>
+ * Dynamic index settings of the profile are pushed to the configured indices, and all of its index settings
+ * to a low order index template, so indices created after the switch come up with the whole profile. Static
+ * settings of indices that already exist keep their values. Thread pool queue sizes are pushed as persistent
+ * cluster settings. Replicas are lowered when entering a bulk load profile and restored
+ * to the configured replica count when leaving it.
+ */
+@Singleton
+public class TuningProfileManager {
+    private static final Logger logger = LoggerFactory.getLogger(TuningProfileManager.class);
+
+    public static final String TUNING_PROFILE_TEMPLATE_NAME = "raigad_tuning_profile";
+    private static final int TUNING_PROFILE_TEMPLATE_ORDER = -1;
+    private static final String COMMA_SEPARATOR = ",";
+
+    private final IConfiguration config;
+    private final AtomicReference<TuningProfile> activeProfile = new AtomicReference<>();
+
+    @Inject
+    public TuningProfileManager(IConfiguration config) {
+        this.config = config;
+
+        try {
+            activeProfile.set(TuningProfile.fromName(config.getTuningProfile()));
+        } catch (IllegalArgumentException e) {
+            logger.error("Ignoring configured tuning profile: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return profile currently in effect, null if the cluster runs with legacy tuning
+     */
+    public TuningProfile getActiveProfile() {
+        return activeProfile.get();
+    }
+
+    public synchronized void switchProfile(TuningProfile profile) throws Exception {
+        TuningProfile previousProfile = activeProfile.get();
+        logger.info("Switching tuning profile from [{}] to [{}]",
+                previousProfile == null ? "none" : previousProfile.getProfileName(), profile.getProfileName());
+
+        Client client = ElasticsearchTransportClient.instance(config).getTransportClient();
+
+        String[] indices = StringUtils.split(config.getTuningProfileIndices(), COMMA_SEPARATOR);
+        UpdateSettingsResponse updateSettingsResponse = client.admin().indices()
+                .prepareUpdateSettings(indices)
+                .setSettings(Settings.settingsBuilder().put(liveIndexSettings(config, profile, previousProfile)).build())
+                .execute().actionGet();
+        if (!updateSettingsResponse.isAcknowledged()) {
+            logger.warn("Index settings update for profile [{}] was not acknowledged", profile.getProfileName());
+        }
+
+        PutIndexTemplateResponse putIndexTemplateResponse = client.admin().indices()
+                .preparePutTemplate(TUNING_PROFILE_TEMPLATE_NAME)
+                .setTemplate("*")
+                .setOrder(TUNING_PROFILE_TEMPLATE_ORDER)
+                .setSettings(Settings.settingsBuilder().put(templateSettings(config, profile, previousProfile)).build())
+                .execute().actionGet();
+        if (!putIndexTemplateResponse.isAcknowledged()) {
+            logger.warn("Index template update for profile [{}] was not acknowledged", profile.getProfileName());
+        }
+
+        ClusterUpdateSettingsResponse clusterUpdateSettingsResponse = client.admin().cluster()
+                .prepareUpdateSettings()
+                .setPersistentSettings(Settings.settingsBuilder().put(profile.getThreadPoolSettings()).build())
+                .execute().actionGet();
+        if (!clusterUpdateSettingsResponse.isAcknowledged()) {
+            logger.warn("Thread pool settings update for profile [{}] was not acknowledged", profile.getProfileName());
+        }
+
+        activeProfile.set(profile);
+        logger.info("Tuning profile [{}] is now active", profile.getProfileName());
+    }
+
+    /**
+     * @return index settings to update on the existing indices, dynamic ones only
+     */
+    static Map<String, String> liveIndexSettings(IConfiguration config, TuningProfile profile, TuningProfile previousProfile) {
+        Map<String, String> indexSettings = new LinkedHashMap<>(profile.getDynamicIndexSettings());
+        putReplicas(indexSettings, config, profile, previousProfile);
+        return indexSettings;
+    }
+
+    /**
+     * @return index settings for indices created from now on, static ones included
+     */
+    static Map<String, String> templateSettings(IConfiguration config, TuningProfile profile, TuningProfile previousProfile) {
+        Map<String, String> indexSettings = new LinkedHashMap<>(profile.getIndexSettings());
+        putReplicas(indexSettings, config, profile, previousProfile);
+        return indexSettings;
+    }
+
+    private static void putReplicas(Map<String, String> indexSettings, IConfiguration config, TuningProfile profile,
+                                    TuningProfile previousProfile) {
+        if (profile.isBulkLoad()) {
+            indexSettings.put(TuningProfile.INDEX_NUMBER_OF_REPLICAS, String.valueOf(config.getTuningBulkLoadReplicas()));
+        } else if (previousProfile != null && previousProfile.isBulkLoad()) {
+            indexSettings.put(TuningProfile.INDEX_NUMBER_OF_REPLICAS, String.valueOf(config.getNumOfReplicas()));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.utils;
+
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for calls to the local Elasticsearch node (not to be confused with Elasticsearch's own
+ * memory circuit breakers).
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls fail fast for
+ * {@code openMillis}. After that a single trial call is let through (half open): success closes the circuit,
+ * failure opens it again for another period.
+ */
+public class ConnectionCircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Ticker ticker;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private long timesOpened;
+
+    public ConnectionCircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, Ticker.systemTicker());
+    }
+
+    ConnectionCircuitBreaker(int failureThreshold, long openMillis, Ticker ticker) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.ticker = ticker;
+    }
+
+    /**
+     * @return false if the call should fail fast
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            default:
+                // While half open, a trial call is in flight; let another one through if it never reported back
+                long now = ticker.read();
+                if (now - openedAtNanos >= openNanos) {
+                    state = State.HALF_OPEN;
+                    openedAtNanos = now;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAtNanos = ticker.read();
+            timesOpened++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+}
@@ -0,0 +1,332 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.raigad.utils;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.netflix.raigad.configuration.IConfiguration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.elasticsearch.action.admin.cluster.node.hotthreads.NodesHotThreadsRequestBuilder;
+import org.elasticsearch.action.admin.cluster.node.hotthreads.NodesHotThreadsResponse;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoRequestBuilder;
+import org.elasticsearch.action.admin.cluster.node.info.NodesInfoResponse;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequestBuilder;
+import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
+import org.elasticsearch.action.admin.cluster.repositories.put.PutRepositoryResponse;
+import org.elasticsearch.action.admin.cluster.settings.ClusterUpdateSettingsResponse;
+import org.elasticsearch.action.admin.cluster.snapshots.create.CreateSnapshotResponse;
+import org.elasticsearch.action.admin.cluster.snapshots.restore.RestoreSnapshotResponse;
+import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
+import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
+import org.elasticsearch.action.admin.indices.recovery.RecoveryResponse;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsResponse;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequestBuilder;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Non-blocking facade over the admin operations Raigad runs against the local node.
+ * <p>
+ * Every operation returns a CompletableFuture completed from the transport client's ActionListener, so no thread
+ * waits while a request is in flight and independent requests can be issued together and combined.
+ * Futures fail with {@link ElasticsearchTimeoutException} when the call deadline passes, and with
+ * {@link ElasticsearchTransportClientConnectionException} when there is no usable client.
+ * <p>
+ * Futures complete on transport threads: keep dependent stages short, or move heavy work to an executor
+ * with the *Async variants.
+ */
+@Singleton
+public class ElasticsearchAsyncAdmin {
+    private static final ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ElasticsearchAsyncAdmin-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    static {
+        // Calls that complete drop their deadline right away instead of keeping it queued until it expires
+        deadlines.setRemoveOnCancelPolicy(true);
+    }
+
+    private final IConfiguration config;
+
+    @Inject
+    public ElasticsearchAsyncAdmin(IConfiguration config) {
+        this.config = config;
+    }
+
+    public CompletableFuture<NodesStatsResponse> nodesStats(final String... nodeIds) {
+        return withClient(new Function<Client, CompletableFuture<NodesStatsResponse>>() {
+            @Override
+            public CompletableFuture<NodesStatsResponse> apply(Client client) {
+                return execute(client.admin().cluster().prepareNodesStats(nodeIds).all());
+            }
+        });
+    }
+
+    /**
+     * @param flags configures which statistics to load, e.g. {@code clear().setBreaker(true)}
+     */
+    public CompletableFuture<NodesStatsResponse> nodesStats(final Function<NodesStatsRequestBuilder, NodesStatsRequestBuilder> flags, final String... nodeIds) {
+        return withClient(new Function<Client, CompletableFuture<NodesStatsResponse>>() {
+            @Override
+            public CompletableFuture<NodesStatsResponse> apply(Client client) {
+                return execute(flags.apply(client.admin().cluster().prepareNodesStats(nodeIds)));
+            }
+        });
+    }
+
+    public CompletableFuture<NodesInfoResponse> nodesInfo(final String... nodeIds) {
+        return withClient(new Function<Client, CompletableFuture<NodesInfoResponse>>() {
+            @Override
+            public CompletableFuture<NodesInfoResponse> apply(Client client) {
+                return execute(client.admin().cluster().prepareNodesInfo(nodeIds).clear());
+            }
+        });
+    }
+
+    /**
+     * @param flags configures which information to load on top of the node itself, e.g. {@code setThreadPool(true)}
+     */
+    public CompletableFuture<NodesInfoResponse> nodesInfo(final Function<NodesInfoRequestBuilder, NodesInfoRequestBuilder> flags, final String... nodeIds) {
+        return withClient(new Function<Client, CompletableFuture<NodesInfoResponse>>() {
+            @Override
+            public CompletableFuture<NodesInfoResponse> apply(Client client) {
+                return execute(flags.apply(client.admin().cluster().prepareNodesInfo(nodeIds).clear()));
+            }
+        });
+    }
+
+    /**
+     * @param flags configures which statistics to load, e.g. {@code clear().setIndexing(true)}; null for the defaults
+     */
+    public CompletableFuture<IndicesStatsResponse> indicesStats(final Function<IndicesStatsRequestBuilder, IndicesStatsRequestBuilder> flags, final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<IndicesStatsResponse>>() {
+            @Override
+            public CompletableFuture<IndicesStatsResponse> apply(Client client) {
+                IndicesStatsRequestBuilder builder = client.admin().indices().prepareStats(indices);
+                return execute(flags == null ? builder : flags.apply(builder));
+            }
+        });
+    }
+
+    /**
+     * @param interval time over which thread CPU usage is measured, added to the call deadline along with the snapshots
+     */
+    public CompletableFuture<NodesHotThreadsResponse> hotThreads(final int threads, final int snapshots, final TimeValue interval,
+                                                                 final String... nodeIds) {
+        return withClient(new Function<Client, CompletableFuture<NodesHotThreadsResponse>>() {
+            @Override
+            public CompletableFuture<NodesHotThreadsResponse> apply(Client client) {
+                NodesHotThreadsRequestBuilder builder = client.admin().cluster().prepareNodesHotThreads(nodeIds)
+                        .setThreads(threads).setInterval(interval).setIgnoreIdleThreads(true);
+                builder.request().snapshots(snapshots);
+
+                // Elasticsearch takes the stack snapshots 10ms apart once the interval is over
+                long captureMillis = interval.millis() + snapshots * 10L;
+                return execute(builder, TimeValue.timeValueMillis(ElasticsearchTransportClient.getCallTimeout(config).millis() + captureMillis));
+            }
+        });
+    }
+
+    public CompletableFuture<ClusterHealthResponse> clusterHealth(final TimeValue masterNodeTimeout, final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<ClusterHealthResponse>>() {
+            @Override
+            public CompletableFuture<ClusterHealthResponse> apply(Client client) {
+                return execute(client.admin().cluster().prepareHealth(indices).setTimeout(masterNodeTimeout));
+            }
+        });
+    }
+
+    /**
+     * @param activeOnly only return recoveries still in progress
+     */
+    public CompletableFuture<RecoveryResponse> recoveries(final boolean activeOnly, final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<RecoveryResponse>>() {
+            @Override
+            public CompletableFuture<RecoveryResponse> apply(Client client) {
+                return execute(client.admin().indices().prepareRecoveries(indices).setActiveOnly(activeOnly).setDetailed(false));
+            }
+        });
+    }
+
+    public CompletableFuture<CreateIndexResponse> createIndex(final String index, final Settings settings) {
+        return withClient(new Function<Client, CompletableFuture<CreateIndexResponse>>() {
+            @Override
+            public CompletableFuture<CreateIndexResponse> apply(Client client) {
+                return execute(client.admin().indices().prepareCreate(index).setSettings(settings == null ? Settings.EMPTY : settings));
+            }
+        });
+    }
+
+    public CompletableFuture<DeleteIndexResponse> deleteIndices(final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<DeleteIndexResponse>>() {
+            @Override
+            public CompletableFuture<DeleteIndexResponse> apply(Client client) {
+                return execute(client.admin().indices().prepareDelete(indices));
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> indicesExist(final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<IndicesExistsResponse>>() {
+            @Override
+            public CompletableFuture<IndicesExistsResponse> apply(Client client) {
+                return execute(client.admin().indices().prepareExists(indices));
+            }
+        }).thenApply(new Function<IndicesExistsResponse, Boolean>() {
+            @Override
+            public Boolean apply(IndicesExistsResponse response) {
+                return response.isExists();
+            }
+        });
+    }
+
+    public CompletableFuture<CreateSnapshotResponse> createSnapshot(final String repository, final String snapshot,
+                                                                    final boolean waitForCompletion, final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<CreateSnapshotResponse>>() {
+            @Override
+            public CompletableFuture<CreateSnapshotResponse> apply(Client client) {
+                return execute(client.admin().cluster().prepareCreateSnapshot(repository, snapshot)
+                        .setIndices(indices).setWaitForCompletion(waitForCompletion), !waitForCompletion);
+            }
+        });
+    }
+
+    public CompletableFuture<RestoreSnapshotResponse> restoreSnapshot(final String repository, final String snapshot,
+                                                                      final boolean waitForCompletion, final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<RestoreSnapshotResponse>>() {
+            @Override
+            public CompletableFuture<RestoreSnapshotResponse> apply(Client client) {
+                return execute(client.admin().cluster().prepareRestoreSnapshot(repository, snapshot)
+                        .setIndices(indices).setWaitForCompletion(waitForCompletion), !waitForCompletion);
+            }
+        });
+    }
+
+    public CompletableFuture<PutRepositoryResponse> putRepository(final String name, final String type, final Settings settings) {
+        return withClient(new Function<Client, CompletableFuture<PutRepositoryResponse>>() {
+            @Override
+            public CompletableFuture<PutRepositoryResponse> apply(Client client) {
+                return execute(client.admin().cluster().preparePutRepository(name).setType(type).setSettings(settings));
+            }
+        });
+    }
+
+    public CompletableFuture<ClusterUpdateSettingsResponse> updateClusterSettings(final Map<String, ?> persistentSettings,
+                                                                                  final Map<String, ?> transientSettings) {
+        return withClient(new Function<Client, CompletableFuture<ClusterUpdateSettingsResponse>>() {
+            @Override
+            public CompletableFuture<ClusterUpdateSettingsResponse> apply(Client client) {
+                return execute(client.admin().cluster().prepareUpdateSettings()
+                        .setPersistentSettings(persistentSettings).setTransientSettings(transientSettings));
+            }
+        });
+    }
+
+    public CompletableFuture<UpdateSettingsResponse> updateIndexSettings(final Map<String, String> settings, final String... indices) {
+        return withClient(new Function<Client, CompletableFuture<UpdateSettingsResponse>>() {
+            @Override
+            public CompletableFuture<UpdateSettingsResponse> apply(Client client) {
+                return execute(client.admin().indices().prepareUpdateSettings(indices).setSettings(Settings.settingsBuilder().put(settings)));
+            }
+        });
+    }
+
+    /**
+     * Executes any request with the configured call deadline
+     */
+    public <Response extends ActionResponse> CompletableFuture<Response> execute(ActionRequestBuilder<?, Response, ?> builder) {
+        return execute(builder, true);
+    }
+
+    private <Response extends ActionResponse> CompletableFuture<Response> execute(ActionRequestBuilder<?, Response, ?> builder, boolean withDeadline) {
+        return execute(builder, withDeadline ? ElasticsearchTransportClient.getCallTimeout(config) : null);
+    }
+
+    /**
+     * @param timeout call deadline, null for none
+     */
+    private <Response extends ActionResponse> CompletableFuture<Response> execute(ActionRequestBuilder<?, Response, ?> builder, final TimeValue timeout) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+
+        if (timeout != null) {
+            final ScheduledFuture<?> deadline = deadlines.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    future.completeExceptionally(new ElasticsearchTimeoutException("Call did not complete within " + timeout));
+                }
+            }, timeout.millis(), TimeUnit.MILLISECONDS);
+
+            future.whenComplete(new BiConsumer<Response, Throwable>() {
+                @Override
+                public void accept(Response response, Throwable throwable) {
+                    deadline.cancel(false);
+                }
+            });
+        }
+
+        builder.execute(new ActionListener<Response>() {
+            @Override
+            public void onResponse(Response response) {
+                future.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * @return number of deadlines of calls still in flight
+     */
+    static int pendingDeadlines() {
+        return deadlines.getQueue().size();
+    }
+
+    private <T> CompletableFuture<T> withClient(Function<Client, CompletableFuture<T>> call) {
+        try {
+            return call.apply(ElasticsearchTransportClient.instance(config).getTransportClient());
+        } catch (Exception e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.netflix.raigad.utils;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.raigad.scheduler.RaigadScheduler;
 import com.netflix.raigad.scheduler.SimpleTimer;
 import com.netflix.raigad.scheduler.Task;
 import com.netflix.raigad.scheduler.TaskTimer;
@@ -27,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * This task checks if the Elasticsearch process is running.
@@ -35,13 +37,21 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class ElasticsearchProcessMonitor extends Task {
 
     public static final String JOBNAME = "ES_MONITOR_THREAD";
+    /**
+     * Scheduler event fired the first time the Elasticsearch process is found running
+     */
+    public static final String ELASTICSEARCH_RUNNING_EVENT = "ElasticsearchRunning";
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchProcessMonitor.class);
     private static final AtomicBoolean isElasticsearchRunningNow = new AtomicBoolean(false);
     private static final AtomicBoolean wasElasticsearchStarted = new AtomicBoolean(false);
+    private static final AtomicInteger runGeneration = new AtomicInteger();
+
+    private final RaigadScheduler scheduler;
 
     @Inject
-    protected ElasticsearchProcessMonitor(IConfiguration config) {
+    protected ElasticsearchProcessMonitor(IConfiguration config, RaigadScheduler scheduler) {
         super(config);
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -54,9 +64,11 @@ public class ElasticsearchProcessMonitor extends Task {
             String line = input.readLine();
             if (line != null && !isElasticsearchRunning()) {
                 isElasticsearchRunningNow.set(true);
+                runGeneration.incrementAndGet();
                 if (!wasElasticsearchStarted.get()) {
                     wasElasticsearchStarted.set(true);
                 }
+                scheduler.fireEvent(ELASTICSEARCH_RUNNING_EVENT);
             } else if (line == null && isElasticsearchRunning()) {
                 isElasticsearchRunningNow.set(false);
             }
@@ -80,6 +92,14 @@ public class ElasticsearchProcessMonitor extends Task {
         return isElasticsearchRunningNow.get();
     }
 
+    /**
+     * @return number of times the Elasticsearch process was found running after not running,
+     * changes whenever Elasticsearch (re)starts
+     */
+    public static int getRunGeneration() {
+        return runGeneration.get();
+    }
+
     public static Boolean getWasElasticsearchStarted() {
         return wasElasticsearchStarted.get();
     }
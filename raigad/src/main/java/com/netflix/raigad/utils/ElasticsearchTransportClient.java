@@ -19,28 +19,52 @@ package com.netflix.raigad.utils;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.netflix.raigad.configuration.IConfiguration;
+import com.netflix.servo.annotations.DataSourceType;
+import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.Monitors;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
+import org.elasticsearch.ElasticsearchTimeoutException;
 import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsRequestBuilder;
 import org.elasticsearch.action.admin.cluster.node.stats.NodesStatsResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
+import org.elasticsearch.common.unit.TimeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Transport client to the local Elasticsearch node, shared through {@link #instance(IConfiguration)}.
+ * <p>
+ * The shared client is health checked on every lookup: it is replaced when Elasticsearch restarted since it was
+ * created or when it lost its connection to the node. Connection attempts and calls made through
+ * {@link #getNodesStatsResponse(IConfiguration)} go through a circuit breaker, so when the node is down callers
+ * fail fast instead of each waiting for a connect or call timeout.
+ */
 @Singleton
 public class ElasticsearchTransportClient {
     private static final Logger logger = LoggerFactory.getLogger(ElasticsearchTransportClient.class);
 
+    public static final String METRIC_NAME = "Elasticsearch_TransportClient";
+
     private static AtomicReference<ElasticsearchTransportClient> esTransportClient = new AtomicReference<>(null);
+    private static ConnectionCircuitBreaker circuitBreaker;
+    private static final Elasticsearch_TransportClientReporter reporter = new Elasticsearch_TransportClientReporter();
+
+    static {
+        Monitors.registerObject(METRIC_NAME, reporter);
+    }
+
     private NodesStatsRequestBuilder nodeStatsRequestBuilder;
     private final TransportClient client;
+    private final int runGeneration = ElasticsearchProcessMonitor.getRunGeneration();
 
     /**
      * Hostname and Port to talk to will be same server for now optionally we might want the ip to poll.
@@ -65,29 +89,104 @@ public class ElasticsearchTransportClient {
     }
 
     /**
-     * Try to create if it is null.
+     * Returns the shared client, (re)connecting if there is none or the current one is no longer usable.
      *
-     * @throws IOException
+     * @throws ElasticsearchTransportClientConnectionException if Elasticsearch is not reachable or the circuit is open
      */
     public static ElasticsearchTransportClient instance(IConfiguration config) throws ElasticsearchTransportClientConnectionException {
-        if (esTransportClient.get() == null) {
-            esTransportClient.set(connect(config));
+        ElasticsearchTransportClient current = esTransportClient.get();
+        if (current != null && current.isUsable()) {
+            return current;
         }
 
-        return esTransportClient.get();
+        return reconnect(config, current);
     }
 
-    public static NodesStatsResponse getNodesStatsResponse(IConfiguration config) {
+    /**
+     * Fetches stats of the local node within the configured call deadline
+     *
+     * @throws ElasticsearchTransportClientConnectionException if the call fails, times out or the circuit is open
+     */
+    public static NodesStatsResponse getNodesStatsResponse(IConfiguration config) throws ElasticsearchTransportClientConnectionException {
+        ElasticsearchTransportClient transportClient = instance(config);
+        ConnectionCircuitBreaker breaker = getCircuitBreaker(config);
+
+        if (!breaker.allowRequest()) {
+            reporter.fastFailures.incrementAndGet();
+            throw new ElasticsearchTransportClientConnectionException("Failing fast, calls to Elasticsearch failed repeatedly");
+        }
+
         try {
-            return ElasticsearchTransportClient.instance(config).nodeStatsRequestBuilder.execute().actionGet();
+            NodesStatsResponse response = transportClient.nodeStatsRequestBuilder.execute().actionGet(getCallTimeout(config));
+            breaker.recordSuccess();
+            return response;
+        } catch (ElasticsearchTimeoutException e) {
+            breaker.recordFailure();
+            reporter.callTimeouts.incrementAndGet();
+            throw new ElasticsearchTransportClientConnectionException("Node stats call timed out after " + getCallTimeout(config), e);
         } catch (Exception e) {
-            logger.error(e.getMessage(), e);
+            breaker.recordFailure();
+            reporter.callFailures.incrementAndGet();
+            throw new ElasticsearchTransportClientConnectionException("Node stats call failed: " + e.getMessage(), e);
         }
+    }
 
-        return null;
+    /**
+     * @return deadline for a single call to the local node, use with actionGet/get on transport calls
+     */
+    public static TimeValue getCallTimeout(IConfiguration config) {
+        return TimeValue.timeValueMillis(config.getTransportClientCallTimeoutInMillis());
     }
 
-    private static synchronized ElasticsearchTransportClient connect(final IConfiguration config) throws ElasticsearchTransportClientConnectionException {
+    private boolean isUsable() {
+        return runGeneration == ElasticsearchProcessMonitor.getRunGeneration() && !client.connectedNodes().isEmpty();
+    }
+
+    private static synchronized ConnectionCircuitBreaker getCircuitBreaker(IConfiguration config) {
+        if (circuitBreaker == null) {
+            circuitBreaker = new ConnectionCircuitBreaker(config.getTransportClientFailureThreshold(), config.getTransportClientCircuitOpenInMillis());
+        }
+        return circuitBreaker;
+    }
+
+    private static synchronized ElasticsearchTransportClient reconnect(IConfiguration config, ElasticsearchTransportClient stale) throws ElasticsearchTransportClientConnectionException {
+        ElasticsearchTransportClient current = esTransportClient.get();
+        if (current != null && current != stale && current.isUsable()) {
+            // Another thread reconnected while we were waiting
+            return current;
+        }
+
+        ConnectionCircuitBreaker breaker = getCircuitBreaker(config);
+        if (!breaker.allowRequest()) {
+            reporter.fastFailures.incrementAndGet();
+            throw new ElasticsearchTransportClientConnectionException("Failing fast, connecting to Elasticsearch failed repeatedly");
+        }
+
+        if (current != null) {
+            logger.info("Transport client is no longer usable (Elasticsearch restarted or disconnected), reconnecting");
+            esTransportClient.set(null);
+            reporter.reconnects.incrementAndGet();
+            try {
+                current.client.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close the stale transport client", e);
+            }
+        }
+
+        try {
+            ElasticsearchTransportClient transportClient = connect(config);
+            esTransportClient.set(transportClient);
+            breaker.recordSuccess();
+            reporter.connects.incrementAndGet();
+            return transportClient;
+        } catch (ElasticsearchTransportClientConnectionException e) {
+            breaker.recordFailure();
+            reporter.connectFailures.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private static ElasticsearchTransportClient connect(final IConfiguration config) throws ElasticsearchTransportClientConnectionException {
         ElasticsearchTransportClient transportClient;
 
         // If Elasticsearch is started then only start the monitoring
@@ -98,7 +197,8 @@ public class ElasticsearchTransportClient {
         }
 
         try {
-            transportClient = new BoundedExponentialRetryCallable<ElasticsearchTransportClient>() {
+            // Bounded so a node that is down does not pin the caller (and everyone waiting on the lock) for minutes
+            transportClient = new BoundedExponentialRetryCallable<ElasticsearchTransportClient>(500, 2000, 3) {
                 @Override
                 public ElasticsearchTransportClient retriableCall() throws Exception {
                     ElasticsearchTransportClient transportClientLocal = new ElasticsearchTransportClient(
@@ -107,6 +207,11 @@ public class ElasticsearchTransportClient {
                             config.getAppName(),
                             config.getEsNodeName());
 
+                    if (transportClientLocal.client.connectedNodes().isEmpty()) {
+                        transportClientLocal.client.close();
+                        throw new ElasticsearchTransportClientConnectionException("No connection to the local node on port " + config.getTransportTcpPort());
+                    }
+
                     return transportClientLocal;
                 }
             }.call();
@@ -135,4 +240,61 @@ public class ElasticsearchTransportClient {
     public Client getTransportClient() {
         return client;
     }
+
+    public static class Elasticsearch_TransportClientReporter {
+        private final AtomicLong connects = new AtomicLong();
+        private final AtomicLong reconnects = new AtomicLong();
+        private final AtomicLong connectFailures = new AtomicLong();
+        private final AtomicLong callTimeouts = new AtomicLong();
+        private final AtomicLong callFailures = new AtomicLong();
+        private final AtomicLong fastFailures = new AtomicLong();
+
+        @Monitor(name = "connects", type = DataSourceType.COUNTER)
+        public long getConnects() {
+            return connects.get();
+        }
+
+        @Monitor(name = "reconnects", type = DataSourceType.COUNTER)
+        public long getReconnects() {
+            return reconnects.get();
+        }
+
+        @Monitor(name = "connect_failures", type = DataSourceType.COUNTER)
+        public long getConnectFailures() {
+            return connectFailures.get();
+        }
+
+        @Monitor(name = "call_timeouts", type = DataSourceType.COUNTER)
+        public long getCallTimeouts() {
+            return callTimeouts.get();
+        }
+
+        @Monitor(name = "call_failures", type = DataSourceType.COUNTER)
+        public long getCallFailures() {
+            return callFailures.get();
+        }
+
+        @Monitor(name = "fast_failures", type = DataSourceType.COUNTER)
+        public long getFastFailures() {
+            return fastFailures.get();
+        }
+
+        @Monitor(name = "connected", type = DataSourceType.GAUGE)
+        public int getConnected() {
+            ElasticsearchTransportClient current = esTransportClient.get();
+            return current != null && !current.client.connectedNodes().isEmpty() ? 1 : 0;
+        }
+
+        @Monitor(name = "circuit_open", type = DataSourceType.GAUGE)
+        public int getCircuitOpen() {
+            ConnectionCircuitBreaker breaker = circuitBreaker;
+            return breaker != null && breaker.getState() != ConnectionCircuitBreaker.State.CLOSED ? 1 : 0;
+        }
+
+        @Monitor(name = "circuit_opened", type = DataSourceType.COUNTER)
+        public long getCircuitOpened() {
+            ConnectionCircuitBreaker breaker = circuitBreaker;
+            return breaker == null ? 0 : breaker.getTimesOpened();
+        }
+    }
 }
@@ -13,7 +13,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.netflix.raigad.utils;
 
 import com.google.inject.Inject;
@@ -27,12 +26,35 @@ import org.yaml.snakeyaml.Yaml;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Answers tribe ID to source cluster lookups from an in-memory copy of the tribe topology.
+ * <p>
+ * The topology is published by the tuner when it writes elasticsearch.yml, or loaded from the file
+ * on first use. Changes to the file made by anything else are picked up through a WatchService,
+ * which drops the in-memory copy so the next lookup reloads it.
+ */
 @Singleton
 public class TribeUtils {
     private static final Logger logger = LoggerFactory.getLogger(TribeUtils.class);
+    private static final Pattern TRIBE_CLUSTER_NAME = Pattern.compile("tribe\\.(.+)\\.cluster\\.name");
+
     private final IConfiguration config;
+    private volatile TribeTopology topology;
+    private volatile boolean watching;
 
     @Inject
     public TribeUtils(IConfiguration config) {
@@ -40,16 +62,136 @@ public class TribeUtils {
     }
 
     public String getTribeClusterNameFromId(String tribeId) throws FileNotFoundException {
+        TribeTopology current = topology;
+        if (current == null || (!watching && current.lastModified != getYamlFile().lastModified())) {
+            current = load();
+        }
+
+        String sourceClusterName = current.clusterNames.get(tribeId);
+
+        logger.debug("Source cluster associated with tribe ID {} is {}", tribeId, sourceClusterName);
+
+        return sourceClusterName;
+    }
+
+    /**
+     * Replaces the in-memory topology with the tribe settings just written to elasticsearch.yml
+     */
+    public void setTribeSettings(Map<?, ?> settings) {
+        topology = new TribeTopology(getTribeClusterNames(settings), getYamlFile().lastModified());
+        watch();
+    }
+
+    static Map<String, String> getTribeClusterNames(Map<?, ?> settings) {
+        Map<String, String> clusterNames = new HashMap<>();
+        for (Map.Entry<?, ?> entry : settings.entrySet()) {
+            Matcher matcher = TRIBE_CLUSTER_NAME.matcher(String.valueOf(entry.getKey()));
+            if (matcher.matches() && entry.getValue() != null) {
+                clusterNames.put(matcher.group(1), String.valueOf(entry.getValue()));
+            }
+        }
+
+        return Collections.unmodifiableMap(clusterNames);
+    }
+
+    private synchronized TribeTopology load() throws FileNotFoundException {
+        File yamlFile = getYamlFile();
+        TribeTopology current = topology;
+        if (current != null && current.lastModified == yamlFile.lastModified()) {
+            return current;
+        }
+
         DumperOptions options = new DumperOptions();
         options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
         Yaml yaml = new Yaml(options);
-        File yamlFile = new File(config.getYamlLocation());
-        Map map = (Map) yaml.load(new FileInputStream(yamlFile));
 
-        String sourceClusterName = (String) map.get("tribe." + tribeId + ".cluster.name");
+        long lastModified = yamlFile.lastModified();
+        Map map;
+        try (InputStream in = new FileInputStream(yamlFile)) {
+            map = (Map) yaml.load(in);
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + yamlFile, e);
+        }
 
-        logger.info("Source cluster associated with tribe ID {} is {}", tribeId, sourceClusterName);
+        current = new TribeTopology(getTribeClusterNames(map == null ? Collections.emptyMap() : map), lastModified);
+        logger.info("Loaded tribe topology from {}: {}", yamlFile, current.clusterNames);
 
-        return sourceClusterName;
+        topology = current;
+        watch();
+        return current;
+    }
+
+    private File getYamlFile() {
+        return new File(config.getYamlLocation());
+    }
+
+    private synchronized void watch() {
+        if (watching) {
+            return;
+        }
+
+        final File yamlFile = getYamlFile().getAbsoluteFile();
+        final WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            yamlFile.getParentFile().toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (Exception e) {
+            logger.warn("Unable to watch {}, checking its modification time on every lookup instead", yamlFile, e);
+            return;
+        }
+
+        Thread watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Path fileName = yamlFile.toPath().getFileName();
+                while (true) {
+                    WatchKey key;
+                    try {
+                        key = watchService.take();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                            invalidate(yamlFile);
+                        }
+                    }
+
+                    if (!key.reset()) {
+                        logger.warn("Stopped watching {}", yamlFile);
+                        synchronized (TribeUtils.this) {
+                            watching = false;
+                        }
+                        return;
+                    }
+                }
+            }
+        }, "TribeTopologyWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        watching = true;
+    }
+
+    private void invalidate(File yamlFile) {
+        TribeTopology current = topology;
+        // Skip our own writes, the tuner already published what it wrote
+        if (current != null && current.lastModified != yamlFile.lastModified()) {
+            logger.info("{} changed, tribe topology will be reloaded", yamlFile);
+            topology = null;
+        }
+    }
+
+    private static class TribeTopology {
+        private final Map<String, String> clusterNames;
+        private final long lastModified;
+
+        private TribeTopology(Map<String, String> clusterNames, long lastModified) {
+            this.clusterNames = clusterNames;
+            this.lastModified = lastModified;
+        }
     }
 }
@@ -0,0 +1,134 @@
+package com.netflix.raigad.aws;
+
+import com.amazonaws.services.autoscaling.model.AutoScalingGroup;
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestAutoScalingGroupCache {
+    private FakeSource source;
+    private AutoScalingGroupCache cache;
+    private volatile long nanos;
+
+    @Before
+    public void setup() {
+        source = new FakeSource();
+        cache = new AutoScalingGroupCache(new FakeConfiguration(), source, new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+    }
+
+    @Test
+    public void testCachedWithinTtl() {
+        Map<String, AutoScalingGroup> groups = cache.get(Arrays.asList("es_test-useast1a", "es_test-useast1c"));
+        assertEquals(2, groups.size());
+        assertEquals(1, source.calls.get());
+
+        cache.get(Collections.singletonList("es_test-useast1a"));
+        assertEquals(1, source.calls.get());
+
+        nanos += TimeUnit.SECONDS.toNanos(31);
+        cache.get(Collections.singletonList("es_test-useast1a"));
+        assertEquals(2, source.calls.get());
+    }
+
+    @Test
+    public void testMissingGroup() {
+        source.missing = true;
+        assertTrue(cache.get(Collections.singletonList("deleted")).isEmpty());
+        assertTrue(cache.get(Collections.singletonList("deleted")).isEmpty());
+        assertEquals(1, source.calls.get());
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalesced() throws Exception {
+        source.release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Map<String, AutoScalingGroup>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<Map<String, AutoScalingGroup>>() {
+                    @Override
+                    public Map<String, AutoScalingGroup> call() {
+                        return cache.get(Collections.singletonList("es_test-useast1a"));
+                    }
+                }));
+            }
+
+            Thread.sleep(200);
+            source.release.countDown();
+
+            for (Future<Map<String, AutoScalingGroup>> future : futures) {
+                assertEquals(1, future.get(5, TimeUnit.SECONDS).size());
+            }
+            assertEquals(1, source.calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsNotCached() {
+        source.failing = true;
+        try {
+            cache.get(Collections.singletonList("es_test-useast1a"));
+        } catch (RuntimeException expected) {
+        }
+
+        source.failing = false;
+        assertEquals(1, cache.get(Collections.singletonList("es_test-useast1a")).size());
+        assertEquals(2, source.calls.get());
+    }
+
+    private static class FakeSource implements AutoScalingGroupCache.Source {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile CountDownLatch release;
+        private volatile boolean failing;
+        private volatile boolean missing;
+
+        @Override
+        public List<AutoScalingGroup> describe(Collection<String> autoScalingGroupNames) {
+            calls.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            if (failing) {
+                throw new RuntimeException("Rate exceeded");
+            }
+
+            List<AutoScalingGroup> groups = new ArrayList<>();
+            if (!missing) {
+                for (String name : autoScalingGroupNames) {
+                    groups.add(new AutoScalingGroup().withAutoScalingGroupName(name).withMaxSize(3));
+                }
+            }
+            return groups;
+        }
+    }
+}
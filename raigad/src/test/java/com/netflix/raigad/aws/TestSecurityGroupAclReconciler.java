@@ -0,0 +1,186 @@
+package com.netflix.raigad.aws;
+
+import com.amazonaws.AmazonServiceException;
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.FakeConfiguration;
+import com.netflix.raigad.identity.IMembership;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestSecurityGroupAclReconciler {
+    private FakeMembership membership;
+    private SecurityGroupAclReconciler reconciler;
+    private long nanos;
+
+    @Before
+    public void setup() {
+        membership = new FakeMembership();
+        reconciler = new SecurityGroupAclReconciler(new FakeConfiguration(), membership, new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+    }
+
+    @Test
+    public void testReconcile() {
+        membership.acls.addAll(Arrays.asList("1.1.1.1/32", "2.2.2.2/32"));
+        Set<String> desired = new HashSet<>(Arrays.asList("2.2.2.2/32", "3.3.3.3/32"));
+
+        SecurityGroupAclReconciler.AclDiff diff = reconciler.reconcile(7102, desired, desired);
+        assertEquals(Collections.singleton("3.3.3.3/32"), diff.getToAdd());
+        assertEquals(Collections.singleton("1.1.1.1/32"), diff.getToRemove());
+        assertEquals(desired, membership.acls);
+    }
+
+    @Test
+    public void testCachedStateBetweenRuns() {
+        Set<String> desired = new HashSet<>(Arrays.asList("1.1.1.1/32"));
+        reconciler.reconcile(7102, desired, desired);
+        assertTrue(reconciler.reconcile(7102, desired, desired).isEmpty());
+        assertEquals(1, membership.listCalls);
+
+        nanos += TimeUnit.SECONDS.toNanos(301);
+        reconciler.reconcile(7102, desired, desired);
+        assertEquals(2, membership.listCalls);
+    }
+
+    @Test
+    public void testNoRemovalWithoutKeepSet() {
+        membership.acls.addAll(Arrays.asList("1.1.1.1/32"));
+        SecurityGroupAclReconciler.AclDiff diff = reconciler.reconcile(7102, Collections.singleton("2.2.2.2/32"), null);
+        assertTrue(diff.getToRemove().isEmpty());
+        assertEquals(2, membership.acls.size());
+    }
+
+    @Test
+    public void testFailureDropsCachedState() {
+        Set<String> desired = new HashSet<>(Arrays.asList("1.1.1.1/32"));
+        membership.failing = true;
+        try {
+            reconciler.reconcile(7102, desired, desired);
+        } catch (RuntimeException expected) {
+        }
+
+        membership.failing = false;
+        reconciler.reconcile(7102, desired, desired);
+        assertEquals(2, membership.listCalls);
+    }
+
+    @Test
+    public void testOutOfDateCacheRetriesRemainingDiff() {
+        Set<String> desired = new HashSet<>(Arrays.asList("1.1.1.1/32"));
+        reconciler.reconcile(7102, desired, desired);
+
+        // Another node authorized a range the cache does not know about
+        membership.acls.add("2.2.2.2/32");
+        desired = new HashSet<>(Arrays.asList("1.1.1.1/32", "2.2.2.2/32", "3.3.3.3/32"));
+        SecurityGroupAclReconciler.AclDiff diff = reconciler.reconcile(7102, desired, desired);
+        assertEquals(Collections.singleton("3.3.3.3/32"), diff.getToAdd());
+        assertEquals(desired, membership.acls);
+        assertEquals(2, membership.listCalls);
+
+        // Another node revoked a range the cache still has
+        membership.acls.remove("3.3.3.3/32");
+        Set<String> keep = Collections.singleton("1.1.1.1/32");
+        diff = reconciler.reconcile(7102, keep, keep);
+        assertEquals(Collections.singleton("2.2.2.2/32"), diff.getToRemove());
+        assertEquals(keep, membership.acls);
+        assertEquals(3, membership.listCalls);
+    }
+
+    @Test
+    public void testOtherServiceErrorsAreNotRetried() {
+        Set<String> desired = new HashSet<>(Arrays.asList("1.1.1.1/32"));
+        membership.failure = serviceException("RequestLimitExceeded");
+        try {
+            reconciler.reconcile(7102, desired, desired);
+            fail("Throttling should not be retried");
+        } catch (AmazonServiceException expected) {
+        }
+        assertEquals(1, membership.listCalls);
+    }
+
+    private static AmazonServiceException serviceException(String errorCode) {
+        AmazonServiceException e = new AmazonServiceException(errorCode);
+        e.setErrorCode(errorCode);
+        return e;
+    }
+
+    private static class FakeMembership implements IMembership {
+        private final Set<String> acls = new HashSet<>();
+        private int listCalls;
+        private boolean failing;
+        private AmazonServiceException failure;
+
+        @Override
+        public void addACL(Collection<String> listIPs, int from, int to) {
+            if (failing) {
+                throw new RuntimeException("RequestLimitExceeded");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            // Like AWS, the whole request is rejected if any range is already authorized
+            for (String ip : listIPs) {
+                if (acls.contains(ip)) {
+                    throw serviceException(SecurityGroupAclReconciler.DUPLICATE_PERMISSION);
+                }
+            }
+            acls.addAll(listIPs);
+        }
+
+        @Override
+        public void removeACL(Collection<String> listIPs, int from, int to) {
+            if (!acls.containsAll(listIPs)) {
+                throw serviceException(SecurityGroupAclReconciler.PERMISSION_NOT_FOUND);
+            }
+            acls.removeAll(listIPs);
+        }
+
+        @Override
+        public List<String> listACL(int from, int to) {
+            listCalls++;
+            return new ArrayList<>(acls);
+        }
+
+        @Override
+        public Map<String, List<String>> getRacMembership(Collection<String> autoScalingGroupNames) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public int getRacMembershipSize() {
+            return 0;
+        }
+
+        @Override
+        public int getRacCount() {
+            return 0;
+        }
+
+        @Override
+        public void expandRacMembership(int count) {
+        }
+
+        @Override
+        public Map<String, List<Integer>> getACLPortMap(String acl) {
+            return Collections.emptyMap();
+        }
+    }
+}
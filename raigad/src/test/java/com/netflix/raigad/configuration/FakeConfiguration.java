@@ -508,4 +508,359 @@ public class FakeConfiguration implements IConfiguration {
         return null;
     }
 
+    @Override
+    public String getTuningProfile() {
+        return "";
+    }
+
+    @Override
+    public String getTuningProfileIndices() {
+        return "_all";
+    }
+
+    @Override
+    public int getTuningBulkLoadReplicas() {
+        return 0;
+    }
+
+    @Override
+    public boolean isSettingsReconcilerEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSettingsReconcilerDryRun() {
+        return true;
+    }
+
+    @Override
+    public int getSettingsReconcilerIntervalInSeconds() {
+        return 300;
+    }
+
+    @Override
+    public String getDynamicClusterSettings() {
+        return "";
+    }
+
+    @Override
+    public String getDynamicIndexSettings() {
+        return "";
+    }
+
+    @Override
+    public String getDynamicIndexSettingsIndices() {
+        return "_all";
+    }
+
+    @Override
+    public int getBackpressureBulkQueueCapacity() {
+        return 50;
+    }
+
+    @Override
+    public int getBackpressureMergeBacklogThreshold() {
+        return 10;
+    }
+
+    @Override
+    public int getBackpressureHeapPercentLow() {
+        return 75;
+    }
+
+    @Override
+    public int getBackpressureHeapPercentHigh() {
+        return 90;
+    }
+
+    @Override
+    public int getBackpressureBaseBatchSize() {
+        return 1000;
+    }
+
+    @Override
+    public boolean isIndexHotSpotMonitorEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getIndexHotSpotMonitorIntervalInSeconds() {
+        return 60;
+    }
+
+    @Override
+    public int getIndexHotSpotTopK() {
+        return 10;
+    }
+
+    @Override
+    public String getIndexHotSpotScore() {
+        return "indexing_rate";
+    }
+
+    @Override
+    public boolean isIndexHotSpotShardLevelEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getMembershipFetchThreads() {
+        return 4;
+    }
+
+    @Override
+    public long getMembershipFetchTimeoutInMillis() {
+        return 1000L;
+    }
+
+    @Override
+    public int getACLCacheTtlInSeconds() {
+        return 300;
+    }
+
+    @Override
+    public int getACLMaxRangesPerRequest() {
+        return 50;
+    }
+
+    @Override
+    public int getAutoScalingGroupCacheTtlInSeconds() {
+        return 30;
+    }
+
+    @Override
+    public boolean isMetricsExportEnabled() {
+        return false;
+    }
+
+    @Override
+    public String getMetricsExportHost() {
+        return "localhost";
+    }
+
+    @Override
+    public int getMetricsExportPort() {
+        return 8089;
+    }
+
+    @Override
+    public int getMetricsExportIntervalInSeconds() {
+        return 10;
+    }
+
+    @Override
+    public int getMetricsExportMaxDatagramSize() {
+        return 1400;
+    }
+
+    @Override
+    public boolean isMetricsPrometheusEnabled() {
+        return false;
+    }
+
+    @Override
+    public long getTransportClientCallTimeoutInMillis() {
+        return 10000L;
+    }
+
+    @Override
+    public int getTransportClientFailureThreshold() {
+        return 3;
+    }
+
+    @Override
+    public long getTransportClientCircuitOpenInMillis() {
+        return 30000L;
+    }
+
+    @Override
+    public boolean isPendingTasksMonitorEnabled() {
+        return true;
+    }
+
+    @Override
+    public int getPendingTasksTopN() {
+        return 10;
+    }
+
+    @Override
+    public boolean isRecoveryMonitorEnabled() {
+        return true;
+    }
+
+    @Override
+    public int getRecoveryMonitorIntervalInSeconds() {
+        return 10;
+    }
+
+    @Override
+    public double getControllerQueryLatencyHighInMillis() {
+        return 100.0;
+    }
+
+    @Override
+    public double getControllerQueryLatencyLowInMillis() {
+        return 50.0;
+    }
+
+    @Override
+    public double getControllerDiskUtilizationHighPercent() {
+        return 85.0;
+    }
+
+    @Override
+    public double getControllerDiskUtilizationLowPercent() {
+        return 60.0;
+    }
+
+    @Override
+    public double getControllerRaiseFactor() {
+        return 1.5;
+    }
+
+    @Override
+    public double getControllerCutFactor() {
+        return 0.5;
+    }
+
+    @Override
+    public int getControllerRaiseAfterRuns() {
+        return 2;
+    }
+
+    @Override
+    public boolean isRecoveryControllerEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getRecoveryControllerMinBytesPerSecInMb() {
+        return 40;
+    }
+
+    @Override
+    public int getRecoveryControllerMaxBytesPerSecInMb() {
+        return 250;
+    }
+
+    @Override
+    public int getRecoveryControllerMinConcurrentRecoveries() {
+        return 2;
+    }
+
+    @Override
+    public int getRecoveryControllerMaxConcurrentRecoveries() {
+        return 6;
+    }
+
+    @Override
+    public boolean isMergeControllerEnabled() {
+        return false;
+    }
+
+    @Override
+    public String getMergeControllerIndices() {
+        return "_all";
+    }
+
+    @Override
+    public int getMergeControllerMinThreadCount() {
+        return 2;
+    }
+
+    @Override
+    public int getMergeControllerMaxThreadCount() {
+        return 4;
+    }
+
+    @Override
+    public boolean isMergeControllerStoreThrottleEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getMergeControllerMinStoreThrottleInMb() {
+        return 20;
+    }
+
+    @Override
+    public int getMergeControllerMaxStoreThrottleInMb() {
+        return 200;
+    }
+
+    @Override
+    public double getGcPressureTimeRatio() {
+        return 0.1;
+    }
+
+    @Override
+    public int getGcPressureOldUsedPercent() {
+        return 75;
+    }
+
+    @Override
+    public int getGcPressureSustainedIntervals() {
+        return 3;
+    }
+
+    @Override
+    public boolean isHotThreadsCaptureEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getHotThreadsCaptureDir() {
+        return System.getProperty("java.io.tmpdir") + "/raigad/hot_threads";
+    }
+
+    @Override
+    public int getHotThreadsMaxCaptures() {
+        return 20;
+    }
+
+    @Override
+    public int getHotThreadsMinCaptureIntervalInSeconds() {
+        return 600;
+    }
+
+    @Override
+    public int getHotThreadsThreads() {
+        return 5;
+    }
+
+    @Override
+    public int getHotThreadsSnapshots() {
+        return 10;
+    }
+
+    @Override
+    public int getHotThreadsIntervalInMillis() {
+        return 500;
+    }
+
+    @Override
+    public int getHotThreadsTriggerQueryLatencyInMillis() {
+        return 500;
+    }
+
+    @Override
+    public int getHotThreadsTriggerHeapUsedPercent() {
+        return 90;
+    }
+
+    @Override
+    public int getHotThreadsTriggerCpuPercent() {
+        return 90;
+    }
+
+    @Override
+    public int getBreakerTrendHorizonInSeconds() {
+        return 120;
+    }
+
+    @Override
+    public int getBreakerTripWarningInSeconds() {
+        return 300;
+    }
+
 }
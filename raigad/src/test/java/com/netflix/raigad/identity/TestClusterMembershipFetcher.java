@@ -0,0 +1,119 @@
+package com.netflix.raigad.identity;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestClusterMembershipFetcher {
+    private FakeInstanceFactory instanceFactory;
+    private ClusterMembershipFetcher fetcher;
+
+    @Before
+    public void setup() {
+        instanceFactory = new FakeInstanceFactory();
+        fetcher = new ClusterMembershipFetcher(instanceFactory, new FakeConfiguration());
+    }
+
+    @Test
+    public void testFetchesAllClustersConcurrently() {
+        instanceFactory.delayInMillis = 300;
+        long start = System.currentTimeMillis();
+        ClusterMembershipFetcher.MembershipResult result = fetcher.fetch(Arrays.asList("c1", "c2", "c3", "c4"));
+
+        assertTrue(result.isComplete());
+        assertEquals(4, result.getInstances().size());
+        assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    @Test
+    public void testPartialResult() {
+        instanceFactory.failing.add("c2");
+        ClusterMembershipFetcher.MembershipResult result = fetcher.fetch(Arrays.asList("c1", "c2"));
+
+        assertFalse(result.isComplete());
+        assertEquals(Collections.singleton("c2"), result.getMissingClusters());
+        assertEquals(1, result.getInstances().size());
+        assertEquals("c1", result.getInstances().get(0).getApp());
+    }
+
+    @Test
+    public void testTimeoutFallsBackToCache() {
+        assertTrue(fetcher.fetch(Arrays.asList("c1", "c2")).isComplete());
+
+        // FakeConfiguration allows one second per fetch
+        instanceFactory.slow.add("c2");
+        instanceFactory.delayInMillis = 3000;
+        ClusterMembershipFetcher.MembershipResult result = fetcher.fetch(Arrays.asList("c1", "c2"));
+
+        assertTrue(result.isComplete());
+        assertEquals(Collections.singleton("c2"), result.getStaleClusters());
+        assertEquals(2, result.getInstances().size());
+    }
+
+    private static class FakeInstanceFactory implements IRaigadInstanceFactory {
+        private final Set<String> failing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        private final Set<String> slow = new HashSet<>();
+        private volatile long delayInMillis;
+
+        @Override
+        public List<RaigadInstance> getAllIds(String appName) {
+            if (failing.contains(appName)) {
+                throw new RuntimeException("Registry is not available");
+            }
+            if (slow.isEmpty() || slow.contains(appName)) {
+                try {
+                    Thread.sleep(delayInMillis);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            RaigadInstance instance = new RaigadInstance();
+            instance.setApp(appName);
+            instance.setInstanceId(appName + "-instance");
+            List<RaigadInstance> instances = new ArrayList<>();
+            instances.add(instance);
+            return instances;
+        }
+
+        @Override
+        public RaigadInstance getInstance(String appName, String dc, String id) {
+            return null;
+        }
+
+        @Override
+        public RaigadInstance create(String app, String id, String instanceID, String hostname, String ip, String rac,
+                                     String dc, String asgname, Map<String, Object> volumes) {
+            return null;
+        }
+
+        @Override
+        public void delete(RaigadInstance inst) {
+        }
+
+        @Override
+        public void update(RaigadInstance inst) {
+        }
+
+        @Override
+        public void sort(List<RaigadInstance> return_) {
+        }
+
+        @Override
+        public void attachVolumes(RaigadInstance instance, String mountPath, String device) {
+        }
+    }
+}
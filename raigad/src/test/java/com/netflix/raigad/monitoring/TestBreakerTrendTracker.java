@@ -0,0 +1,103 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestBreakerTrendTracker {
+    private static final long MB = 1024 * 1024;
+
+    private FakeTicker ticker;
+    private BreakerTrendTracker tracker;
+
+    @Before
+    public void setup() {
+        ticker = new FakeTicker();
+        tracker = new BreakerTrendTracker(new FakeConfiguration(), ticker);
+    }
+
+    @Test
+    public void testTimeToTrip() {
+        BreakerTrendTracker.BreakerTrend first = tracker.update("parent", 100 * MB, 1000 * MB, 1.0);
+        assertEquals(0.1, first.getRatio(), 0.001);
+        assertEquals(0, first.getGrowthInBytesPerSec(), 0);
+        assertEquals(-1, first.getTimeToTripInSeconds(), 0);
+
+        // Growing 1mb/s, 600mb left at 400mb
+        BreakerTrendTracker.BreakerTrend trend = null;
+        for (int i = 1; i <= 30; i++) {
+            ticker.advance(10);
+            trend = tracker.update("parent", (100 + i * 10) * MB, 1000 * MB, 1.0);
+        }
+        assertEquals(MB, trend.getGrowthInBytesPerSec(), 1);
+        assertEquals(600, trend.getTimeToTripInSeconds(), 0.01);
+        assertFalse(trend.isTripForecast());
+
+        for (int i = 31; i <= 35; i++) {
+            ticker.advance(10);
+            trend = tracker.update("parent", (100 + i * 10) * MB, 1000 * MB, 1.0);
+        }
+        assertEquals(550, trend.getTimeToTripInSeconds(), 0.01);
+        assertFalse(trend.isTripForecast());
+
+        ticker.advance(10);
+        trend = tracker.update("parent", 810 * MB, 1000 * MB, 1.0);
+        assertTrue(trend.getTimeToTripInSeconds() <= 300);
+        assertTrue(trend.isTripForecast());
+    }
+
+    @Test
+    public void testOverheadAndShrinking() {
+        tracker.update("fielddata", 300 * MB, 1000 * MB, 2.0);
+        ticker.advance(10);
+        BreakerTrendTracker.BreakerTrend trend = tracker.update("fielddata", 200 * MB, 1000 * MB, 2.0);
+
+        assertEquals(0.4, trend.getRatio(), 0.001);
+        assertEquals(-10 * MB, trend.getGrowthInBytesPerSec(), 1);
+        assertEquals(-1, trend.getTimeToTripInSeconds(), 0);
+        assertFalse(trend.isTripForecast());
+
+        // Growing 5mb/s over the three samples, trips at 500mb with an overhead of 2
+        ticker.advance(10);
+        trend = tracker.update("fielddata", 400 * MB, 1000 * MB, 2.0);
+        assertEquals(0.8, trend.getRatio(), 0.001);
+        assertEquals(5 * MB, trend.getGrowthInBytesPerSec(), 1);
+        assertEquals(20, trend.getTimeToTripInSeconds(), 0.01);
+        assertTrue(trend.isTripForecast());
+    }
+
+    @Test
+    public void testPeakRatio() {
+        tracker.update("request", 900 * MB, 1000 * MB, 1.0);
+        ticker.advance(30);
+        tracker.update("request", 100 * MB, 1000 * MB, 1.0);
+        ticker.advance(30);
+        assertEquals(0.9, tracker.update("request", 100 * MB, 1000 * MB, 1.0).getPeakRatio(), 0.001);
+        ticker.advance(10);
+        assertEquals(0.1, tracker.update("request", 100 * MB, 1000 * MB, 1.0).getPeakRatio(), 0.001);
+
+        tracker.retain(Collections.singleton("parent"));
+        assertEquals(0, tracker.update("request", 100 * MB, 1000 * MB, 1.0).getGrowthInBytesPerSec(), 0);
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
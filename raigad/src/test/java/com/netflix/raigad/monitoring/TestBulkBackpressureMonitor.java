@@ -0,0 +1,60 @@
+package com.netflix.raigad.monitoring;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestBulkBackpressureMonitor {
+    private static final FakeConfiguration CONFIG = new FakeConfiguration();
+
+    @Test
+    public void testScore() {
+        assertEquals(0, BulkBackpressureMonitor.score(CONFIG, 0, 0, 0, 0, 50), 0.001);
+        // Highest pressure wins
+        assertEquals(0.4, BulkBackpressureMonitor.score(CONFIG, 0.4, 0, 0.1, 2, 50), 0.001);
+        assertEquals(0.5, BulkBackpressureMonitor.score(CONFIG, 0.1, 0, 0, 5, 50), 0.001);
+        assertEquals(0.6, BulkBackpressureMonitor.score(CONFIG, 0, 0, 0, 0, 84), 0.001);
+        assertEquals(1.0, BulkBackpressureMonitor.score(CONFIG, 0, 0, 0, 25, 50), 0.001);
+        // Any rejection saturates
+        assertEquals(1.0, BulkBackpressureMonitor.score(CONFIG, 0, 3, 0, 0, 50), 0.001);
+    }
+
+    @Test
+    public void testAdvice() {
+        assertEquals(BulkBackpressureMonitor.Advice.OK, BulkBackpressureMonitor.advice(0.49));
+        assertEquals(BulkBackpressureMonitor.Advice.SLOW_DOWN, BulkBackpressureMonitor.advice(0.5));
+        assertEquals(BulkBackpressureMonitor.Advice.SLOW_DOWN, BulkBackpressureMonitor.advice(0.79));
+        assertEquals(BulkBackpressureMonitor.Advice.BACK_OFF, BulkBackpressureMonitor.advice(0.8));
+    }
+
+    @Test
+    public void testSuggestions() {
+        assertEquals(1000, BulkBackpressureMonitor.suggestedBatchSize(CONFIG, 0));
+        assertEquals(400, BulkBackpressureMonitor.suggestedBatchSize(CONFIG, 0.6));
+        // Never below a tenth of the base batch size
+        assertEquals(100, BulkBackpressureMonitor.suggestedBatchSize(CONFIG, 1.0));
+
+        assertEquals(8, BulkBackpressureMonitor.suggestedConcurrency(BulkBackpressureMonitor.Advice.OK, 0, 8));
+        assertEquals(4, BulkBackpressureMonitor.suggestedConcurrency(BulkBackpressureMonitor.Advice.SLOW_DOWN, 0.5, 8));
+        assertEquals(1, BulkBackpressureMonitor.suggestedConcurrency(BulkBackpressureMonitor.Advice.OK, 0.1, 0));
+        assertEquals(1, BulkBackpressureMonitor.suggestedConcurrency(BulkBackpressureMonitor.Advice.BACK_OFF, 0.8, 8));
+        assertEquals(1, BulkBackpressureMonitor.suggestedConcurrency(BulkBackpressureMonitor.Advice.UNKNOWN, 0, 8));
+    }
+
+    @Test
+    public void testUnknownUntilComputed() {
+        BulkBackpressureMonitor monitor = new BulkBackpressureMonitor(CONFIG, null);
+
+        JSONObject initial = monitor.getBackpressureJson();
+        assertEquals("UNKNOWN", initial.get("advice"));
+        assertEquals(true, initial.get("stale"));
+        assertEquals(-1L, initial.get("sample_age_millis"));
+        assertEquals(100L, initial.get("suggested_batch_size"));
+        assertEquals(1, initial.get("suggested_concurrency"));
+
+        monitor.publishUnknown();
+        assertEquals("UNKNOWN", monitor.getBackpressureJson().get("advice"));
+    }
+}
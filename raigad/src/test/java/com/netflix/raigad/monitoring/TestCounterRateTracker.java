@@ -0,0 +1,87 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestCounterRateTracker {
+    private FakeTicker ticker;
+    private CounterRateTracker tracker;
+
+    @Before
+    public void setup() {
+        ticker = new FakeTicker();
+        tracker = new CounterRateTracker(ticker);
+    }
+
+    @Test
+    public void testRate() {
+        CounterRateTracker.CounterDelta first = tracker.update("query_total", 1000);
+        assertEquals(0, first.getDelta());
+        assertEquals(0, first.getRatePerSecond(), 0);
+
+        ticker.advance(10);
+        CounterRateTracker.CounterDelta second = tracker.update("query_total", 1500);
+        assertEquals(500, second.getDelta());
+        assertEquals(10000, second.getElapsedMillis());
+        assertEquals(50, second.getRatePerSecond(), 0.001);
+        assertFalse(second.isReset());
+    }
+
+    @Test
+    public void testCounterReset() {
+        tracker.update("query_total", 1000);
+        ticker.advance(10);
+        CounterRateTracker.CounterDelta delta = tracker.update("query_total", 200);
+        assertTrue(delta.isReset());
+        assertEquals(200, delta.getDelta());
+
+        ticker.advance(10);
+        assertEquals(100, tracker.update("query_total", 300).getDelta());
+    }
+
+    @Test
+    public void testGenerationChange() {
+        tracker.setGeneration("node-a");
+        tracker.update("query_total", 1000);
+        ticker.advance(60);
+
+        // Restarted node counted past the old value before the next sample
+        tracker.setGeneration("node-b");
+        assertEquals(1200, tracker.update("query_total", 1200).getDelta());
+    }
+
+    @Test
+    public void testAverageAndTimeRatio() {
+        tracker.update("query_total", 100);
+        tracker.update("query_time", 1000);
+        ticker.advance(10);
+        CounterRateTracker.CounterDelta count = tracker.update("query_total", 150);
+        CounterRateTracker.CounterDelta time = tracker.update("query_time", 3500);
+
+        assertEquals(50, CounterRateTracker.average(time, count), 0.001);
+        assertEquals(0.25, time.getTimeRatio(), 0.001);
+
+        ticker.advance(10);
+        assertEquals(0, CounterRateTracker.average(tracker.update("query_time", 3500), tracker.update("query_total", 150)), 0);
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
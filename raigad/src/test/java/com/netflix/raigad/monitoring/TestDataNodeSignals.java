@@ -0,0 +1,126 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestDataNodeSignals {
+    private FakeTicker ticker;
+    private DataNodeSignals dataNodeSignals;
+
+    @Before
+    public void setup() {
+        ticker = new FakeTicker();
+        dataNodeSignals = new DataNodeSignals(ticker);
+    }
+
+    @Test
+    public void testSignalsPerNode() {
+        Map<String, DataNodeSignals.NodeSignals> signals = dataNodeSignals.update(Arrays.asList(
+                counters("node_1", 1000, 10000, 0, 2), counters("node_2", 500, 5000, 0, 0)));
+        assertEquals(2, signals.size());
+        // Nothing to compare with yet
+        assertEquals(0, signals.get("node_1").getQueryLatencyInMillis(), 0);
+        assertEquals(2, signals.get("node_1").getMergesCurrent());
+
+        ticker.advance(10);
+        signals = dataNodeSignals.update(Arrays.asList(
+                counters("node_1", 1100, 11000, 0, 3), counters("node_2", 510, 7000, 5000, 12)));
+        assertEquals(10, signals.get("node_1").getQueryLatencyInMillis(), 0.001);
+        assertEquals(0, signals.get("node_1").getIndexingThrottleRatio(), 0);
+        assertEquals(200, signals.get("node_2").getQueryLatencyInMillis(), 0.001);
+        assertEquals(0.5, signals.get("node_2").getIndexingThrottleRatio(), 0.001);
+        assertEquals(12, signals.get("node_2").getMergesCurrent());
+    }
+
+    @Test
+    public void testNewNodeCountsAsIdle() {
+        dataNodeSignals.update(Collections.singletonList(counters("node_1", 1000, 10000, 0, 0)));
+
+        // node_1 restarted with a new id, node_2 joined
+        ticker.advance(10);
+        Map<String, DataNodeSignals.NodeSignals> signals = dataNodeSignals.update(Arrays.asList(
+                counters("node_3", 50, 5000, 1000, 0), counters("node_2", 100000, 900000, 100000, 0)));
+        assertFalse(signals.containsKey("node_1"));
+        assertEquals(0, signals.get("node_2").getQueryLatencyInMillis(), 0);
+        assertEquals(0, signals.get("node_3").getQueryLatencyInMillis(), 0);
+        assertEquals(0, signals.get("node_3").getIndexingThrottleRatio(), 0);
+
+        // node_1 is forgotten, coming back it starts over
+        ticker.advance(10);
+        signals = dataNodeSignals.update(Collections.singletonList(counters("node_1", 2000, 900000, 0, 0)));
+        assertEquals(0, signals.get("node_1").getQueryLatencyInMillis(), 0);
+    }
+
+    @Test
+    public void testQueryLatencyHistory() {
+        DataNodeSignals.NodeCounters counters = counters("node_1", 0, 0, 0, 0);
+        dataNodeSignals.update(Collections.singletonList(counters));
+
+        // Nothing reported while the history is short
+        for (int i = 0; i < DataNodeSignals.MIN_QUERY_LATENCY_SAMPLES; i++) {
+            assertEquals(0, interval(counters, 50).getQueryLatency99InMillis(), 0);
+        }
+
+        // The current interval is compared with the history before it
+        DataNodeSignals.NodeSignals signals = interval(counters, 10);
+        assertEquals(10, signals.getQueryLatencyInMillis(), 0.001);
+        assertEquals(50, signals.getQueryLatency99InMillis(), 0.001);
+
+        // Old intervals leave the history
+        for (int i = 0; i < DataNodeSignals.QUERY_LATENCY_WINDOW; i++) {
+            signals = interval(counters, 10);
+        }
+        assertEquals(10, signals.getQueryLatency99InMillis(), 0.001);
+    }
+
+    @Test
+    public void testDiskUsed() {
+        DataNodeSignals.NodeCounters counters = counters("node_1", 0, 0, 0, 0);
+        counters.diskTotalInBytes = 1000;
+        counters.diskAvailableInBytes = 250;
+
+        Map<String, DataNodeSignals.NodeSignals> signals = dataNodeSignals.update(Arrays.asList(counters, counters("node_2", 0, 0, 0, 0)));
+        assertEquals(75, signals.get("node_1").getDiskUsedPercent(), 0.001);
+        // No file system statistics
+        assertEquals(0, signals.get("node_2").getDiskUsedPercent(), 0);
+    }
+
+    private DataNodeSignals.NodeSignals interval(DataNodeSignals.NodeCounters counters, long queryLatencyInMillis) {
+        counters.queryTotal += 100;
+        counters.queryTimeInMillis += 100 * queryLatencyInMillis;
+        ticker.advance(10);
+        return dataNodeSignals.update(Collections.singletonList(counters)).get("node_1");
+    }
+
+    private static DataNodeSignals.NodeCounters counters(String nodeId, long queryTotal, long queryTimeInMillis,
+                                                         long indexingThrottleTimeInMillis, long mergesCurrent) {
+        DataNodeSignals.NodeCounters counters = new DataNodeSignals.NodeCounters(nodeId);
+        counters.queryTotal = queryTotal;
+        counters.queryTimeInMillis = queryTimeInMillis;
+        counters.indexingThrottleTimeInMillis = indexingThrottleTimeInMillis;
+        counters.mergesCurrent = mergesCurrent;
+        return counters;
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestDiskStatsSampler {
+    private static final String MOUNT_INFO =
+            "17 1 202:1 / / rw,relatime shared:1 - ext4 /dev/xvda1 rw,data=ordered\n" +
+            "25 17 0:22 / /proc rw,nosuid,nodev,noexec,relatime shared:5 - proc proc rw\n" +
+            "40 17 202:16 / /mnt/data rw,noatime shared:20 - ext4 /dev/xvdb rw\n";
+
+    private File directory;
+    private File mountInfo;
+    private File diskStats;
+    private long nanos;
+
+    @Before
+    public void setup() throws IOException {
+        directory = new File(System.getProperty("java.io.tmpdir"), "disk-stats-" + System.nanoTime());
+        directory.mkdirs();
+        mountInfo = new File(directory, "mountinfo");
+        diskStats = new File(directory, "diskstats");
+        FileUtils.writeStringToFile(mountInfo, MOUNT_INFO);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testSample() throws IOException {
+        DiskStatsSampler sampler = newSampler("/mnt/data/es");
+
+        writeDiskStats(1000, 8000, 500, 2000, 40000, 3000, 2, 4000, 9000);
+        DiskStatsSampler.DiskStats first = sampler.sample();
+        assertEquals("202:16", first.getDevice());
+        assertEquals(1000, first.getReads());
+        assertEquals(2000, first.getWrites());
+        assertEquals(8000 * 512, first.getReadBytes());
+        assertEquals(0, first.getReadIops(), 0);
+
+        nanos += TimeUnit.SECONDS.toNanos(10);
+        // 100 reads, 400 writes, 1000 ms busy, 5000 weighted ms over 10 seconds
+        writeDiskStats(1100, 8800, 700, 2400, 48000, 3800, 1, 5000, 14000);
+        DiskStatsSampler.DiskStats second = sampler.sample();
+        assertEquals(10, second.getReadIops(), 0.001);
+        assertEquals(40, second.getWriteIops(), 0.001);
+        assertEquals(800 * 512 / 10.0, second.getReadBytesPerSecond(), 0.001);
+        assertEquals(8000 * 512 / 10.0, second.getWriteBytesPerSecond(), 0.001);
+        assertEquals(2.0, second.getAwaitInMillis(), 0.001);
+        assertEquals(2.0, second.getServiceTimeInMillis(), 0.001);
+        assertEquals(0.5, second.getAverageQueueDepth(), 0.001);
+        assertEquals(10, second.getUtilizationPercent(), 0.001);
+        assertEquals(1, second.getIosInProgress());
+    }
+
+    @Test
+    public void testRootDevice() throws IOException {
+        writeDiskStats(1, 1, 1, 1, 1, 1, 0, 1, 1);
+        DiskStatsSampler.DiskStats stats = newSampler("/var/lib/es").sample();
+        assertEquals("202:1", stats.getDevice());
+    }
+
+    @Test
+    public void testUnknownDevice() throws IOException {
+        FileUtils.writeStringToFile(diskStats, "   7       0 loop0 0 0 0 0 0 0 0 0 0 0 0\n");
+        assertNull(newSampler("/mnt/data/es").sample());
+    }
+
+    @Test
+    public void testIsUnder() {
+        assertTrue(DiskStatsSampler.isUnder("/mnt/data/es", "/mnt/data"));
+        assertTrue(DiskStatsSampler.isUnder("/mnt/data", "/mnt/data"));
+        assertTrue(DiskStatsSampler.isUnder("/mnt/data", "/"));
+        assertFalse(DiskStatsSampler.isUnder("/mnt/database", "/mnt/data"));
+    }
+
+    private DiskStatsSampler newSampler(String dataPath) {
+        return new DiskStatsSampler(dataPath, mountInfo.getPath(), diskStats.getPath(), new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+    }
+
+    private void writeDiskStats(long reads, long sectorsRead, long millisReading, long writes, long sectorsWritten,
+                                long millisWriting, long inProgress, long millisDoingIo, long weightedMillis) throws IOException {
+        String data = String.format(
+                " 202       0 xvda 50 0 400 20 60 0 480 30 0 40 50\n" +
+                " 202       1 xvda1 1 0 8 0 1 0 8 0 0 1 1\n" +
+                " 202      16 xvdb %d 0 %d %d %d 0 %d %d %d %d %d 0 0 0 0\n",
+                reads, sectorsRead, millisReading, writes, sectorsWritten, millisWriting, inProgress, millisDoingIo, weightedMillis);
+        FileUtils.writeStringToFile(diskStats, data);
+    }
+}
@@ -0,0 +1,115 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestGcIntervalAnalyzer {
+    private static final long MB = 1024 * 1024;
+
+    private FakeTicker ticker;
+    private GcIntervalAnalyzer analyzer;
+
+    @Before
+    public void setup() {
+        ticker = new FakeTicker();
+        analyzer = new GcIntervalAnalyzer(new FakeConfiguration(), ticker);
+    }
+
+    @Test
+    public void testPausesAndRates() {
+        GcIntervalAnalyzer.GcInterval first = analyzer.update("node1", sample(100, 1000, 0, 0, 50 * MB, 100 * MB));
+        assertEquals(0, first.getElapsedMillis());
+
+        ticker.advance(10);
+        GcIntervalAnalyzer.GcInterval second = analyzer.update("node1", sample(110, 1200, 1, 300, 60 * MB, 100 * MB));
+        assertEquals(10000, second.getElapsedMillis());
+        assertEquals(1, second.getYoungCollectionRate(), 0.001);
+        assertEquals(20, second.getYoungAvgPauseInMillis(), 0.001);
+        assertEquals(300, second.getOldAvgPauseInMillis(), 0.001);
+        assertEquals(0.05, second.getGcTimeRatio(), 0.001);
+        assertEquals(MB, second.getPromotionRateInBytesPerSec(), 0.001);
+        assertEquals(60, second.getOldUsedPercent(), 0.001);
+
+        // Lower average pauses, the max still remembers the previous interval
+        ticker.advance(10);
+        GcIntervalAnalyzer.GcInterval third = analyzer.update("node1", sample(120, 1300, 1, 300, 60 * MB, 100 * MB));
+        assertEquals(10, third.getYoungAvgPauseInMillis(), 0.001);
+        assertEquals(20, third.getYoungMaxPauseInMillis(), 0.001);
+        assertEquals(0, third.getOldAvgPauseInMillis(), 0.001);
+        assertEquals(300, third.getOldMaxPauseInMillis(), 0.001);
+        assertEquals(0, third.getPromotionRateInBytesPerSec(), 0.001);
+    }
+
+    @Test
+    public void testAllocationEstimate() {
+        GcIntervalAnalyzer.GcSample previous = new GcIntervalAnalyzer.GcSample().young(0, 0, 40 * MB, 100 * MB);
+
+        assertEquals(30 * MB, GcIntervalAnalyzer.estimateAllocatedBytes(previous,
+                new GcIntervalAnalyzer.GcSample().young(0, 0, 70 * MB, 100 * MB), 0));
+        // 60mb until the first collection, 100mb until the second one, 10mb since then
+        assertEquals(170 * MB, GcIntervalAnalyzer.estimateAllocatedBytes(previous,
+                new GcIntervalAnalyzer.GcSample().young(2, 10, 10 * MB, 100 * MB), 2));
+    }
+
+    @Test
+    public void testSustainedPressure() {
+        analyzer.update("node1", sample(0, 0, 0, 0, 50 * MB, 100 * MB));
+
+        // Old collections that leave the old generation 80% full, for 3 intervals (sustained intervals in the fake configuration)
+        for (int i = 1; i <= 3; i++) {
+            ticker.advance(60);
+            GcIntervalAnalyzer.GcInterval interval = analyzer.update("node1", sample(i * 10, i * 100, i, i * 500, 80 * MB, 100 * MB));
+            assertTrue(interval.isPressure());
+            assertEquals(i, interval.getPressureIntervals());
+            assertEquals(i == 3, interval.isSustainedPressure());
+        }
+
+        ticker.advance(60);
+        GcIntervalAnalyzer.GcInterval relieved = analyzer.update("node1", sample(40, 400, 3, 1500, 80 * MB, 100 * MB));
+        assertFalse(relieved.isPressure());
+        assertFalse(relieved.isSustainedPressure());
+
+        // 10% of the time in young collections
+        ticker.advance(10);
+        assertTrue(analyzer.update("node1", sample(50, 1400, 3, 1500, 80 * MB, 100 * MB)).isPressure());
+    }
+
+    @Test
+    public void testRestart() {
+        analyzer.update("node1", sample(100, 1000, 5, 500, 50 * MB, 100 * MB));
+        ticker.advance(10);
+        assertEquals(0, analyzer.update("node2", sample(200, 2000, 5, 500, 50 * MB, 100 * MB)).getElapsedMillis());
+        ticker.advance(10);
+        assertEquals(0, analyzer.update("node2", sample(10, 100, 0, 0, 50 * MB, 100 * MB)).getElapsedMillis());
+        ticker.advance(10);
+        assertEquals(1, analyzer.update("node2", sample(20, 200, 0, 0, 50 * MB, 100 * MB)).getYoungCollectionRate(), 0.001);
+    }
+
+    private static GcIntervalAnalyzer.GcSample sample(long youngCount, long youngTimeMillis, long oldCount, long oldTimeMillis,
+                                                      long oldUsedInBytes, long oldMaxInBytes) {
+        return new GcIntervalAnalyzer.GcSample()
+                .young(youngCount, youngTimeMillis, 0, 100 * MB)
+                .old(oldCount, oldTimeMillis, oldUsedInBytes, oldMaxInBytes);
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
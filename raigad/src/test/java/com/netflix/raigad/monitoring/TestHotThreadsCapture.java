@@ -0,0 +1,52 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestHotThreadsCapture {
+    private static final FakeConfiguration CONFIG = new FakeConfiguration();
+
+    @Test
+    public void testAnomalies() {
+        assertEquals(Collections.emptyList(), HotThreadsCapture.anomalies(CONFIG, 100, (short) 70, (short) 50, false));
+        assertEquals(Arrays.asList("search query time 800ms", "cpu 95%"),
+                HotThreadsCapture.anomalies(CONFIG, 800, (short) 70, (short) 95, false));
+        assertEquals(Arrays.asList("heap used 90%", "sustained gc pressure"),
+                HotThreadsCapture.anomalies(CONFIG, 0, (short) 90, (short) 0, true));
+    }
+
+    @Test
+    public void testRateLimit() {
+        FakeTicker ticker = new FakeTicker();
+        HotThreadsCapture capture = new HotThreadsCapture(CONFIG, null, null, null, null, ticker);
+
+        assertTrue(capture.tryAcquire());
+        ticker.advance(599);
+        assertFalse(capture.tryAcquire());
+        ticker.advance(1);
+        assertTrue(capture.tryAcquire());
+        assertFalse(capture.tryAcquire());
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.netflix.raigad.monitoring;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestHotThreadsRing {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HotThreadsRing ring;
+
+    @Before
+    public void setup() {
+        ring = new HotThreadsRing(new File(folder.getRoot(), "hot_threads"));
+    }
+
+    @Test
+    public void testKeepsLastCaptures() throws Exception {
+        assertTrue(ring.list().isEmpty());
+
+        ring.add(1000, "cpu 95%", "first", 2);
+        ring.add(2000, "heap used 92%", "second", 2);
+        HotThreadsRing.Capture third = ring.add(3000, "search query time 800ms, cpu 91%", "third", 2);
+        assertEquals("0000000003000", third.getId());
+
+        List<HotThreadsRing.Capture> captures = ring.list();
+        assertEquals(2, captures.size());
+        assertEquals("0000000003000", captures.get(0).getId());
+        assertEquals(3000, captures.get(0).getTimestampMillis());
+        assertEquals("search query time 800ms, cpu 91%", captures.get(0).getTriggers());
+        assertEquals("0000000002000", captures.get(1).getId());
+
+        assertNull(ring.read("0000000001000"));
+        assertEquals("triggers: heap used 92%\n\nsecond", ring.read("0000000002000"));
+    }
+
+    @Test
+    public void testRejectsInvalidIds() throws Exception {
+        ring.add(1000, "cpu 95%", "first", 2);
+
+        assertNull(ring.read(null));
+        assertNull(ring.read("../hot_threads-0000000001000"));
+        assertNull(ring.read("1000"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexHotSpotMonitor {
+    @Test
+    public void testTopK() {
+        List<IndexHotSpotMonitor.HotSpot> candidates = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            candidates.add(hotSpot("index_" + i, (i * 37) % 100));
+        }
+
+        List<IndexHotSpotMonitor.HotSpot> top = IndexHotSpotMonitor.topK(candidates, 3);
+        assertEquals(3, top.size());
+        assertEquals(99, top.get(0).getScore(), 0);
+        assertEquals(98, top.get(1).getScore(), 0);
+        assertEquals(97, top.get(2).getScore(), 0);
+    }
+
+    @Test
+    public void testTopKWithFewerCandidates() {
+        List<IndexHotSpotMonitor.HotSpot> candidates = new ArrayList<>();
+        candidates.add(hotSpot("logs", 1));
+        candidates.add(hotSpot("users", 5));
+
+        List<IndexHotSpotMonitor.HotSpot> top = IndexHotSpotMonitor.topK(candidates, 10);
+        assertEquals(2, top.size());
+        assertEquals("users", top.get(0).getIndex());
+
+        assertTrue(IndexHotSpotMonitor.topK(candidates, 0).isEmpty());
+    }
+
+    @Test
+    public void testScoreFromName() {
+        assertEquals(IndexHotSpotMonitor.HotSpotScore.SEARCH_RATE, IndexHotSpotMonitor.HotSpotScore.fromName("search_rate"));
+        assertEquals(IndexHotSpotMonitor.HotSpotScore.STORE_SIZE, IndexHotSpotMonitor.HotSpotScore.fromName(" STORE_SIZE "));
+        assertEquals(IndexHotSpotMonitor.HotSpotScore.INDEXING_RATE, IndexHotSpotMonitor.HotSpotScore.fromName("bogus"));
+    }
+
+    @Test
+    public void testRelocation() {
+        FakeTicker ticker = new FakeTicker();
+        CounterRateTracker tracker = new CounterRateTracker(ticker);
+
+        Map<String, IndexHotSpotMonitor.HotSpot> hotSpots = hotSpots(tracker, true, copy("logs", 0, "a", 1000), copy("logs", 1, "b", 2000));
+        assertEquals(0, hotSpots.get("node_1/logs/all").getIndexingRate(), 0);
+
+        // Shard 1 moved away and shard 2 moved in with its own history, shard 0 indexed 100 documents
+        ticker.advance(10);
+        hotSpots = hotSpots(tracker, true, copy("logs", 0, "a", 1100), copy("logs", 2, "c", 500));
+        assertEquals(10, hotSpots.get("node_1/logs/all").getIndexingRate(), 0.001);
+        assertEquals(10, hotSpots.get("node_1/logs/0").getIndexingRate(), 0.001);
+        assertEquals(0, hotSpots.get("node_1/logs/2").getIndexingRate(), 0);
+        assertFalse(hotSpots.containsKey("node_1/logs/1"));
+
+        ticker.advance(10);
+        hotSpots = hotSpots(tracker, true, copy("logs", 0, "a", 1200), copy("logs", 2, "c", 600));
+        assertEquals(20, hotSpots.get("node_1/logs/all").getIndexingRate(), 0.001);
+        assertEquals(10, hotSpots.get("node_1/logs/2").getIndexingRate(), 0.001);
+
+        // Shard 0 came back as a new copy with lower counters, which is not a reset
+        ticker.advance(10);
+        hotSpots = hotSpots(tracker, false, copy("logs", 0, "d", 10), copy("logs", 2, "c", 700));
+        assertEquals(10, hotSpots.get("node_1/logs/all").getIndexingRate(), 0.001);
+        assertEquals(1, hotSpots.size());
+    }
+
+    @Test
+    public void testQueryLatency() {
+        FakeTicker ticker = new FakeTicker();
+        CounterRateTracker tracker = new CounterRateTracker(ticker);
+
+        IndexHotSpotMonitor.ShardCopy first = copy("users", 0, "a", 0);
+        IndexHotSpotMonitor.ShardCopy second = copy("users", 1, "b", 0);
+        hotSpots(tracker, false, first, second);
+
+        ticker.advance(10);
+        first.queryTotal = 10;
+        first.queryTimeInMillis = 100;
+        second.queryTotal = 30;
+        second.queryTimeInMillis = 900;
+        IndexHotSpotMonitor.HotSpot hotSpot = hotSpots(tracker, false, first, second).get("node_1/users/all");
+        assertEquals(4, hotSpot.getSearchRate(), 0.001);
+        assertEquals(25, hotSpot.getQueryLatencyInMillis(), 0.001);
+    }
+
+    @Test
+    public void testHotSpotsPerNode() {
+        FakeTicker ticker = new FakeTicker();
+        CounterRateTracker tracker = new CounterRateTracker(ticker);
+
+        IndexHotSpotMonitor.ShardCopy primary = copy("logs", 0, "a", 1000);
+        IndexHotSpotMonitor.ShardCopy replica = new IndexHotSpotMonitor.ShardCopy("node_2", "logs", 0, "b");
+        replica.indexTotal = 1000;
+        hotSpots(tracker, true, primary, replica);
+
+        ticker.advance(10);
+        primary.indexTotal = 1500;
+        replica.indexTotal = 1100;
+        Map<String, IndexHotSpotMonitor.HotSpot> hotSpots = hotSpots(tracker, true, primary, replica);
+        assertEquals(4, hotSpots.size());
+        assertEquals(50, hotSpots.get("node_1/logs/all").getIndexingRate(), 0.001);
+        assertEquals(10, hotSpots.get("node_2/logs/0").getIndexingRate(), 0.001);
+        assertEquals("node_2", hotSpots.get("node_2/logs/all").getNodeId());
+    }
+
+    private static Map<String, IndexHotSpotMonitor.HotSpot> hotSpots(CounterRateTracker tracker, boolean shardLevel,
+                                                                     IndexHotSpotMonitor.ShardCopy... copies) {
+        Set<String> counters = new HashSet<>();
+        Collection<IndexHotSpotMonitor.HotSpot> hotSpots = IndexHotSpotMonitor.toHotSpots(tracker, Arrays.asList(copies), shardLevel, counters);
+        tracker.retain(counters);
+
+        Map<String, IndexHotSpotMonitor.HotSpot> byKey = new HashMap<>();
+        for (IndexHotSpotMonitor.HotSpot hotSpot : hotSpots) {
+            byKey.put(hotSpot.getKey(), hotSpot);
+        }
+        return byKey;
+    }
+
+    private static IndexHotSpotMonitor.ShardCopy copy(String index, int shard, String allocationId, long indexTotal) {
+        IndexHotSpotMonitor.ShardCopy copy = new IndexHotSpotMonitor.ShardCopy("node_1", index, shard, allocationId);
+        copy.indexTotal = indexTotal;
+        return copy;
+    }
+
+    private static IndexHotSpotMonitor.HotSpot hotSpot(String index, double score) {
+        IndexHotSpotMonitor.HotSpot hotSpot = new IndexHotSpotMonitor.HotSpot("node_1", index, IndexHotSpotMonitor.ALL_SHARDS);
+        hotSpot.score = score;
+        return hotSpot;
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
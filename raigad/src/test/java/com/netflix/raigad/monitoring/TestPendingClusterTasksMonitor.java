@@ -0,0 +1,66 @@
+package com.netflix.raigad.monitoring;
+
+import org.elasticsearch.cluster.service.PendingClusterTask;
+import org.elasticsearch.common.Priority;
+import org.elasticsearch.common.text.Text;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPendingClusterTasksMonitor {
+    @Test
+    public void testSourceType() {
+        assertEquals("put-mapping", PendingClusterTasksMonitor.sourceType("put-mapping [logs-2017.01.01]"));
+        assertEquals("create-index", PendingClusterTasksMonitor.sourceType("create-index [logs], cause [auto(bulk api)]"));
+        assertEquals("cluster_reroute", PendingClusterTasksMonitor.sourceType("cluster_reroute(async_shard_fetch)"));
+        assertEquals("refresh-mapping", PendingClusterTasksMonitor.sourceType("refresh-mapping"));
+        assertEquals("[odd]", PendingClusterTasksMonitor.sourceType("[odd]"));
+        assertEquals("unknown", PendingClusterTasksMonitor.sourceType(null));
+    }
+
+    @Test
+    public void testSummarize() {
+        List<PendingClusterTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(task(i, "put-mapping [index_" + i + "]", 5000 - i * 10, false));
+        }
+        tasks.add(task(50, "create-index [new], cause [api]", 7000, true));
+        tasks.add(task(51, "create-index [other], cause [api]", 100, false));
+        tasks.add(task(52, "shard-started ([index_1][0])", 20, false));
+
+        PendingClusterTasksMonitor.PendingTasksSummary summary = PendingClusterTasksMonitor.summarize(tasks, 2);
+        assertEquals(53, summary.pendingTasks);
+        assertEquals(1, summary.executingTasks);
+        assertEquals(7000, summary.oldestTimeInQueueInMillis);
+        assertEquals(3, summary.sources.size());
+
+        assertEquals(2, summary.topSources.size());
+        assertEquals("put-mapping", summary.topSources.get(0).source);
+        assertEquals(50, summary.topSources.get(0).count);
+        assertEquals(5000, summary.topSources.get(0).oldestTimeInQueueInMillis);
+        assertEquals("create-index", summary.topSources.get(1).source);
+        assertEquals(2, summary.topSources.get(1).count);
+
+        assertEquals(2, summary.oldestTasks.size());
+        assertEquals(50, summary.oldestTasks.get(0).getInsertOrder());
+        assertEquals(0, summary.oldestTasks.get(1).getInsertOrder());
+    }
+
+    @Test
+    public void testSummarizeEmpty() {
+        PendingClusterTasksMonitor.PendingTasksSummary summary =
+                PendingClusterTasksMonitor.summarize(Collections.<PendingClusterTask>emptyList(), 10);
+        assertEquals(0, summary.pendingTasks);
+        assertTrue(summary.topSources.isEmpty());
+        assertTrue(summary.oldestTasks.isEmpty());
+    }
+
+    private static PendingClusterTask task(long insertOrder, String source, long timeInQueue, boolean executing) {
+        return new PendingClusterTask(insertOrder, Priority.NORMAL, new Text(source), timeInQueue, executing);
+    }
+}
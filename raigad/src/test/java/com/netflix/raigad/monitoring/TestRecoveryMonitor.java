@@ -0,0 +1,106 @@
+package com.netflix.raigad.monitoring;
+
+import com.google.common.base.Ticker;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.common.transport.DummyTransportAddress;
+import org.elasticsearch.index.recovery.RecoveryStats;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.recovery.RecoveryState;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestRecoveryMonitor {
+    private static final DiscoveryNode NODE_1 = new DiscoveryNode("node_1", DummyTransportAddress.INSTANCE, Version.CURRENT);
+    private static final DiscoveryNode NODE_2 = new DiscoveryNode("node_2", DummyTransportAddress.INSTANCE, Version.CURRENT);
+
+    @Test
+    public void testAggregate() {
+        FakeTicker ticker = new FakeTicker();
+        CounterRateTracker tracker = new CounterRateTracker(ticker);
+
+        RecoveryState replica = recovery("logs", RecoveryState.Type.REPLICA, NODE_1, NODE_2, 10000, 1000);
+        RecoveryState relocation = recovery("users", RecoveryState.Type.RELOCATION, NODE_2, NODE_1, 4000, 0);
+        List<RecoveryState> recoveries = Arrays.asList(replica, relocation);
+
+        Set<String> counters = new HashSet<>();
+        RecoveryMonitor.RecoveryTotals cluster = RecoveryMonitor.aggregate(recoveries, null, tracker, counters);
+        assertEquals(2, cluster.active);
+        assertEquals(1, cluster.getActive(RecoveryState.Type.REPLICA));
+        assertEquals(1, cluster.getActive(RecoveryState.Type.RELOCATION));
+        assertEquals(0, cluster.getActive(RecoveryState.Type.SNAPSHOT));
+        assertEquals(13000, cluster.remainingBytes);
+        // Nothing to compare with yet
+        assertEquals(-1, cluster.etaInSeconds);
+
+        ticker.advance(10);
+        replica.getIndex().addRecoveredBytesToFile("file", 2000);
+        relocation.getIndex().addRecoveredBytesToFile("file", 1000);
+        cluster = RecoveryMonitor.aggregate(recoveries, null, tracker, counters);
+        assertEquals(300, cluster.bytesPerSecond, 0.001);
+        assertEquals(10000, cluster.remainingBytes);
+        assertEquals(34, cluster.etaInSeconds);
+
+        RecoveryMonitor.RecoveryTotals local = RecoveryMonitor.aggregate(recoveries, "node_2", tracker, counters);
+        assertEquals(1, local.active);
+        assertEquals(1, local.getActive(RecoveryState.Type.REPLICA));
+        assertEquals(7000, local.remainingBytes);
+
+        assertEquals(1, RecoveryMonitor.countAsSource(recoveries, "node_1"));
+        assertEquals(new HashSet<>(Arrays.asList("node_1", "node_2")), RecoveryMonitor.activeNodeIds(recoveries));
+    }
+
+    @Test
+    public void testLocalTotals() {
+        FakeTicker ticker = new FakeTicker();
+        CounterRateTracker tracker = new CounterRateTracker(ticker);
+        RecoveryStats recoveryStats = new RecoveryStats();
+        recoveryStats.incCurrentAsTarget();
+        recoveryStats.incCurrentAsSource();
+        recoveryStats.incCurrentAsSource();
+        recoveryStats.addThrottleTime(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        RecoveryMonitor.RecoveryBean recoveryBean = new RecoveryMonitor.RecoveryBean();
+        RecoveryMonitor.localTotals(recoveryStats, tracker, recoveryBean);
+        assertEquals(1, recoveryBean.local.active);
+        assertEquals(2, recoveryBean.localActiveAsSource);
+        assertEquals(0, recoveryBean.local.throttleMillisPerSecond, 0);
+        // Cluster-wide recoveries are only known to the master
+        assertEquals(0, recoveryBean.cluster.active);
+
+        ticker.advance(10);
+        recoveryStats.addThrottleTime(TimeUnit.MILLISECONDS.toNanos(4000));
+        recoveryBean = new RecoveryMonitor.RecoveryBean();
+        RecoveryMonitor.localTotals(recoveryStats, tracker, recoveryBean);
+        assertEquals(400, recoveryBean.local.throttleMillisPerSecond, 0.001);
+    }
+
+    private static RecoveryState recovery(String index, RecoveryState.Type type, DiscoveryNode source, DiscoveryNode target,
+                                          long fileLength, long recoveredBytes) {
+        RecoveryState recoveryState = new RecoveryState(new ShardId(index, 0), false, type, source, target);
+        recoveryState.setStage(RecoveryState.Stage.INDEX);
+        recoveryState.getIndex().addFileDetail("file", fileLength, false);
+        recoveryState.getIndex().addRecoveredBytesToFile("file", recoveredBytes);
+        return recoveryState;
+    }
+
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.netflix.raigad.monitoring.export;
+
+import com.netflix.servo.BasicMonitorRegistry;
+import com.netflix.servo.MonitorRegistry;
+import com.netflix.servo.annotations.DataSourceType;
+import com.netflix.servo.annotations.Monitor;
+import com.netflix.servo.monitor.BasicGauge;
+import com.netflix.servo.monitor.MonitorConfig;
+import com.netflix.servo.monitor.Monitors;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestMetricsExport {
+
+    @Test
+    public void testLineProtocolKeyEscaping() {
+        Map<String, String> tags = new HashMap<>();
+        tags.put("node", "i-123");
+        tags.put("index", "logs 2017,a=b");
+        MetricKey key = new MetricKey("heap used", tags);
+        assertEquals("heap\\ used,index=logs\\ 2017\\,a\\=b,node=i-123", key.toString());
+    }
+
+    @Test
+    public void testCollectFlattensCompositeMonitors() {
+        MonitorRegistry registry = new BasicMonitorRegistry();
+        registry.register(new BasicGauge<>(MonitorConfig.builder("gauge").withTag("class", "Test").build(), new Callable<Number>() {
+            @Override
+            public Number call() {
+                return 42;
+            }
+        }));
+        registry.register(Monitors.newObjectMonitor("reporter", new Reporter()));
+
+        Map<String, String> commonTags = new TreeMap<>();
+        commonTags.put("cluster", "es_test");
+        MetricsSnapshot snapshot = new MetricsCollector(registry, commonTags).collect();
+
+        Map<String, Double> values = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals("es_test", snapshot.getKey(i).getTags().get("cluster"));
+            values.put(snapshot.getKey(i).getName(), snapshot.getValue(i));
+        }
+
+        assertEquals(42.0, values.get("gauge"), 0.0);
+        assertEquals(7.0, values.get("count"), 0.0);
+        assertEquals(2, values.size());
+    }
+
+    @Test
+    public void testUdpSinkPacksLines() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            socket.setSoTimeout(2000);
+            MetricKey first = new MetricKey("first", Collections.singletonMap("node", "i-1"));
+            MetricKey second = new MetricKey("second", Collections.singletonMap("node", "i-1"));
+            MetricsSnapshot snapshot = new MetricsSnapshot(1000L, new MetricKey[]{first, second}, new double[]{3, 1.5}, 2);
+
+            try (UdpLineProtocolSink sink = new UdpLineProtocolSink("localhost", socket.getLocalPort(), 1400)) {
+                sink.write(snapshot);
+            }
+
+            DatagramPacket packet = new DatagramPacket(new byte[1400], 1400);
+            socket.receive(packet);
+            String payload = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8);
+            assertEquals("first,node=i-1 value=3 1000000000\nsecond,node=i-1 value=1.5 1000000000\n", payload);
+        }
+    }
+
+    @Test
+    public void testUdpSinkSplitsDatagrams() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            socket.setSoTimeout(2000);
+            MetricKey key = new MetricKey("metric", Collections.singletonMap("node", "i-1"));
+            MetricsSnapshot snapshot = new MetricsSnapshot(1000L, new MetricKey[]{key, key, key}, new double[]{1, 2, 3}, 3);
+
+            // One line is 37 bytes, two of them do not fit into 64
+            try (UdpLineProtocolSink sink = new UdpLineProtocolSink("localhost", socket.getLocalPort(), 64)) {
+                sink.write(snapshot);
+            }
+
+            for (int i = 1; i <= 3; i++) {
+                DatagramPacket packet = new DatagramPacket(new byte[64], 64);
+                socket.receive(packet);
+                String payload = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8);
+                assertTrue(payload, payload.startsWith("metric,node=i-1 value=" + i + " "));
+            }
+        }
+    }
+
+    @Test
+    public void testPrometheusRendering() throws Exception {
+        PrometheusRenderer renderer = new PrometheusRenderer();
+        assertFalse(renderer.writeTo(new ByteArrayOutputStream()));
+
+        Map<String, String> tags = new HashMap<>();
+        tags.put("node", "i-1");
+        tags.put("index", "say \"hi\"");
+        MetricKey heap = new MetricKey("heap.used", tags);
+        MetricKey cpu = new MetricKey("cpu", Collections.singletonMap("node", "i-1"));
+        MetricKey otherHeap = new MetricKey("heap.used", Collections.singletonMap("node", "i-2"));
+        renderer.write(new MetricsSnapshot(1000L, new MetricKey[]{heap, cpu, otherHeap}, new double[]{1024, 0.25, 2048}, 3));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertTrue(renderer.writeTo(output));
+        assertEquals("# TYPE cpu gauge\n" +
+                "cpu{node=\"i-1\"} 0.25\n" +
+                "# TYPE heap_used gauge\n" +
+                "heap_used{index=\"say \\\"hi\\\"\",node=\"i-1\"} 1024\n" +
+                "heap_used{node=\"i-2\"} 2048\n", output.toString("UTF-8"));
+
+        // The next cycle replaces the rendering
+        renderer.write(new MetricsSnapshot(2000L, new MetricKey[]{cpu}, new double[]{0.5}, 1));
+        output = new ByteArrayOutputStream();
+        renderer.writeTo(output);
+        assertEquals("# TYPE cpu gauge\ncpu{node=\"i-1\"} 0.5\n", output.toString("UTF-8"));
+    }
+
+    public static class Reporter {
+        @Monitor(name = "count", type = DataSourceType.GAUGE)
+        public int getCount() {
+            return 7;
+        }
+
+        @Monitor(name = "label", type = DataSourceType.INFORMATIONAL)
+        public String getLabel() {
+            return "not a number";
+        }
+    }
+}
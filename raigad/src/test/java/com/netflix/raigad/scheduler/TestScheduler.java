@@ -14,6 +14,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class TestScheduler
 {
@@ -46,6 +48,21 @@ public class TestScheduler
         assertEquals(3, SingleTestTask.count);
     }
 
+    @Test
+    public void testScheduleAfterEvent() throws Exception
+    {
+        EventTestTask.latch = new CountDownLatch(1);
+        Injector inject = Guice.createInjector(new UnitTestModule());
+        RaigadScheduler scheduler = inject.getInstance(RaigadScheduler.class);
+        scheduler.start();
+        scheduler.addTaskAfterEvent("started", "test3", EventTestTask.class, new SimpleTimer("testtask3", 10), 600);
+        assertFalse(EventTestTask.latch.await(200, TimeUnit.MILLISECONDS));
+        scheduler.fireEvent("started");
+        // the event starts the task long before its maximum delay
+        assertTrue(EventTestTask.latch.await(2000, TimeUnit.MILLISECONDS));
+        scheduler.shutdown();
+    }
+
     @Ignore
     public static class TestTask extends Task
     {
@@ -70,6 +87,31 @@ public class TestScheduler
 
     }
 
+    @Ignore
+    @Singleton
+    public static class EventTestTask extends Task
+    {
+        static CountDownLatch latch;
+
+        @Inject
+        public EventTestTask(IConfiguration config)
+        {
+            super(config, MBeanServerFactory.newMBeanServer());
+        }
+
+        @Override
+        public void execute()
+        {
+            latch.countDown();
+        }
+
+        @Override
+        public String getName()
+        {
+            return "test3";
+        }
+    }
+
     @Ignore
     @Singleton
     public static class SingleTestTask extends Task
@@ -0,0 +1,143 @@
+package com.netflix.raigad.scheduler;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import com.netflix.raigad.configuration.IConfiguration;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import javax.management.MBeanServerFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestTaskExecution
+{
+    @Test
+    public void testOverlappingExecutionIsSkipped() throws Exception
+    {
+        final BlockingTask task = new BlockingTask(new FakeConfiguration());
+        Thread first = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    task.execute(null);
+                }
+                catch (Exception e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        first.start();
+        assertTrue(task.started.await(2, TimeUnit.SECONDS));
+
+        task.execute(null);
+        assertEquals(1, task.getSkippedCount());
+        assertEquals(1, task.getRunningCount());
+
+        task.release.countDown();
+        first.join(2000);
+        assertEquals(0, task.getRunningCount());
+        assertEquals(2, task.getExecutionCount());
+        assertEquals(1, task.getCompletedCount());
+        assertEquals(Task.STATE.DONE, task.state());
+    }
+
+    @Test
+    public void testConsecutiveFailures() throws Exception
+    {
+        FailingTask task = new FailingTask(new FakeConfiguration());
+        task.execute(null);
+        task.execute(null);
+        assertEquals(2, task.getConsecutiveFailures());
+        assertEquals(0, task.getLastSuccessTimestamp());
+        assertEquals(Task.STATE.ERROR, task.state());
+
+        task.fail = false;
+        task.execute(null);
+        assertEquals(0, task.getConsecutiveFailures());
+        assertTrue(task.getLastSuccessTimestamp() > 0);
+        assertEquals(3, task.getCompletedCount());
+        assertEquals(0, task.getCurrentRunInMillis());
+    }
+
+    @Test
+    public void testDurationHistogram()
+    {
+        TaskDurationHistogram histogram = new TaskDurationHistogram();
+        for (int i = 0; i < 98; i++)
+        {
+            histogram.record(5);
+        }
+        histogram.record(700);
+        histogram.record(120000);
+
+        assertEquals(10, histogram.percentile(50));
+        assertEquals(1000, histogram.percentile(99));
+        assertEquals(120000, histogram.percentile(100));
+        assertEquals(120000, histogram.getMaxMillis());
+        assertEquals(5, histogram.getMinMillis());
+        assertEquals(100, histogram.getCount());
+
+        long[] expected = new long[TaskDurationHistogram.BOUNDS_IN_MILLIS.length + 1];
+        expected[0] = 98;
+        expected[4] = 1;
+        expected[9] = 1;
+        assertArrayEquals(expected, histogram.getCounts());
+    }
+
+    @Ignore
+    public static class FailingTask extends Task
+    {
+        boolean fail = true;
+
+        public FailingTask(IConfiguration config)
+        {
+            super(config, MBeanServerFactory.newMBeanServer());
+        }
+
+        @Override
+        public void execute() throws Exception
+        {
+            if (fail)
+                throw new IllegalStateException("failing");
+        }
+
+        @Override
+        public String getName()
+        {
+            return "failing";
+        }
+    }
+
+    @Ignore
+    public static class BlockingTask extends Task
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public BlockingTask(IConfiguration config)
+        {
+            super(config, MBeanServerFactory.newMBeanServer());
+        }
+
+        @Override
+        public void execute() throws Exception
+        {
+            started.countDown();
+            release.await(2, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public String getName()
+        {
+            return "blocking";
+        }
+    }
+}
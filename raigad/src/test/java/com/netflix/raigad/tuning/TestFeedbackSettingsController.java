@@ -0,0 +1,157 @@
+package com.netflix.raigad.tuning;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import com.netflix.raigad.monitoring.DataNodeSignals;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestFeedbackSettingsController {
+    private static final FeedbackSettingsController.ControlledSetting BANDWIDTH = new FeedbackSettingsController.ControlledSetting(
+            "indices.recovery.max_bytes_per_sec", FeedbackSettingsController.ControlledSetting.Unit.MEGABYTES_PER_SEC, 40, 250);
+    private static final FeedbackSettingsController.ControlledSetting CONCURRENCY = new FeedbackSettingsController.ControlledSetting(
+            "cluster.routing.allocation.node_concurrent_recoveries", FeedbackSettingsController.ControlledSetting.Unit.COUNT, 2, 6);
+
+    @Test
+    public void testNextWithinBounds() {
+        assertEquals(60, BANDWIDTH.next(40, FeedbackSettingsController.Decision.RAISE, 1.5, 0.5), 0);
+        assertEquals(250, BANDWIDTH.next(200, FeedbackSettingsController.Decision.RAISE, 1.5, 0.5), 0);
+        assertEquals(50, BANDWIDTH.next(100, FeedbackSettingsController.Decision.CUT, 1.5, 0.5), 0);
+        assertEquals(40, BANDWIDTH.next(60, FeedbackSettingsController.Decision.CUT, 1.5, 0.5), 0);
+        assertEquals(100, BANDWIDTH.next(100, FeedbackSettingsController.Decision.HOLD, 1.5, 0.5), 0);
+
+        // Small counts still move by one
+        assertEquals(3, CONCURRENCY.next(2, FeedbackSettingsController.Decision.RAISE, 1.2, 0.5), 0);
+        assertEquals(2, CONCURRENCY.next(3, FeedbackSettingsController.Decision.CUT, 1.2, 0.9), 0);
+        assertEquals(6, CONCURRENCY.next(5, FeedbackSettingsController.Decision.RAISE, 2, 0.5), 0);
+    }
+
+    @Test
+    public void testPinnedIndexSetting() {
+        FeedbackSettingsController.ControlledSetting mergeCount = new FeedbackSettingsController.ControlledSetting(
+                MergeThrottleController.MAX_MERGE_COUNT, "logs-*", FeedbackSettingsController.ControlledSetting.Unit.COUNT, 9, 9);
+        assertEquals("logs-*", mergeCount.getIndices());
+        assertNull(BANDWIDTH.getIndices());
+        assertEquals(9, mergeCount.next(9, FeedbackSettingsController.Decision.RAISE, 1.5, 0.5), 0);
+        assertEquals(9, mergeCount.next(9, FeedbackSettingsController.Decision.CUT, 1.5, 0.5), 0);
+        assertEquals(9, mergeCount.clamp(4), 0);
+    }
+
+    @Test
+    public void testParseAndFormat() {
+        assertEquals(100, BANDWIDTH.parse("100mb"), 0.001);
+        assertEquals(1024, BANDWIDTH.parse("1gb"), 0.001);
+        assertEquals("75mb", BANDWIDTH.format(75.4));
+        assertEquals(4, CONCURRENCY.parse(" 4 "), 0);
+        assertEquals("4", CONCURRENCY.format(4));
+    }
+
+    @Test
+    public void testLiveValue() {
+        Settings persistentSettings = Settings.settingsBuilder().put("indices.recovery.max_bytes_per_sec", "100mb").build();
+        Settings transientSettings = Settings.settingsBuilder().put("indices.recovery.max_bytes_per_sec", "20mb").build();
+
+        assertEquals("20mb", FeedbackSettingsController.liveValue("indices.recovery.max_bytes_per_sec", persistentSettings, transientSettings));
+        assertEquals("100mb", FeedbackSettingsController.liveValue("indices.recovery.max_bytes_per_sec", persistentSettings, Settings.EMPTY));
+        assertNull(FeedbackSettingsController.liveValue("indices.recovery.max_bytes_per_sec", Settings.EMPTY, Settings.EMPTY));
+    }
+
+    @Test
+    public void testRaiseOnlyAfterConsecutiveHeadroom() {
+        // Raises after 2 runs with headroom
+        FeedbackSettingsController controller = new TestController();
+
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.step(false, true));
+        assertEquals(FeedbackSettingsController.Decision.RAISE, controller.step(false, true));
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.step(false, true));
+        assertEquals(FeedbackSettingsController.Decision.CUT, controller.step(true, false));
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.step(false, true));
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.step(false, false));
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.step(false, true));
+        assertEquals(FeedbackSettingsController.Decision.RAISE, controller.step(false, true));
+        assertEquals(FeedbackSettingsController.Decision.RAISE, controller.getLastDecision());
+    }
+
+    @Test
+    public void testAnyDegradedNodeOverloads() {
+        FakeConfiguration config = new FakeConfiguration();
+        DataNodeSignals.NodeSignals fast = node("node_1", 20, 30, 10);
+        DataNodeSignals.NodeSignals slow = node("node_2", 120, 0, 10);
+        DataNodeSignals.NodeSignals aboveHistory = node("node_3", 80, 60, 10);
+        DataNodeSignals.NodeSignals withinMargin = node("node_4", 70, 60, 10);
+        DataNodeSignals.NodeSignals fastAboveHistory = node("node_5", 40, 20, 10);
+
+        assertFalse(FeedbackSettingsController.isOverloaded(config, Collections.singletonList(fast)));
+        assertTrue(FeedbackSettingsController.isOverloaded(config, Arrays.asList(fast, slow)));
+        assertTrue(FeedbackSettingsController.isOverloaded(config, Arrays.asList(fast, aboveHistory)));
+        // Close to its history, or above it but still below the low threshold, is no degradation
+        assertFalse(FeedbackSettingsController.isOverloaded(config, Arrays.asList(fast, withinMargin)));
+        assertFalse(FeedbackSettingsController.isOverloaded(config, Arrays.asList(fast, fastAboveHistory)));
+        // Any node running out of disk space
+        assertTrue(FeedbackSettingsController.isOverloaded(config, Arrays.asList(fast, node("node_6", 20, 30, 90))));
+
+        assertTrue(FeedbackSettingsController.hasHeadroom(config, Arrays.asList(fast, fastAboveHistory)));
+        assertFalse(FeedbackSettingsController.hasHeadroom(config, Arrays.asList(fast, slow)));
+        assertFalse(FeedbackSettingsController.hasHeadroom(config, Arrays.asList(fast, node("node_6", 20, 30, 70))));
+        assertFalse(FeedbackSettingsController.hasHeadroom(config, Collections.<DataNodeSignals.NodeSignals>emptyList()));
+    }
+
+    @Test
+    public void testRecoveringNodes() {
+        Map<String, DataNodeSignals.NodeSignals> nodeSignals = new LinkedHashMap<>();
+        nodeSignals.put("node_1", node("node_1", 20, 0, 10));
+        nodeSignals.put("node_2", node("node_2", 120, 0, 10));
+        nodeSignals.put("node_3", node("node_3", 30, 0, 10));
+
+        Collection<DataNodeSignals.NodeSignals> watched = RecoveryThrottleController.recoveringNodes(nodeSignals,
+                new HashSet<>(Arrays.asList("node_1", "node_3", "node_4")));
+        assertEquals(2, watched.size());
+        assertFalse(FeedbackSettingsController.isOverloaded(new FakeConfiguration(), watched));
+
+        // Unknown recovering nodes, watch them all
+        assertEquals(3, RecoveryThrottleController.recoveringNodes(nodeSignals, Collections.singleton("node_4")).size());
+    }
+
+    private static DataNodeSignals.NodeSignals node(String nodeId, double queryLatencyInMillis, double queryLatency99InMillis,
+                                                    double diskUsedPercent) {
+        return new DataNodeSignals.NodeSignals(nodeId, queryLatencyInMillis, queryLatency99InMillis, 0, 0, diskUsedPercent);
+    }
+
+    private static class TestController extends FeedbackSettingsController {
+        TestController() {
+            super(new FakeConfiguration(), null, null);
+        }
+
+        @Override
+        protected boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        protected boolean isActive() {
+            return true;
+        }
+
+        @Override
+        protected List<ControlledSetting> getControlledSettings() {
+            return Collections.singletonList(BANDWIDTH);
+        }
+
+        @Override
+        public String getName() {
+            return "TestController";
+        }
+    }
+}
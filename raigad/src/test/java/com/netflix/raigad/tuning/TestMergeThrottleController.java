@@ -0,0 +1,103 @@
+package com.netflix.raigad.tuning;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import com.netflix.raigad.monitoring.DataNodeSignals;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServerFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestMergeThrottleController {
+    private final Map<String, DataNodeSignals.NodeSignals> nodeSignals = new LinkedHashMap<>();
+    private MergeThrottleController controller;
+
+    @Before
+    public void setup() {
+        controller = new MergeThrottleController(new FakeConfiguration(), MBeanServerFactory.newMBeanServer()) {
+            @Override
+            protected Map<String, DataNodeSignals.NodeSignals> getNodeSignals() {
+                return nodeSignals;
+            }
+        };
+    }
+
+    @Test
+    public void testMergePressureOnAnyNode() {
+        FakeConfiguration config = new FakeConfiguration();
+        DataNodeSignals.NodeSignals idle = node("node_1", 20, 0, 2);
+
+        assertFalse(MergeThrottleController.isMergePressure(config, Arrays.asList(idle, node("node_2", 20, 0, 9))));
+        assertTrue(MergeThrottleController.isMergePressure(config, Arrays.asList(idle, node("node_2", 20, 0.1, 0))));
+        assertTrue(MergeThrottleController.isMergePressure(config, Arrays.asList(idle, node("node_2", 20, 0, 10))));
+    }
+
+    @Test
+    public void testActiveUntilIdleRuns() {
+        put(node("node_1", 20, 0, 0));
+        assertFalse(controller.isActive());
+
+        put(node("node_2", 20, 0.2, 0));
+        assertTrue(controller.isActive());
+
+        nodeSignals.remove("node_2");
+        for (int i = 1; i < MergeThrottleController.IDLE_RUNS; i++) {
+            assertTrue(controller.isActive());
+        }
+        assertFalse(controller.isActive());
+    }
+
+    @Test
+    public void testDecide() {
+        put(node("node_1", 20, 0, 0));
+        put(node("node_2", 20, 0, 12));
+
+        // Raises after 2 runs with merge pressure and headroom on every node
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.decide());
+        assertEquals(FeedbackSettingsController.Decision.RAISE, controller.decide());
+
+        // One slow node cuts, even if merges keep falling behind
+        put(node("node_1", 150, 0, 0));
+        assertEquals(FeedbackSettingsController.Decision.CUT, controller.decide());
+
+        // No merge pressure, no raise
+        put(node("node_1", 20, 0, 0));
+        put(node("node_2", 20, 0, 0));
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.decide());
+        assertEquals(FeedbackSettingsController.Decision.HOLD, controller.decide());
+
+        // A nearly full disk cuts
+        put(new DataNodeSignals.NodeSignals("node_2", 20, 0, 0, 0, 90));
+        assertEquals(FeedbackSettingsController.Decision.CUT, controller.decide());
+    }
+
+    @Test
+    public void testStoreThrottleType() {
+        assertTrue(controller.getRequiredClusterSettings().isEmpty());
+
+        MergeThrottleController storeThrottleController = new MergeThrottleController(new FakeConfiguration() {
+            @Override
+            public boolean isMergeControllerStoreThrottleEnabled() {
+                return true;
+            }
+        }, MBeanServerFactory.newMBeanServer());
+        // The bandwidth has no effect with the default type of none
+        assertEquals(MergeThrottleController.STORE_THROTTLE_TYPE_MERGE,
+                storeThrottleController.getRequiredClusterSettings().get(MergeThrottleController.STORE_THROTTLE_TYPE));
+    }
+
+    private void put(DataNodeSignals.NodeSignals node) {
+        nodeSignals.put(node.getNodeId(), node);
+    }
+
+    private static DataNodeSignals.NodeSignals node(String nodeId, double queryLatencyInMillis, double indexingThrottleRatio,
+                                                    long mergesCurrent) {
+        return new DataNodeSignals.NodeSignals(nodeId, queryLatencyInMillis, 0, indexingThrottleRatio, mergesCurrent, 10);
+    }
+}
@@ -0,0 +1,102 @@
+package com.netflix.raigad.tuning;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.elasticsearch.cluster.settings.DynamicSettings;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import javax.management.MBeanServerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestSettingsReconciler {
+
+    @Test
+    public void testParseSettings() {
+        Map<String, String> settings = SettingsReconciler.parseSettings(" refresh_interval=30s, index.translog.durability = async,broken", "index.");
+        assertEquals(2, settings.size());
+        assertEquals("30s", settings.get("index.refresh_interval"));
+        assertEquals("async", settings.get("index.translog.durability"));
+
+        assertTrue(SettingsReconciler.parseSettings("", null).isEmpty());
+    }
+
+    @Test
+    public void testDiffClusterSettings() {
+        Map<String, String> desired = new LinkedHashMap<>();
+        desired.put("indices.recovery.max_bytes_per_sec", "100mb");
+        desired.put("threadpool.bulk.queue_size", "500");
+        desired.put("cluster.routing.allocation.node_concurrent_recoveries", "4");
+
+        Settings persistentSettings = Settings.settingsBuilder()
+                .put("indices.recovery.max_bytes_per_sec", "100MB")
+                .put("threadpool.bulk.queue_size", "50")
+                .build();
+        Settings transientSettings = Settings.settingsBuilder()
+                .put("cluster.routing.allocation.node_concurrent_recoveries", "2")
+                .build();
+
+        List<SettingsReconciler.SettingChange> changes = SettingsReconciler.diffClusterSettings(desired, persistentSettings, transientSettings);
+        assertEquals(3, changes.size());
+
+        assertEquals(SettingsReconciler.SettingChange.Scope.PERSISTENT, changes.get(0).getScope());
+        assertEquals("threadpool.bulk.queue_size", changes.get(0).getKey());
+        assertEquals("50", changes.get(0).getLiveValue());
+
+        assertEquals(SettingsReconciler.SettingChange.Scope.PERSISTENT, changes.get(1).getScope());
+        assertNull(changes.get(1).getLiveValue());
+        assertEquals(SettingsReconciler.SettingChange.Scope.TRANSIENT, changes.get(2).getScope());
+        assertEquals("4", changes.get(2).getDesiredValue());
+    }
+
+    @Test
+    public void testDiffIndexSettings() {
+        Map<String, String> desired = new LinkedHashMap<>();
+        desired.put("index.refresh_interval", "30s");
+
+        ImmutableOpenMap<String, Settings> live = ImmutableOpenMap.<String, Settings>builder()
+                .fPut("logs-1", Settings.settingsBuilder().put("index.refresh_interval", "30s").build())
+                .fPut("logs-2", Settings.settingsBuilder().put("index.refresh_interval", "1s").build())
+                .build();
+
+        List<SettingsReconciler.SettingChange> changes = SettingsReconciler.diffIndexSettings(desired, live);
+        assertEquals(1, changes.size());
+        assertEquals("logs-2", changes.get(0).getTarget());
+        assertEquals(SettingsReconciler.SettingChange.Scope.INDEX, changes.get(0).getScope());
+    }
+
+    @Test
+    public void testDesiredIndexSettingsAreDynamic() throws Exception {
+        DynamicSettings indexDynamicSettings = TestTuningProfile.dynamicSettings("indexDynamicSettings");
+
+        for (final TuningProfile profile : TuningProfile.values()) {
+            FakeConfiguration config = new FakeConfiguration() {
+                @Override
+                public String getTuningProfile() {
+                    return profile.getProfileName();
+                }
+
+                @Override
+                public String getDynamicIndexSettings() {
+                    return "translog.sync_interval=10s,translog.durability=async";
+                }
+            };
+            SettingsReconciler reconciler = new SettingsReconciler(config, null, new TuningProfileManager(config),
+                    MBeanServerFactory.newMBeanServer());
+
+            Map<String, String> desired = reconciler.getDesiredIndexSettings();
+            assertFalse(desired.containsKey(TuningProfile.INDEX_TRANSLOG_SYNC_INTERVAL));
+            assertEquals("async", desired.get("index.translog.durability"));
+            for (String key : desired.keySet()) {
+                assertTrue(key + " is not a dynamic index setting", indexDynamicSettings.hasDynamicSetting(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.netflix.raigad.tuning;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.elasticsearch.cluster.ClusterModule;
+import org.elasticsearch.cluster.settings.DynamicSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestTuningProfile {
+
+    @Test
+    public void testFromName() {
+        assertNull(TuningProfile.fromName(null));
+        assertNull(TuningProfile.fromName(" "));
+        assertEquals(TuningProfile.BULK_INGEST, TuningProfile.fromName("bulk-ingest"));
+        assertEquals(TuningProfile.SEARCH_LATENCY, TuningProfile.fromName("SEARCH_LATENCY"));
+        assertEquals(TuningProfile.BALANCED, TuningProfile.fromName(" Balanced "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownName() {
+        TuningProfile.fromName("fastest");
+    }
+
+    @Test
+    public void testProfileSettings() {
+        assertEquals("30s", TuningProfile.BULK_INGEST.getIndexSettings().get(TuningProfile.INDEX_REFRESH_INTERVAL));
+        assertEquals("async", TuningProfile.BULK_INGEST.getIndexSettings().get(TuningProfile.INDEX_TRANSLOG_DURABILITY));
+        assertEquals("request", TuningProfile.SEARCH_LATENCY.getIndexSettings().get(TuningProfile.INDEX_TRANSLOG_DURABILITY));
+        assertTrue(TuningProfile.BULK_INGEST.isBulkLoad());
+        assertFalse(TuningProfile.SEARCH_LATENCY.isBulkLoad());
+
+        for (TuningProfile profile : TuningProfile.values()) {
+            assertEquals(profile.getIndexSettings().keySet(), TuningProfile.BALANCED.getIndexSettings().keySet());
+            assertEquals(profile.getThreadPoolSettings().keySet(), TuningProfile.BALANCED.getThreadPoolSettings().keySet());
+        }
+    }
+
+    @Test
+    public void testSwitchSendsDynamicSettingsOnly() throws Exception {
+        DynamicSettings indexDynamicSettings = dynamicSettings("indexDynamicSettings");
+        DynamicSettings clusterDynamicSettings = dynamicSettings("clusterDynamicSettings");
+        FakeConfiguration config = new FakeConfiguration();
+
+        for (TuningProfile profile : TuningProfile.values()) {
+            for (TuningProfile previousProfile : TuningProfile.values()) {
+                Map<String, String> liveSettings = TuningProfileManager.liveIndexSettings(config, profile, previousProfile);
+                for (String key : liveSettings.keySet()) {
+                    assertTrue(key + " is not a dynamic index setting", indexDynamicSettings.hasDynamicSetting(key));
+                }
+                // Static settings still go to the template
+                assertEquals(profile.getIndexSettings().get(TuningProfile.INDEX_TRANSLOG_SYNC_INTERVAL),
+                        TuningProfileManager.templateSettings(config, profile, previousProfile).get(TuningProfile.INDEX_TRANSLOG_SYNC_INTERVAL));
+            }
+            assertFalse(profile.getDynamicIndexSettings().containsKey(TuningProfile.INDEX_TRANSLOG_SYNC_INTERVAL));
+
+            for (String key : profile.getThreadPoolSettings().keySet()) {
+                assertTrue(key + " is not a dynamic cluster setting", clusterDynamicSettings.hasDynamicSetting(key));
+            }
+        }
+
+        for (String key : TuningProfile.STATIC_INDEX_SETTINGS) {
+            assertFalse(key + " is a dynamic index setting", indexDynamicSettings.hasDynamicSetting(key));
+        }
+    }
+
+    /**
+     * @return settings Elasticsearch accepts updates of, "indexDynamicSettings" or "clusterDynamicSettings"
+     */
+    static DynamicSettings dynamicSettings(String name) throws Exception {
+        // Elasticsearch only keeps the list in the cluster module
+        Field field = ClusterModule.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return ((DynamicSettings.Builder) field.get(new ClusterModule(Settings.EMPTY))).build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.netflix.raigad.utils;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestConnectionCircuitBreaker {
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        FakeTicker ticker = new FakeTicker();
+        ConnectionCircuitBreaker breaker = new ConnectionCircuitBreaker(3, 1000, ticker);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+        assertEquals(ConnectionCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(ConnectionCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.getTimesOpened());
+    }
+
+    @Test
+    public void testHalfOpenTrial() {
+        FakeTicker ticker = new FakeTicker();
+        ConnectionCircuitBreaker breaker = new ConnectionCircuitBreaker(1, 1000, ticker);
+        breaker.recordFailure();
+
+        ticker.advance(999);
+        assertFalse(breaker.allowRequest());
+
+        // One trial call after the open period, the others keep failing fast
+        ticker.advance(1);
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(ConnectionCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // A failed trial opens the circuit for another period
+        breaker.recordFailure();
+        assertFalse(breaker.allowRequest());
+        ticker.advance(1000);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(ConnectionCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertEquals(2, breaker.getTimesOpened());
+    }
+
+    @Test
+    public void testStuckTrialIsRetried() {
+        FakeTicker ticker = new FakeTicker();
+        ConnectionCircuitBreaker breaker = new ConnectionCircuitBreaker(1, 1000, ticker);
+        breaker.recordFailure();
+        ticker.advance(1000);
+        assertTrue(breaker.allowRequest());
+
+        ticker.advance(1000);
+        assertTrue(breaker.allowRequest());
+    }
+}
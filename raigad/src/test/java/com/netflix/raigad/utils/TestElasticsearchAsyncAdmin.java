@@ -0,0 +1,112 @@
+package com.netflix.raigad.utils;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsAction;
+import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsRequestBuilder;
+import org.elasticsearch.action.admin.indices.exists.indices.IndicesExistsResponse;
+import org.elasticsearch.client.ElasticsearchClient;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestElasticsearchAsyncAdmin {
+    private ElasticsearchAsyncAdmin asyncAdmin;
+    private ActionListener<IndicesExistsResponse> listener;
+    private ElasticsearchClient client;
+
+    @Before
+    public void setup() {
+        asyncAdmin = new ElasticsearchAsyncAdmin(new FakeConfiguration() {
+            @Override
+            public long getTransportClientCallTimeoutInMillis() {
+                return 200L;
+            }
+        });
+
+        // Client that keeps the listener and never answers on its own
+        client = (ElasticsearchClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ElasticsearchClient.class},
+                new InvocationHandler() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("execute") && args.length == 3) {
+                            listener = (ActionListener<IndicesExistsResponse>) args[2];
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        CompletableFuture<IndicesExistsResponse> future = asyncAdmin.execute(new IndicesExistsRequestBuilder(client, IndicesExistsAction.INSTANCE, "index"));
+        assertFalse(future.isDone());
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Call without response should time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ElasticsearchTimeoutException);
+        }
+
+        // A late response does not change the outcome
+        listener.onResponse(new IndicesExistsResponse(true));
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testResponseCancelsDeadline() throws Exception {
+        int pendingDeadlines = ElasticsearchAsyncAdmin.pendingDeadlines();
+        CompletableFuture<IndicesExistsResponse> future = asyncAdmin.execute(new IndicesExistsRequestBuilder(client, IndicesExistsAction.INSTANCE, "index"));
+        assertEquals(pendingDeadlines + 1, ElasticsearchAsyncAdmin.pendingDeadlines());
+
+        IndicesExistsResponse response = new IndicesExistsResponse(true);
+        listener.onResponse(response);
+
+        assertSame(response, future.get());
+        assertEquals(pendingDeadlines, ElasticsearchAsyncAdmin.pendingDeadlines());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        CompletableFuture<IndicesExistsResponse> future = asyncAdmin.execute(new IndicesExistsRequestBuilder(client, IndicesExistsAction.INSTANCE, "index"));
+        IllegalStateException failure = new IllegalStateException("failed");
+        listener.onFailure(failure);
+
+        try {
+            future.get();
+            fail("Failed call should fail the future");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    public void testNoClient() {
+        // Elasticsearch is not running in tests, so there is no client to connect
+        CompletableFuture<Boolean> future = asyncAdmin.indicesExist("index");
+        assertTrue(future.isDone());
+        assertTrue(future.isCompletedExceptionally());
+
+        try {
+            future.join();
+            fail("Call without client should fail");
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof ElasticsearchTransportClientConnectionException);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.netflix.raigad.utils;
+
+import com.netflix.raigad.configuration.FakeConfiguration;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestTribeUtils {
+    private File directory;
+    private File yamlFile;
+    private TribeUtils tribeUtils;
+
+    @Before
+    public void setup() throws IOException {
+        directory = new File(System.getProperty("java.io.tmpdir"), "tribe-utils-" + System.nanoTime());
+        directory.mkdirs();
+        yamlFile = new File(directory, "elasticsearch.yml");
+        FileUtils.writeStringToFile(yamlFile, "tribe.t0.cluster.name: es_tribe\ntribe.t1.cluster.name: es_source\n");
+
+        tribeUtils = new TribeUtils(new FakeConfiguration() {
+            @Override
+            public String getYamlLocation() {
+                return yamlFile.getPath();
+            }
+        });
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testTribeClusterNames() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("tribe.t1.cluster.name", "es_source");
+        settings.put("tribe.t1.transport.tcp.port", 8000);
+        settings.put("cluster.name", "es_tribe");
+
+        Map<String, String> clusterNames = TribeUtils.getTribeClusterNames(settings);
+        assertEquals(1, clusterNames.size());
+        assertEquals("es_source", clusterNames.get("t1"));
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        assertEquals("es_tribe", tribeUtils.getTribeClusterNameFromId("t0"));
+        assertEquals("es_source", tribeUtils.getTribeClusterNameFromId("t1"));
+        assertNull(tribeUtils.getTribeClusterNameFromId("t2"));
+    }
+
+    @Test
+    public void testReloadOnChange() throws Exception {
+        assertEquals("es_source", tribeUtils.getTribeClusterNameFromId("t1"));
+
+        FileUtils.writeStringToFile(yamlFile, "tribe.t1.cluster.name: es_other\n");
+        yamlFile.setLastModified(yamlFile.lastModified() + 2000);
+
+        String clusterName = null;
+        for (int i = 0; i < 50 && !"es_other".equals(clusterName); i++) {
+            Thread.sleep(100);
+            clusterName = tribeUtils.getTribeClusterNameFromId("t1");
+        }
+        assertEquals("es_other", clusterName);
+    }
+}